@@ -1,8 +1,13 @@
+-- Trigram matching for the user lookup autocomplete
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
 DROP TABLE IF EXISTS priorities;
 CREATE TABLE priorities (
     id SERIAL PRIMARY KEY,
     level VARCHAR(25) NOT NULL UNIQUE,
-    status VARCHAR(25) NOT NULL DEFAULT 'active'
+    status VARCHAR(25) NOT NULL DEFAULT 'active',
+    -- Rank for sorting bugs by priority, lowest first
+    sort_order INTEGER NOT NULL DEFAULT 0
 );
 
 DROP TABLE IF EXISTS user_roles;
@@ -24,11 +29,18 @@ CREATE TABLE users (
     CONSTRAINT fk_role FOREIGN KEY (role_id) REFERENCES user_roles(id)
 );
 
+-- User lookup: substring and fuzzy matching over name and email, active users only
+CREATE INDEX idx_users_lookup_trgm ON users
+    USING GIN (lower(first_name || ' ' || last_name || ' ' || email) gin_trgm_ops)
+    WHERE status = 'active';
+
 DROP TABLE IF EXISTS statuses;
 CREATE TABLE statuses (
     id SERIAL PRIMARY KEY,
     status_label VARCHAR(25) NOT NULL UNIQUE,
-    status VARCHAR(25) NOT NULL DEFAULT 'active'
+    status VARCHAR(25) NOT NULL DEFAULT 'active',
+    -- Rank for sorting bugs by status, lowest first
+    sort_order INTEGER NOT NULL DEFAULT 0
 );
 
 DROP TABLE IF EXISTS bugs;
@@ -39,10 +51,98 @@ CREATE TABLE bugs (
     priority_id INTEGER NOT NULL,
     status_id integer NOT NULL,
     assignee_user_id INTEGER,
-    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
     created_by_user_id INTEGER NOT NULL,
+    -- Full-text document kept in sync by Postgres; title matches outrank description matches
+    search_vector tsvector GENERATED ALWAYS AS (
+        setweight(to_tsvector('english', coalesce(title, '')), 'A') ||
+        setweight(to_tsvector('english', coalesce(description, '')), 'B')
+    ) STORED,
     CONSTRAINT fk_priority FOREIGN KEY (priority_id) REFERENCES priorities(id),
     CONSTRAINT fk_assignee FOREIGN KEY (assignee_user_id) REFERENCES users(id),
     CONSTRAINT fk_status FOREIGN KEY (status_id) REFERENCES statuses(id),
     CONSTRAINT fk_creator FOREIGN KEY (created_by_user_id) REFERENCES users(id)
-);
\ No newline at end of file
+);
+
+-- Must match allocationSize on Bug.id: Hibernate hands out ids from blocks of 50 so inserts can be batched.
+-- The bulk importer takes whole blocks the same way, so inserts that leave out id use up a block per row.
+ALTER SEQUENCE bugs_id_seq INCREMENT BY 50;
+
+-- Keyset pagination over (created_at, id), newest first
+CREATE INDEX idx_bugs_created_at_id ON bugs (created_at DESC, id DESC);
+
+-- Filtered listings: equality columns first, then the default (created_at, id) order
+CREATE INDEX idx_bugs_status_priority_created ON bugs (status_id, priority_id, created_at DESC, id DESC);
+CREATE INDEX idx_bugs_assignee_status_created ON bugs (assignee_user_id, status_id, created_at DESC, id DESC);
+CREATE INDEX idx_bugs_created_by_created ON bugs (created_by_user_id, created_at DESC, id DESC);
+CREATE INDEX idx_bugs_priority_created ON bugs (priority_id, created_at DESC, id DESC);
+
+-- Full-text search over title and description
+CREATE INDEX idx_bugs_search_vector ON bugs USING GIN (search_vector);
+
+-- Transactional outbox: one row per bug or user change, written in the change's transaction. The relay
+-- records each sink separately (published_at for the exchange, streamed_at for the bug event log stream)
+-- and deletes a row once every sink it goes to has confirmed it.
+DROP TABLE IF EXISTS outbox_events;
+CREATE TABLE outbox_events (
+    id BIGSERIAL PRIMARY KEY,
+    aggregate_type VARCHAR(50) NOT NULL,
+    aggregate_id BIGINT,
+    event_type VARCHAR(50) NOT NULL,
+    payload TEXT NOT NULL,
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    published_at TIMESTAMP,
+    streamed_at TIMESTAMP
+);
+CREATE INDEX idx_outbox_events_unpublished ON outbox_events (id) WHERE published_at IS NULL;
+CREATE INDEX idx_outbox_events_unstreamed ON outbox_events (id) WHERE aggregate_type = 'bug' AND streamed_at IS NULL;
+
+-- Per-field change history of bug updates, partitioned by month so old months can be detached
+-- (ALTER TABLE bug_history DETACH PARTITION bug_history_yyyy_mm CONCURRENTLY) and archived without
+-- deleting rows. Partitions are created ahead of time by the backend (BugHistoryPartitions).
+-- The primary key must include the partition key; bug_id has no foreign key so history outlives its bug.
+DROP TABLE IF EXISTS bug_history;
+CREATE TABLE bug_history (
+    id BIGSERIAL,
+    bug_id INTEGER NOT NULL,
+    field_name VARCHAR(50) NOT NULL,
+    old_value VARCHAR(4000),
+    new_value VARCHAR(4000),
+    changed_by VARCHAR(255),
+    changed_at TIMESTAMP NOT NULL,
+    PRIMARY KEY (id, changed_at)
+) PARTITION BY RANGE (changed_at);
+
+-- Must match allocationSize on BugHistory.id so the batched history writer gets ids in blocks
+ALTER SEQUENCE bug_history_id_seq INCREMENT BY 50;
+
+-- One bug's timeline in order; created on every partition
+CREATE INDEX idx_bug_history_bug_changed ON bug_history (bug_id, changed_at, id);
+
+-- HTTP sessions shared by all backend instances (Spring Session JDBC schema).
+-- Expired rows are deleted by the backend on spring.session.jdbc.cleanup-cron.
+DROP TABLE IF EXISTS spring_session_attributes;
+DROP TABLE IF EXISTS spring_session;
+CREATE TABLE spring_session (
+    primary_id CHAR(36) NOT NULL,
+    session_id CHAR(36) NOT NULL,
+    creation_time BIGINT NOT NULL,
+    last_access_time BIGINT NOT NULL,
+    max_inactive_interval INT NOT NULL,
+    expiry_time BIGINT NOT NULL,
+    principal_name VARCHAR(100),
+    CONSTRAINT spring_session_pk PRIMARY KEY (primary_id)
+);
+
+CREATE UNIQUE INDEX spring_session_ix1 ON spring_session (session_id);
+CREATE INDEX spring_session_ix2 ON spring_session (expiry_time);
+CREATE INDEX spring_session_ix3 ON spring_session (principal_name);
+
+CREATE TABLE spring_session_attributes (
+    session_primary_id CHAR(36) NOT NULL,
+    attribute_name VARCHAR(200) NOT NULL,
+    attribute_bytes BYTEA NOT NULL,
+    CONSTRAINT spring_session_attributes_pk PRIMARY KEY (session_primary_id, attribute_name),
+    CONSTRAINT spring_session_attributes_fk FOREIGN KEY (session_primary_id)
+        REFERENCES spring_session (primary_id) ON DELETE CASCADE
+);
@@ -8,13 +8,13 @@ VALUES
 ,('fake@email.com', 'Jayme', 'Mead', '$2a$10$ipi/FA2Bqq0Y69rl8T.IneoOT7wA7TNycWjamZ55PFKZiUxS0CoEK',2)
 ON CONFLICT DO NOTHING;
 
-INSERT INTO priorities (level)
+INSERT INTO priorities (level, sort_order)
 VALUES
-('low'), ('medium'), ('high');
+('low', 1), ('medium', 2), ('high', 3);
 
-INSERT INTO statuses (status_label)
+INSERT INTO statuses (status_label, sort_order)
 VALUES
-('open'), ('closed');
+('open', 1), ('closed', 2);
 
 INSERT INTO bugs (title, description, priority_id, status_id, assignee_user_id, created_by_user_id)
 VALUES
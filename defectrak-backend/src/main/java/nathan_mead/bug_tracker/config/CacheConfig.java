@@ -0,0 +1,16 @@
+package nathan_mead.bug_tracker.config;
+
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.context.annotation.Configuration;
+
+// Caches are Caffeine-backed; size, TTL and stats recording come from spring.cache.caffeine.spec
+@Configuration
+@EnableCaching
+public class CacheConfig {
+    public static final String PRIORITIES = "priorities";
+    public static final String ACTIVE_PRIORITIES = "activePriorities";
+    public static final String STATUSES = "statuses";
+    public static final String ACTIVE_STATUSES = "activeStatuses";
+    public static final String USER_ROLES = "userRoles";
+    public static final String ACTIVE_USER_ROLES = "activeUserRoles";
+}
@@ -0,0 +1,218 @@
+package nathan_mead.bug_tracker.config;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.session.FindByIndexNameSessionRepository;
+import org.springframework.session.MapSession;
+import org.springframework.session.Session;
+import org.springframework.session.SessionRepository;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+// Fronts a shared session store with a short-lived local copy of each session.
+// Most requests only read the session and bump its last-access time; those are served from the local copy and the
+// access time is written back at most once per touch interval. On save, only the attributes set or removed during the
+// request are applied to the stored session, so concurrent requests changing different attributes do not overwrite
+// each other. A change made on another instance can be missed here for up to the cache TTL.
+// Index lookups (sessions by principal name) always go to the store, and are only supported when the store has them.
+public class CachingSessionRepository<S extends Session>
+        implements FindByIndexNameSessionRepository<CachingSessionRepository<S>.CachedSession> {
+
+    private final SessionRepository<S> delegate;
+    private final Duration touchInterval;
+    // Sessions as last read from or written to the store; never handed out directly
+    private final Cache<String, MapSession> cache;
+
+    public CachingSessionRepository(SessionRepository<S> delegate, Duration cacheTtl, long cacheSize,
+                                    Duration touchInterval) {
+        this.delegate = delegate;
+        this.touchInterval = touchInterval;
+        this.cache = Caffeine.newBuilder()
+                .expireAfterWrite(cacheTtl)
+                .maximumSize(cacheSize)
+                .build();
+    }
+
+    @Override
+    public CachedSession createSession() {
+        S stored = delegate.createSession();
+        return new CachedSession(new MapSession(stored), null, stored);
+    }
+
+    @Override
+    public void save(CachedSession session) {
+        if (!session.needsWrite()) {
+            return;
+        }
+        S stored = session.stored != null ? session.stored : delegate.findById(session.storedId);
+        if (stored == null) {
+            // Expired or deleted elsewhere since it was read; nothing left to update
+            cache.invalidate(session.storedId);
+            return;
+        }
+
+        for (String name : session.changedAttributes) {
+            stored.setAttribute(name, session.state.getAttribute(name));
+        }
+        if (session.maxInactiveIntervalChanged) {
+            stored.setMaxInactiveInterval(session.state.getMaxInactiveInterval());
+        }
+        stored.setLastAccessedTime(session.state.getLastAccessedTime());
+        delegate.save(stored);
+
+        if (session.storedId != null && !session.storedId.equals(stored.getId())) {
+            cache.invalidate(session.storedId);
+        }
+        cache.put(stored.getId(), new MapSession(stored));
+        session.markSaved(stored);
+    }
+
+    @Override
+    public CachedSession findById(String id) {
+        MapSession snapshot = cache.getIfPresent(id);
+        if (snapshot == null) {
+            S stored = delegate.findById(id);
+            if (stored == null) {
+                return null;
+            }
+            snapshot = new MapSession(stored);
+            cache.put(id, snapshot);
+        }
+        if (snapshot.isExpired()) {
+            deleteById(id);
+            return null;
+        }
+        return new CachedSession(new MapSession(snapshot), snapshot.getLastAccessedTime(), null);
+    }
+
+    // The returned sessions hold their stored copy, so saving one always writes it
+    @Override
+    @SuppressWarnings("unchecked")
+    public Map<String, CachedSession> findByIndexNameAndIndexValue(String indexName, String indexValue) {
+        if (!(delegate instanceof FindByIndexNameSessionRepository<?> indexed)) {
+            throw new UnsupportedOperationException("The session store does not support index lookups");
+        }
+        Map<String, CachedSession> found = new HashMap<>();
+        ((FindByIndexNameSessionRepository<S>) indexed).findByIndexNameAndIndexValue(indexName, indexValue)
+                .forEach((id, stored) -> found.put(id,
+                        new CachedSession(new MapSession(stored), stored.getLastAccessedTime(), stored)));
+        return found;
+    }
+
+    @Override
+    public void deleteById(String id) {
+        cache.invalidate(id);
+        delegate.deleteById(id);
+    }
+
+    // One request's view of a session. Reads and writes go to a private copy; the changes are tracked so save()
+    // can apply just those to the stored session.
+    public class CachedSession implements Session {
+        private final MapSession state;
+        private final Set<String> changedAttributes = new HashSet<>();
+        private boolean maxInactiveIntervalChanged;
+        private String storedId;                  // Null until a new session is first saved
+        private Instant storedLastAccessedTime;   // Null until a new session is first saved
+        private S stored;                         // Loaded only when the store must be written
+
+        private CachedSession(MapSession state, Instant storedLastAccessedTime, S stored) {
+            this.state = state;
+            this.storedLastAccessedTime = storedLastAccessedTime;
+            this.stored = stored;
+            this.storedId = storedLastAccessedTime == null ? null : state.getId();
+        }
+
+        @Override
+        public String getId() {
+            return state.getId();
+        }
+
+        // Session ids are generated by the store, so the stored session is loaded here rather than at save
+        @Override
+        public String changeSessionId() {
+            if (stored == null) {
+                stored = delegate.findById(storedId);
+                if (stored == null) {
+                    throw new IllegalStateException("Session " + storedId + " no longer exists");
+                }
+            }
+            String newId = stored.changeSessionId();
+            state.setId(newId);
+            return newId;
+        }
+
+        @Override
+        public <T> T getAttribute(String attributeName) {
+            return state.getAttribute(attributeName);
+        }
+
+        @Override
+        public Set<String> getAttributeNames() {
+            return state.getAttributeNames();
+        }
+
+        @Override
+        public void setAttribute(String attributeName, Object attributeValue) {
+            state.setAttribute(attributeName, attributeValue);
+            changedAttributes.add(attributeName);
+        }
+
+        @Override
+        public void removeAttribute(String attributeName) {
+            state.removeAttribute(attributeName);
+            changedAttributes.add(attributeName);
+        }
+
+        @Override
+        public Instant getCreationTime() {
+            return state.getCreationTime();
+        }
+
+        @Override
+        public void setLastAccessedTime(Instant lastAccessedTime) {
+            state.setLastAccessedTime(lastAccessedTime);
+        }
+
+        @Override
+        public Instant getLastAccessedTime() {
+            return state.getLastAccessedTime();
+        }
+
+        @Override
+        public void setMaxInactiveInterval(Duration interval) {
+            state.setMaxInactiveInterval(interval);
+            maxInactiveIntervalChanged = true;
+        }
+
+        @Override
+        public Duration getMaxInactiveInterval() {
+            return state.getMaxInactiveInterval();
+        }
+
+        @Override
+        public boolean isExpired() {
+            return state.isExpired();
+        }
+
+        private boolean needsWrite() {
+            return stored != null
+                    || !changedAttributes.isEmpty()
+                    || maxInactiveIntervalChanged
+                    || !Duration.between(storedLastAccessedTime, state.getLastAccessedTime()).minus(touchInterval)
+                            .isNegative();
+        }
+
+        private void markSaved(S saved) {
+            storedId = saved.getId();
+            storedLastAccessedTime = state.getLastAccessedTime();
+            changedAttributes.clear();
+            maxInactiveIntervalChanged = false;
+            stored = null;
+        }
+    }
+}
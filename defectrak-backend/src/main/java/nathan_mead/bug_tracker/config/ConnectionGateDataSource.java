@@ -0,0 +1,135 @@
+package nathan_mead.bug_tracker.config;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+// Admits at most as many connection holders as the pool has connections. With virtual threads there is no worker
+// pool capping concurrency, so thousands of requests can reach the DataSource at once; this gate queues them
+// fairly in front of the pool, with its own timeout, instead of letting them all contend inside Hikari.
+// A permit is taken when a connection is handed out and returned when it is closed.
+// Waiting here replaces waiting in Hikari, so the wait is published as defectrak.datasource.gate.wait alongside
+// hikaricp.connections.acquire, tagged with the DataSource bean name.
+public class ConnectionGateDataSource extends DelegatingDataSource implements MeterBinder {
+
+    private final Semaphore permits;
+    private final int maxConnections;
+    private final Duration timeout;
+    private final String name;
+
+    private volatile Timer waitTimer; // Null until bound to a registry
+
+    public ConnectionGateDataSource(DataSource target, int maxConnections, Duration timeout, String name) {
+        super(target);
+        this.permits = new Semaphore(maxConnections, true);
+        this.maxConnections = maxConnections;
+        this.timeout = timeout;
+        this.name = name;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        acquire();
+        try {
+            return gated(super.getConnection());
+        } catch (SQLException | RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        acquire();
+        try {
+            return gated(super.getConnection(username, password));
+        } catch (SQLException | RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    public int getAvailablePermits() {
+        return permits.availablePermits();
+    }
+
+    public int getQueueLength() {
+        return permits.getQueueLength();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        waitTimer = Timer.builder("defectrak.datasource.gate.wait")
+                .description("Time spent waiting at the connection gate, including timeouts")
+                .tag("name", name)
+                .register(registry);
+        Gauge.builder("defectrak.datasource.gate.available", permits, Semaphore::availablePermits)
+                .description("Connections the gate would hand out without waiting")
+                .tag("name", name)
+                .register(registry);
+        Gauge.builder("defectrak.datasource.gate.waiting", permits, Semaphore::getQueueLength)
+                .description("Threads waiting at the connection gate")
+                .tag("name", name)
+                .register(registry);
+    }
+
+    private void acquire() throws SQLException {
+        long start = System.nanoTime();
+        try {
+            if (!permits.tryAcquire(timeout.toMillis(), TimeUnit.MILLISECONDS)) {
+                throw new SQLTransientConnectionException("Timed out after " + timeout.toMillis()
+                        + "ms waiting for one of " + maxConnections + " database connections");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLTransientConnectionException("Interrupted while waiting for a database connection", e);
+        } finally {
+            Timer timer = waitTimer;
+            if (timer != null) {
+                timer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            }
+        }
+    }
+
+    // Helper to wrap a connection so closing it, however many times, returns exactly one permit
+    private Connection gated(Connection connection) {
+        AtomicBoolean released = new AtomicBoolean();
+        InvocationHandler handler = (proxy, method, args) -> {
+            if (method.getName().equals("close")) {
+                try {
+                    return invoke(connection, method, args);
+                } finally {
+                    if (released.compareAndSet(false, true)) {
+                        permits.release();
+                    }
+                }
+            }
+            return invoke(connection, method, args);
+        };
+        return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(),
+                new Class<?>[]{Connection.class}, handler);
+    }
+
+    private static Object invoke(Connection connection, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(connection, args);
+        } catch (InvocationTargetException e) {
+            throw e.getTargetException();
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package nathan_mead.bug_tracker.config;
+
+import com.rabbitmq.stream.Environment;
+import com.rabbitmq.stream.compression.Compression;
+import org.springframework.amqp.core.Queue;
+import org.springframework.amqp.core.QueueBuilder;
+import org.springframework.amqp.core.TopicExchange;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.rabbit.stream.producer.RabbitStreamTemplate;
+
+// Declares the exchange outbox events are published to and the bug event stream; RabbitAdmin creates both on
+// first connection
+@Configuration
+public class MessagingConfig {
+
+    @Bean
+    public TopicExchange eventsExchange(@Value("${defectrak.outbox.exchange:defectrak.events}") String name) {
+        return new TopicExchange(name, true, false);
+    }
+
+    @Bean
+    public Queue bugEventStream(@Value("${defectrak.events.log.stream:defectrak.bug-events}") String name,
+                                @Value("${defectrak.events.log.max-age:30D}") String maxAge) {
+        return QueueBuilder.durable(name)
+                .stream()
+                .withArgument("x-max-age", maxAge)
+                .build();
+    }
+
+    // Messages are grouped into sub-entries of subEntrySize and compressed together, then sent batchSize at a
+    // time. Sub-entries rule out broker-side deduplication, which is fine as consumers already de-duplicate on
+    // the message id.
+    @Bean
+    public RabbitStreamTemplate bugEventStreamTemplate(Environment environment,
+                                                       @Value("${defectrak.events.log.stream:defectrak.bug-events}") String stream,
+                                                       @Value("${defectrak.events.log.batch-size:100}") int batchSize,
+                                                       @Value("${defectrak.events.log.sub-entry-size:20}") int subEntrySize,
+                                                       @Value("${defectrak.events.log.compression:gzip}") String compression) {
+        RabbitStreamTemplate template = new RabbitStreamTemplate(environment, stream);
+        template.setProducerCustomizer((name, builder) -> builder
+                .batchSize(batchSize)
+                .subEntrySize(subEntrySize)
+                .compression(Compression.valueOf(compression.toUpperCase())));
+        return template;
+    }
+}
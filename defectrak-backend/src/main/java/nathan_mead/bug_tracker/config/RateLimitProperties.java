@@ -0,0 +1,120 @@
+package nathan_mead.bug_tracker.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+// Limits for RateLimitFilter, bound from defectrak.rate-limit.*. Each client gets its own bucket per route limit,
+// plus one bucket for all requests no route matches.
+@ConfigurationProperties("defectrak.rate-limit")
+public class RateLimitProperties {
+
+    private boolean enabled = true;
+    private Limit defaultLimit = new Limit(600, Duration.ofMinutes(1), 200);
+    private List<Route> routes = new ArrayList<>();
+    private long maxBuckets = 100_000;
+    private Duration idleTimeout = Duration.ofMinutes(10);
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public Limit getDefaultLimit() {
+        return defaultLimit;
+    }
+
+    public void setDefaultLimit(Limit defaultLimit) {
+        this.defaultLimit = defaultLimit;
+    }
+
+    public List<Route> getRoutes() {
+        return routes;
+    }
+
+    public void setRoutes(List<Route> routes) {
+        this.routes = routes;
+    }
+
+    public long getMaxBuckets() {
+        return maxBuckets;
+    }
+
+    public void setMaxBuckets(long maxBuckets) {
+        this.maxBuckets = maxBuckets;
+    }
+
+    public Duration getIdleTimeout() {
+        return idleTimeout;
+    }
+
+    public void setIdleTimeout(Duration idleTimeout) {
+        this.idleTimeout = idleTimeout;
+    }
+
+    // requests per period on average, with up to burst of them at once
+    public static class Limit {
+        private int requests;
+        private Duration period;
+        private int burst;
+
+        public Limit() {}
+
+        public Limit(int requests, Duration period, int burst) {
+            this.requests = requests;
+            this.period = period;
+            this.burst = burst;
+        }
+
+        public int getRequests() {
+            return requests;
+        }
+
+        public void setRequests(int requests) {
+            this.requests = requests;
+        }
+
+        public Duration getPeriod() {
+            return period;
+        }
+
+        public void setPeriod(Duration period) {
+            this.period = period;
+        }
+
+        public int getBurst() {
+            return burst;
+        }
+
+        public void setBurst(int burst) {
+            this.burst = burst;
+        }
+    }
+
+    // A limit for requests matching an Ant-style path and, when set, an HTTP method
+    public static class Route extends Limit {
+        private String method;
+        private String path;
+
+        public String getMethod() {
+            return method;
+        }
+
+        public void setMethod(String method) {
+            this.method = method;
+        }
+
+        public String getPath() {
+            return path;
+        }
+
+        public void setPath(String path) {
+            this.path = path;
+        }
+    }
+}
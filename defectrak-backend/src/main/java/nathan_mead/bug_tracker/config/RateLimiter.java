@@ -0,0 +1,121 @@
+package nathan_mead.bug_tracker.config;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.security.web.util.matcher.AntPathRequestMatcher;
+import org.springframework.security.web.util.matcher.RequestMatcher;
+import org.springframework.web.util.UrlPathHelper;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+// Token buckets per client and route, kept as the generic cell rate algorithm: a bucket is a single timestamp, the
+// time at which it would be full again, advanced by one emission interval per admitted request and updated with a
+// compare-and-set. Admission takes no lock; buckets live in a Caffeine map that drops any idle for idle-timeout and
+// holds at most max-buckets, so memory stays bounded however many clients appear. A bucket evicted early only
+// forgets past requests, which errs on the side of admitting.
+public class RateLimiter implements MeterBinder {
+
+    private final List<Rule> routes = new ArrayList<>();
+    private final Rule defaultRule;
+    private final Cache<String, AtomicLong> buckets;
+
+    public RateLimiter(RateLimitProperties properties) {
+        for (RateLimitProperties.Route route : properties.getRoutes()) {
+            String name = (route.getMethod() == null ? "*" : route.getMethod().toUpperCase()) + " " + route.getPath();
+            // Matched against the path within the application, whatever servlet the request is mapped to
+            RequestMatcher matcher = new AntPathRequestMatcher(route.getPath(), route.getMethod(), true,
+                    new UrlPathHelper());
+            routes.add(new Rule(name, matcher, route));
+        }
+        defaultRule = new Rule("default", null, properties.getDefaultLimit());
+        buckets = Caffeine.newBuilder()
+                .expireAfterAccess(properties.getIdleTimeout())
+                .maximumSize(properties.getMaxBuckets())
+                .build();
+    }
+
+    // Zero when the request is admitted, otherwise the nanoseconds until the client's bucket would admit it
+    public long acquire(String client, HttpServletRequest request) {
+        return acquire(client, request, System.nanoTime());
+    }
+
+    long acquire(String client, HttpServletRequest request, long now) {
+        Rule rule = match(request);
+        AtomicLong fullAt = buckets.get(rule.name + '|' + client, key -> new AtomicLong(Long.MIN_VALUE));
+        while (true) {
+            long current = fullAt.get();
+            long next = Math.max(current, now) + rule.interval;
+            long wait = next - now - rule.tolerance;
+            if (wait > 0) {
+                rule.rejected.increment();
+                return wait;
+            }
+            if (fullAt.compareAndSet(current, next)) {
+                return 0;
+            }
+        }
+    }
+
+    public long getBucketCount() {
+        return buckets.estimatedSize();
+    }
+
+    public long getRejectedCount() {
+        long rejected = defaultRule.rejected.sum();
+        for (Rule rule : routes) {
+            rejected += rule.rejected.sum();
+        }
+        return rejected;
+    }
+
+    // Rejections are counted per rule, tagged with the configured method and path or "default"
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        List<Rule> rules = new ArrayList<>(routes);
+        rules.add(defaultRule);
+        for (Rule rule : rules) {
+            FunctionCounter.builder("defectrak.rate-limit.rejected", rule.rejected, LongAdder::sum)
+                    .description("Requests refused with 429 by the rate limiter")
+                    .tag("route", rule.name)
+                    .register(registry);
+        }
+        Gauge.builder("defectrak.rate-limit.buckets", buckets, Cache::estimatedSize)
+                .description("Client and route buckets currently held")
+                .register(registry);
+    }
+
+    private Rule match(HttpServletRequest request) {
+        for (Rule rule : routes) {
+            if (rule.matcher.matches(request)) {
+                return rule;
+            }
+        }
+        return defaultRule;
+    }
+
+    private static class Rule {
+        private final String name;
+        private final RequestMatcher matcher;
+        private final long interval;  // Nanoseconds of refill per request
+        private final long tolerance; // How far ahead of now a bucket may run, i.e. the burst
+        private final LongAdder rejected = new LongAdder();
+
+        private Rule(String name, RequestMatcher matcher, RateLimitProperties.Limit limit) {
+            if (limit.getRequests() < 1 || limit.getBurst() < 1 || limit.getPeriod() == null) {
+                throw new IllegalArgumentException("Rate limit " + name + " needs requests, period and burst");
+            }
+            this.name = name;
+            this.matcher = matcher;
+            this.interval = Math.max(1, limit.getPeriod().toNanos() / limit.getRequests());
+            this.tolerance = interval * limit.getBurst();
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package nathan_mead.bug_tracker.config;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Set;
+
+// Keeps a client's reads on the primary for a short window after it writes, so a user who just saved a change
+// reads it back even if the replicas have not replayed it yet. The deadline travels in its own cookie rather than
+// in the session: every instance reuses a session it has read for a few seconds (CachingSessionRepository), so a
+// deadline stored there could be missed by the instance serving the very next read.
+public class ReadYourWritesFilter extends OncePerRequestFilter {
+
+    static final String PRIMARY_UNTIL_COOKIE = "PRIMARY_UNTIL";
+
+    private static final Set<String> READ_METHODS = Set.of("GET", "HEAD", "OPTIONS", "TRACE");
+
+    private final Duration window;
+
+    public ReadYourWritesFilter(Duration window) {
+        this.window = window;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        ReplicaRoutingDataSource.pinToPrimary(isPinned(request));
+        if (READ_METHODS.contains(request.getMethod())) {
+            try {
+                chain.doFilter(request, response);
+            } finally {
+                ReplicaRoutingDataSource.pinToPrimary(false);
+            }
+            return;
+        }
+
+        // Write responses are small, so they are held back until the outcome is known and the cookie can still be set
+        ContentCachingResponseWrapper buffered = new ContentCachingResponseWrapper(response);
+        try {
+            chain.doFilter(request, buffered);
+        } finally {
+            ReplicaRoutingDataSource.pinToPrimary(false);
+        }
+        // Failed writes were rolled back, so there is nothing to read back
+        if (!buffered.isCommitted() && buffered.getStatus() < 400) {
+            Cookie cookie = new Cookie(PRIMARY_UNTIL_COOKIE,
+                    String.valueOf(System.currentTimeMillis() + window.toMillis()));
+            cookie.setPath(request.getContextPath().isEmpty() ? "/" : request.getContextPath());
+            cookie.setMaxAge((int) Math.max(1, window.toSeconds()));
+            cookie.setHttpOnly(true);
+            cookie.setSecure(request.isSecure());
+            buffered.addCookie(cookie);
+        }
+        buffered.copyBodyToResponse();
+    }
+
+    // Helper to check the client's deadline. The cookie comes from the client, so a deadline further out than one
+    // window is ignored rather than trusted.
+    private boolean isPinned(HttpServletRequest request) {
+        Cookie[] cookies = request.getCookies();
+        if (cookies == null) {
+            return false;
+        }
+        long now = System.currentTimeMillis();
+        for (Cookie cookie : cookies) {
+            if (PRIMARY_UNTIL_COOKIE.equals(cookie.getName())) {
+                try {
+                    long deadline = Long.parseLong(cookie.getValue());
+                    return now < deadline && deadline <= now + window.toMillis();
+                } catch (NumberFormatException e) {
+                    return false;
+                }
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,95 @@
+package nathan_mead.bug_tracker.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.util.StringUtils;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+// Sends @Transactional(readOnly = true) work to PostgreSQL streaming replicas when
+// defectrak.datasource.replica.urls is set; without it the single auto-configured pool is used as before.
+// The application DataSource is a LazyConnectionDataSourceProxy over the primary pool. It takes no connection until
+// the first statement, by which point the transaction has marked it read-only, and read-only connections come
+// from the replica router while everything else stays on the primary.
+@Configuration
+@ConditionalOnProperty("defectrak.datasource.replica.urls")
+public class ReplicaDataSourceConfig {
+
+    // Same settings the auto-configured pool would get, including spring.datasource.hikari.*
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        return properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+    }
+
+    @Bean
+    public ReplicaRoutingDataSource replicaRoutingDataSource(
+            @Qualifier("primaryDataSource") DataSource primaryDataSource,
+            DataSourceProperties properties,
+            @Value("${defectrak.datasource.replica.urls}") List<String> urls,
+            @Value("${defectrak.datasource.replica.username:}") String username,
+            @Value("${defectrak.datasource.replica.password:}") String password,
+            @Value("${defectrak.datasource.replica.pool-size:10}") int poolSize,
+            @Value("${defectrak.datasource.replica.connection-timeout:PT2S}") Duration connectionTimeout,
+            @Value("${defectrak.datasource.replica.max-lag:PT10S}") Duration maxLag,
+            @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads,
+            ObjectProvider<MeterRegistry> meterRegistry) {
+        Map<String, DataSource> replicas = new LinkedHashMap<>();
+        for (int i = 0; i < urls.size(); i++) {
+            HikariDataSource pool = new HikariDataSource();
+            pool.setPoolName("replica-" + (i + 1));
+            pool.setJdbcUrl(urls.get(i).trim());
+            pool.setUsername(StringUtils.hasText(username) ? username : properties.determineUsername());
+            pool.setPassword(StringUtils.hasText(password) ? password : properties.determinePassword());
+            pool.setMaximumPoolSize(poolSize);
+            pool.setReadOnly(true);
+            // A replica that is down must neither stop startup nor hold readers for long before they fall back
+            pool.setInitializationFailTimeout(-1);
+            pool.setConnectionTimeout(connectionTimeout.toMillis());
+            // Not beans, so the pool metrics Boot binds for the primary are set up here
+            meterRegistry.ifAvailable(registry ->
+                    pool.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(registry)));
+            if (!virtualThreads) {
+                replicas.put(pool.getPoolName(), pool);
+                continue;
+            }
+            // The same gate VirtualThreadConfig puts in front of pool beans, timing out like the pool itself so
+            // readers fall back to the primary just as quickly when every replica connection is busy
+            ConnectionGateDataSource gate =
+                    new ConnectionGateDataSource(pool, poolSize, connectionTimeout, pool.getPoolName());
+            meterRegistry.ifAvailable(gate::bindTo);
+            replicas.put(pool.getPoolName(), gate);
+        }
+        return new ReplicaRoutingDataSource(primaryDataSource, replicas, maxLag);
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(@Qualifier("primaryDataSource") DataSource primaryDataSource,
+                                 ReplicaRoutingDataSource replicaRoutingDataSource) {
+        LazyConnectionDataSourceProxy dataSource = new LazyConnectionDataSourceProxy(primaryDataSource);
+        dataSource.setReadOnlyDataSource(replicaRoutingDataSource);
+        return dataSource;
+    }
+
+    @Bean
+    public ReadYourWritesFilter readYourWritesFilter(
+            @Value("${defectrak.datasource.replica.pin-after-write:PT5S}") Duration window) {
+        return new ReadYourWritesFilter(window);
+    }
+}
@@ -0,0 +1,149 @@
+package nathan_mead.bug_tracker.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Hands out connections for read-only transactions. Each call goes to the next healthy replica in turn, or to the
+// primary when the current request is pinned there after a write, when every replica is down, or when the chosen
+// replica refuses the connection. A replica is marked down by a failed connection or health check and comes back
+// once a health check passes again; a replica whose pool is merely exhausted is skipped for that call only.
+public class ReplicaRoutingDataSource extends AbstractDataSource implements DisposableBean {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReplicaRoutingDataSource.class);
+
+    private static final ThreadLocal<Boolean> PINNED_TO_PRIMARY = new ThreadLocal<>();
+
+    // Replication delay in seconds; zero when the replica has replayed everything it received, so an idle
+    // primary does not make a caught-up replica look stale
+    private static final String LAG_SQL = "select case when pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() "
+            + "then 0 else extract(epoch from now() - pg_last_xact_replay_timestamp()) end";
+
+    private final DataSource primary;
+    private final List<Replica> replicas = new ArrayList<>();
+    private final Duration maxLag;
+    private final AtomicInteger next = new AtomicInteger();
+
+    public ReplicaRoutingDataSource(DataSource primary, Map<String, DataSource> replicas, Duration maxLag) {
+        this.primary = primary;
+        replicas.forEach((name, pool) -> this.replicas.add(new Replica(name, pool)));
+        this.maxLag = maxLag;
+    }
+
+    // Routes the current thread's read-only transactions to the primary until cleared
+    public static void pinToPrimary(boolean pinned) {
+        if (pinned) {
+            PINNED_TO_PRIMARY.set(Boolean.TRUE);
+        } else {
+            PINNED_TO_PRIMARY.remove();
+        }
+    }
+
+    public static boolean isPinnedToPrimary() {
+        return PINNED_TO_PRIMARY.get() != null;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        if (!isPinnedToPrimary()) {
+            for (int i = 0; i < replicas.size(); i++) {
+                Replica replica = replicas.get(Math.floorMod(next.getAndIncrement(), replicas.size()));
+                if (!replica.healthy) {
+                    continue;
+                }
+                try {
+                    return replica.pool.getConnection();
+                } catch (SQLException e) {
+                    if (isPoolExhausted(e)) {
+                        // The replica is up but every connection is in use; try the next one without taking it
+                        // out of rotation
+                        continue;
+                    }
+                    logger.warn("Replica {} refused a connection, reading from the primary until it recovers: {}",
+                            replica.name, e.getMessage());
+                    replica.healthy = false;
+                }
+            }
+        }
+        return primary.getConnection();
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) {
+        throw new UnsupportedOperationException("Replica pools use their configured credentials");
+    }
+
+    // Checks every replica, including those marked down, and updates whether it may take reads.
+    // Replicas start in rotation, so the first check waits one interval.
+    @Scheduled(fixedDelayString = "${defectrak.datasource.replica.health-check-interval:PT10S}",
+            initialDelayString = "${defectrak.datasource.replica.health-check-interval:PT10S}")
+    public void checkHealth() {
+        for (Replica replica : replicas) {
+            boolean healthy;
+            try (Connection connection = replica.pool.getConnection();
+                 Statement statement = connection.createStatement();
+                 ResultSet resultSet = statement.executeQuery(LAG_SQL)) {
+                resultSet.next();
+                double lagSeconds = resultSet.getDouble(1);
+                healthy = lagSeconds * 1000 <= maxLag.toMillis();
+                if (!healthy) {
+                    logger.warn("Replica {} is {}s behind the primary", replica.name, lagSeconds);
+                }
+            } catch (SQLException e) {
+                logger.warn("Replica {} failed its health check: {}", replica.name, e.getMessage());
+                healthy = false;
+            }
+            if (healthy && !replica.healthy) {
+                logger.info("Replica {} is back in rotation", replica.name);
+            }
+            replica.healthy = healthy;
+        }
+    }
+
+    public int getHealthyReplicaCount() {
+        return (int) replicas.stream().filter(replica -> replica.healthy).count();
+    }
+
+    @Override
+    public void destroy() throws Exception {
+        for (Replica replica : replicas) {
+            DataSource pool = replica.pool instanceof DelegatingDataSource gate ? gate.getTargetDataSource() : replica.pool;
+            if (pool instanceof AutoCloseable closeable) {
+                closeable.close();
+            }
+        }
+    }
+
+    // Hikari and the connection gate both time out with SQLTransientConnectionException. Hikari attaches the last
+    // failed connection attempt as the cause when it could not reach the database, so no cause means the pool was
+    // only busy.
+    private static boolean isPoolExhausted(SQLException e) {
+        return e instanceof SQLTransientConnectionException && e.getCause() == null;
+    }
+
+    private static class Replica {
+        private final String name;
+        private final DataSource pool;
+        private volatile boolean healthy = true;
+
+        private Replica(String name, DataSource pool) {
+            this.name = name;
+            this.pool = pool;
+        }
+    }
+}
@@ -0,0 +1,10 @@
+package nathan_mead.bug_tracker.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+// Enables @Scheduled background jobs such as the event stream heartbeat
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
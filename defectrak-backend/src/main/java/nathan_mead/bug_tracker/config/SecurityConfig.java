@@ -3,7 +3,19 @@ package nathan_mead.bug_tracker.config;
 import nathan_mead.bug_tracker.repository.UserRepository;
 import nathan_mead.bug_tracker.security.CustomUserDetailsService;
 import nathan_mead.bug_tracker.security.JsonUsernamePasswordAuthenticationFilter;
+import nathan_mead.bug_tracker.security.OffloadedPasswordEncoder;
+import nathan_mead.bug_tracker.security.PasswordHashingBusyException;
+import nathan_mead.bug_tracker.security.PasswordHashingExecutor;
+import nathan_mead.bug_tracker.security.UserDetailsCache;
+import nathan_mead.bug_tracker.service.CurrentUserCache;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.actuate.autoconfigure.security.servlet.EndpointRequest;
+import org.springframework.boot.actuate.metrics.export.prometheus.PrometheusScrapeEndpoint;
+import jakarta.servlet.http.HttpSession;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.*;
 import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
 import org.springframework.security.config.Customizer;
@@ -14,21 +26,47 @@ import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.security.web.authentication.SimpleUrlAuthenticationFailureHandler;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.config.annotation.authentication.configuration.AuthenticationConfiguration;
 import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
 import org.springframework.security.config.http.SessionCreationPolicy;
 import org.springframework.security.core.context.SecurityContextHolder;
 
+import java.time.Duration;
+
 @Configuration
 @EnableWebSecurity
 @EnableGlobalMethodSecurity(prePostEnabled = true)
+@EnableConfigurationProperties(RateLimitProperties.class)
 public class SecurityConfig {
 
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private RateLimitProperties rateLimitProperties;
+
+    @Autowired
+    private ObjectProvider<MeterRegistry> meterRegistry;
+
+    @Value("${defectrak.security.hashing.threads:0}")
+    private int hashingThreads;
+
+    @Value("${defectrak.security.hashing.queue-capacity:64}")
+    private int hashingQueueCapacity;
+
+    @Value("${defectrak.security.hashing.calibration-samples:5}")
+    private int hashingCalibrationSamples;
+
+    @Value("${defectrak.security.user-cache.ttl:PT30S}")
+    private Duration userCacheTtl;
+
+    @Value("${defectrak.security.user-cache.size:10000}")
+    private long userCacheSize;
+
     // Define a PasswordEncoder bean (BCrypt is recommended)
     @Bean
     public PasswordEncoder passwordEncoder() {
@@ -41,12 +79,32 @@ public class SecurityConfig {
         return new CustomUserDetailsService(userRepository);
     }
 
+    // Bounded pool that sign-in password checks run on, off the request threads
+    @Bean
+    public PasswordHashingExecutor passwordHashingExecutor() {
+        return new PasswordHashingExecutor(passwordEncoder(), hashingThreads, hashingQueueCapacity,
+                hashingCalibrationSamples);
+    }
+
+    // Users loaded for sign-in; evicted by the controllers that change users and roles
+    @Bean
+    public UserDetailsCache userDetailsCache() {
+        return new UserDetailsCache(userCacheTtl, userCacheSize);
+    }
+
+    // Token buckets per client and route, shared by every request through the filter chain
+    @Bean
+    public RateLimiter rateLimiter() {
+        return new RateLimiter(rateLimitProperties);
+    }
+
     // Set up the DAO authentication provider for form login
     @Bean
     public DaoAuthenticationProvider authenticationProvider() {
         DaoAuthenticationProvider authProvider = new DaoAuthenticationProvider();
         authProvider.setUserDetailsService(userDetailsService());
-        authProvider.setPasswordEncoder(passwordEncoder());
+        authProvider.setPasswordEncoder(new OffloadedPasswordEncoder(passwordEncoder(), passwordHashingExecutor()));
+        authProvider.setUserCache(userDetailsCache());
         return authProvider;
     }
 
@@ -62,11 +120,29 @@ public class SecurityConfig {
         JsonUsernamePasswordAuthenticationFilter jsonFilter = new JsonUsernamePasswordAuthenticationFilter();
         jsonFilter.setAuthenticationManager(config.getAuthenticationManager());
         jsonFilter.setFilterProcessesUrl("/api/login");
+        meterRegistry.ifAvailable(jsonFilter::setMeterRegistry);
         jsonFilter.setAuthenticationSuccessHandler((request, response, authentication) -> {
+            // Signing in on an existing session gives it a new id and drops the previous user's snapshot
+            HttpSession existing = request.getSession(false);
+            if (existing != null) {
+                existing.removeAttribute(CurrentUserCache.SESSION_ATTRIBUTE);
+                request.changeSessionId();
+            }
             request.getSession().setAttribute("SPRING_SECURITY_CONTEXT", SecurityContextHolder.getContext());
             response.setContentType("application/json");
             response.getWriter().write("{\"message\": \"Login successful\"}");
         });
+        SimpleUrlAuthenticationFailureHandler loginFailureHandler = new SimpleUrlAuthenticationFailureHandler();
+        jsonFilter.setAuthenticationFailureHandler((request, response, exception) -> {
+            if (exception instanceof PasswordHashingBusyException) {
+                response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+                response.setHeader("Retry-After", "1");
+                response.setContentType("application/json");
+                response.getWriter().write("{\"message\": \"Too many sign-ins in progress, try again shortly\"}");
+            } else {
+                loginFailureHandler.onAuthenticationFailure(request, response, exception);
+            }
+        });
 
 
         http
@@ -80,6 +156,9 @@ public class SecurityConfig {
             .authorizeHttpRequests(auth -> auth
                 .requestMatchers(HttpMethod.OPTIONS, "/**").permitAll()
                 .requestMatchers("/api/users/register", "/login", "/api/me", "/css/**", "/js/**").permitAll()
+                // Scraped by Prometheus without a session. The matcher only matches on the management port, which is
+                // not published, so the same path on the application port still needs a signed-in user.
+                .requestMatchers(EndpointRequest.to(PrometheusScrapeEndpoint.class)).permitAll()
                 .anyRequest().authenticated()
             )
             .logout(logout -> logout
@@ -91,9 +170,14 @@ public class SecurityConfig {
                         response.getWriter().write("{\"message\": \"Logout successful\"}");
                     })
                     .invalidateHttpSession(true)
-                    .deleteCookies("JSESSIONID")
+                    .deleteCookies("SESSION")
             );
 
+        // Ahead of sign-in, so password guessing is limited too
+        if (rateLimitProperties.isEnabled()) {
+            http.addFilterBefore(new RateLimitFilter(rateLimiter()), UsernamePasswordAuthenticationFilter.class);
+        }
+
         return http.build();
     }
 }
\ No newline at end of file
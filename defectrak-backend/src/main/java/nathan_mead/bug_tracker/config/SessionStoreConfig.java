@@ -0,0 +1,151 @@
+package nathan_mead.bug_tracker.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.session.JdbcSessionDataSourceScriptDatabaseInitializer;
+import org.springframework.boot.autoconfigure.session.JdbcSessionProperties;
+import org.springframework.boot.autoconfigure.session.SessionProperties;
+import org.springframework.boot.autoconfigure.sql.init.OnDatabaseInitializationCondition;
+import org.springframework.boot.autoconfigure.web.ServerProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Conditional;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.convert.support.GenericConversionService;
+import org.springframework.core.serializer.support.DeserializingConverter;
+import org.springframework.core.serializer.support.SerializingConverter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.session.FindByIndexNameSessionRepository;
+import org.springframework.session.MapSession;
+import org.springframework.session.MapSessionRepository;
+import org.springframework.session.PrincipalNameIndexResolver;
+import org.springframework.session.Session;
+import org.springframework.session.config.annotation.web.http.EnableSpringHttpSession;
+import org.springframework.session.jdbc.JdbcIndexedSessionRepository;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+// HTTP sessions go through Spring Session instead of the servlet container, so they can live outside the JVM.
+// defectrak.session.store=jdbc (the default) keeps them in the spring_session tables, letting any backend instance
+// serve any request and keeping users signed in across restarts; memory keeps them in this instance only.
+@Configuration
+@EnableSpringHttpSession
+public class SessionStoreConfig {
+
+    @Configuration
+    @ConditionalOnProperty(name = "defectrak.session.store", havingValue = "jdbc", matchIfMissing = true)
+    @EnableConfigurationProperties(JdbcSessionProperties.class)
+    static class JdbcSessionStore {
+
+        // Only when spring.session.jdbc.initialize-schema asks for it; PostgreSQL gets the tables from scripts/db/init.sql
+        @Bean
+        @Conditional(OnJdbcSessionSchemaInitialization.class)
+        public JdbcSessionDataSourceScriptDatabaseInitializer jdbcSessionDataSourceScriptDatabaseInitializer(
+                DataSource dataSource, JdbcSessionProperties properties) {
+            return new JdbcSessionDataSourceScriptDatabaseInitializer(dataSource, properties);
+        }
+
+        // Expired rows are deleted on spring.session.jdbc.cleanup-cron by the repository's own scheduler
+        @Bean
+        public JdbcIndexedSessionRepository jdbcSessionRepository(DataSource dataSource,
+                                                                  PlatformTransactionManager transactionManager,
+                                                                  SessionProperties sessionProperties,
+                                                                  ServerProperties serverProperties,
+                                                                  JdbcSessionProperties jdbcProperties) {
+            // Session writes commit on their own, never as part of a request's transaction
+            TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+            transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+
+            // Deserialize with the application's class loader, which differs from the JDK's under devtools
+            GenericConversionService conversionService = new GenericConversionService();
+            conversionService.addConverter(Object.class, byte[].class, new SerializingConverter());
+            conversionService.addConverter(byte[].class, Object.class,
+                    new DeserializingConverter(SessionStoreConfig.class.getClassLoader()));
+
+            JdbcIndexedSessionRepository repository =
+                    new JdbcIndexedSessionRepository(new JdbcTemplate(dataSource), transactionTemplate);
+            repository.setConversionService(conversionService);
+            repository.setDefaultMaxInactiveInterval(sessionProperties.determineTimeout(
+                    () -> serverProperties.getServlet().getSession().getTimeout()));
+            repository.setTableName(jdbcProperties.getTableName());
+            repository.setCleanupCron(jdbcProperties.getCleanupCron());
+            repository.setFlushMode(jdbcProperties.getFlushMode());
+            repository.setSaveMode(jdbcProperties.getSaveMode());
+            return repository;
+        }
+
+        @Bean
+        @Primary
+        public CachingSessionRepository<? extends Session> sessionRepository(
+                JdbcIndexedSessionRepository jdbcSessionRepository,
+                @Value("${defectrak.session.cache-ttl:PT5S}") Duration cacheTtl,
+                @Value("${defectrak.session.cache-size:10000}") long cacheSize,
+                @Value("${defectrak.session.touch-interval:PT1M}") Duration touchInterval) {
+            return new CachingSessionRepository<>(jdbcSessionRepository, cacheTtl, cacheSize, touchInterval);
+        }
+
+        static class OnJdbcSessionSchemaInitialization extends OnDatabaseInitializationCondition {
+            OnJdbcSessionSchemaInitialization() {
+                super("Jdbc Session", "spring.session.jdbc.initialize-schema");
+            }
+        }
+    }
+
+    @Configuration
+    @ConditionalOnProperty(name = "defectrak.session.store", havingValue = "memory")
+    static class MemorySessionStore {
+
+        private final Map<String, Session> sessions = new ConcurrentHashMap<>();
+
+        @Bean
+        public IndexedMapSessionRepository sessionRepository(SessionProperties sessionProperties,
+                                                             ServerProperties serverProperties) {
+            IndexedMapSessionRepository repository = new IndexedMapSessionRepository(sessions);
+            repository.setDefaultMaxInactiveInterval(sessionProperties.determineTimeout(
+                    () -> serverProperties.getServlet().getSession().getTimeout()));
+            return repository;
+        }
+
+        // The map only drops an expired session when it is next requested, so abandoned ones are swept here
+        @Scheduled(fixedDelayString = "${defectrak.session.memory.sweep-interval:PT1M}")
+        public void removeExpiredSessions() {
+            sessions.values().removeIf(Session::isExpired);
+        }
+    }
+
+    // The in-memory store with lookup by principal name, found by scanning every session
+    static class IndexedMapSessionRepository extends MapSessionRepository
+            implements FindByIndexNameSessionRepository<MapSession> {
+
+        private final Map<String, Session> sessions;
+        private final PrincipalNameIndexResolver<Session> principalNameResolver = new PrincipalNameIndexResolver<>();
+
+        IndexedMapSessionRepository(Map<String, Session> sessions) {
+            super(sessions);
+            this.sessions = sessions;
+        }
+
+        @Override
+        public Map<String, MapSession> findByIndexNameAndIndexValue(String indexName, String indexValue) {
+            Map<String, MapSession> found = new HashMap<>();
+            if (!PRINCIPAL_NAME_INDEX_NAME.equals(indexName)) {
+                return found;
+            }
+            for (Session session : sessions.values()) {
+                if (!session.isExpired() && indexValue.equals(principalNameResolver.resolveIndexValueFor(session))) {
+                    found.put(session.getId(), new MapSession(session));
+                }
+            }
+            return found;
+        }
+    }
+}
@@ -0,0 +1,19 @@
+package nathan_mead.bug_tracker.config;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+// Most SQL statements a request to this handler method may run on the request thread, through Hibernate or plain
+// JDBC (JdbcTemplate, native inserts, the session store), counted from the handler
+// being picked until the response is written (so lazy loads during serialization count too). Statements run by
+// filters, background jobs and streamed bodies on other threads are not counted. See StatementBudgetConfig.
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface StatementBudget {
+
+    int value();
+}
@@ -0,0 +1,56 @@
+package nathan_mead.bug_tracker.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import javax.sql.DataSource;
+
+// Per-request SQL statement counting against each handler's @StatementBudget, to catch N+1 selects and other
+// query-count regressions. With fail-fast off a call over budget is logged and counted in metrics; with it on
+// (as the statement budget tests run) the first statement over budget throws StatementBudgetExceededException.
+// Statements are counted on the application DataSource, so JdbcTemplate and native JDBC count as well as Hibernate.
+@Configuration
+@ConditionalOnProperty(name = "defectrak.statement-budget.enabled", matchIfMissing = true)
+public class StatementBudgetConfig {
+
+    @Bean
+    public StatementCounter statementCounter(
+            @Value("${defectrak.statement-budget.fail-fast:false}") boolean failFast) {
+        return new StatementCounter(failFast);
+    }
+
+    // Static so it is registered before the DataSource it wraps is created. Unordered, so it runs after the ordered
+    // connection gate post-processor and the counting wrapper goes around the gate rather than hiding the pool from it.
+    @Bean
+    public static BeanPostProcessor statementCountingPostProcessor(ObjectProvider<StatementCounter> statementCounter) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof DataSource dataSource && beanName.equals("dataSource")) {
+                    return new StatementCountingDataSource(dataSource, statementCounter.getObject());
+                }
+                return bean;
+            }
+        };
+    }
+
+    @Bean
+    public WebMvcConfigurer statementBudgetInterceptorRegistration(StatementCounter statementCounter,
+                                                                   ObjectProvider<MeterRegistry> meterRegistry) {
+        StatementBudgetInterceptor interceptor =
+                new StatementBudgetInterceptor(statementCounter, meterRegistry.getIfAvailable());
+        return new WebMvcConfigurer() {
+            @Override
+            public void addInterceptors(InterceptorRegistry registry) {
+                registry.addInterceptor(interceptor);
+            }
+        };
+    }
+}
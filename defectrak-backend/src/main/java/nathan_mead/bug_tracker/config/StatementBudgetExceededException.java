@@ -0,0 +1,9 @@
+package nathan_mead.bug_tracker.config;
+
+// Thrown at the first statement over a handler's @StatementBudget when defectrak.statement-budget.fail-fast is on
+public class StatementBudgetExceededException extends RuntimeException {
+
+    public StatementBudgetExceededException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,79 @@
+package nathan_mead.bug_tracker.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+
+// Opens a StatementCounter scope for each controller call, with the method's @StatementBudget if it has one.
+// When the call completes the count is left on the request, recorded as defectrak.http.statements tagged with the
+// handler, and a call over its budget is logged and counted in defectrak.http.statements.over.budget.
+public class StatementBudgetInterceptor implements AsyncHandlerInterceptor {
+
+    public static final String STATEMENT_COUNT = StatementBudgetInterceptor.class.getName() + ".STATEMENT_COUNT";
+
+    private static final Logger logger = LoggerFactory.getLogger(StatementBudgetInterceptor.class);
+
+    private final StatementCounter counter;
+    private final MeterRegistry meterRegistry;
+
+    // meterRegistry may be null, in which case nothing is recorded
+    public StatementBudgetInterceptor(StatementCounter counter, MeterRegistry meterRegistry) {
+        this.counter = counter;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (handler instanceof HandlerMethod method) {
+            StatementBudget budget = method.getMethodAnnotation(StatementBudget.class);
+            counter.begin(method.getBeanType().getSimpleName() + "." + method.getMethod().getName(),
+                    budget == null ? -1 : budget.value());
+        }
+        return true;
+    }
+
+    // An async request leaves the request thread here; its async dispatch opens a scope of its own
+    @Override
+    public void afterConcurrentHandlingStarted(HttpServletRequest request, HttpServletResponse response,
+                                               Object handler) {
+        finish(request);
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler,
+                                Exception ex) {
+        finish(request);
+    }
+
+    private void finish(HttpServletRequest request) {
+        StatementCounter.Scope scope = counter.end();
+        if (scope == null) {
+            return;
+        }
+        request.setAttribute(STATEMENT_COUNT, scope.getCount());
+        if (meterRegistry != null) {
+            DistributionSummary.builder("defectrak.http.statements")
+                    .description("SQL statements run on the request thread per controller call")
+                    .tag("handler", scope.getName())
+                    .register(meterRegistry)
+                    .record(scope.getCount());
+        }
+        if (scope.isOverBudget()) {
+            logger.warn("{} {} ({}) ran {} SQL statements, over its budget of {}", request.getMethod(),
+                    request.getRequestURI(), scope.getName(), scope.getCount(), scope.getBudget());
+            if (meterRegistry != null) {
+                Counter.builder("defectrak.http.statements.over.budget")
+                        .description("Controller calls that ran more SQL statements than their @StatementBudget")
+                        .tag("handler", scope.getName())
+                        .register(meterRegistry)
+                        .increment();
+            }
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package nathan_mead.bug_tracker.config;
+
+// Counts the SQL statements run on the current thread between begin and end. Fed by StatementCountingDataSource,
+// so it sees every statement through the application DataSource: repositories, queries, flushes and lazy loads as
+// well as JdbcTemplate and native JDBC (outbox batches, bulk history inserts, the session store). Outside a scope
+// it does nothing.
+public class StatementCounter {
+
+    private final ThreadLocal<Scope> scope = new ThreadLocal<>();
+    private final boolean failFast;
+
+    public StatementCounter(boolean failFast) {
+        this.failFast = failFast;
+    }
+
+    // A negative budget counts without a limit
+    public void begin(String name, int budget) {
+        scope.set(new Scope(name, budget));
+    }
+
+    // The finished scope, or null when none was begun on this thread
+    public Scope end() {
+        Scope finished = scope.get();
+        scope.remove();
+        return finished;
+    }
+
+    // Counts one statement in the current scope, if any; sql names it in the fail-fast message
+    public void count(String sql) {
+        Scope current = scope.get();
+        if (current != null && ++current.count > current.budget && current.budget >= 0 && failFast) {
+            throw new StatementBudgetExceededException(current.name + " ran more than its budget of "
+                    + current.budget + " SQL statements; statement " + current.count + ": " + sql);
+        }
+    }
+
+    public static class Scope {
+        private final String name;
+        private final int budget;
+        private int count;
+
+        private Scope(String name, int budget) {
+            this.name = name;
+            this.budget = budget;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public int getBudget() {
+            return budget;
+        }
+
+        public int getCount() {
+            return count;
+        }
+
+        public boolean isOverBudget() {
+            return budget >= 0 && count > budget;
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package nathan_mead.bug_tracker.config;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+// Reports every SQL statement run through the application DataSource to the StatementCounter, whoever runs it:
+// Hibernate, JdbcTemplate or a raw connection. A prepared or callable statement counts once when it is prepared,
+// however many times it is executed or batched, the same way Hibernate prepares one statement per JDBC batch. A
+// plain Statement counts each SQL string it executes and each executeBatch.
+public class StatementCountingDataSource extends DelegatingDataSource implements AutoCloseable {
+
+    private final StatementCounter counter;
+
+    public StatementCountingDataSource(DataSource target, StatementCounter counter) {
+        super(target);
+        this.counter = counter;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return counted(super.getConnection());
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return counted(super.getConnection(username, password));
+    }
+
+    // Wrapping hides the pool's own close method from the container, so it is passed on here
+    @Override
+    public void close() throws Exception {
+        if (getTargetDataSource() instanceof AutoCloseable closeable) {
+            closeable.close();
+        }
+    }
+
+    private Connection counted(Connection connection) {
+        InvocationHandler handler = (proxy, method, args) -> {
+            String name = method.getName();
+            if (name.equals("prepareStatement") || name.equals("prepareCall")) {
+                counter.count((String) args[0]);
+            }
+            Object result = invoke(connection, method, args);
+            return name.equals("createStatement") ? counted((Statement) result) : result;
+        };
+        return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(),
+                new Class<?>[]{Connection.class}, handler);
+    }
+
+    private Statement counted(Statement statement) {
+        InvocationHandler handler = (proxy, method, args) -> {
+            String name = method.getName();
+            if (name.startsWith("execute") && args != null && args.length > 0 && args[0] instanceof String sql) {
+                counter.count(sql);
+            } else if (name.equals("executeBatch") || name.equals("executeLargeBatch")) {
+                counter.count("batch");
+            }
+            return invoke(statement, method, args);
+        };
+        return (Statement) Proxy.newProxyInstance(Statement.class.getClassLoader(),
+                new Class<?>[]{Statement.class}, handler);
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getTargetException();
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package nathan_mead.bug_tracker.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.core.env.Environment;
+
+import java.time.Duration;
+
+// Extras for spring.threads.virtual.enabled=true, which runs Tomcat requests, MVC async work and scheduled jobs
+// on virtual threads. Every Hikari pool bean is put behind a ConnectionGateDataSource sized to the pool, and pinned
+// virtual threads are reported through JFR. Replica pools are not beans, so ReplicaDataSourceConfig gates those.
+@Configuration
+@ConditionalOnThreading(Threading.VIRTUAL)
+public class VirtualThreadConfig {
+
+    private static final int HIKARI_DEFAULT_POOL_SIZE = 10;
+
+    // Static so it is registered before the DataSource beans it wraps are created
+    @Bean
+    public static BeanPostProcessor connectionGatePostProcessor(Environment environment) {
+        Duration timeout = environment.getProperty("defectrak.datasource.connection-gate.timeout",
+                Duration.class, Duration.ofSeconds(30));
+        return new ConnectionGatePostProcessor(timeout);
+    }
+
+    @Bean
+    public VirtualThreadPinningMonitor virtualThreadPinningMonitor(
+            @Value("${defectrak.threads.pinning.threshold:PT0.02S}") Duration threshold) {
+        return new VirtualThreadPinningMonitor(threshold);
+    }
+
+    // Ordered, so it runs before unordered post-processors that wrap the DataSource (statement counting) and still
+    // finds the Hikari pool itself
+    private static class ConnectionGatePostProcessor implements BeanPostProcessor, Ordered {
+        private final Duration timeout;
+
+        private ConnectionGatePostProcessor(Duration timeout) {
+            this.timeout = timeout;
+        }
+
+        @Override
+        public Object postProcessAfterInitialization(Object bean, String beanName) {
+            if (bean instanceof HikariDataSource pool) {
+                // An unset size reads as -1 until the pool starts, which then applies Hikari's default
+                int size = pool.getMaximumPoolSize() > 0 ? pool.getMaximumPoolSize() : HIKARI_DEFAULT_POOL_SIZE;
+                return new ConnectionGateDataSource(pool, size, timeout, beanName);
+            }
+            return bean;
+        }
+
+        @Override
+        public int getOrder() {
+            return Ordered.LOWEST_PRECEDENCE;
+        }
+    }
+}
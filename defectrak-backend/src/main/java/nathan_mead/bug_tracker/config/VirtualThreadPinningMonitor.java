@@ -0,0 +1,92 @@
+package nathan_mead.bug_tracker.config;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordedStackTrace;
+import jdk.jfr.consumer.RecordingStream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+
+// Watches the JFR jdk.VirtualThreadPinned event, raised when a virtual thread blocks while it cannot unmount from
+// its carrier, typically inside a synchronized block or a native frame. Each distinct stack is logged once,
+// flagged when it runs through the JDBC path, and counted after that.
+public class VirtualThreadPinningMonitor {
+
+    private static final Logger logger = LoggerFactory.getLogger(VirtualThreadPinningMonitor.class);
+
+    private static final String PINNED_EVENT = "jdk.VirtualThreadPinned";
+    private static final String VIRTUAL_THREAD_CLASS = "java.lang.VirtualThread";
+    private static final int LOGGED_FRAMES = 12;
+    private static final List<String> JDBC_PACKAGES = List.of(
+            "org.postgresql.", "com.zaxxer.hikari.", "org.hibernate.", "java.sql.", "org.springframework.jdbc.");
+
+    private final Duration threshold;
+    private final AtomicLong pinnedCount = new AtomicLong();
+    private final Map<String, LongAdder> pinnedStacks = new ConcurrentHashMap<>();
+    private RecordingStream stream;
+
+    public VirtualThreadPinningMonitor(Duration threshold) {
+        this.threshold = threshold;
+    }
+
+    @PostConstruct
+    public void start() {
+        stream = new RecordingStream();
+        stream.enable(PINNED_EVENT).withThreshold(threshold).withStackTrace();
+        stream.onEvent(PINNED_EVENT, this::record);
+        stream.startAsync();
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (stream != null) {
+            stream.close();
+        }
+    }
+
+    public long getPinnedCount() {
+        return pinnedCount.get();
+    }
+
+    // Pinned stacks seen so far, with how often each occurred
+    public Map<String, Long> getPinnedStacks() {
+        return pinnedStacks.entrySet().stream()
+                .collect(Collectors.toMap(Map.Entry::getKey, entry -> entry.getValue().sum()));
+    }
+
+    private void record(RecordedEvent event) {
+        RecordedStackTrace stackTrace = event.getStackTrace();
+        List<RecordedFrame> frames = stackTrace == null ? List.of() : stackTrace.getFrames();
+        String stack = frames.stream()
+                .filter(RecordedFrame::isJavaFrame)
+                // Skip the park frames every pinned event starts with
+                .filter(frame -> !frame.getMethod().getType().getName().equals(VIRTUAL_THREAD_CLASS))
+                .limit(LOGGED_FRAMES)
+                .map(frame -> frame.getMethod().getType().getName() + "." + frame.getMethod().getName()
+                        + ":" + frame.getLineNumber())
+                .collect(Collectors.joining("\n\tat "));
+
+        LongAdder seen = pinnedStacks.computeIfAbsent(stack, key -> new LongAdder());
+        seen.increment();
+        // Counted after the stack is stored, so a non-zero count always has a stack to go with it
+        pinnedCount.incrementAndGet();
+        if (seen.sum() == 1) {
+            boolean jdbc = JDBC_PACKAGES.stream().anyMatch(stack::contains);
+            logger.warn("Virtual thread #{} pinned for {}ms{}:\n\tat {}",
+                    event.getThread() == null ? "?" : event.getThread().getJavaThreadId(),
+                    event.getDuration().toMillis(),
+                    jdbc ? " in the JDBC path" : "",
+                    stack);
+        }
+    }
+}
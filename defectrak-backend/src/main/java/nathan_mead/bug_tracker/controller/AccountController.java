@@ -1,8 +1,11 @@
 package nathan_mead.bug_tracker.controller;
 
+import nathan_mead.bug_tracker.dto.CurrentUser;
 import nathan_mead.bug_tracker.dto.UserDto;
 import nathan_mead.bug_tracker.repository.UserRepository;
 import nathan_mead.bug_tracker.model.User;
+import nathan_mead.bug_tracker.security.UserDetailsCache;
+import nathan_mead.bug_tracker.service.CurrentUserCache;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
@@ -11,6 +14,7 @@ import org.springframework.web.bind.annotation.*;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.core.Authentication;
 
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 
 import java.util.Optional;
@@ -25,30 +29,43 @@ public class AccountController {
     @Autowired
     private PasswordEncoder passwordEncoder;
 
+    @Autowired
+    private UserDetailsCache userDetailsCache;
+
+    @Autowired
+    private CurrentUserCache currentUserCache;
+
     private String hashPassword(String rawPassword) {
         return passwordEncoder.encode(rawPassword);
     }
 
-    // GET endpoint to get the current authenticated user details
+    // GET endpoint to get the current authenticated user details, served from the session after the first call
     @GetMapping("/me")
-    public ResponseEntity<?> getCurrentUser() {
+    public ResponseEntity<?> getCurrentUser(HttpServletRequest request) {
         Authentication auth = SecurityContextHolder.getContext().getAuthentication();
 
         if (auth == null || !auth.isAuthenticated() || "anonymousUser".equals(auth.getName())) {
             return ResponseEntity.noContent().build();
         }
 
-        Optional<User> userOpt = userRepository.findByEmail(auth.getName());
+        Optional<CurrentUser> userOpt = currentUserCache.get(request.getSession(), auth.getName());
         if (userOpt.isPresent()) {
             return ResponseEntity.ok(userOpt.get());
         }
         return ResponseEntity.noContent().build();
     }
 
+    // GET endpoint for nginx auth_request: 204 for a signed-in session. Anonymous requests are rejected with 403 by
+    // the security filter chain before reaching here, and nginx passes that status on to the client.
+    @GetMapping("/auth/check")
+    public ResponseEntity<Void> checkSession() {
+        return ResponseEntity.noContent().build();
+    }
+
 
     // PUT endpoint to update current user's details
     @PutMapping("/me")
-    public ResponseEntity<?> updateCurrentUser(@Valid @RequestBody UserDto userDto) {
+    public ResponseEntity<?> updateCurrentUser(@Valid @RequestBody UserDto userDto, HttpServletRequest request) {
         String authenticatedUserEmail = SecurityContextHolder.getContext().getAuthentication().getName();
         Optional<User> userOpt = userRepository.findByEmail(authenticatedUserEmail);
         if (!userOpt.isPresent()) {
@@ -73,6 +90,8 @@ public class AccountController {
         user.setLastName(userDto.getLastName());
 
         User updatedUser = userRepository.save(user);
+        userDetailsCache.removeUserFromCache(currentEmail);
+        currentUserCache.refresh(authenticatedUserEmail, updatedUser, request.getSession());
         return ResponseEntity.ok(updatedUser);
     }
 
@@ -95,6 +114,7 @@ public class AccountController {
         user.setPassword(hashPassword(newPassword));
 
         User updatedUser = userRepository.save(user);
+        userDetailsCache.removeUserFromCache(updatedUser.getEmail());
         return ResponseEntity.ok(updatedUser);
     }
 }
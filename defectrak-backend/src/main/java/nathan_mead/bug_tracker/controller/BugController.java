@@ -1,170 +1,519 @@
 package nathan_mead.bug_tracker.controller;
 
+import nathan_mead.bug_tracker.config.StatementBudget;
+import nathan_mead.bug_tracker.dto.BugBulkUpdate;
+import nathan_mead.bug_tracker.dto.BugCursor;
+import nathan_mead.bug_tracker.dto.BugFileFormat;
 import nathan_mead.bug_tracker.dto.BugDto;
+import nathan_mead.bug_tracker.dto.BugFilter;
+import nathan_mead.bug_tracker.dto.BugImportJob;
+import nathan_mead.bug_tracker.dto.BugLogEntry;
+import nathan_mead.bug_tracker.dto.BugRow;
+import nathan_mead.bug_tracker.dto.BugSearchResult;
+import nathan_mead.bug_tracker.dto.BugSummary;
+import nathan_mead.bug_tracker.dto.CursorPage;
+import nathan_mead.bug_tracker.event.BugChangedEvent;
+import nathan_mead.bug_tracker.event.BugFieldChange;
 import nathan_mead.bug_tracker.model.Bug;
-import nathan_mead.bug_tracker.model.Priority;
-import nathan_mead.bug_tracker.model.Status;
-import nathan_mead.bug_tracker.model.User;
+import nathan_mead.bug_tracker.model.BugHistory;
+import nathan_mead.bug_tracker.repository.BugHistoryRepository;
 import nathan_mead.bug_tracker.repository.BugRepository;
-import nathan_mead.bug_tracker.repository.PriorityRepository;
-import nathan_mead.bug_tracker.repository.StatusRepository;
+import nathan_mead.bug_tracker.repository.BugSort;
+import nathan_mead.bug_tracker.repository.BugSpecifications;
 import nathan_mead.bug_tracker.repository.UserRepository;
+import nathan_mead.bug_tracker.service.BugBatchService;
+import nathan_mead.bug_tracker.service.BugEventLog;
+import nathan_mead.bug_tracker.service.BugExportService;
+import nathan_mead.bug_tracker.service.BugHistoryWriter;
+import nathan_mead.bug_tracker.service.BugImportService;
+import nathan_mead.bug_tracker.service.BugEventBroadcaster;
+import nathan_mead.bug_tracker.service.BugReferenceResolver;
+import nathan_mead.bug_tracker.service.ReferenceDataCache;
+import com.rabbitmq.stream.OffsetSpecification;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.interceptor.TransactionAspectSupport;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.function.Function;
+import java.util.zip.GZIPOutputStream;
 
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 
 @RestController
 @RequestMapping("/api/bugs")
 public class BugController {
 
+    // Sort signature recorded in history cursors
+    private static final String HISTORY_CURSOR = "history";
+
     @Autowired
     private BugRepository bugRepository;
 
     @Autowired
-    private PriorityRepository priorityRepository;
+    private BugHistoryRepository bugHistoryRepository;
+
+    @Autowired
+    private ReferenceDataCache referenceDataCache;
+
+    @Autowired
+    private BugBatchService bugBatchService;
+
+    @Autowired
+    private BugHistoryWriter bugHistoryWriter;
 
     @Autowired
-    private StatusRepository statusRepository;
+    private BugReferenceResolver bugReferenceResolver;
+
+    @Autowired
+    private BugEventBroadcaster bugEventBroadcaster;
+
+    @Autowired
+    private BugEventLog bugEventLog;
+
+    @Autowired
+    private BugImportService bugImportService;
+
+    @Autowired
+    private BugExportService bugExportService;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
 
     @Autowired
     private UserRepository userRepository;
 
-    // GET endpoint to list all bugs
+    @Value("${defectrak.bugs.page-size.default:50}")
+    private int defaultPageSize;
+
+    @Value("${defectrak.bugs.page-size.max:200}")
+    private int maxPageSize;
+
+    @Value("${defectrak.bugs.batch.max-size:10000}")
+    private int maxBatchSize;
+
+    @Value("${defectrak.events.log.read-limit.default:100}")
+    private int defaultLogReadLimit;
+
+    @Value("${defectrak.events.log.read-limit.max:1000}")
+    private int maxLogReadLimit;
+
+    // GET endpoint to list bugs one page at a time, filtered and sorted (newest first by default)
+    @StatementBudget(1)
     @GetMapping
-    public List<Bug> getAllBugs() {
-        return bugRepository.findAll();
+    @Transactional(readOnly = true)
+    public ResponseEntity<?> getAllBugs(BugFilter filter,
+                                        @RequestParam(required = false) List<String> sort,
+                                        @RequestParam(required = false) String cursor,
+                                        @RequestParam(required = false) Integer size) {
+        BugSort bugSort;
+        try {
+            bugSort = BugSort.parse(sort);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+
+        List<Comparable<?>> after = null;
+        if (cursor != null && !cursor.isBlank()) {
+            try {
+                after = decodeCursor(cursor, bugSort);
+            } catch (IllegalArgumentException e) {
+                return ResponseEntity.badRequest().body("Invalid cursor.");
+            }
+        }
+
+        int pageSize = resolvePageSize(size);
+        // Fetch one extra row to learn whether another page exists
+        List<Bug> bugs = bugRepository.findPage(BugSpecifications.matching(filter), bugSort, after, pageSize + 1);
+
+        return ResponseEntity.ok(toCursorPage(bugs, pageSize,
+                bug -> new BugCursor(bugSort.signature(), bugSort.keysetOf(bug))));
+    }
+
+    // GET endpoint to list flat bug summaries for the board view, newest first
+    @StatementBudget(1)
+    @GetMapping("/summary")
+    @Transactional(readOnly = true)
+    public ResponseEntity<?> getBugSummaries(@RequestParam(required = false) String cursor,
+                                             @RequestParam(required = false) Integer size) {
+        int pageSize = resolvePageSize(size);
+        Limit limit = Limit.of(pageSize + 1);
+
+        List<BugSummary> summaries;
+        if (cursor == null || cursor.isBlank()) {
+            summaries = bugRepository.findFirstSummaryPage(limit);
+        } else {
+            List<Comparable<?>> after;
+            try {
+                after = decodeCursor(cursor, BugSort.DEFAULT);
+            } catch (IllegalArgumentException e) {
+                return ResponseEntity.badRequest().body("Invalid cursor.");
+            }
+            summaries = bugRepository.findSummaryPageAfter((LocalDateTime) after.get(0), (Long) after.get(1), limit);
+        }
+
+        return ResponseEntity.ok(toCursorPage(summaries, pageSize, summary -> new BugCursor(
+                BugSort.DEFAULT.signature(),
+                List.of(summary.getCreatedAt().toString(), summary.getId().toString()))));
+    }
+
+    // GET endpoint to full-text search bug titles and descriptions, best match first
+    @StatementBudget(1)
+    @GetMapping("/search")
+    @Transactional(readOnly = true)
+    public ResponseEntity<?> searchBugs(@RequestParam(required = false) String q,
+                                        @RequestParam(required = false) Integer size) {
+        if (q == null || q.isBlank()) {
+            return ResponseEntity.badRequest().body("Search query is required.");
+        }
+        List<BugSearchResult> results = bugRepository.search(q.trim(), resolvePageSize(size));
+        return ResponseEntity.ok(results);
+    }
+
+    // GET endpoint to stream created/updated/deleted bug events as Server-Sent Events.
+    // Reconnecting clients send Last-Event-ID and receive the events they missed, or a "reset" event if those are gone.
+    @StatementBudget(0)
+    @GetMapping(path = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamBugEvents(@RequestHeader(name = "Last-Event-ID", required = false) String lastEventId,
+                                      HttpServletResponse response) {
+        // Stop nginx from buffering the stream
+        response.setHeader("X-Accel-Buffering", "no");
+        Long lastSeenId = null;
+        if (lastEventId != null && !lastEventId.isBlank()) {
+            try {
+                lastSeenId = Long.valueOf(lastEventId.trim());
+            } catch (NumberFormatException e) {
+                // Unknown id format: treat as a fresh subscription
+            }
+        }
+        return bugEventBroadcaster.subscribe(lastSeenId);
+    }
+
+    // GET endpoint to replay the bug event log from an offset or a point in time (from the start by default).
+    // Used to rebuild derived data after a deploy; page on by passing the last entry's offset + 1.
+    @PreAuthorize("hasRole('ADMIN')")
+    @StatementBudget(0)
+    @GetMapping("/events")
+    public ResponseEntity<?> getBugEventLog(@RequestParam(required = false) Long offset,
+                                            @RequestParam(required = false) Instant since,
+                                            @RequestParam(required = false) Integer limit) {
+        if (offset != null && since != null) {
+            return ResponseEntity.badRequest().body("Give either offset or since, not both.");
+        }
+        if (offset != null && offset < 0) {
+            return ResponseEntity.badRequest().body("Offset must not be negative.");
+        }
+        int readLimit = limit == null ? defaultLogReadLimit : Math.max(1, Math.min(limit, maxLogReadLimit));
+
+        OffsetSpecification from = offset != null ? OffsetSpecification.offset(offset)
+                : since != null ? OffsetSpecification.timestamp(since.toEpochMilli())
+                : OffsetSpecification.first();
+        List<BugLogEntry> entries = bugEventLog.read(from, readLimit);
+        return ResponseEntity.ok(entries);
     }
 
     // GET endpoint to get a bug by ID
+    @StatementBudget(1)
     @GetMapping("/{id}")
+    @Transactional(readOnly = true)
     public ResponseEntity<Bug> getBugById(@PathVariable Long id) {
         Optional<Bug> bugOpt = bugRepository.findById(id);
         return bugOpt.map(ResponseEntity::ok)
                 .orElseGet(() -> ResponseEntity.notFound().build());
     }
 
+    // GET endpoint to page through one bug's change history, oldest first
+    @StatementBudget(1)
+    @GetMapping("/{id}/history")
+    @Transactional(readOnly = true)
+    public ResponseEntity<?> getBugHistory(@PathVariable Long id,
+                                           @RequestParam(required = false) String cursor,
+                                           @RequestParam(required = false) Integer size) {
+        int pageSize = resolvePageSize(size);
+        Limit limit = Limit.of(pageSize + 1);
+
+        List<BugHistory> history;
+        if (cursor == null || cursor.isBlank()) {
+            history = bugHistoryRepository.findFirstTimelinePage(id, limit);
+        } else {
+            LocalDateTime changedAt;
+            Long historyId;
+            try {
+                BugCursor position = BugCursor.decode(cursor);
+                if (!HISTORY_CURSOR.equals(position.getSort()) || position.getValues().size() != 2) {
+                    throw new IllegalArgumentException("Cursor does not match history");
+                }
+                changedAt = LocalDateTime.parse(position.getValues().get(0));
+                historyId = Long.valueOf(position.getValues().get(1));
+            } catch (RuntimeException e) {
+                return ResponseEntity.badRequest().body("Invalid cursor.");
+            }
+            history = bugHistoryRepository.findTimelinePageAfter(id, changedAt, historyId, limit);
+        }
+
+        return ResponseEntity.ok(toCursorPage(history, pageSize, row -> new BugCursor(
+                HISTORY_CURSOR, List.of(row.getChangedAt().toString(), row.getId().toString()))));
+    }
+
     // POST endpoint to create a new bug using BugDto
+    @StatementBudget(5)
     @PostMapping
+    @Transactional
     public ResponseEntity<Bug> createBug(@Valid @RequestBody BugDto bugDto) {
         Bug bug = new Bug();
         bug.setTitle(bugDto.getTitle());
         bug.setDescription(bugDto.getDescription());
         bug.setCreatedAt(LocalDateTime.now());
 
-        // Set Priority if provided
-        if (bugDto.getPriorityId() != null) {
-            Optional<Priority> priorityOpt = priorityRepository.findById(bugDto.getPriorityId());
-            if (priorityOpt.isPresent()) {
-                bug.setPriority(priorityOpt.get());
-            } else {
-                return ResponseEntity.status(HttpStatus.BAD_REQUEST)
-                        .body(null);
-            }
+        // Resolve priority, status, assignee and creator; any unknown id rejects the request
+        if (!bugReferenceResolver.applyTo(bug, bugDto.getPriorityId(), bugDto.getStatusId(),
+                bugDto.getAssigneeId(), bugDto.getCreatedByUserId())) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(null);
         }
 
-        // Set Status if provided
-        if (bugDto.getStatusId() != null) {
-            Optional<Status> statusOpt = statusRepository.findById(bugDto.getStatusId());
-            if (statusOpt.isPresent()) {
-                bug.setStatus(statusOpt.get());
-            } else {
-                return ResponseEntity.status(HttpStatus.BAD_REQUEST)
-                        .body(null);
-            }
+        Bug createdBug = bugRepository.save(bug);
+        eventPublisher.publishEvent(BugChangedEvent.created(createdBug));
+        return ResponseEntity.status(HttpStatus.CREATED).body(createdBug);
+    }
+
+    // POST endpoint to create many bugs in one request; responds with one result per item, in request order.
+    // Budget: 3 reference lookups, then an id fetch and an insert per JDBC batch of 50, up to max-size bugs, and one
+    // JDBC batch of outbox rows.
+    @StatementBudget(404)
+    @PostMapping("/batch")
+    @Transactional
+    public ResponseEntity<?> createBugs(@RequestBody List<BugDto> bugDtos) {
+        if (bugDtos.isEmpty()) {
+            return ResponseEntity.badRequest().body("At least one bug is required.");
         }
+        if (bugDtos.size() > maxBatchSize) {
+            return ResponseEntity.badRequest().body("A batch may contain at most " + maxBatchSize + " bugs.");
+        }
+        return ResponseEntity.ok(bugBatchService.createAll(bugDtos));
+    }
 
-        // Set Assignee if provided
-        if (bugDto.getAssigneeId() != null) {
-            Optional<User> userOpt = userRepository.findById(bugDto.getAssigneeId());
-            if (userOpt.isPresent()) {
-                bug.setAssignee(userOpt.get());
-            } else {
-                return ResponseEntity.status(HttpStatus.BAD_REQUEST)
-                        .body(null);
-            }
+    // POST endpoint to start a bulk import from a CSV (with header row) or NDJSON upload sent as the request body.
+    // Responds 202 with the import job; poll its Location for progress and rejected rows.
+    @PreAuthorize("hasRole('ADMIN')")
+    @StatementBudget(0)
+    @PostMapping(path = "/import", consumes = {BugFileFormat.CSV_TYPE, BugFileFormat.NDJSON_TYPE})
+    public ResponseEntity<?> importBugs(@RequestHeader("Content-Type") String contentType, InputStream body)
+            throws IOException {
+        BugFileFormat format = MediaType.parseMediaType(contentType).isCompatibleWith(
+                MediaType.parseMediaType(BugFileFormat.CSV_TYPE)) ? BugFileFormat.CSV : BugFileFormat.NDJSON;
+        BugImportJob job = bugImportService.submit(body, format);
+        return ResponseEntity.accepted()
+                .location(URI.create("/api/bugs/import/" + job.getId()))
+                .body(job);
+    }
+
+    // GET endpoint to check the progress of a bulk import
+    @PreAuthorize("hasRole('ADMIN')")
+    @StatementBudget(0)
+    @GetMapping("/import/{jobId}")
+    public ResponseEntity<BugImportJob> getImportJob(@PathVariable String jobId) {
+        return bugImportService.find(jobId)
+                .map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.notFound().build());
+    }
+
+    // GET endpoint to download every bug as CSV (with header row) or NDJSON, streamed as it is read from the
+    // database. The body is gzipped on the fly when the client accepts it.
+    @PreAuthorize("hasRole('ADMIN')")
+    @StatementBudget(0)
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportBugs(
+            @RequestParam(defaultValue = "csv") String format,
+            @RequestHeader(name = "Accept-Encoding", required = false) String acceptEncoding) {
+        BugFileFormat fileFormat;
+        try {
+            fileFormat = BugFileFormat.valueOf(format.trim().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            // Streaming handlers can only return a streamed body, so the message is written as one
+            byte[] message = ("Unsupported export format: " + format).getBytes(StandardCharsets.UTF_8);
+            return ResponseEntity.badRequest().contentType(MediaType.TEXT_PLAIN).body(out -> out.write(message));
         }
+        boolean gzip = acceptEncoding != null && acceptEncoding.toLowerCase().contains("gzip");
 
-        // Set Created By if provided
-        if (bugDto.getCreatedByUserId() != null) {
-            Optional<User> userOpt = userRepository.findById(bugDto.getCreatedByUserId());
-            if (userOpt.isPresent()) {
-                bug.setCreatedBy(userOpt.get());
-            } else {
-                return ResponseEntity.status(HttpStatus.BAD_REQUEST)
-                        .body(null);
+        StreamingResponseBody body = out -> {
+            if (!gzip) {
+                bugExportService.export(out, fileFormat);
+                return;
             }
+            // Sync flush pushes each compressed chunk out instead of holding it until the end
+            GZIPOutputStream zipped = new GZIPOutputStream(out, 8192, true);
+            bugExportService.export(zipped, fileFormat);
+            zipped.finish();
+        };
+
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(fileFormat.getMediaType() + ";charset=UTF-8"))
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        "attachment; filename=\"bugs." + fileFormat.getExtension() + "\"")
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING)
+                // Stop nginx from buffering the download
+                .header("X-Accel-Buffering", "no");
+        if (gzip) {
+            response.header(HttpHeaders.CONTENT_ENCODING, "gzip");
         }
+        return response.body(body);
+    }
 
-        Bug createdBug = bugRepository.save(bug);
-        return ResponseEntity.status(HttpStatus.CREATED).body(createdBug);
+    // PATCH endpoint to move many bugs to a new status, priority or assignee with one set-based UPDATE.
+    // Budget: 3 reference checks, the row lock, a history INSERT ... SELECT per changed field, the UPDATE and one
+    // JDBC batch of outbox rows.
+    @StatementBudget(9)
+    @PatchMapping
+    @Transactional
+    public ResponseEntity<?> bulkUpdateBugs(@RequestBody BugBulkUpdate bulkUpdate) {
+        List<Long> ids = bulkUpdate.getIds();
+        boolean hasIds = ids != null && !ids.isEmpty();
+        if (!hasIds && BugSpecifications.isEmpty(bulkUpdate.getFilter())) {
+            return ResponseEntity.badRequest().body("Select bugs by ids or filter.");
+        }
+        if (hasIds && ids.size() > maxBatchSize) {
+            return ResponseEntity.badRequest().body("At most " + maxBatchSize + " ids may be given.");
+        }
+        if (!bulkUpdate.hasChanges()) {
+            return ResponseEntity.badRequest().body("At least one change is required.");
+        }
+
+        // The UPDATE writes the ids straight into the foreign keys, so check them first
+        if (bulkUpdate.getStatusId() != null && referenceDataCache.findStatus(bulkUpdate.getStatusId()).isEmpty()) {
+            return ResponseEntity.badRequest().body("Unknown status.");
+        }
+        if (bulkUpdate.getPriorityId() != null && referenceDataCache.findPriority(bulkUpdate.getPriorityId()).isEmpty()) {
+            return ResponseEntity.badRequest().body("Unknown priority.");
+        }
+        if (bulkUpdate.getAssigneeId() != null && !userRepository.existsById(bulkUpdate.getAssigneeId())) {
+            return ResponseEntity.badRequest().body("Unknown assignee.");
+        }
+
+        Specification<Bug> selection = BugSpecifications.matching(bulkUpdate.getFilter());
+        if (hasIds) {
+            selection = selection.and(BugSpecifications.hasIdIn(ids));
+        }
+        // Lock the selected rows and read their current values, so every bug gets its own change event
+        List<BugRow> selected = bugRepository.findRowsForUpdate(selection, maxBatchSize + 1);
+        if (selected.size() > maxBatchSize) {
+            return ResponseEntity.badRequest().body("At most " + maxBatchSize + " bugs may be updated at once.");
+        }
+        if (selected.isEmpty()) {
+            return ResponseEntity.ok(Map.of("updated", 0));
+        }
+
+        List<Long> selectedIds = selected.stream().map(BugRow::getId).toList();
+        bugHistoryWriter.recordBulkUpdate(selectedIds, bulkUpdate);
+        int updated = bugRepository.bulkUpdate(BugSpecifications.hasIdIn(selectedIds), bulkUpdate);
+        List<BugChangedEvent> items = new ArrayList<>();
+        for (BugRow before : selected) {
+            BugRow after = before.withReferences(bulkUpdate.getPriorityId(), bulkUpdate.getStatusId(),
+                    bulkUpdate.getAssigneeId());
+            List<BugFieldChange> changes = BugFieldChange.between(
+                    BugFieldChange.snapshot(before), BugFieldChange.snapshot(after));
+            if (!changes.isEmpty()) {
+                items.add(BugChangedEvent.updated(after, changes));
+            }
+        }
+        if (!items.isEmpty()) {
+            eventPublisher.publishEvent(BugChangedEvent.bulkChanged(items));
+        }
+        return ResponseEntity.ok(Map.of("updated", updated));
     }
 
     // PUT endpoint to update an existing bug using BugDto
+    @StatementBudget(4)
     @PutMapping("/{id}")
+    @Transactional
     public ResponseEntity<Bug> updateBug(@PathVariable Long id, @Valid @RequestBody BugDto bugDto) {
         Optional<Bug> bugOpt = bugRepository.findById(id);
         if (!bugOpt.isPresent()) {
             return ResponseEntity.notFound().build();
         }
         Bug bug = bugOpt.get();
+        Map<String, String> before = BugFieldChange.snapshot(bug);
 
         // Update basic fields
         bug.setTitle(bugDto.getTitle());
         bug.setDescription(bugDto.getDescription());
         // You may choose not to update createdBy or createdAt
 
-        // Update Priority if provided
-        if (bugDto.getPriorityId() != null) {
-            Optional<Priority> priorityOpt = priorityRepository.findById(bugDto.getPriorityId());
-            if (priorityOpt.isPresent()) {
-                bug.setPriority(priorityOpt.get());
-            } else {
-                return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(null);
-            }
-        }
-
-        // Update Status if provided
-        if (bugDto.getStatusId() != null) {
-            Optional<Status> statusOpt = statusRepository.findById(bugDto.getStatusId());
-            if (statusOpt.isPresent()) {
-                bug.setStatus(statusOpt.get());
-            } else {
-                return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(null);
-            }
-        }
-
-        // Update Assignee if provided
-        if (bugDto.getAssigneeId() != null) {
-            Optional<User> userOpt = userRepository.findById(bugDto.getAssigneeId());
-            if (userOpt.isPresent()) {
-                bug.setAssignee(userOpt.get());
-            } else {
-                return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(null);
-            }
+        // Update priority, status and assignee if provided; createdBy is never changed
+        if (!bugReferenceResolver.applyTo(bug, bugDto.getPriorityId(), bugDto.getStatusId(),
+                bugDto.getAssigneeId(), null)) {
+            // The bug is managed, so discard the fields already set rather than let the commit flush them
+            TransactionAspectSupport.currentTransactionStatus().setRollbackOnly();
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(null);
         }
 
         Bug updatedBug = bugRepository.save(bug);
+        List<BugFieldChange> changes = BugFieldChange.between(before, BugFieldChange.snapshot(updatedBug));
+        eventPublisher.publishEvent(BugChangedEvent.updated(updatedBug, changes));
         return ResponseEntity.ok(updatedBug);
     }
 
     // DELETE endpoint to delete a bug by ID
     @PreAuthorize("hasRole('ADMIN')")
+    @StatementBudget(3)
     @DeleteMapping("/{id}")
+    @Transactional
     public ResponseEntity<Void> deleteBug(@PathVariable Long id) {
         Optional<Bug> bugOpt = bugRepository.findById(id);
         if (bugOpt.isPresent()) {
             bugRepository.delete(bugOpt.get());
+            eventPublisher.publishEvent(BugChangedEvent.deleted(id));
             return ResponseEntity.noContent().build();
         } else {
             return ResponseEntity.notFound().build();
         }
     }
+
+    // Helper to turn a cursor token back into sort-key values, rejecting cursors issued for a different sort
+    private List<Comparable<?>> decodeCursor(String token, BugSort bugSort) {
+        BugCursor position = BugCursor.decode(token);
+        if (!bugSort.signature().equals(position.getSort())) {
+            throw new IllegalArgumentException("Cursor does not match sort");
+        }
+        return bugSort.parseKeyset(position.getValues());
+    }
+
+    // Helper to trim the look-ahead row and point the next cursor at the last row returned
+    private <T> CursorPage<T> toCursorPage(List<T> rows, int pageSize, Function<T, BugCursor> positionOf) {
+        if (rows.size() <= pageSize) {
+            return new CursorPage<>(rows, null);
+        }
+        List<T> page = rows.subList(0, pageSize);
+        return new CursorPage<>(page, positionOf.apply(page.get(pageSize - 1)).encode());
+    }
+
+    // Helper to clamp the requested page size to the configured bounds
+    private int resolvePageSize(Integer requested) {
+        if (requested == null || requested < 1) {
+            return defaultPageSize;
+        }
+        return Math.min(requested, maxPageSize);
+    }
 }
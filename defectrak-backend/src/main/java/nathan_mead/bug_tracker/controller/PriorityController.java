@@ -1,11 +1,16 @@
 package nathan_mead.bug_tracker.controller;
 
+import nathan_mead.bug_tracker.config.CacheConfig;
+import nathan_mead.bug_tracker.config.StatementBudget;
 import nathan_mead.bug_tracker.model.Priority;
 import nathan_mead.bug_tracker.repository.PriorityRepository;
+import nathan_mead.bug_tracker.service.ReferenceDataCache;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.security.access.prepost.PreAuthorize;
 
 import java.util.List;
@@ -20,20 +25,29 @@ public class PriorityController {
     @Autowired
     private PriorityRepository priorityRepository;
 
+    @Autowired
+    private ReferenceDataCache referenceDataCache;
+
     // GET endpoint to list all priorities
     @PreAuthorize("hasRole('ADMIN')")
+    @StatementBudget(1)
     @GetMapping
+    @Transactional(readOnly = true)
     public List<Priority> getAllPriorities() {
         return priorityRepository.findAll();
     }
 
+    @StatementBudget(1)
     @GetMapping("/active")
+    @Transactional(readOnly = true)
     public List<Priority> getActivePriorities() {
-        return priorityRepository.findAllActive();
+        return referenceDataCache.activePriorities();
     }
 
     // GET endpoint to return a specific priority by ID
+    @StatementBudget(1)
     @GetMapping("/{id}")
+    @Transactional(readOnly = true)
     public ResponseEntity<Priority> getPriorityById(@PathVariable("id") Long id) {
         Optional<Priority> priorityOpt = priorityRepository.findById(id);
         return priorityOpt.map(ResponseEntity::ok)
@@ -42,6 +56,8 @@ public class PriorityController {
 
     // POST endpoint to create a new Priority
     @PreAuthorize("hasRole('ADMIN')")
+    @CacheEvict(cacheNames = {CacheConfig.PRIORITIES, CacheConfig.ACTIVE_PRIORITIES}, allEntries = true)
+    @StatementBudget(3)
     @PostMapping
     public ResponseEntity<?> createPriority(@Valid @RequestBody Priority priority) {
         String level = priority.getLevel().toLowerCase();
@@ -49,6 +65,9 @@ public class PriorityController {
             return ResponseEntity.status(HttpStatus.CONFLICT)
                     .body("A priority with this level already exists.");
         }
+        if (priority.getSortOrder() == null) {
+            priority.setSortOrder(priorityRepository.findNextSortOrder());
+        }
         Priority created = priorityRepository.save(priority);
         
         return ResponseEntity.status(HttpStatus.CREATED).body(created);
@@ -56,6 +75,8 @@ public class PriorityController {
 
     // PUT endpoint to update an existing Priority
     @PreAuthorize("hasRole('ADMIN')")
+    @CacheEvict(cacheNames = {CacheConfig.PRIORITIES, CacheConfig.ACTIVE_PRIORITIES}, allEntries = true)
+    @StatementBudget(3)
     @PutMapping("/{id}")
     public ResponseEntity<?> updatePriority(@PathVariable Long id, @Valid @RequestBody Priority priorityDetails) {
         Optional<Priority> existingPriorityOpt = priorityRepository.findById(id);
@@ -73,12 +94,17 @@ public class PriorityController {
         
         existingPriority.setLevel(priorityDetails.getLevel());
         existingPriority.setStatus(priorityDetails.getStatus());
+        if (priorityDetails.getSortOrder() != null) {
+            existingPriority.setSortOrder(priorityDetails.getSortOrder());
+        }
         Priority updated = priorityRepository.save(existingPriority);
         return ResponseEntity.ok(updated);
     }
 
     // DELETE endpoint to delete an existing priority
     @PreAuthorize("hasRole('ADMIN')")
+    @CacheEvict(cacheNames = {CacheConfig.PRIORITIES, CacheConfig.ACTIVE_PRIORITIES}, allEntries = true)
+    @StatementBudget(2)
     @DeleteMapping("/{id}")
     public ResponseEntity<Void> deletePriority(@PathVariable Long id) {
         Optional<Priority> existingPriorityOpt = priorityRepository.findById(id);
@@ -1,11 +1,16 @@
 package nathan_mead.bug_tracker.controller;
 
+import nathan_mead.bug_tracker.config.CacheConfig;
+import nathan_mead.bug_tracker.config.StatementBudget;
 import nathan_mead.bug_tracker.model.Status;
 import nathan_mead.bug_tracker.repository.StatusRepository;
+import nathan_mead.bug_tracker.service.ReferenceDataCache;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.security.access.prepost.PreAuthorize;
 
 import java.util.List;
@@ -20,20 +25,29 @@ public class StatusController {
     @Autowired
     private StatusRepository statusRepository;
 
+    @Autowired
+    private ReferenceDataCache referenceDataCache;
+
     // GET endpoint to list all statuses
     @PreAuthorize("hasRole('ADMIN')")
+    @StatementBudget(1)
     @GetMapping
+    @Transactional(readOnly = true)
     public List<Status> getAllStatuses() {
         return statusRepository.findAll();
     }
 
+    @StatementBudget(1)
     @GetMapping("/active")
+    @Transactional(readOnly = true)
     public List<Status> getActiveStatuses() {
-        return statusRepository.findAllActive();
+        return referenceDataCache.activeStatuses();
     }
 
     // GET endpoint to return a specific status by ID
+    @StatementBudget(1)
     @GetMapping("/{id}")
+    @Transactional(readOnly = true)
     public ResponseEntity<Status> getStatusById(@PathVariable("id") Long id) {
         Optional<Status> statusOpt = statusRepository.findById(id);
         return statusOpt.map(ResponseEntity::ok)
@@ -42,6 +56,8 @@ public class StatusController {
 
     // POST endpoint to create a new status
     @PreAuthorize("hasRole('ADMIN')")
+    @CacheEvict(cacheNames = {CacheConfig.STATUSES, CacheConfig.ACTIVE_STATUSES}, allEntries = true)
+    @StatementBudget(3)
     @PostMapping
     public ResponseEntity<?> createStatus(@Valid @RequestBody Status status) {
         String statusLabel = status.getStatusLabel().toLowerCase();
@@ -51,6 +67,9 @@ public class StatusController {
                     .body("A status with this label already exists.");
         }
 
+        if (status.getSortOrder() == null) {
+            status.setSortOrder(statusRepository.findNextSortOrder());
+        }
         Status created = statusRepository.save(status);
         
         return ResponseEntity.status(HttpStatus.CREATED).body(created);
@@ -58,6 +77,8 @@ public class StatusController {
 
     // PUT endpoint to update an existing status
     @PreAuthorize("hasRole('ADMIN')")
+    @CacheEvict(cacheNames = {CacheConfig.STATUSES, CacheConfig.ACTIVE_STATUSES}, allEntries = true)
+    @StatementBudget(3)
     @PutMapping("/{id}")
     public ResponseEntity<?> updateStatus(@PathVariable Long id, @Valid @RequestBody Status statusDetails) {
         Optional<Status> existingStatusOpt = statusRepository.findById(id);
@@ -76,12 +97,17 @@ public class StatusController {
 
         existingStatus.setStatusLabel(statusDetails.getStatusLabel());
         existingStatus.setStatus(statusDetails.getStatus());
+        if (statusDetails.getSortOrder() != null) {
+            existingStatus.setSortOrder(statusDetails.getSortOrder());
+        }
         Status updated = statusRepository.save(existingStatus);
         return ResponseEntity.ok(updated);
     }
 
     // DELETE endpoint to delete an existing status
     @PreAuthorize("hasRole('ADMIN')")
+    @CacheEvict(cacheNames = {CacheConfig.STATUSES, CacheConfig.ACTIVE_STATUSES}, allEntries = true)
+    @StatementBudget(2)
     @DeleteMapping("/{id}")
     public ResponseEntity<Void> deleteStatus(@PathVariable Long id) {
         Optional<Status> existingStatusOpt = statusRepository.findById(id);
@@ -1,19 +1,27 @@
 package nathan_mead.bug_tracker.controller;
 
+import nathan_mead.bug_tracker.config.StatementBudget;
 import nathan_mead.bug_tracker.dto.UserDto;
+import nathan_mead.bug_tracker.dto.UserLookup;
+import nathan_mead.bug_tracker.event.UserChangedEvent;
 import nathan_mead.bug_tracker.model.User;
 import nathan_mead.bug_tracker.model.UserRole;
 import nathan_mead.bug_tracker.repository.UserRepository;
-import nathan_mead.bug_tracker.repository.UserRoleRepository;
+import nathan_mead.bug_tracker.security.UserDetailsCache;
+import nathan_mead.bug_tracker.service.CurrentUserCache;
+import nathan_mead.bug_tracker.service.ReferenceDataCache;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 import java.util.Optional;
@@ -31,10 +39,25 @@ public class UserController {
     private UserRepository userRepository;
 
     @Autowired
-    private UserRoleRepository userRoleRepository;
+    private PasswordEncoder passwordEncoder;
 
     @Autowired
-    private PasswordEncoder passwordEncoder;
+    private ReferenceDataCache referenceDataCache;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private UserDetailsCache userDetailsCache;
+
+    @Autowired
+    private CurrentUserCache currentUserCache;
+
+    // Trigrams need at least three characters to narrow the search
+    private static final int MIN_LOOKUP_LENGTH = 3;
+
+    @Value("${defectrak.users.lookup.limit:10}")
+    private int lookupLimit;
 
     // Helper function to hash the password using BCrypt
     private String hashPassword(String rawPassword) {
@@ -43,18 +66,36 @@ public class UserController {
 
     // GET endpoint to list all users
     @PreAuthorize("hasRole('ADMIN')")
+    @StatementBudget(1)
     @GetMapping
+    @Transactional(readOnly = true)
     public List<User> getAllUsers() {
         return userRepository.findAll();
     }
 
+    @StatementBudget(1)
     @GetMapping("/active")
+    @Transactional(readOnly = true)
     public List<User> getActiveUsers() {
         return userRepository.findAllActive();
     }
 
+    // GET endpoint to look up active users by name or email for autocomplete, best match first
+    @StatementBudget(1)
+    @GetMapping("/lookup")
+    @Transactional(readOnly = true)
+    public ResponseEntity<?> lookupUsers(@RequestParam(required = false) String q) {
+        if (q == null || q.trim().length() < MIN_LOOKUP_LENGTH) {
+            return ResponseEntity.badRequest().body("Query must be at least " + MIN_LOOKUP_LENGTH + " characters.");
+        }
+        List<UserLookup> users = userRepository.lookupActive(q, lookupLimit);
+        return ResponseEntity.ok(users);
+    }
+
     // GET endpoint to get a user by ID
+    @StatementBudget(1)
     @GetMapping("/{id}")
+    @Transactional(readOnly = true)
     public ResponseEntity<User> getUserById(@PathVariable Long id) {
         Optional<User> userOpt = userRepository.findById(id);
         return userOpt.map(ResponseEntity::ok)
@@ -62,7 +103,9 @@ public class UserController {
     }
 
     // POST endpoint to create a new user using UserDto
+    @StatementBudget(4)
     @PostMapping("/register")
+    @Transactional
     public ResponseEntity<?> createUser(@Valid @RequestBody UserDto userDto) {
         logger.info("new user = {}", userDto);
         logger.info("Registering new user at /api/users/register");
@@ -83,7 +126,7 @@ public class UserController {
 
         // Set User Role if provided
         if (userDto.getUserRoleId() != null) {
-            Optional<UserRole> userRoleOpt = userRoleRepository.findById(userDto.getUserRoleId());
+            Optional<UserRole> userRoleOpt = referenceDataCache.findUserRole(userDto.getUserRoleId());
             if (userRoleOpt.isPresent()) {
                 user.setRole(userRoleOpt.get());
             } else {
@@ -93,11 +136,14 @@ public class UserController {
         }
 
         User createdUser = userRepository.save(user);
+        eventPublisher.publishEvent(UserChangedEvent.created(createdUser));
         return ResponseEntity.status(HttpStatus.CREATED).body(createdUser);
     }
 
     // PUT endpoint to update an existing users password
+    @StatementBudget(3)
     @PutMapping("/{id}/password")
+    @Transactional
     public ResponseEntity<User> updateUserPassword(@PathVariable Long id, @RequestBody String newPassword) {
         String authenticatedUserEmail = SecurityContextHolder.getContext().getAuthentication().getName();
 
@@ -116,12 +162,17 @@ public class UserController {
 
         user.setPassword(hashPassword(newPassword));
         User updatedUser = userRepository.save(user);
+        userDetailsCache.removeUserFromCache(updatedUser.getEmail());
+        eventPublisher.publishEvent(UserChangedEvent.updated(updatedUser));
         return ResponseEntity.ok(updatedUser);
     }
 
-    // PUT endpoint to update an existing users status
+    // PUT endpoint to update an existing users status.
+    // Budget: 3, plus with the JDBC session store a lookup of the user's sessions and 3 per session saved; allows one.
     @PreAuthorize("hasRole('ADMIN')")
+    @StatementBudget(7)
     @PutMapping("/{id}")
+    @Transactional
     public ResponseEntity<User> updateUserStatus(@PathVariable Long id, @RequestBody String status) {
 
         Optional<User> userOpt = userRepository.findById(id);
@@ -133,12 +184,18 @@ public class UserController {
 
         user.setStatus(status);
         User updatedUser = userRepository.save(user);
+        userDetailsCache.removeUserFromCache(updatedUser.getEmail());
+        currentUserCache.refresh(updatedUser.getEmail(), updatedUser, null);
+        eventPublisher.publishEvent(UserChangedEvent.updated(updatedUser));
         return ResponseEntity.ok(updatedUser);
     }
 
-    // PUT endpoint to update an existing user's role
+    // PUT endpoint to update an existing user's role.
+    // Budget: 4, plus with the JDBC session store a lookup of the user's sessions and 3 per session saved; allows one.
     @PreAuthorize("hasRole('ADMIN')")
+    @StatementBudget(8)
     @PutMapping("/{id}/role")
+    @Transactional
     public ResponseEntity<?> updateUserRole(@PathVariable Long id, @RequestBody Map<String, Long> requestBody) {
         // Retrieve the new role id from the request body
         Long userRoleId = requestBody.get("userRoleId");
@@ -153,7 +210,7 @@ public class UserController {
         }
         
         // Find the role by the provided role id
-        Optional<UserRole> roleOpt = userRoleRepository.findById(userRoleId);
+        Optional<UserRole> roleOpt = referenceDataCache.findUserRole(userRoleId);
         if (!roleOpt.isPresent()) {
             return ResponseEntity.badRequest().body("Invalid userRoleId.");
         }
@@ -162,17 +219,26 @@ public class UserController {
         User user = userOpt.get();
         user.setRole(roleOpt.get());
         User updatedUser = userRepository.save(user);
+        userDetailsCache.removeUserFromCache(updatedUser.getEmail());
+        currentUserCache.refresh(updatedUser.getEmail(), updatedUser, null);
+        eventPublisher.publishEvent(UserChangedEvent.updated(updatedUser));
         
         return ResponseEntity.ok(updatedUser);
     }
 
-    // DELETE endpoint to delete a user by ID
+    // DELETE endpoint to delete a user by ID.
+    // Budget: 3, plus with the JDBC session store a lookup of the user's sessions and a delete per session; allows one.
     @PreAuthorize("hasRole('ADMIN')")
+    @StatementBudget(5)
     @DeleteMapping("/{id}")
+    @Transactional
     public ResponseEntity<Void> deleteUser(@PathVariable Long id) {
         Optional<User> userOpt = userRepository.findById(id);
         if (userOpt.isPresent()) {
             userRepository.delete(userOpt.get());
+            userDetailsCache.removeUserFromCache(userOpt.get().getEmail());
+            currentUserCache.remove(userOpt.get().getEmail());
+            eventPublisher.publishEvent(UserChangedEvent.deleted(id));
             return ResponseEntity.noContent().build();
         } else {
             return ResponseEntity.notFound().build();
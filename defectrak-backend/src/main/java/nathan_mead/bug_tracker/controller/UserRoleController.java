@@ -1,11 +1,17 @@
 package nathan_mead.bug_tracker.controller;
 
+import nathan_mead.bug_tracker.config.CacheConfig;
+import nathan_mead.bug_tracker.config.StatementBudget;
 import nathan_mead.bug_tracker.model.UserRole;
 import nathan_mead.bug_tracker.repository.UserRoleRepository;
+import nathan_mead.bug_tracker.security.UserDetailsCache;
+import nathan_mead.bug_tracker.service.ReferenceDataCache;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.security.access.prepost.PreAuthorize;
 
 import java.util.List;
@@ -20,20 +26,32 @@ public class UserRoleController {
     @Autowired
     private UserRoleRepository userRoleRepository;
 
+    @Autowired
+    private ReferenceDataCache referenceDataCache;
+
+    @Autowired
+    private UserDetailsCache userDetailsCache;
+
     // GET endpoint to list all user roles
     @PreAuthorize("hasRole('ADMIN')")
+    @StatementBudget(1)
     @GetMapping
+    @Transactional(readOnly = true)
     public List<UserRole> getAllUserRoles() {
         return userRoleRepository.findAll();
     }
 
+    @StatementBudget(1)
     @GetMapping("/active")
+    @Transactional(readOnly = true)
     public List<UserRole> getActiveUserRoles() {
-        return userRoleRepository.findAllActive();
+        return referenceDataCache.activeUserRoles();
     }
 
     // GET endpoint to return a specific user role by ID
+    @StatementBudget(1)
     @GetMapping("/{id}")
+    @Transactional(readOnly = true)
     public ResponseEntity<UserRole> getUserRoleById(@PathVariable("id") Long id) {
         Optional<UserRole> userRoleOpt = userRoleRepository.findById(id);
         return userRoleOpt.map(ResponseEntity::ok)
@@ -42,6 +60,8 @@ public class UserRoleController {
 
     // POST endpoint to create a new user role
     @PreAuthorize("hasRole('ADMIN')")
+    @CacheEvict(cacheNames = {CacheConfig.USER_ROLES, CacheConfig.ACTIVE_USER_ROLES}, allEntries = true)
+    @StatementBudget(2)
     @PostMapping
     public ResponseEntity<?> createUserRole(@Valid @RequestBody UserRole userRole) {
         String role = userRole.getRole().toLowerCase();
@@ -58,6 +78,8 @@ public class UserRoleController {
 
     // PUT endpoint to update an existing user role
     @PreAuthorize("hasRole('ADMIN')")
+    @CacheEvict(cacheNames = {CacheConfig.USER_ROLES, CacheConfig.ACTIVE_USER_ROLES}, allEntries = true)
+    @StatementBudget(3)
     @PutMapping("/{id}")
     public ResponseEntity<?> updateUserRole(@PathVariable Long id, @Valid @RequestBody UserRole userRoleDetails) {
         Optional<UserRole> existingUserRoleOpt = userRoleRepository.findById(id);
@@ -77,6 +99,8 @@ public class UserRoleController {
         existingUserRole.setRole(userRoleDetails.getRole());
         existingUserRole.setStatus(userRoleDetails.getStatus());
         UserRole updated = userRoleRepository.save(existingUserRole);
+        // Signed-in users' authorities carry the role name
+        userDetailsCache.removeAllUsersFromCache();
 
         return ResponseEntity.ok(updated);
     }
@@ -84,11 +108,14 @@ public class UserRoleController {
 
     // DELETE endpoint to delete an existing user role
     @PreAuthorize("hasRole('ADMIN')")
+    @CacheEvict(cacheNames = {CacheConfig.USER_ROLES, CacheConfig.ACTIVE_USER_ROLES}, allEntries = true)
+    @StatementBudget(2)
     @DeleteMapping("/{id}")
     public ResponseEntity<Void> deleteUserRole(@PathVariable Long id) {
         Optional<UserRole> existingUserRoleOpt = userRoleRepository.findById(id);
         if (existingUserRoleOpt.isPresent()) {
             userRoleRepository.delete(existingUserRoleOpt.get());
+            userDetailsCache.removeAllUsersFromCache();
             return ResponseEntity.noContent().build(); // Returns HTTP 204 No Content
         } else {
             return ResponseEntity.notFound().build();
@@ -0,0 +1,38 @@
+package nathan_mead.bug_tracker.dto;
+
+// Outcome of one item of a batch create; index is the item's position in the request
+public class BugBatchResult {
+    private final int index;
+    private final Long id;       // Set when the bug was created
+    private final String error;  // Set when the item was rejected
+
+    private BugBatchResult(int index, Long id, String error) {
+        this.index = index;
+        this.id = id;
+        this.error = error;
+    }
+
+    public static BugBatchResult created(int index, Long id) {
+        return new BugBatchResult(index, id, null);
+    }
+
+    public static BugBatchResult rejected(int index, String error) {
+        return new BugBatchResult(index, null, error);
+    }
+
+    public int getIndex() {
+        return index;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public String getError() {
+        return error;
+    }
+
+    public boolean isCreated() {
+        return id != null;
+    }
+}
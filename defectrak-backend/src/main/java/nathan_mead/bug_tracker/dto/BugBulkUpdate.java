@@ -0,0 +1,59 @@
+package nathan_mead.bug_tracker.dto;
+
+import java.util.List;
+
+// Bulk triage request: selects bugs by ids and/or filter (both must match when both are given)
+// and applies every non-null change to all of them
+public class BugBulkUpdate {
+    private List<Long> ids;
+    private BugFilter filter;
+    private Long statusId;   // New status, or null to leave unchanged
+    private Long priorityId; // New priority, or null to leave unchanged
+    private Long assigneeId; // New assignee, or null to leave unchanged
+
+    // Getters and setters
+
+    public List<Long> getIds() {
+        return ids;
+    }
+
+    public void setIds(List<Long> ids) {
+        this.ids = ids;
+    }
+
+    public BugFilter getFilter() {
+        return filter;
+    }
+
+    public void setFilter(BugFilter filter) {
+        this.filter = filter;
+    }
+
+    public Long getStatusId() {
+        return statusId;
+    }
+
+    public void setStatusId(Long statusId) {
+        this.statusId = statusId;
+    }
+
+    public Long getPriorityId() {
+        return priorityId;
+    }
+
+    public void setPriorityId(Long priorityId) {
+        this.priorityId = priorityId;
+    }
+
+    public Long getAssigneeId() {
+        return assigneeId;
+    }
+
+    public void setAssigneeId(Long assigneeId) {
+        this.assigneeId = assigneeId;
+    }
+
+    public boolean hasChanges() {
+        return statusId != null || priorityId != null || assigneeId != null;
+    }
+}
@@ -0,0 +1,61 @@
+package nathan_mead.bug_tracker.dto;
+
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
+
+// One bug in an export file. Apart from the leading id the columns match BugImportRow, so an export can be
+// imported into another instance as-is.
+@JsonPropertyOrder({"id", "title", "description", "priority", "status", "assignee", "createdBy", "createdAt"})
+public class BugExportRow {
+    private final long id;
+    private final String title;
+    private final String description;
+    private final String priority;
+    private final String status;
+    private final String assignee; // Null when unassigned
+    private final String createdBy;
+    private final String createdAt; // ISO-8601 local date-time
+
+    public BugExportRow(long id, String title, String description, String priority, String status, String assignee,
+                        String createdBy, String createdAt) {
+        this.id = id;
+        this.title = title;
+        this.description = description;
+        this.priority = priority;
+        this.status = status;
+        this.assignee = assignee;
+        this.createdBy = createdBy;
+        this.createdAt = createdAt;
+    }
+
+    public long getId() {
+        return id;
+    }
+
+    public String getTitle() {
+        return title;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+
+    public String getPriority() {
+        return priority;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    public String getAssignee() {
+        return assignee;
+    }
+
+    public String getCreatedBy() {
+        return createdBy;
+    }
+
+    public String getCreatedAt() {
+        return createdAt;
+    }
+}
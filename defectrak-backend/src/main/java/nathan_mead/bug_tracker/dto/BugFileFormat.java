@@ -0,0 +1,27 @@
+package nathan_mead.bug_tracker.dto;
+
+// File formats for bulk import and export. Both use the same columns, so an export can be imported elsewhere.
+public enum BugFileFormat {
+    CSV(BugFileFormat.CSV_TYPE, "csv"),
+    NDJSON(BugFileFormat.NDJSON_TYPE, "ndjson");
+
+    // Constants so request mappings can name the media types
+    public static final String CSV_TYPE = "text/csv";
+    public static final String NDJSON_TYPE = "application/x-ndjson";
+
+    private final String mediaType;
+    private final String extension;
+
+    BugFileFormat(String mediaType, String extension) {
+        this.mediaType = mediaType;
+        this.extension = extension;
+    }
+
+    public String getMediaType() {
+        return mediaType;
+    }
+
+    public String getExtension() {
+        return extension;
+    }
+}
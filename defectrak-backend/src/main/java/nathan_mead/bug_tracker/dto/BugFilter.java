@@ -0,0 +1,70 @@
+package nathan_mead.bug_tracker.dto;
+
+import org.springframework.format.annotation.DateTimeFormat;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+// Query-string filter for bug listings; every field is optional and set fields are ANDed together
+public class BugFilter {
+    private List<Long> statusId;   // Matches any of the given statuses
+    private List<Long> priorityId; // Matches any of the given priorities
+    private Long assigneeId;
+    private Long createdByUserId;
+
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+    private LocalDateTime createdFrom; // Inclusive
+
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+    private LocalDateTime createdTo;   // Exclusive
+
+    // Getters and setters
+
+    public List<Long> getStatusId() {
+        return statusId;
+    }
+
+    public void setStatusId(List<Long> statusId) {
+        this.statusId = statusId;
+    }
+
+    public List<Long> getPriorityId() {
+        return priorityId;
+    }
+
+    public void setPriorityId(List<Long> priorityId) {
+        this.priorityId = priorityId;
+    }
+
+    public Long getAssigneeId() {
+        return assigneeId;
+    }
+
+    public void setAssigneeId(Long assigneeId) {
+        this.assigneeId = assigneeId;
+    }
+
+    public Long getCreatedByUserId() {
+        return createdByUserId;
+    }
+
+    public void setCreatedByUserId(Long createdByUserId) {
+        this.createdByUserId = createdByUserId;
+    }
+
+    public LocalDateTime getCreatedFrom() {
+        return createdFrom;
+    }
+
+    public void setCreatedFrom(LocalDateTime createdFrom) {
+        this.createdFrom = createdFrom;
+    }
+
+    public LocalDateTime getCreatedTo() {
+        return createdTo;
+    }
+
+    public void setCreatedTo(LocalDateTime createdTo) {
+        this.createdTo = createdTo;
+    }
+}
@@ -0,0 +1,132 @@
+package nathan_mead.bug_tracker.dto;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Progress of one bulk import, polled by the client while the import runs in the background.
+// Only the first maxRejections rejected rows are kept; rowsRejected counts them all.
+public class BugImportJob {
+
+    public enum State {
+        QUEUED, RUNNING, COMPLETED, FAILED
+    }
+
+    // row is the 1-based data row: the header is not counted, and a quoted CSV field may span several lines
+    public static class Rejection {
+        private final long row;
+        private final String reason;
+
+        public Rejection(long row, String reason) {
+            this.row = row;
+            this.reason = reason;
+        }
+
+        public long getRow() {
+            return row;
+        }
+
+        public String getReason() {
+            return reason;
+        }
+    }
+
+    private final String id;
+    private final String format;
+    private final int maxRejections;
+    private final LocalDateTime createdAt = LocalDateTime.now();
+    private volatile State state = State.QUEUED;
+    private volatile LocalDateTime finishedAt;
+    private volatile String error;
+    private final AtomicLong rowsRead = new AtomicLong();
+    private final AtomicLong rowsImported = new AtomicLong();
+    private final AtomicLong rowsRejected = new AtomicLong();
+    private final List<Rejection> rejections = new ArrayList<>();
+
+    public BugImportJob(String id, String format, int maxRejections) {
+        this.id = id;
+        this.format = format;
+        this.maxRejections = maxRejections;
+    }
+
+    public void start() {
+        state = State.RUNNING;
+    }
+
+    public void rowRead() {
+        rowsRead.incrementAndGet();
+    }
+
+    public void reject(long row, String reason) {
+        rowsRejected.incrementAndGet();
+        synchronized (rejections) {
+            if (rejections.size() < maxRejections) {
+                rejections.add(new Rejection(row, reason));
+            }
+        }
+    }
+
+    public void imported(long rows) {
+        rowsImported.addAndGet(rows);
+    }
+
+    public void complete() {
+        finishedAt = LocalDateTime.now();
+        state = State.COMPLETED;
+    }
+
+    public void fail(String error) {
+        this.error = error;
+        finishedAt = LocalDateTime.now();
+        state = State.FAILED;
+    }
+
+    public boolean isFinished() {
+        return state == State.COMPLETED || state == State.FAILED;
+    }
+
+    // Getters
+
+    public String getId() {
+        return id;
+    }
+
+    public String getFormat() {
+        return format;
+    }
+
+    public State getState() {
+        return state;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public LocalDateTime getFinishedAt() {
+        return finishedAt;
+    }
+
+    public String getError() {
+        return error;
+    }
+
+    public long getRowsRead() {
+        return rowsRead.get();
+    }
+
+    public long getRowsImported() {
+        return rowsImported.get();
+    }
+
+    public long getRowsRejected() {
+        return rowsRejected.get();
+    }
+
+    public List<Rejection> getRejections() {
+        synchronized (rejections) {
+            return List.copyOf(rejections);
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package nathan_mead.bug_tracker.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+
+// One bug in an import file, CSV column or NDJSON property per field. References are by name rather than id:
+// priority level, status label and user emails, as exported by most trackers.
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class BugImportRow {
+    private String title;
+    private String description;
+    private String priority;
+    private String status;
+    private String assignee;  // Optional
+    private String createdBy;
+    private String createdAt; // Optional ISO-8601 local date-time; the import time when absent
+
+    public BugImportRow() {}
+
+    // Getters and setters
+
+    public String getTitle() {
+        return title;
+    }
+
+    public void setTitle(String title) {
+        this.title = title;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+
+    public void setDescription(String description) {
+        this.description = description;
+    }
+
+    public String getPriority() {
+        return priority;
+    }
+
+    public void setPriority(String priority) {
+        this.priority = priority;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    public void setStatus(String status) {
+        this.status = status;
+    }
+
+    public String getAssignee() {
+        return assignee;
+    }
+
+    public void setAssignee(String assignee) {
+        this.assignee = assignee;
+    }
+
+    public String getCreatedBy() {
+        return createdBy;
+    }
+
+    public void setCreatedBy(String createdBy) {
+        this.createdBy = createdBy;
+    }
+
+    public String getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(String createdAt) {
+        this.createdAt = createdAt;
+    }
+}
@@ -0,0 +1,41 @@
+package nathan_mead.bug_tracker.dto;
+
+import com.fasterxml.jackson.annotation.JsonRawValue;
+
+// One event read back from the bug event stream. Resume reading from offset + 1.
+public class BugLogEntry {
+    private final long offset;
+    private final String messageId; // The outbox id; a redelivered event repeats it
+    private final String eventType;
+    private final Long bugId;
+    private final String payload;   // The event JSON, embedded as-is
+
+    public BugLogEntry(long offset, String messageId, String eventType, Long bugId, String payload) {
+        this.offset = offset;
+        this.messageId = messageId;
+        this.eventType = eventType;
+        this.bugId = bugId;
+        this.payload = payload;
+    }
+
+    public long getOffset() {
+        return offset;
+    }
+
+    public String getMessageId() {
+        return messageId;
+    }
+
+    public String getEventType() {
+        return eventType;
+    }
+
+    public Long getBugId() {
+        return bugId;
+    }
+
+    @JsonRawValue
+    public String getPayload() {
+        return payload;
+    }
+}
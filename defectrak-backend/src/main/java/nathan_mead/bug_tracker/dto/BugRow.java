@@ -0,0 +1,83 @@
+package nathan_mead.bug_tracker.dto;
+
+import nathan_mead.bug_tracker.model.Bug;
+
+import java.time.LocalDateTime;
+
+// One bug's columns with its references as ids. Bulk writes describe each bug they touch with one of these,
+// since they never load the Bug entities.
+public class BugRow {
+    private final Long id;
+    private final String title;
+    private final String description;
+    private final Long priorityId;
+    private final Long statusId;
+    private final Long assigneeId; // Null when unassigned
+    private final Long createdByUserId;
+    private final LocalDateTime createdAt;
+
+    public BugRow(Long id, String title, String description, Long priorityId, Long statusId, Long assigneeId,
+                  Long createdByUserId, LocalDateTime createdAt) {
+        this.id = id;
+        this.title = title;
+        this.description = description;
+        this.priorityId = priorityId;
+        this.statusId = statusId;
+        this.assigneeId = assigneeId;
+        this.createdByUserId = createdByUserId;
+        this.createdAt = createdAt;
+    }
+
+    public static BugRow of(Bug bug) {
+        return new BugRow(
+                bug.getId(),
+                bug.getTitle(),
+                bug.getDescription(),
+                bug.getPriority() == null ? null : bug.getPriority().getId(),
+                bug.getStatus() == null ? null : bug.getStatus().getId(),
+                bug.getAssignee() == null ? null : bug.getAssignee().getId(),
+                bug.getCreatedBy() == null ? null : bug.getCreatedBy().getId(),
+                bug.getCreatedAt());
+    }
+
+    // A copy with the given references; a null id leaves that reference as it is
+    public BugRow withReferences(Long priorityId, Long statusId, Long assigneeId) {
+        return new BugRow(id, title, description,
+                priorityId == null ? this.priorityId : priorityId,
+                statusId == null ? this.statusId : statusId,
+                assigneeId == null ? this.assigneeId : assigneeId,
+                createdByUserId, createdAt);
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public String getTitle() {
+        return title;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+
+    public Long getPriorityId() {
+        return priorityId;
+    }
+
+    public Long getStatusId() {
+        return statusId;
+    }
+
+    public Long getAssigneeId() {
+        return assigneeId;
+    }
+
+    public Long getCreatedByUserId() {
+        return createdByUserId;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+}
@@ -0,0 +1,12 @@
+package nathan_mead.bug_tracker.dto;
+
+// One full-text search hit, best match first
+public interface BugSearchResult {
+    Long getId();
+
+    String getTitle();
+
+    String getSnippet(); // Description fragments with matched terms wrapped in <mark></mark>
+
+    Float getRank();
+}
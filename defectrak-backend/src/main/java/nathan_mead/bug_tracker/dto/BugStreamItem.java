@@ -0,0 +1,129 @@
+package nathan_mead.bug_tracker.dto;
+
+import nathan_mead.bug_tracker.model.Bug;
+import nathan_mead.bug_tracker.model.Priority;
+import nathan_mead.bug_tracker.model.Status;
+import nathan_mead.bug_tracker.model.User;
+
+import java.time.LocalDateTime;
+
+// Copy of a written bug pushed to every stream subscriber. Same JSON shape as Bug, so clients can drop it into their
+// list, but its users carry only id and name: no email, role or password hash.
+public final class BugStreamItem {
+
+    private final Long id;
+    private final String title;
+    private final String description;
+    private final PriorityRef priority;
+    private final StatusRef status;
+    private final UserRef assignee; // Null when the bug is unassigned
+    private final LocalDateTime createdAt;
+    private final UserRef createdBy;
+
+    private BugStreamItem(Bug bug) {
+        this.id = bug.getId();
+        this.title = bug.getTitle();
+        this.description = bug.getDescription();
+        this.priority = bug.getPriority() == null ? null : new PriorityRef(bug.getPriority());
+        this.status = bug.getStatus() == null ? null : new StatusRef(bug.getStatus());
+        this.assignee = bug.getAssignee() == null ? null : new UserRef(bug.getAssignee());
+        this.createdAt = bug.getCreatedAt();
+        this.createdBy = bug.getCreatedBy() == null ? null : new UserRef(bug.getCreatedBy());
+    }
+
+    public static BugStreamItem of(Bug bug) {
+        return new BugStreamItem(bug);
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public String getTitle() {
+        return title;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+
+    public PriorityRef getPriority() {
+        return priority;
+    }
+
+    public StatusRef getStatus() {
+        return status;
+    }
+
+    public UserRef getAssignee() {
+        return assignee;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public UserRef getCreatedBy() {
+        return createdBy;
+    }
+
+    public static final class PriorityRef {
+        private final Long id;
+        private final String level;
+
+        private PriorityRef(Priority priority) {
+            this.id = priority.getId();
+            this.level = priority.getLevel();
+        }
+
+        public Long getId() {
+            return id;
+        }
+
+        public String getLevel() {
+            return level;
+        }
+    }
+
+    public static final class StatusRef {
+        private final Long id;
+        private final String statusLabel;
+
+        private StatusRef(Status status) {
+            this.id = status.getId();
+            this.statusLabel = status.getStatusLabel();
+        }
+
+        public Long getId() {
+            return id;
+        }
+
+        public String getStatusLabel() {
+            return statusLabel;
+        }
+    }
+
+    public static final class UserRef {
+        private final Long id;
+        private final String firstName;
+        private final String lastName;
+
+        private UserRef(User user) {
+            this.id = user.getId();
+            this.firstName = user.getFirstName();
+            this.lastName = user.getLastName();
+        }
+
+        public Long getId() {
+            return id;
+        }
+
+        public String getFirstName() {
+            return firstName;
+        }
+
+        public String getLastName() {
+            return lastName;
+        }
+    }
+}
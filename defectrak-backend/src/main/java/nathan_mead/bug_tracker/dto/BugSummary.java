@@ -0,0 +1,22 @@
+package nathan_mead.bug_tracker.dto;
+
+import java.time.LocalDateTime;
+
+// Flat, read-only row for the board view; never materializes Bug or User entities
+public interface BugSummary {
+    int DESCRIPTION_PREVIEW_LENGTH = 200;
+
+    Long getId();
+
+    String getTitle();
+
+    String getDescription(); // Truncated to DESCRIPTION_PREVIEW_LENGTH characters
+
+    String getPriorityLevel();
+
+    String getStatusLabel();
+
+    String getAssigneeName(); // Null when the bug is unassigned
+
+    LocalDateTime getCreatedAt();
+}
@@ -0,0 +1,84 @@
+package nathan_mead.bug_tracker.dto;
+
+import nathan_mead.bug_tracker.model.User;
+import nathan_mead.bug_tracker.model.UserRole;
+
+import java.io.Serializable;
+
+// Immutable copy of the signed-in user kept in the HTTP session for /api/me. Serializable because sessions are
+// stored in the database; same JSON shape as User, without the password hash.
+public final class CurrentUser implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private final Long id;
+    private final String email;
+    private final String firstName;
+    private final String lastName;
+    private final String status;
+    private final Role role;
+
+    private CurrentUser(User user) {
+        this.id = user.getId();
+        this.email = user.getEmail();
+        this.firstName = user.getFirstName();
+        this.lastName = user.getLastName();
+        this.status = user.getStatus();
+        this.role = user.getRole() == null ? null : new Role(user.getRole());
+    }
+
+    public static CurrentUser of(User user) {
+        return new CurrentUser(user);
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public String getEmail() {
+        return email;
+    }
+
+    public String getFirstName() {
+        return firstName;
+    }
+
+    public String getLastName() {
+        return lastName;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    public Role getRole() {
+        return role;
+    }
+
+    public static final class Role implements Serializable {
+
+        private static final long serialVersionUID = 1L;
+
+        private final Long id;
+        private final String role;
+        private final String status;
+
+        private Role(UserRole userRole) {
+            this.id = userRole.getId();
+            this.role = userRole.getRole();
+            this.status = userRole.getStatus();
+        }
+
+        public Long getId() {
+            return id;
+        }
+
+        public String getRole() {
+            return role;
+        }
+
+        public String getStatus() {
+            return status;
+        }
+    }
+}
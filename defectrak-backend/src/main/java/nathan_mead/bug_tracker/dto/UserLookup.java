@@ -0,0 +1,8 @@
+package nathan_mead.bug_tracker.dto;
+
+// Id/name pair for the assignee autocomplete
+public interface UserLookup {
+    Long getId();
+
+    String getName(); // "First Last"
+}
@@ -0,0 +1,82 @@
+package nathan_mead.bug_tracker.event;
+
+import nathan_mead.bug_tracker.dto.BugRow;
+import nathan_mead.bug_tracker.model.Bug;
+
+import java.util.List;
+
+// Published after every bug write. Bulk writes (batch create, bulk update, import) publish a single BULK_CHANGED
+// event carrying one CREATED or UPDATED item per bug written, so listeners can refetch or apply the items.
+public class BugChangedEvent {
+
+    public enum Type {
+        CREATED, UPDATED, DELETED, BULK_CHANGED
+    }
+
+    private final Type type;
+    private final Long bugId; // Null for BULK_CHANGED
+    private final Bug bug;    // The written bug for CREATED and UPDATED, except on bulk items; otherwise null
+    private final BugRow row; // The written bug's columns for CREATED and UPDATED, otherwise null
+    private final List<BugFieldChange> changes; // The changed fields for UPDATED, otherwise empty
+    private final List<BugChangedEvent> items;  // One event per bug for BULK_CHANGED, otherwise empty
+
+    private BugChangedEvent(Type type, Long bugId, Bug bug, BugRow row, List<BugFieldChange> changes,
+                            List<BugChangedEvent> items) {
+        this.type = type;
+        this.bugId = bugId;
+        this.bug = bug;
+        this.row = row;
+        this.changes = List.copyOf(changes);
+        this.items = List.copyOf(items);
+    }
+
+    public static BugChangedEvent created(Bug bug) {
+        return new BugChangedEvent(Type.CREATED, bug.getId(), bug, BugRow.of(bug), List.of(), List.of());
+    }
+
+    public static BugChangedEvent updated(Bug bug, List<BugFieldChange> changes) {
+        return new BugChangedEvent(Type.UPDATED, bug.getId(), bug, BugRow.of(bug), changes, List.of());
+    }
+
+    public static BugChangedEvent deleted(Long bugId) {
+        return new BugChangedEvent(Type.DELETED, bugId, null, null, List.of(), List.of());
+    }
+
+    // Item of a bulk event for a bug created without loading the entity
+    public static BugChangedEvent created(BugRow row) {
+        return new BugChangedEvent(Type.CREATED, row.getId(), null, row, List.of(), List.of());
+    }
+
+    // Item of a bulk event for a bug updated without loading the entity
+    public static BugChangedEvent updated(BugRow row, List<BugFieldChange> changes) {
+        return new BugChangedEvent(Type.UPDATED, row.getId(), null, row, changes, List.of());
+    }
+
+    public static BugChangedEvent bulkChanged(List<BugChangedEvent> items) {
+        return new BugChangedEvent(Type.BULK_CHANGED, null, null, null, List.of(), items);
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    public Long getBugId() {
+        return bugId;
+    }
+
+    public Bug getBug() {
+        return bug;
+    }
+
+    public BugRow getRow() {
+        return row;
+    }
+
+    public List<BugFieldChange> getChanges() {
+        return changes;
+    }
+
+    public List<BugChangedEvent> getItems() {
+        return items;
+    }
+}
@@ -0,0 +1,64 @@
+package nathan_mead.bug_tracker.event;
+
+import nathan_mead.bug_tracker.dto.BugRow;
+import nathan_mead.bug_tracker.model.Bug;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+// One field of a bug that an update changed. References are recorded by id, so a status change reads
+// e.g. status: "1" -> "3".
+public class BugFieldChange {
+
+    private final String field;
+    private final String oldValue;
+    private final String newValue;
+
+    public BugFieldChange(String field, String oldValue, String newValue) {
+        this.field = field;
+        this.oldValue = oldValue;
+        this.newValue = newValue;
+    }
+
+    // The tracked fields of a bug as text, in a stable order; take one before and one after an update
+    public static Map<String, String> snapshot(Bug bug) {
+        return snapshot(BugRow.of(bug));
+    }
+
+    public static Map<String, String> snapshot(BugRow row) {
+        Map<String, String> values = new LinkedHashMap<>();
+        values.put("title", row.getTitle());
+        values.put("description", row.getDescription());
+        values.put("priority", row.getPriorityId() == null ? null : String.valueOf(row.getPriorityId()));
+        values.put("status", row.getStatusId() == null ? null : String.valueOf(row.getStatusId()));
+        values.put("assignee", row.getAssigneeId() == null ? null : String.valueOf(row.getAssigneeId()));
+        return values;
+    }
+
+    // The fields whose values differ between two snapshots
+    public static List<BugFieldChange> between(Map<String, String> before, Map<String, String> after) {
+        List<BugFieldChange> changes = new ArrayList<>();
+        for (Map.Entry<String, String> entry : after.entrySet()) {
+            String oldValue = before.get(entry.getKey());
+            if (!Objects.equals(oldValue, entry.getValue())) {
+                changes.add(new BugFieldChange(entry.getKey(), oldValue, entry.getValue()));
+            }
+        }
+        return changes;
+    }
+
+    public String getField() {
+        return field;
+    }
+
+    public String getOldValue() {
+        return oldValue;
+    }
+
+    public String getNewValue() {
+        return newValue;
+    }
+}
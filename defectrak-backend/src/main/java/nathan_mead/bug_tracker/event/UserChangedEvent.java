@@ -0,0 +1,45 @@
+package nathan_mead.bug_tracker.event;
+
+import nathan_mead.bug_tracker.model.User;
+
+// Published by UserController after every write
+public class UserChangedEvent {
+
+    public enum Type {
+        CREATED, UPDATED, DELETED
+    }
+
+    private final Type type;
+    private final Long userId;
+    private final User user; // The written user for CREATED and UPDATED, otherwise null
+
+    private UserChangedEvent(Type type, Long userId, User user) {
+        this.type = type;
+        this.userId = userId;
+        this.user = user;
+    }
+
+    public static UserChangedEvent created(User user) {
+        return new UserChangedEvent(Type.CREATED, user.getId(), user);
+    }
+
+    public static UserChangedEvent updated(User user) {
+        return new UserChangedEvent(Type.UPDATED, user.getId(), user);
+    }
+
+    public static UserChangedEvent deleted(Long userId) {
+        return new UserChangedEvent(Type.DELETED, userId, null);
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public User getUser() {
+        return user;
+    }
+}
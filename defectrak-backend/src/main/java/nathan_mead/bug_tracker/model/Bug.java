@@ -7,10 +7,25 @@ import jakarta.validation.constraints.Size;
 
 @Entity
 @Table(name = "bugs")
+// Loads every association a bug response serializes in one joined select
+@NamedEntityGraph(
+        name = Bug.WITH_ASSOCIATIONS,
+        attributeNodes = {
+                @NamedAttributeNode("priority"),
+                @NamedAttributeNode("status"),
+                @NamedAttributeNode(value = "assignee", subgraph = "user"),
+                @NamedAttributeNode(value = "createdBy", subgraph = "user")
+        },
+        subgraphs = @NamedSubgraph(name = "user", attributeNodes = @NamedAttributeNode("role"))
+)
 public class Bug {
 
+    public static final String WITH_ASSOCIATIONS = "Bug.withAssociations";
+
+    // Pooled sequence rather than IDENTITY so inserts can be JDBC-batched; one nextval reserves a block of ids
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "bugs_id_seq")
+    @SequenceGenerator(name = "bugs_id_seq", sequenceName = "bugs_id_seq", allocationSize = 50)
     private Long id;
 
     @NotBlank(message = "Title is required")
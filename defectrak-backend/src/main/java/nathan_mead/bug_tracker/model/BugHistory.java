@@ -0,0 +1,77 @@
+package nathan_mead.bug_tracker.model;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+// One changed field of one bug update. The table is partitioned by month on changed_at (see init.sql and
+// BugHistoryPartitions); bug_id is a plain column so history survives deleted bugs and old partitions can
+// be detached without touching bugs.
+@Entity
+@Table(name = "bug_history")
+public class BugHistory {
+
+    // Pooled sequence so the asynchronous writer's inserts can be JDBC-batched
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "bug_history_id_seq")
+    @SequenceGenerator(name = "bug_history_id_seq", sequenceName = "bug_history_id_seq", allocationSize = 50)
+    private Long id;
+
+    @Column(name = "bug_id", nullable = false)
+    private Long bugId;
+
+    @Column(name = "field_name", nullable = false, length = 50)
+    private String field;
+
+    @Column(name = "old_value", length = 4000)
+    private String oldValue;
+
+    @Column(name = "new_value", length = 4000)
+    private String newValue;
+
+    // Email of the user who made the change
+    @Column(name = "changed_by")
+    private String changedBy;
+
+    @Column(name = "changed_at", nullable = false)
+    private LocalDateTime changedAt;
+
+    public BugHistory() {}
+
+    public BugHistory(Long bugId, String field, String oldValue, String newValue, String changedBy,
+                      LocalDateTime changedAt) {
+        this.bugId = bugId;
+        this.field = field;
+        this.oldValue = oldValue;
+        this.newValue = newValue;
+        this.changedBy = changedBy;
+        this.changedAt = changedAt;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public Long getBugId() {
+        return bugId;
+    }
+
+    public String getField() {
+        return field;
+    }
+
+    public String getOldValue() {
+        return oldValue;
+    }
+
+    public String getNewValue() {
+        return newValue;
+    }
+
+    public String getChangedBy() {
+        return changedBy;
+    }
+
+    public LocalDateTime getChangedAt() {
+        return changedAt;
+    }
+}
@@ -0,0 +1,90 @@
+package nathan_mead.bug_tracker.model;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+// A change waiting to be published to the message broker. Rows are written in the same transaction as the
+// change itself. OutboxRelay records each sink's confirm separately and deletes the row once every sink it
+// goes to has confirmed it: the exchange for all events, and the bug event log stream for bug events.
+@Entity
+@Table(name = "outbox_events")
+public class OutboxEvent {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "aggregate_type", nullable = false, length = 50)
+    private String aggregateType;
+
+    @Column(name = "aggregate_id")
+    private Long aggregateId;
+
+    // Used as the routing key, e.g. "bug.created"
+    @Column(name = "event_type", nullable = false, length = 50)
+    private String eventType;
+
+    @Column(nullable = false, columnDefinition = "text")
+    private String payload;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    // When the exchange confirmed the event; null until then
+    @Column(name = "published_at")
+    private LocalDateTime publishedAt;
+
+    // When the bug event log stored the event; null until then, and always null for non-bug events
+    @Column(name = "streamed_at")
+    private LocalDateTime streamedAt;
+
+    public OutboxEvent() {}
+
+    public OutboxEvent(String aggregateType, Long aggregateId, String eventType, String payload) {
+        this.aggregateType = aggregateType;
+        this.aggregateId = aggregateId;
+        this.eventType = eventType;
+        this.payload = payload;
+        this.createdAt = LocalDateTime.now();
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public String getAggregateType() {
+        return aggregateType;
+    }
+
+    public Long getAggregateId() {
+        return aggregateId;
+    }
+
+    public String getEventType() {
+        return eventType;
+    }
+
+    public String getPayload() {
+        return payload;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public LocalDateTime getPublishedAt() {
+        return publishedAt;
+    }
+
+    public void setPublishedAt(LocalDateTime publishedAt) {
+        this.publishedAt = publishedAt;
+    }
+
+    public LocalDateTime getStreamedAt() {
+        return streamedAt;
+    }
+
+    public void setStreamedAt(LocalDateTime streamedAt) {
+        this.streamedAt = streamedAt;
+    }
+}
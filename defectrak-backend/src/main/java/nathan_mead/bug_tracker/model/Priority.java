@@ -19,15 +19,25 @@ public class Priority {
     @Size(max = 25, message = "Priority status must be at most 25 characters")
     private String status;
 
+    // Rank used when bugs are sorted by priority, lowest first. Null in a request body means "not given".
+    @Column(name = "sort_order", nullable = false)
+    private Integer sortOrder;
+
     public Priority() {}
 
     public Priority(String level) {
         setLevel(level);
+        setSortOrder(0);
     }
 
     public Priority(String level, String status) {
+        this(level, status, 0);
+    }
+
+    public Priority(String level, String status, Integer sortOrder) {
         setLevel(level);
         setStatus(status);
+        setSortOrder(sortOrder);
     }
 
     public Long getId() {
@@ -42,6 +52,10 @@ public class Priority {
         return status;
     }
 
+    public Integer getSortOrder() {
+        return sortOrder;
+    }
+
     public void setLevel(String level) {
         this.level = level;
     }
@@ -49,4 +63,8 @@ public class Priority {
     public void setStatus(String status) {
         this.status = status.toLowerCase();
     }
+
+    public void setSortOrder(Integer sortOrder) {
+        this.sortOrder = sortOrder;
+    }
 }
@@ -19,15 +19,25 @@ public class Status {
     @Size(max = 25, message = "Status must be at most 25 characters")
     private String status;
 
+    // Rank used when bugs are sorted by status, lowest first. Null in a request body means "not given".
+    @Column(name = "sort_order", nullable = false)
+    private Integer sortOrder;
+
     public Status() {}
 
     public Status(String statusLabel) {
         setStatusLabel(statusLabel);
+        setSortOrder(0);
     }
 
     public Status(String statusLabel, String status) {
+        this(statusLabel, status, 0);
+    }
+
+    public Status(String statusLabel, String status, Integer sortOrder) {
         setStatusLabel(statusLabel);
         setStatus(status);
+        setSortOrder(sortOrder);
     }
 
     public Long getId() {
@@ -42,6 +52,10 @@ public class Status {
         return status;
     }
 
+    public Integer getSortOrder() {
+        return sortOrder;
+    }
+
     public void setStatusLabel(String statusLabel) {
         this.statusLabel = statusLabel;
     }
@@ -49,4 +63,8 @@ public class Status {
     public void setStatus(String status) {
         this.status = status.toLowerCase();
     }
+
+    public void setSortOrder(Integer sortOrder) {
+        this.sortOrder = sortOrder;
+    }
 }
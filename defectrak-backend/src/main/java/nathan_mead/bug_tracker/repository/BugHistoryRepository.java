@@ -0,0 +1,23 @@
+package nathan_mead.bug_tracker.repository;
+
+import nathan_mead.bug_tracker.model.BugHistory;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface BugHistoryRepository extends JpaRepository<BugHistory, Long> {
+
+    // One bug's timeline, oldest first, read from idx_bug_history_bug_changed in each partition.
+    // Later pages seek past the cursor with a row-value comparison instead of using OFFSET.
+    @Query("select h from BugHistory h where h.bugId = :bugId order by h.changedAt, h.id")
+    List<BugHistory> findFirstTimelinePage(Long bugId, Limit limit);
+
+    @Query("select h from BugHistory h where h.bugId = :bugId and (h.changedAt, h.id) > (:changedAt, :id) "
+            + "order by h.changedAt, h.id")
+    List<BugHistory> findTimelinePageAfter(Long bugId, LocalDateTime changedAt, Long id, Limit limit);
+}
@@ -1,10 +1,55 @@
 package nathan_mead.bug_tracker.repository;
 
+import nathan_mead.bug_tracker.dto.BugSearchResult;
+import nathan_mead.bug_tracker.dto.BugSummary;
 import nathan_mead.bug_tracker.model.Bug;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
 @Repository
-public interface BugRepository extends JpaRepository<Bug, Long> {
-    // You can add custom query methods here if needed
+public interface BugRepository extends JpaRepository<Bug, Long>, JpaSpecificationExecutor<Bug>, BugRepositoryCustom {
+
+    // Every read path fetches the whole association graph in a single statement instead of one select per reference
+    @Override
+    @EntityGraph(Bug.WITH_ASSOCIATIONS)
+    Optional<Bug> findById(Long id);
+
+    @Override
+    @EntityGraph(Bug.WITH_ASSOCIATIONS)
+    List<Bug> findAll();
+
+    String SUMMARY_SELECT = "select b.id as id, b.title as title, "
+            + "substring(b.description, 1, " + BugSummary.DESCRIPTION_PREVIEW_LENGTH + ") as description, "
+            + "p.level as priorityLevel, s.statusLabel as statusLabel, "
+            + "concat(a.firstName, ' ', a.lastName) as assigneeName, b.createdAt as createdAt "
+            + "from Bug b left join b.priority p left join b.status s left join b.assignee a ";
+
+    // Board view rows in a single select, newest first. Seeks past the cursor with a row-value comparison
+    // so idx_bugs_created_at_id is entered at the cursor instead of using OFFSET.
+    @Query(SUMMARY_SELECT + "order by b.createdAt desc, b.id desc")
+    List<BugSummary> findFirstSummaryPage(Limit limit);
+
+    @Query(SUMMARY_SELECT + "where (b.createdAt, b.id) < (:createdAt, :id) order by b.createdAt desc, b.id desc")
+    List<BugSummary> findSummaryPageAfter(LocalDateTime createdAt, Long id, Limit limit);
+
+    // Ranked full-text search over bugs.search_vector (PostgreSQL only). Matching and ranking read the
+    // GIN-indexed generated column; ts_headline re-parses the description, so it runs on the top rows only.
+    @Query(value = "select hit.id as id, hit.title as title, hit.rank as rank, "
+            + "ts_headline('english', hit.description, hit.query, "
+            + "'StartSel=<mark>, StopSel=</mark>, MaxFragments=2, MaxWords=20, MinWords=5') as snippet "
+            + "from (select b.id, b.title, b.description, q.query, ts_rank_cd(b.search_vector, q.query) as rank "
+            + "from bugs b, websearch_to_tsquery('english', :q) as q(query) "
+            + "where b.search_vector @@ q.query "
+            + "order by rank desc, b.id desc limit :limit) hit "
+            + "order by hit.rank desc, hit.id desc",
+            nativeQuery = true)
+    List<BugSearchResult> search(String q, int limit);
 }
@@ -0,0 +1,30 @@
+package nathan_mead.bug_tracker.repository;
+
+import nathan_mead.bug_tracker.dto.BugBulkUpdate;
+import nathan_mead.bug_tracker.dto.BugRow;
+import nathan_mead.bug_tracker.model.Bug;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface BugRepositoryCustom {
+
+    // One keyset page of bugs matching the filter, with the full association graph fetched.
+    // Pass null for after to start from the first row of the sort.
+    List<Bug> findPage(Specification<Bug> filter, BugSort sort, List<Comparable<?>> after, int limit);
+
+    // Persists new bugs in one transaction, flushing a JDBC batch at a time; ids are assigned on return
+    void insertAll(List<Bug> bugs);
+
+    // The columns of up to limit bugs matching the selection, in id order, locked until the transaction ends
+    List<BugRow> findRowsForUpdate(Specification<Bug> selection, int limit);
+
+    // Writes a history row for each given bug whose value the changes will replace, reading the old value from the
+    // row, and returns the row count. Call it before bulkUpdate, in the same transaction.
+    int insertBulkUpdateHistory(List<Long> ids, BugBulkUpdate changes, String changedBy, LocalDateTime changedAt);
+
+    // Applies the changes to every bug matching the selection in a single UPDATE statement and returns the row count.
+    // Referenced ids are written as-is, so callers must check that they exist.
+    int bulkUpdate(Specification<Bug> selection, BugBulkUpdate changes);
+}
@@ -0,0 +1,178 @@
+package nathan_mead.bug_tracker.repository;
+
+import nathan_mead.bug_tracker.dto.BugBulkUpdate;
+import nathan_mead.bug_tracker.dto.BugRow;
+import nathan_mead.bug_tracker.model.Bug;
+import nathan_mead.bug_tracker.model.BugHistory;
+import nathan_mead.bug_tracker.model.Priority;
+import nathan_mead.bug_tracker.model.Status;
+import nathan_mead.bug_tracker.model.User;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.CriteriaUpdate;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.query.NativeQuery;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+public class BugRepositoryCustomImpl implements BugRepositoryCustom {
+
+    private static final String FETCH_GRAPH_HINT = "jakarta.persistence.fetchgraph";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Value("${spring.jpa.properties.hibernate.jdbc.batch_size:50}")
+    private int batchSize;
+
+    @Override
+    public List<Bug> findPage(Specification<Bug> filter, BugSort sort, List<Comparable<?>> after, int limit) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Bug> query = cb.createQuery(Bug.class);
+        Root<Bug> root = query.from(Bug.class);
+
+        List<Predicate> predicates = new ArrayList<>();
+        if (filter != null) {
+            Predicate filterPredicate = filter.toPredicate(root, query, cb);
+            if (filterPredicate != null) {
+                predicates.add(filterPredicate);
+            }
+        }
+        if (after != null) {
+            predicates.add(sort.seekPredicate(root, cb, after));
+        }
+
+        query.select(root)
+                .where(predicates.toArray(Predicate[]::new))
+                .orderBy(sort.toOrders(root, cb));
+
+        return entityManager.createQuery(query)
+                .setHint(FETCH_GRAPH_HINT, entityManager.getEntityGraph(Bug.WITH_ASSOCIATIONS))
+                .setMaxResults(limit)
+                .getResultList();
+    }
+
+    @Override
+    @Transactional
+    public void insertAll(List<Bug> bugs) {
+        for (int i = 0; i < bugs.size(); i++) {
+            entityManager.persist(bugs.get(i));
+            // Send each full batch and detach it so the persistence context stays small on large imports
+            if ((i + 1) % batchSize == 0) {
+                entityManager.flush();
+                entityManager.clear();
+            }
+        }
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Override
+    public List<BugRow> findRowsForUpdate(Specification<Bug> selection, int limit) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<BugRow> query = cb.createQuery(BugRow.class);
+        Root<Bug> root = query.from(Bug.class);
+
+        // Reference ids are read from the foreign key columns; no join, and no entity is loaded
+        query.select(cb.construct(BugRow.class,
+                root.get("id"),
+                root.get("title"),
+                root.get("description"),
+                root.get("priority").get("id"),
+                root.get("status").get("id"),
+                root.get("assignee").get("id"),
+                root.get("createdBy").get("id"),
+                root.get("createdAt")));
+        Predicate where = selection.toPredicate(root, query, cb);
+        if (where != null) {
+            query.where(where);
+        }
+        // Locking in id order keeps overlapping bulk updates from deadlocking on each other
+        query.orderBy(cb.asc(root.get("id")));
+
+        return entityManager.createQuery(query)
+                .setLockMode(LockModeType.PESSIMISTIC_WRITE)
+                .setMaxResults(limit)
+                .getResultList();
+    }
+
+    @Override
+    @Transactional
+    public int insertBulkUpdateHistory(List<Long> ids, BugBulkUpdate changes, String changedBy,
+                                       LocalDateTime changedAt) {
+        // Same fields and order as BugFieldChange.snapshot, keyed to the bugs column holding each one
+        Map<String, Long> newValues = new LinkedHashMap<>();
+        newValues.put("priority_id", changes.getPriorityId());
+        newValues.put("status_id", changes.getStatusId());
+        newValues.put("assignee_user_id", changes.getAssigneeId());
+        Map<String, String> fields = Map.of("priority_id", "priority", "status_id", "status",
+                "assignee_user_id", "assignee");
+
+        // Each row takes its own sequence value as its id. The value is never the top of a block Hibernate hands
+        // out, so it cannot collide with the pooled ids; the rest of its block of 50 goes unused.
+        String nextId = entityManager.getEntityManagerFactory().unwrap(SessionFactoryImplementor.class)
+                .getJdbcServices().getDialect().getSequenceSupport()
+                .getSelectSequenceNextValString("bug_history_id_seq");
+        int inserted = 0;
+        for (Map.Entry<String, Long> entry : newValues.entrySet()) {
+            if (entry.getValue() == null) {
+                continue;
+            }
+            String column = entry.getKey();
+            inserted += entityManager.createNativeQuery(
+                            "INSERT INTO bug_history (id, bug_id, field_name, old_value, new_value, changed_by, changed_at) "
+                                    + "SELECT " + nextId + ", b.id, :field, CAST(b." + column + " AS VARCHAR(4000)), "
+                                    + ":newValue, :changedBy, :changedAt FROM bugs b "
+                                    + "WHERE b.id IN (:ids) AND b." + column + " IS DISTINCT FROM :value")
+                    .unwrap(NativeQuery.class)
+                    .addSynchronizedEntityClass(BugHistory.class)
+                    .setParameter("field", fields.get(column))
+                    .setParameter("newValue", String.valueOf(entry.getValue()))
+                    .setParameter("changedBy", changedBy)
+                    .setParameter("changedAt", changedAt)
+                    .setParameter("ids", ids)
+                    .setParameter("value", entry.getValue())
+                    .executeUpdate();
+        }
+        return inserted;
+    }
+
+    @Override
+    @Transactional
+    public int bulkUpdate(Specification<Bug> selection, BugBulkUpdate changes) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaUpdate<Bug> update = cb.createCriteriaUpdate(Bug.class);
+        Root<Bug> root = update.from(Bug.class);
+
+        // References only carry the id into the SET clause; nothing is loaded
+        if (changes.getStatusId() != null) {
+            update.set(root.<Status>get("status"), entityManager.getReference(Status.class, changes.getStatusId()));
+        }
+        if (changes.getPriorityId() != null) {
+            update.set(root.<Priority>get("priority"), entityManager.getReference(Priority.class, changes.getPriorityId()));
+        }
+        if (changes.getAssigneeId() != null) {
+            update.set(root.<User>get("assignee"), entityManager.getReference(User.class, changes.getAssigneeId()));
+        }
+
+        // The filter specifications never touch the query argument, so they work unchanged in an UPDATE
+        Predicate where = selection.toPredicate(root, null, cb);
+        if (where != null) {
+            update.where(where);
+        }
+
+        return entityManager.createQuery(update).executeUpdate();
+    }
+}
@@ -0,0 +1,186 @@
+package nathan_mead.bug_tracker.repository;
+
+import nathan_mead.bug_tracker.model.Bug;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Order;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+// Multi-column ordering for bug listings plus the keyset ("seek") predicate that resumes it.
+// Only non-nullable columns are sortable, and id is always the final tie-breaker so every position is unique.
+public class BugSort {
+
+    public enum Field {
+        CREATED_AT("createdAt", Bug::getCreatedAt, LocalDateTime::parse),
+        PRIORITY("priority", bug -> bug.getPriority().getSortOrder(), Integer::valueOf),
+        STATUS("status", bug -> bug.getStatus().getSortOrder(), Integer::valueOf),
+        TITLE("title", Bug::getTitle, raw -> raw),
+        ID("id", Bug::getId, Long::valueOf);
+
+        private final String key;
+        private final Function<Bug, Comparable<?>> extractor;
+        private final Function<String, Comparable<?>> parser;
+
+        Field(String key, Function<Bug, Comparable<?>> extractor, Function<String, Comparable<?>> parser) {
+            this.key = key;
+            this.extractor = extractor;
+            this.parser = parser;
+        }
+
+        public String getKey() {
+            return key;
+        }
+
+        // Associations are ordered by the rank stored on the reference row, not by its id, so priorities and
+        // statuses added later still sort where an admin puts them. Values sharing a rank fall back to bug id.
+        Expression<?> path(Root<Bug> root) {
+            return switch (this) {
+                case PRIORITY -> root.get("priority").get("sortOrder");
+                case STATUS -> root.get("status").get("sortOrder");
+                default -> root.get(key);
+            };
+        }
+
+        static Field fromKey(String key) {
+            for (Field field : values()) {
+                if (field.key.equals(key)) {
+                    return field;
+                }
+            }
+            throw new IllegalArgumentException("Unsupported sort field: " + key);
+        }
+    }
+
+    public static class SortOrder {
+        private final Field field;
+        private final boolean ascending;
+
+        public SortOrder(Field field, boolean ascending) {
+            this.field = field;
+            this.ascending = ascending;
+        }
+
+        public Field getField() {
+            return field;
+        }
+
+        public boolean isAscending() {
+            return ascending;
+        }
+
+        @Override
+        public String toString() {
+            return (ascending ? "" : "-") + field.getKey();
+        }
+    }
+
+    // Newest first, matching idx_bugs_created_at_id
+    public static final BugSort DEFAULT = new BugSort(List.of(
+            new SortOrder(Field.CREATED_AT, false),
+            new SortOrder(Field.ID, false)));
+
+    private final List<SortOrder> orders;
+
+    private BugSort(List<SortOrder> orders) {
+        this.orders = List.copyOf(orders);
+    }
+
+    // Parses "field" (ascending) or "-field" (descending) terms, e.g. ["-priority", "createdAt"]
+    public static BugSort parse(List<String> terms) {
+        if (terms == null || terms.isEmpty()) {
+            return DEFAULT;
+        }
+        List<SortOrder> orders = new ArrayList<>();
+        Set<Field> seen = EnumSet.noneOf(Field.class);
+        for (String term : terms) {
+            String trimmed = term.trim();
+            boolean ascending = !trimmed.startsWith("-");
+            Field field = Field.fromKey(ascending ? trimmed : trimmed.substring(1));
+            if (!seen.add(field)) {
+                throw new IllegalArgumentException("Duplicate sort field: " + field.getKey());
+            }
+            orders.add(new SortOrder(field, ascending));
+        }
+        if (!seen.contains(Field.ID)) {
+            orders.add(new SortOrder(Field.ID, orders.get(orders.size() - 1).isAscending()));
+        }
+        return new BugSort(orders);
+    }
+
+    public List<SortOrder> getOrders() {
+        return orders;
+    }
+
+    // Stable textual form, used to bind a cursor to the sort it was issued for
+    public String signature() {
+        return orders.stream().map(SortOrder::toString).collect(Collectors.joining(","));
+    }
+
+    // Sort-key values of a row, in the form stored in a cursor
+    public List<String> keysetOf(Bug bug) {
+        List<String> values = new ArrayList<>();
+        for (SortOrder order : orders) {
+            values.add(String.valueOf(order.getField().extractor.apply(bug)));
+        }
+        return values;
+    }
+
+    // Converts cursor values back into typed sort-key values; throws IllegalArgumentException on mismatch
+    public List<Comparable<?>> parseKeyset(List<String> rawValues) {
+        if (rawValues.size() != orders.size()) {
+            throw new IllegalArgumentException("Cursor does not match sort");
+        }
+        List<Comparable<?>> values = new ArrayList<>();
+        try {
+            for (int i = 0; i < orders.size(); i++) {
+                values.add(orders.get(i).getField().parser.apply(rawValues.get(i)));
+            }
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Malformed cursor value", e);
+        }
+        return values;
+    }
+
+    public List<Order> toOrders(Root<Bug> root, CriteriaBuilder cb) {
+        List<Order> criteriaOrders = new ArrayList<>();
+        for (SortOrder order : orders) {
+            Expression<?> path = order.getField().path(root);
+            criteriaOrders.add(order.isAscending() ? cb.asc(path) : cb.desc(path));
+        }
+        return criteriaOrders;
+    }
+
+    // Rows strictly after the given keyset: (k1 > v1) OR (k1 = v1 AND k2 > v2) OR ...
+    // The redundant bound on the leading key lets the planner start an index range scan at the cursor.
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public Predicate seekPredicate(Root<Bug> root, CriteriaBuilder cb, List<Comparable<?>> values) {
+        List<Predicate> alternatives = new ArrayList<>();
+        for (int i = 0; i < orders.size(); i++) {
+            List<Predicate> terms = new ArrayList<>();
+            for (int j = 0; j < i; j++) {
+                terms.add(cb.equal(orders.get(j).getField().path(root), values.get(j)));
+            }
+            Expression path = orders.get(i).getField().path(root);
+            Comparable value = values.get(i);
+            terms.add(orders.get(i).isAscending() ? cb.greaterThan(path, value) : cb.lessThan(path, value));
+            alternatives.add(cb.and(terms.toArray(Predicate[]::new)));
+        }
+
+        Expression leadingPath = orders.get(0).getField().path(root);
+        Comparable leadingValue = values.get(0);
+        Predicate leadingBound = orders.get(0).isAscending()
+                ? cb.greaterThanOrEqualTo(leadingPath, leadingValue)
+                : cb.lessThanOrEqualTo(leadingPath, leadingValue);
+
+        return cb.and(leadingBound, cb.or(alternatives.toArray(Predicate[]::new)));
+    }
+}
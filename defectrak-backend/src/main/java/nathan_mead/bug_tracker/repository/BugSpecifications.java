@@ -0,0 +1,83 @@
+package nathan_mead.bug_tracker.repository;
+
+import nathan_mead.bug_tracker.dto.BugFilter;
+import nathan_mead.bug_tracker.model.Bug;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+
+// Filter predicates for bugs. Associations are matched on their foreign key columns (status.id etc.)
+// so no joins are added and the composite indexes in init.sql can serve the query.
+// Predicates must not use the query argument: bulk updates pass null for it.
+public final class BugSpecifications {
+
+    private BugSpecifications() {}
+
+    public static Specification<Bug> hasIdIn(Collection<Long> ids) {
+        return (root, query, cb) -> root.get("id").in(ids);
+    }
+
+    public static Specification<Bug> hasStatusIn(Collection<Long> statusIds) {
+        return (root, query, cb) -> root.get("status").get("id").in(statusIds);
+    }
+
+    public static Specification<Bug> hasPriorityIn(Collection<Long> priorityIds) {
+        return (root, query, cb) -> root.get("priority").get("id").in(priorityIds);
+    }
+
+    public static Specification<Bug> isAssignedTo(Long userId) {
+        return (root, query, cb) -> cb.equal(root.get("assignee").get("id"), userId);
+    }
+
+    public static Specification<Bug> isCreatedBy(Long userId) {
+        return (root, query, cb) -> cb.equal(root.get("createdBy").get("id"), userId);
+    }
+
+    public static Specification<Bug> createdOnOrAfter(LocalDateTime from) {
+        return (root, query, cb) -> cb.greaterThanOrEqualTo(root.get("createdAt"), from);
+    }
+
+    public static Specification<Bug> createdBefore(LocalDateTime to) {
+        return (root, query, cb) -> cb.lessThan(root.get("createdAt"), to);
+    }
+
+    // True when the filter has no populated field and would therefore match every bug
+    public static boolean isEmpty(BugFilter filter) {
+        return filter == null
+                || (isEmpty(filter.getStatusId()) && isEmpty(filter.getPriorityId())
+                && filter.getAssigneeId() == null && filter.getCreatedByUserId() == null
+                && filter.getCreatedFrom() == null && filter.getCreatedTo() == null);
+    }
+
+    private static boolean isEmpty(Collection<?> values) {
+        return values == null || values.isEmpty();
+    }
+
+    // Combines every populated field of the filter; an empty filter matches all bugs
+    public static Specification<Bug> matching(BugFilter filter) {
+        Specification<Bug> spec = Specification.where(null);
+        if (filter == null) {
+            return spec;
+        }
+        if (filter.getStatusId() != null && !filter.getStatusId().isEmpty()) {
+            spec = spec.and(hasStatusIn(filter.getStatusId()));
+        }
+        if (filter.getPriorityId() != null && !filter.getPriorityId().isEmpty()) {
+            spec = spec.and(hasPriorityIn(filter.getPriorityId()));
+        }
+        if (filter.getAssigneeId() != null) {
+            spec = spec.and(isAssignedTo(filter.getAssigneeId()));
+        }
+        if (filter.getCreatedByUserId() != null) {
+            spec = spec.and(isCreatedBy(filter.getCreatedByUserId()));
+        }
+        if (filter.getCreatedFrom() != null) {
+            spec = spec.and(createdOnOrAfter(filter.getCreatedFrom()));
+        }
+        if (filter.getCreatedTo() != null) {
+            spec = spec.and(createdBefore(filter.getCreatedTo()));
+        }
+        return spec;
+    }
+}
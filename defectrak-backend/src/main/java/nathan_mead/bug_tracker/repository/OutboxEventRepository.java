@@ -0,0 +1,30 @@
+package nathan_mead.bug_tracker.repository;
+
+import nathan_mead.bug_tracker.model.OutboxEvent;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface OutboxEventRepository extends JpaRepository<OutboxEvent, Long> {
+
+    // Oldest events the exchange has not confirmed, locked for the calling transaction. A lock timeout of -2 is
+    // Hibernate's SKIP LOCKED, so concurrent relays each take a different batch instead of waiting on one another.
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+    @Query("select e from OutboxEvent e where e.publishedAt is null order by e.id")
+    List<OutboxEvent> lockUnpublished(Limit limit);
+
+    // Oldest bug events the event log stream has not stored, locked the same way
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+    @Query("select e from OutboxEvent e where e.aggregateType = 'bug' and e.streamedAt is null order by e.id")
+    List<OutboxEvent> lockUnstreamed(Limit limit);
+}
@@ -3,6 +3,7 @@ package nathan_mead.bug_tracker.repository;
 import nathan_mead.bug_tracker.model.Priority;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 import java.util.List;
 import java.util.Optional;
@@ -12,6 +13,10 @@ public interface PriorityRepository extends JpaRepository<Priority, Long> {
     List<Priority> findAllByStatus(String status);
     Optional<Priority> findByLevel(String level);
 
+    // Rank given to a new priority created without one, so it sorts after every existing priority
+    @Query("SELECT COALESCE(MAX(p.sortOrder), 0) + 1 FROM Priority p")
+    int findNextSortOrder();
+
     default List<Priority> findAllActive() {
         return findAllByStatus("active");
     }
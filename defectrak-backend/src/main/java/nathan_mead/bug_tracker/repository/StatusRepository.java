@@ -2,6 +2,7 @@ package nathan_mead.bug_tracker.repository;
 
 import nathan_mead.bug_tracker.model.Status;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 import java.util.List;
 import java.util.Optional;
@@ -11,6 +12,10 @@ public interface StatusRepository extends JpaRepository<Status, Long> {
     List<Status> findAllByStatus(String status);
     Optional<Status> findByStatusLabel(String statusLabel);
 
+    // Rank given to a new status created without one, so it sorts after every existing status
+    @Query("SELECT COALESCE(MAX(s.sortOrder), 0) + 1 FROM Status s")
+    int findNextSortOrder();
+
     default List<Status> findAllActive() {
         return findAllByStatus("active");
     }
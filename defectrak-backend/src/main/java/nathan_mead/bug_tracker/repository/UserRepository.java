@@ -1,18 +1,55 @@
 package nathan_mead.bug_tracker.repository;
 
+import nathan_mead.bug_tracker.dto.UserLookup;
 import nathan_mead.bug_tracker.model.User;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
+import java.util.Collection;
 import java.util.Optional;
 import java.util.List;
+import java.util.Set;
 
 @Repository
 public interface UserRepository extends JpaRepository<User, Long> {
+    // Join the role in the same select rather than issuing one extra query per distinct role
+    @EntityGraph(attributePaths = "role")
     Optional<User> findByEmail(String email);
+
+    @EntityGraph(attributePaths = "role")
     List<User> findAllByStatus(String status);
 
+    @Override
+    @EntityGraph(attributePaths = "role")
+    List<User> findAll();
+
+    @EntityGraph(attributePaths = "role")
+    List<User> findAllByIdIn(Collection<Long> ids);
+
+    // Which of the given ids exist, without loading the users or their roles
+    @Query("select u.id from User u where u.id in :ids")
+    Set<Long> findExistingIds(Collection<Long> ids);
+
     default List<User> findAllActive() {
         return findAllByStatus("active");
     }
 
+    // Active users whose name or email contains the pattern, closest word match first (PostgreSQL only).
+    // The expression must stay identical to idx_users_lookup_trgm so the LIKE is answered from the index.
+    @Query(value = "select u.id as id, concat(u.first_name, ' ', u.last_name) as name from users u "
+            + "where u.status = 'active' "
+            + "and lower(u.first_name || ' ' || u.last_name || ' ' || u.email) like :pattern "
+            + "order by word_similarity(:term, lower(u.first_name || ' ' || u.last_name || ' ' || u.email)) desc, "
+            + "u.last_name, u.first_name, u.id "
+            + "limit :limit",
+            nativeQuery = true)
+    List<UserLookup> lookupActive(String term, String pattern, int limit);
+
+    default List<UserLookup> lookupActive(String query, int limit) {
+        String term = query.trim().toLowerCase();
+        String escaped = term.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+        return lookupActive(term, "%" + escaped + "%", limit);
+    }
+
 }
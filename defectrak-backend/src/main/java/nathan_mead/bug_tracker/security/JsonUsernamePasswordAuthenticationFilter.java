@@ -1,6 +1,10 @@
 package nathan_mead.bug_tracker.security;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.security.authentication.BadCredentialsException;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.authentication.AuthenticationServiceException;
 import org.springframework.security.core.Authentication;
@@ -14,11 +18,43 @@ import java.util.Map;
 
 public class JsonUsernamePasswordAuthenticationFilter extends UsernamePasswordAuthenticationFilter {
 
+    // Sign-in attempts, tagged with outcome: success, bad-credentials, busy or rejected
+    private static final String LOGIN_TIMER = "defectrak.login";
+
     private final ObjectMapper objectMapper = new ObjectMapper();
 
+    private MeterRegistry meterRegistry = Metrics.globalRegistry;
+
+    public void setMeterRegistry(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    // Times each attempt from reading the request to the password check's result
     @Override
     public Authentication attemptAuthentication(HttpServletRequest request, HttpServletResponse response)
             throws AuthenticationException {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String outcome = "rejected";
+        try {
+            Authentication authentication = authenticate(request, response);
+            outcome = "success";
+            return authentication;
+        } catch (PasswordHashingBusyException e) {
+            outcome = "busy";
+            throw e;
+        } catch (BadCredentialsException e) {
+            outcome = "bad-credentials";
+            throw e;
+        } finally {
+            sample.stop(Timer.builder(LOGIN_TIMER)
+                    .description("Sign-in attempts through /api/login")
+                    .tag("outcome", outcome)
+                    .register(meterRegistry));
+        }
+    }
+
+    private Authentication authenticate(HttpServletRequest request, HttpServletResponse response)
+            throws AuthenticationException {
         if (request.getContentType() != null && request.getContentType().startsWith("application/json")) {
             try {
                 Map<String, String> authRequestMap = objectMapper.readValue(request.getInputStream(), Map.class);
@@ -0,0 +1,11 @@
+package nathan_mead.bug_tracker.security;
+
+import org.springframework.security.authentication.AuthenticationServiceException;
+
+// Every hashing thread is busy and the wait queue is full; /api/login answers 429 so the client retries later
+public class PasswordHashingBusyException extends AuthenticationServiceException {
+
+    public PasswordHashingBusyException(String message) {
+        super(message);
+    }
+}
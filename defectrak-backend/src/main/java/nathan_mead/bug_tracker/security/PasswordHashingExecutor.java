@@ -0,0 +1,146 @@
+package nathan_mead.bug_tracker.security;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.security.authentication.AuthenticationServiceException;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.time.Duration;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+// Runs password checks on a small dedicated pool so a burst of sign-ins cannot take every core.
+// A BCrypt check costs tens of milliseconds of CPU by design; run on request threads, a login storm starves every
+// other request. Here at most `threads` checks run at once and up to queueCapacity more wait; beyond that a check is
+// refused straight away with PasswordHashingBusyException instead of queueing without bound.
+public class PasswordHashingExecutor implements MeterBinder {
+
+    private static final Logger logger = LoggerFactory.getLogger(PasswordHashingExecutor.class);
+
+    private static final String CALIBRATION_PASSWORD = "calibration-password";
+    private static final Pattern BCRYPT_COST = Pattern.compile("^\\$2[abxy]?\\$(\\d{2})\\$");
+
+    private final PasswordEncoder encoder;
+    private final int threads;
+    private final int queueCapacity;
+    private final int calibrationSamples;
+    private final ThreadPoolExecutor pool;
+
+    private volatile Duration hashTime; // One check on one core, as measured at startup
+
+    // threads <= 0 uses half the available cores, leaving the rest for other requests
+    public PasswordHashingExecutor(PasswordEncoder encoder, int threads, int queueCapacity, int calibrationSamples) {
+        this.encoder = encoder;
+        this.threads = threads > 0 ? threads : Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+        this.queueCapacity = Math.max(0, queueCapacity);
+        this.calibrationSamples = calibrationSamples;
+        BlockingQueue<Runnable> queue = this.queueCapacity > 0
+                ? new ArrayBlockingQueue<>(this.queueCapacity)
+                : new SynchronousQueue<>();
+        this.pool = new ThreadPoolExecutor(this.threads, this.threads, 0, TimeUnit.MILLISECONDS, queue,
+                Thread.ofPlatform().name("password-hashing-", 1).daemon().factory(),
+                new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    // Checks the password on the hashing pool, blocking the caller until the result is in
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        Future<Boolean> check;
+        try {
+            check = pool.submit(() -> encoder.matches(rawPassword, encodedPassword));
+        } catch (RejectedExecutionException e) {
+            throw new PasswordHashingBusyException("Too many sign-ins in progress, try again shortly");
+        }
+        try {
+            return check.get();
+        } catch (InterruptedException e) {
+            check.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new AuthenticationServiceException("Interrupted while checking password", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException failure) {
+                throw failure;
+            }
+            throw new AuthenticationServiceException("Password check failed", e.getCause());
+        }
+    }
+
+    // Measured on a hashing thread so startup is not held up
+    @EventListener(ApplicationReadyEvent.class)
+    public void calibrateOnStartup() {
+        if (calibrationSamples > 0) {
+            pool.execute(() -> calibrate(calibrationSamples));
+        }
+    }
+
+    // Times checks run one after another on the calling thread, i.e. the cost of one check on one core,
+    // and logs the sign-in rate the pool can sustain at that cost
+    public Duration calibrate(int samples) {
+        String hash = encoder.encode(CALIBRATION_PASSWORD);
+        long start = System.nanoTime();
+        for (int i = 0; i < samples; i++) {
+            encoder.matches(CALIBRATION_PASSWORD, hash);
+        }
+        long nanosPerCheck = Math.max(1, (System.nanoTime() - start) / Math.max(1, samples));
+        hashTime = Duration.ofNanos(nanosPerCheck);
+
+        double checksPerCore = TimeUnit.SECONDS.toNanos(1) / (double) nanosPerCheck;
+        logger.info("{}: {} ms per check on one core ({} checks/s per core); {} hashing threads on {} cores "
+                        + "sustain about {} sign-ins/s, with up to {} more queued",
+                describe(hash), String.format("%.1f", nanosPerCheck / 1_000_000.0), Math.round(checksPerCore),
+                threads, Runtime.getRuntime().availableProcessors(), Math.round(checksPerCore * threads),
+                queueCapacity);
+        return hashTime;
+    }
+
+    public int getThreads() {
+        return threads;
+    }
+
+    public int getQueueCapacity() {
+        return queueCapacity;
+    }
+
+    public int getActiveCount() {
+        return pool.getActiveCount();
+    }
+
+    public int getQueueDepth() {
+        return pool.getQueue().size();
+    }
+
+    // Null until calibrated
+    public Duration getHashTime() {
+        return hashTime;
+    }
+
+    // Published as the executor.* metrics tagged name=password-hashing: active checks, queue depth and so on
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        new ExecutorServiceMetrics(pool, "password-hashing", Tags.empty()).bindTo(registry);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        pool.shutdownNow();
+    }
+
+    private static String describe(String hash) {
+        Matcher matcher = hash == null ? null : BCRYPT_COST.matcher(hash);
+        return matcher != null && matcher.find() ? "BCrypt cost " + Integer.parseInt(matcher.group(1)) : "Password hash";
+    }
+}
@@ -0,0 +1,66 @@
+package nathan_mead.bug_tracker.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserCache;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+
+// Short-lived cache of the users loaded for sign-in, keyed by lower-cased email, so repeated logins skip the lookup.
+// The authentication provider reloads a cached user whose password does not match before failing, so a stale entry
+// never rejects a correct password. Writes to a user or role evict here; other instances keep theirs for up to the TTL.
+public class UserDetailsCache implements UserCache {
+
+    private final Cache<String, UserDetails> cache;
+
+    public UserDetailsCache(Duration ttl, long maximumSize) {
+        this.cache = Caffeine.newBuilder()
+                .expireAfterWrite(ttl)
+                .maximumSize(maximumSize)
+                .build();
+    }
+
+    // Copies go in and out: the provider erases the password of the user it authenticated once sign-in succeeds
+    @Override
+    public UserDetails getUserFromCache(String username) {
+        UserDetails cached = cache.getIfPresent(key(username));
+        return cached == null ? null : User.withUserDetails(cached).build();
+    }
+
+    @Override
+    public void putUserInCache(UserDetails user) {
+        cache.put(key(user.getUsername()), User.withUserDetails(user).build());
+    }
+
+    @Override
+    public void removeUserFromCache(String username) {
+        evict(() -> cache.invalidate(key(username)));
+    }
+
+    // For role changes, which reach every user holding the role
+    public void removeAllUsersFromCache() {
+        evict(cache::invalidateAll);
+    }
+
+    // Evicts now and, inside a transaction, again after commit, dropping anything a concurrent sign-in cached
+    // from the rows as they were before the change
+    private void evict(Runnable eviction) {
+        eviction.run();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    eviction.run();
+                }
+            });
+        }
+    }
+
+    private static String key(String username) {
+        return username.toLowerCase();
+    }
+}
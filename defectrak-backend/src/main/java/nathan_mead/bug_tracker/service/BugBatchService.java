@@ -0,0 +1,147 @@
+package nathan_mead.bug_tracker.service;
+
+import nathan_mead.bug_tracker.dto.BugBatchResult;
+import nathan_mead.bug_tracker.dto.BugDto;
+import nathan_mead.bug_tracker.dto.BugRow;
+import nathan_mead.bug_tracker.event.BugChangedEvent;
+import nathan_mead.bug_tracker.model.Bug;
+import nathan_mead.bug_tracker.model.Priority;
+import nathan_mead.bug_tracker.model.Status;
+import nathan_mead.bug_tracker.repository.BugRepository;
+import nathan_mead.bug_tracker.repository.PriorityRepository;
+import nathan_mead.bug_tracker.repository.StatusRepository;
+import nathan_mead.bug_tracker.repository.UserRepository;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+// Creates many bugs in one request. Referenced ids are checked with one query per type up front, so the
+// inserts themselves never fail on a bad reference and can go out in JDBC batches. The created bugs are published
+// as one bulk event, in the caller's transaction.
+@Service
+public class BugBatchService {
+
+    @Autowired
+    private BugRepository bugRepository;
+
+    @Autowired
+    private PriorityRepository priorityRepository;
+
+    @Autowired
+    private StatusRepository statusRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private Validator validator;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    // Returns one result per item in request order; invalid items are reported and skipped
+    public List<BugBatchResult> createAll(List<BugDto> bugDtos) {
+        Map<Long, Priority> priorities = priorityRepository.findAllById(idsOf(bugDtos, BugDto::getPriorityId))
+                .stream().collect(Collectors.toMap(Priority::getId, Function.identity()));
+        Map<Long, Status> statuses = statusRepository.findAllById(idsOf(bugDtos, BugDto::getStatusId))
+                .stream().collect(Collectors.toMap(Status::getId, Function.identity()));
+
+        Set<Long> requestedUserIds = idsOf(bugDtos, BugDto::getAssigneeId);
+        requestedUserIds.addAll(idsOf(bugDtos, BugDto::getCreatedByUserId));
+        Set<Long> userIds = requestedUserIds.isEmpty() ? Set.of() : userRepository.findExistingIds(requestedUserIds);
+
+        BugBatchResult[] results = new BugBatchResult[bugDtos.size()];
+        List<Bug> accepted = new ArrayList<>();
+        List<Integer> acceptedIndexes = new ArrayList<>();
+        LocalDateTime now = LocalDateTime.now();
+
+        for (int i = 0; i < bugDtos.size(); i++) {
+            BugDto bugDto = bugDtos.get(i);
+            if (bugDto == null) {
+                results[i] = BugBatchResult.rejected(i, "Bug is required");
+                continue;
+            }
+            String error = checkReferences(bugDto, priorities, statuses, userIds);
+            if (error != null) {
+                results[i] = BugBatchResult.rejected(i, error);
+                continue;
+            }
+
+            Bug bug = new Bug();
+            bug.setTitle(bugDto.getTitle());
+            bug.setDescription(bugDto.getDescription());
+            bug.setCreatedAt(now);
+            bug.setPriority(priorities.get(bugDto.getPriorityId()));
+            bug.setStatus(statuses.get(bugDto.getStatusId()));
+            // Users are known to exist, so a reference is enough to write the foreign keys
+            if (bugDto.getAssigneeId() != null) {
+                bug.setAssignee(userRepository.getReferenceById(bugDto.getAssigneeId()));
+            }
+            bug.setCreatedBy(userRepository.getReferenceById(bugDto.getCreatedByUserId()));
+
+            Set<ConstraintViolation<Bug>> violations = validator.validate(bug);
+            if (!violations.isEmpty()) {
+                results[i] = BugBatchResult.rejected(i, violations.stream()
+                        .map(ConstraintViolation::getMessage)
+                        .sorted(Comparator.naturalOrder())
+                        .collect(Collectors.joining("; ")));
+                continue;
+            }
+
+            accepted.add(bug);
+            acceptedIndexes.add(i);
+        }
+
+        if (!accepted.isEmpty()) {
+            bugRepository.insertAll(accepted);
+            eventPublisher.publishEvent(BugChangedEvent.bulkChanged(
+                    accepted.stream().map(bug -> BugChangedEvent.created(BugRow.of(bug))).toList()));
+        }
+        for (int i = 0; i < accepted.size(); i++) {
+            int index = acceptedIndexes.get(i);
+            results[index] = BugBatchResult.created(index, accepted.get(i).getId());
+        }
+        return List.of(results);
+    }
+
+    // Helper to describe the first missing or unknown reference of an item, or null when all resolve
+    private String checkReferences(BugDto bugDto, Map<Long, Priority> priorities, Map<Long, Status> statuses,
+                                   Set<Long> userIds) {
+        if (bugDto.getPriorityId() == null || !priorities.containsKey(bugDto.getPriorityId())) {
+            return "Unknown priority: " + bugDto.getPriorityId();
+        }
+        if (bugDto.getStatusId() == null || !statuses.containsKey(bugDto.getStatusId())) {
+            return "Unknown status: " + bugDto.getStatusId();
+        }
+        if (bugDto.getAssigneeId() != null && !userIds.contains(bugDto.getAssigneeId())) {
+            return "Unknown assignee: " + bugDto.getAssigneeId();
+        }
+        if (bugDto.getCreatedByUserId() == null || !userIds.contains(bugDto.getCreatedByUserId())) {
+            return "Unknown creator: " + bugDto.getCreatedByUserId();
+        }
+        return null;
+    }
+
+    // Helper to collect the distinct non-null ids an attribute refers to across the batch
+    private Set<Long> idsOf(Collection<BugDto> bugDtos, Function<BugDto, Long> attribute) {
+        return bugDtos.stream()
+                .filter(Objects::nonNull)
+                .map(attribute)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toCollection(HashSet::new));
+    }
+}
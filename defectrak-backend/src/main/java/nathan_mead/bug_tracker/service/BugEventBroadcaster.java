@@ -0,0 +1,201 @@
+package nathan_mead.bug_tracker.service;
+
+import nathan_mead.bug_tracker.dto.BugStreamItem;
+import nathan_mead.bug_tracker.event.BugChangedEvent;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+// Fans bug change events out to Server-Sent Event subscribers.
+// An idle subscriber is just an async request plus a small bounded queue; no thread is held. Sends run on virtual
+// threads, one drain at a time per subscriber, so a slow client never blocks the writer or other clients. A client
+// whose queue overflows is disconnected and catches up from the replay buffer when it reconnects with Last-Event-ID.
+@Service
+public class BugEventBroadcaster {
+
+    private static final Logger logger = LoggerFactory.getLogger(BugEventBroadcaster.class);
+
+    private static final StreamEvent HEARTBEAT = new StreamEvent(null, null, null);
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${defectrak.events.replay-size:1000}")
+    private int replaySize;
+
+    @Value("${defectrak.events.subscriber-buffer:256}")
+    private int subscriberBuffer;
+
+    @Value("${defectrak.events.timeout-ms:1800000}")
+    private long timeoutMs;
+
+    // Recent events for Last-Event-ID replay; the lock also orders publishing against new subscriptions
+    private final Deque<StreamEvent> replay = new ArrayDeque<>();
+    private long lastEventId;
+
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+    private final ExecutorService senders = Executors.newVirtualThreadPerTaskExecutor();
+
+    // Registers a new subscriber, first queueing every retained event after lastSeenId when one is given
+    public SseEmitter subscribe(Long lastSeenId) {
+        SseEmitter emitter = new SseEmitter(timeoutMs);
+        Subscriber subscriber = new Subscriber(emitter);
+        emitter.onCompletion(() -> subscribers.remove(subscriber));
+        emitter.onTimeout(emitter::complete);
+        emitter.onError(error -> subscribers.remove(subscriber));
+
+        synchronized (replay) {
+            if (lastSeenId != null) {
+                long oldestRetained = replay.isEmpty() ? lastEventId + 1 : replay.peekFirst().id;
+                if (lastSeenId > lastEventId || lastSeenId + 1 < oldestRetained) {
+                    // Events were trimmed or the server restarted: the client must reload instead of replaying
+                    subscriber.offer(new StreamEvent(null, "reset", "{}"));
+                } else {
+                    for (StreamEvent event : replay) {
+                        if (event.id > lastSeenId) {
+                            subscriber.offer(event);
+                        }
+                    }
+                }
+            }
+            subscribers.add(subscriber);
+        }
+        subscriber.scheduleDrain();
+        return emitter;
+    }
+
+    // Runs after commit so clients never see a change that was rolled back
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBugChanged(BugChangedEvent event) {
+        String name = event.getType().name().toLowerCase();
+        String data;
+        try {
+            data = switch (event.getType()) {
+                case CREATED, UPDATED -> objectMapper.writeValueAsString(BugStreamItem.of(event.getBug()));
+                case DELETED -> objectMapper.writeValueAsString(Map.of("id", event.getBugId()));
+                case BULK_CHANGED -> "{}";
+            };
+        } catch (JsonProcessingException e) {
+            logger.error("Could not serialize {} event for bug {}", name, event.getBugId(), e);
+            return;
+        }
+
+        synchronized (replay) {
+            StreamEvent streamEvent = new StreamEvent(++lastEventId, name, data);
+            replay.addLast(streamEvent);
+            if (replay.size() > replaySize) {
+                replay.removeFirst();
+            }
+            for (Subscriber subscriber : subscribers) {
+                subscriber.offer(streamEvent);
+            }
+        }
+        subscribers.forEach(Subscriber::scheduleDrain);
+    }
+
+    // Keeps idle connections from being closed by proxies and detects clients that went away
+    @Scheduled(fixedDelayString = "${defectrak.events.heartbeat-ms:15000}")
+    public void sendHeartbeats() {
+        for (Subscriber subscriber : subscribers) {
+            subscriber.offer(HEARTBEAT);
+            subscriber.scheduleDrain();
+        }
+    }
+
+    public int getSubscriberCount() {
+        return subscribers.size();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        subscribers.forEach(subscriber -> subscriber.emitter.complete());
+        senders.shutdown();
+    }
+
+    private static class StreamEvent {
+        private final Long id; // Null for heartbeats and resets, which are not replayable
+        private final String name;
+        private final String data;
+
+        private StreamEvent(Long id, String name, String data) {
+            this.id = id;
+            this.name = name;
+            this.data = data;
+        }
+
+        private SseEmitter.SseEventBuilder toSse() {
+            if (this == HEARTBEAT) {
+                return SseEmitter.event().comment("heartbeat");
+            }
+            SseEmitter.SseEventBuilder builder = SseEmitter.event().name(name).data(data);
+            return id == null ? builder : builder.id(String.valueOf(id));
+        }
+    }
+
+    private class Subscriber {
+        private final SseEmitter emitter;
+        private final BlockingQueue<StreamEvent> queue = new ArrayBlockingQueue<>(subscriberBuffer);
+        private final AtomicBoolean draining = new AtomicBoolean();
+        private volatile boolean overflowed;
+
+        private Subscriber(SseEmitter emitter) {
+            this.emitter = emitter;
+        }
+
+        private void offer(StreamEvent event) {
+            if (!queue.offer(event)) {
+                overflowed = true;
+            }
+        }
+
+        private void scheduleDrain() {
+            if (draining.compareAndSet(false, true)) {
+                senders.execute(this::drain);
+            }
+        }
+
+        private void drain() {
+            try {
+                if (overflowed) {
+                    subscribers.remove(this);
+                    emitter.complete();
+                    return;
+                }
+                StreamEvent event;
+                while ((event = queue.poll()) != null) {
+                    emitter.send(event.toSse());
+                }
+            } catch (IOException | IllegalStateException e) {
+                // The client disconnected or the emitter already completed
+                subscribers.remove(this);
+                return;
+            } finally {
+                draining.set(false);
+            }
+            // Pick up events offered after the queue looked empty but before the flag was cleared
+            if (!queue.isEmpty() || overflowed) {
+                scheduleDrain();
+            }
+        }
+    }
+}
@@ -0,0 +1,113 @@
+package nathan_mead.bug_tracker.service;
+
+import nathan_mead.bug_tracker.dto.BugLogEntry;
+import com.rabbitmq.stream.Consumer;
+import com.rabbitmq.stream.ConsumerFlowStrategy;
+import com.rabbitmq.stream.Environment;
+import com.rabbitmq.stream.MessageHandler;
+import com.rabbitmq.stream.OffsetSpecification;
+import org.springframework.amqp.core.Message;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.rabbit.stream.producer.RabbitStreamTemplate;
+import org.springframework.rabbit.stream.support.StreamMessageProperties;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Append-only log of bug lifecycle events on a RabbitMQ stream. OutboxRelay appends every bug event; readers
+// start from any offset or point in time, so derived data (caches, reports, search) can be rebuilt from the log
+// instead of scanning the bugs table. Messages are retained by age, not removed when read.
+// A single relay appends in outbox id order. Relays on several instances take separate batches and may interleave
+// them, so offsets are not a global order; a bug's entries are in the order its changes committed when sorted by
+// message id (the outbox id), and a reader that replays across instances should apply them in that order.
+@Service
+public class BugEventLog {
+
+    @Autowired
+    private RabbitStreamTemplate bugEventStreamTemplate;
+
+    @Autowired
+    private Environment streamEnvironment;
+
+    @Value("${defectrak.events.log.stream:defectrak.bug-events}")
+    private String stream;
+
+    // How long a read waits for the next message before deciding it has reached the end of the stream
+    @Value("${defectrak.events.log.read-idle-ms:500}")
+    private long readIdleMs;
+
+    // Completes with true once the broker has stored the message
+    public CompletableFuture<Boolean> append(Message message) {
+        return bugEventStreamTemplate.send(message);
+    }
+
+    // Reads up to limit events starting at the given position, oldest first. The broker is given credit for the next
+    // chunk only once half of the current one has been taken, and messages past limit are dropped unread, so a long
+    // stream is never buffered here ahead of the reader.
+    public List<BugLogEntry> read(OffsetSpecification from, int limit) {
+        BlockingQueue<Received> received = new ArrayBlockingQueue<>(Math.max(1, limit));
+        AtomicInteger accepted = new AtomicInteger();
+        Consumer consumer = streamEnvironment.consumerBuilder()
+                .stream(stream)
+                .offset(from)
+                .flow()
+                .strategy(ConsumerFlowStrategy.creditWhenHalfMessagesProcessed(1))
+                .builder()
+                .messageHandler((context, streamMessage) -> {
+                    // Never more than limit are accepted, so the queue always has room
+                    if (accepted.getAndIncrement() >= limit) {
+                        return;
+                    }
+                    Message message = bugEventStreamTemplate.streamMessageConverter()
+                            .toMessage(streamMessage, new StreamMessageProperties(context));
+                    received.add(new Received(toEntry(context.offset(), message), context));
+                })
+                .build();
+        try {
+            List<BugLogEntry> entries = new ArrayList<>(limit);
+            while (entries.size() < limit) {
+                Received next = received.poll(readIdleMs, TimeUnit.MILLISECONDS);
+                if (next == null) {
+                    break;
+                }
+                entries.add(next.entry);
+                next.context.processed();
+            }
+            return entries;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while reading the bug event log", e);
+        } finally {
+            consumer.close();
+        }
+    }
+
+    private static class Received {
+        private final BugLogEntry entry;
+        private final MessageHandler.Context context; // Marked processed once the reader takes the entry
+
+        private Received(BugLogEntry entry, MessageHandler.Context context) {
+            this.entry = entry;
+            this.context = context;
+        }
+    }
+
+    // Helper to map a stored message back to the fields OutboxRelay wrote
+    private BugLogEntry toEntry(long offset, Message message) {
+        Object aggregateId = message.getMessageProperties().getHeader("aggregateId");
+        return new BugLogEntry(
+                offset,
+                message.getMessageProperties().getMessageId(),
+                message.getMessageProperties().getType(),
+                aggregateId instanceof Number number ? number.longValue() : null,
+                new String(message.getBody(), StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,111 @@
+package nathan_mead.bug_tracker.service;
+
+import nathan_mead.bug_tracker.dto.BugExportRow;
+import nathan_mead.bug_tracker.dto.BugFileFormat;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import com.fasterxml.jackson.dataformat.csv.CsvMapper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+
+// Writes every bug as CSV or NDJSON straight from a forward-only JDBC cursor. The driver holds one fetch of rows
+// at a time and each row is serialized as soon as it is read, so memory stays flat however many bugs there are.
+// PostgreSQL only uses a cursor inside a transaction, so the query runs in a read-only one.
+@Service
+public class BugExportService {
+
+    // References are exported by name, as the import expects them
+    private static final String EXPORT_SQL = "select b.id, b.title, b.description, p.level, s.status_label, "
+            + "a.email, c.email, b.created_at from bugs b "
+            + "join priorities p on p.id = b.priority_id "
+            + "join statuses s on s.id = b.status_id "
+            + "left join users a on a.id = b.assignee_user_id "
+            + "join users c on c.id = b.created_by_user_id "
+            + "order by b.id";
+
+    private final CsvMapper csvMapper = new CsvMapper();
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${defectrak.export.fetch-size:1000}")
+    private int fetchSize;
+
+    @Value("${defectrak.export.flush-rows:1000}")
+    private int flushRows;
+
+    // Writes all bugs to out in id order and returns the row count. out is flushed every flushRows rows but not closed.
+    public long export(OutputStream out, BugFileFormat format) throws IOException {
+        ObjectWriter writer = format == BugFileFormat.CSV
+                ? csvMapper.writer(csvMapper.schemaFor(BugExportRow.class).withHeader())
+                : objectMapper.writer().withRootValueSeparator("\n");
+
+        TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+
+        try (SequenceWriter rows = writer.without(JsonGenerator.Feature.AUTO_CLOSE_TARGET).writeValues(out)) {
+            long count = readOnly.execute(status -> {
+                long[] written = {0};
+                jdbcTemplate.query(connection -> {
+                    PreparedStatement statement = connection.prepareStatement(
+                            EXPORT_SQL, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+                    statement.setFetchSize(fetchSize);
+                    return statement;
+                }, (RowCallbackHandler) resultSet -> {
+                    try {
+                        rows.write(toRow(resultSet));
+                        if (++written[0] % flushRows == 0) {
+                            rows.flush();
+                        }
+                    } catch (IOException e) {
+                        // Usually the client went away; abandon the query rather than reading on
+                        throw new UncheckedIOException(e);
+                    }
+                });
+                return written[0];
+            });
+            if (format == BugFileFormat.NDJSON && count > 0) {
+                // The separator only goes between rows; end the last line too
+                rows.flush();
+                out.write('\n');
+            }
+            return count;
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    private BugExportRow toRow(ResultSet resultSet) throws SQLException {
+        Timestamp createdAt = resultSet.getTimestamp(8);
+        return new BugExportRow(
+                resultSet.getLong(1),
+                resultSet.getString(2),
+                resultSet.getString(3),
+                resultSet.getString(4),
+                resultSet.getString(5),
+                resultSet.getString(6),
+                resultSet.getString(7),
+                createdAt == null ? null : createdAt.toLocalDateTime().toString());
+    }
+}
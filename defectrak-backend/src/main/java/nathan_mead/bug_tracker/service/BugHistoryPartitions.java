@@ -0,0 +1,93 @@
+package nathan_mead.bug_tracker.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+
+// Keeps bug_history's monthly partitions ahead of the clock and, when a retention is configured, detaches
+// partitions that have aged out. Detaching only unlinks the partition (no rows are rewritten or deleted), so an old
+// month can then be dumped and dropped as an ordinary table. PostgreSQL only; other databases are skipped.
+@Service
+public class BugHistoryPartitions {
+
+    private static final Logger logger = LoggerFactory.getLogger(BugHistoryPartitions.class);
+
+    private static final String PARENT = "bug_history";
+    private static final DateTimeFormatter SUFFIX = DateTimeFormatter.ofPattern("yyyy_MM");
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Value("${defectrak.history.partitions.months-ahead:3}")
+    private int monthsAhead;
+
+    // Months to keep attached, counting the current one; 0 keeps every partition
+    @Value("${defectrak.history.partitions.retention-months:0}")
+    private int retentionMonths;
+
+    // Runs at startup and then periodically, so a partition always exists before rows for its month arrive
+    @Scheduled(fixedDelayString = "${defectrak.history.partitions.check-interval:PT6H}")
+    public void maintain() {
+        try {
+            if (!isPostgres()) {
+                return;
+            }
+            YearMonth current = YearMonth.now();
+            for (int i = 0; i <= monthsAhead; i++) {
+                createPartition(current.plusMonths(i));
+            }
+            if (retentionMonths > 0) {
+                detachBefore(current.minusMonths(retentionMonths - 1));
+            }
+        } catch (DataAccessException e) {
+            logger.warn("Could not maintain {} partitions: {}", PARENT, e.getMessage());
+        }
+    }
+
+    // Helper to create one month's partition if it is missing
+    private void createPartition(YearMonth month) {
+        LocalDate from = month.atDay(1);
+        LocalDate to = month.plusMonths(1).atDay(1);
+        jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS " + partitionName(month)
+                + " PARTITION OF " + PARENT + " FOR VALUES FROM ('" + from + "') TO ('" + to + "')");
+    }
+
+    // Helper to detach every attached monthly partition older than the given month. CONCURRENTLY avoids
+    // blocking readers and writers of the other partitions while it runs.
+    private void detachBefore(YearMonth oldestKept) {
+        List<String> partitions = jdbcTemplate.queryForList(
+                "select c.relname from pg_inherits i "
+                        + "join pg_class c on c.oid = i.inhrelid "
+                        + "join pg_class p on p.oid = i.inhparent "
+                        + "where p.relname = ?", String.class, PARENT);
+        String oldestKeptName = partitionName(oldestKept);
+        for (String partition : partitions) {
+            // Names sort chronologically: bug_history_yyyy_mm
+            if (partition.matches(PARENT + "_\\d{4}_\\d{2}") && partition.compareTo(oldestKeptName) < 0) {
+                jdbcTemplate.execute("ALTER TABLE " + PARENT + " DETACH PARTITION " + partition + " CONCURRENTLY");
+                logger.info("Detached {} for archiving", partition);
+            }
+        }
+    }
+
+    private String partitionName(YearMonth month) {
+        return PARENT + "_" + month.format(SUFFIX);
+    }
+
+    private boolean isPostgres() {
+        String product = jdbcTemplate.execute(
+                (ConnectionCallback<String>) connection -> connection.getMetaData().getDatabaseProductName());
+        return "PostgreSQL".equals(product);
+    }
+}
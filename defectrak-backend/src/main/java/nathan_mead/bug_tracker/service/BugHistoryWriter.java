@@ -0,0 +1,162 @@
+package nathan_mead.bug_tracker.service;
+
+import nathan_mead.bug_tracker.dto.BugBulkUpdate;
+import nathan_mead.bug_tracker.event.BugChangedEvent;
+import nathan_mead.bug_tracker.event.BugFieldChange;
+import nathan_mead.bug_tracker.model.BugHistory;
+import nathan_mead.bug_tracker.repository.BugHistoryRepository;
+import nathan_mead.bug_tracker.repository.BugRepository;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+// Records a history row per changed field of every committed bug update. Rows are queued on the request thread
+// and inserted in batches by a scheduled flush, so an update never waits on the history insert. If the queue is
+// full the caller writes its own rows in a new transaction instead of dropping them. Bulk updates are recorded by
+// recordBulkUpdate instead, in the UPDATE's own transaction.
+@Service
+public class BugHistoryWriter implements MeterBinder {
+
+    private static final Logger logger = LoggerFactory.getLogger(BugHistoryWriter.class);
+
+    @Autowired
+    private BugHistoryRepository bugHistoryRepository;
+
+    @Autowired
+    private BugRepository bugRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${defectrak.history.batch-size:500}")
+    private int batchSize;
+
+    private final BlockingQueue<BugHistory> pending;
+    private final ReentrantLock flushLock = new ReentrantLock();
+    private final LongAdder droppedRows = new LongAdder();
+
+    public BugHistoryWriter(@Value("${defectrak.history.queue-capacity:10000}") int queueCapacity) {
+        this.pending = new ArrayBlockingQueue<>(queueCapacity);
+    }
+
+    // Runs after commit so a rolled-back update leaves no history
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBugChanged(BugChangedEvent event) {
+        if (event.getType() != BugChangedEvent.Type.UPDATED || event.getChanges().isEmpty()) {
+            return;
+        }
+        String changedBy = currentUser();
+        LocalDateTime changedAt = LocalDateTime.now();
+        List<BugHistory> overflow = new ArrayList<>();
+        for (BugFieldChange change : event.getChanges()) {
+            BugHistory row = new BugHistory(event.getBugId(), change.getField(), change.getOldValue(),
+                    change.getNewValue(), changedBy, changedAt);
+            if (!pending.offer(row)) {
+                overflow.add(row);
+            }
+        }
+        if (!overflow.isEmpty()) {
+            logger.warn("History queue full; writing {} rows for bug {} on the request thread",
+                    overflow.size(), event.getBugId());
+            // The update's transaction has already committed and would never flush these, so they get their own
+            TransactionTemplate ownTransaction = new TransactionTemplate(transactionManager);
+            ownTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+            ownTransaction.executeWithoutResult(status -> bugHistoryRepository.saveAll(overflow));
+        }
+    }
+
+    // Records a bulk update of the given bugs before it runs, with one INSERT ... SELECT per changed field that
+    // reads each bug's old value from its row, so the history commits or rolls back with the UPDATE
+    public int recordBulkUpdate(List<Long> bugIds, BugBulkUpdate changes) {
+        return bugRepository.insertBulkUpdateHistory(bugIds, changes, currentUser(), LocalDateTime.now());
+    }
+
+    // Inserts everything queued so far, one transaction per batch. Locked so a caller that flushes explicitly
+    // also waits for a scheduled flush already in progress. The lock is held across JDBC calls, so it is a
+    // ReentrantLock rather than synchronized, which would pin the carrier when the flush runs on a virtual thread.
+    @Scheduled(fixedDelayString = "${defectrak.history.flush-interval-ms:500}")
+    public void flush() {
+        flushLock.lock();
+        try {
+            List<BugHistory> batch = new ArrayList<>(batchSize);
+            while (pending.drainTo(batch, batchSize) > 0) {
+                try {
+                    bugHistoryRepository.saveAll(batch);
+                } catch (RuntimeException e) {
+                    // Put the batch back for the next flush, e.g. while a missing partition is being created. Updates
+                    // may have refilled the queue since the drain, so whatever no longer fits is dropped and counted.
+                    int requeued = 0;
+                    for (BugHistory row : batch) {
+                        if (pending.offer(row)) {
+                            requeued++;
+                        }
+                    }
+                    int dropped = batch.size() - requeued;
+                    droppedRows.add(dropped);
+                    if (dropped == 0) {
+                        logger.error("Could not write {} history rows; retrying on the next flush", batch.size(), e);
+                    } else {
+                        logger.error("Could not write {} history rows; retrying {} on the next flush and dropping {} "
+                                + "because the queue is full", batch.size(), requeued, dropped, e);
+                    }
+                    return;
+                }
+                batch.clear();
+            }
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flush();
+    }
+
+    public int getPendingCount() {
+        return pending.size();
+    }
+
+    // Rows lost because a failed flush could not put them back on a full queue
+    public long getDroppedCount() {
+        return droppedRows.sum();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("defectrak.history.pending", pending, BlockingQueue::size)
+                .description("History rows queued for the next flush")
+                .register(registry);
+        FunctionCounter.builder("defectrak.history.dropped", droppedRows, LongAdder::sum)
+                .description("History rows dropped because a failed flush found the queue full")
+                .register(registry);
+    }
+
+    // Helper to name the user making the request, if any
+    private String currentUser() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        return authentication == null ? null : authentication.getName();
+    }
+}
@@ -0,0 +1,432 @@
+package nathan_mead.bug_tracker.service;
+
+import nathan_mead.bug_tracker.dto.BugFileFormat;
+import nathan_mead.bug_tracker.dto.BugImportJob;
+import nathan_mead.bug_tracker.dto.BugImportRow;
+import nathan_mead.bug_tracker.dto.BugRow;
+import nathan_mead.bug_tracker.event.BugChangedEvent;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.dataformat.csv.CsvMapper;
+import com.fasterxml.jackson.dataformat.csv.CsvSchema;
+import jakarta.annotation.PreDestroy;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyManager;
+import org.postgresql.copy.PGCopyOutputStream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+// Bulk-loads bugs from CSV or NDJSON files with PostgreSQL COPY. The upload is spooled to a temporary file and
+// read one row at a time, so memory stays constant however large the file is. Priority, status and user names are
+// resolved through maps loaded once per import, and accepted rows are streamed into COPY, committing every
+// chunkRows rows so progress is visible and a failure keeps what was already loaded. Each chunk's rows are
+// published as one bulk event in the chunk's transaction, so their outbox rows commit with them.
+// Imports run one at a time on a background thread.
+@Service
+public class BugImportService {
+
+    private static final Logger logger = LoggerFactory.getLogger(BugImportService.class);
+
+    // search_vector is generated; ids are allocated by IdBlocks rather than taken from the column default
+    private static final String COPY_SQL = "COPY bugs (id, title, description, priority_id, status_id, "
+            + "assignee_user_id, created_by_user_id, created_at) FROM STDIN WITH (FORMAT csv)";
+
+    // Must match allocationSize on Bug.id and the increment of bugs_id_seq
+    private static final int ID_BLOCK_SIZE = 50;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Value("${defectrak.import.chunk-rows:10000}")
+    private int chunkRows;
+
+    @Value("${defectrak.import.copy-buffer-bytes:65536}")
+    private int copyBufferBytes;
+
+    @Value("${defectrak.import.max-rejections:100}")
+    private int maxRejections;
+
+    @Value("${defectrak.import.retained-jobs:50}")
+    private int retainedJobs;
+
+    private final Map<String, BugImportJob> jobs = new ConcurrentHashMap<>();
+    private final ExecutorService importer = Executors.newSingleThreadExecutor(
+            Thread.ofVirtual().name("bug-import").factory());
+
+    // Spools the upload to disk on the calling thread, then queues the import and returns its job
+    public BugImportJob submit(InputStream upload, BugFileFormat format) throws IOException {
+        Path file = Files.createTempFile("bug-import-", "." + format.getExtension());
+        try {
+            Files.copy(upload, file, StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException e) {
+            Files.deleteIfExists(file);
+            throw e;
+        }
+
+        BugImportJob job = new BugImportJob(UUID.randomUUID().toString(), format.name(), maxRejections);
+        pruneFinishedJobs();
+        jobs.put(job.getId(), job);
+        importer.execute(() -> run(job, file, format));
+        return job;
+    }
+
+    public Optional<BugImportJob> find(String jobId) {
+        return Optional.ofNullable(jobs.get(jobId));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        importer.shutdownNow();
+    }
+
+    private void run(BugImportJob job, Path file, BugFileFormat format) {
+        job.start();
+        try (RowReader rows = openReader(file, format)) {
+            Lookups lookups = loadLookups();
+            LocalDateTime importedAt = LocalDateTime.now();
+            IdBlocks ids = new IdBlocks();
+            boolean more = true;
+            while (more) {
+                more = Boolean.TRUE.equals(transactionTemplate.execute(status ->
+                        jdbcTemplate.execute((ConnectionCallback<Boolean>) connection ->
+                                copyChunk(connection, job, rows, lookups, importedAt, ids))));
+            }
+            job.complete();
+        } catch (IOException | RuntimeException e) {
+            logger.error("Bug import {} failed after {} rows", job.getId(), job.getRowsImported(), e);
+            job.fail(e.getMessage());
+        } finally {
+            try {
+                Files.deleteIfExists(file);
+            } catch (IOException e) {
+                logger.warn("Could not delete import file {}", file);
+            }
+        }
+    }
+
+    // Helper to stream up to chunkRows accepted rows into one COPY and publish them as one bulk event, whose outbox
+    // rows commit with the COPY. Returns false once the file is exhausted.
+    private boolean copyChunk(Connection connection, BugImportJob job, RowReader rows, Lookups lookups,
+                              LocalDateTime importedAt, IdBlocks ids)
+            throws SQLException {
+        CopyManager copyManager = connection.unwrap(PGConnection.class).getCopyAPI();
+        List<BugChangedEvent> created = new ArrayList<>();
+        PGCopyOutputStream copy = null;
+
+        try {
+            // No other statement can run on the connection while COPY is open, so take the chunk's ids now
+            ids.reserve(connection, chunkRows);
+            while (created.size() < chunkRows) {
+                BugImportRow row = rows.next(job);
+                if (row == null) {
+                    break;
+                }
+                job.rowRead();
+                BugRow bug;
+                try {
+                    bug = toBugRow(row, lookups, importedAt, ids);
+                } catch (IllegalArgumentException e) {
+                    job.reject(rows.rowNumber(), e.getMessage());
+                    continue;
+                }
+
+                if (copy == null) {
+                    copy = new PGCopyOutputStream(copyManager.copyIn(COPY_SQL), copyBufferBytes);
+                }
+                copy.write(toCopyLine(bug).getBytes(StandardCharsets.UTF_8));
+                created.add(BugChangedEvent.created(bug));
+            }
+            if (copy != null) {
+                job.imported(copy.endCopy());
+                copy = null;
+                eventPublisher.publishEvent(BugChangedEvent.bulkChanged(created));
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            if (copy != null && copy.isActive()) {
+                copy.cancelCopy();
+            }
+        }
+        return created.size() == chunkRows;
+    }
+
+    // Helper to validate one row and give it an id; throws IllegalArgumentException with the reason
+    private BugRow toBugRow(BugImportRow row, Lookups lookups, LocalDateTime importedAt, IdBlocks ids) {
+        String title = trimToNull(row.getTitle());
+        String description = trimToNull(row.getDescription());
+        if (title == null || title.length() > 255) {
+            throw new IllegalArgumentException("Title is required and must be at most 255 characters");
+        }
+        if (description == null || description.length() > 4000) {
+            throw new IllegalArgumentException("Description is required and must be at most 4000 characters");
+        }
+        Long priorityId = lookups.resolve(lookups.priorities, row.getPriority(), "priority");
+        Long statusId = lookups.resolve(lookups.statuses, row.getStatus(), "status");
+        Long createdById = lookups.resolve(lookups.users, row.getCreatedBy(), "creator");
+        Long assigneeId = trimToNull(row.getAssignee()) == null
+                ? null
+                : lookups.resolve(lookups.users, row.getAssignee(), "assignee");
+
+        LocalDateTime createdAt = importedAt;
+        if (trimToNull(row.getCreatedAt()) != null) {
+            try {
+                createdAt = LocalDateTime.parse(row.getCreatedAt().trim());
+            } catch (DateTimeParseException e) {
+                throw new IllegalArgumentException("Invalid createdAt: " + row.getCreatedAt());
+            }
+        }
+
+        return new BugRow(ids.next(), title, description, priorityId, statusId, assigneeId, createdById,
+                createdAt);
+    }
+
+    // Helper to render an accepted row as a COPY CSV line
+    private static String toCopyLine(BugRow bug) {
+        return String.join(",",
+                bug.getId().toString(),
+                quote(bug.getTitle()),
+                quote(bug.getDescription()),
+                bug.getPriorityId().toString(),
+                bug.getStatusId().toString(),
+                bug.getAssigneeId() == null ? "" : bug.getAssigneeId().toString(),
+                bug.getCreatedByUserId().toString(),
+                bug.getCreatedAt().toString()) + "\n";
+    }
+
+    // Helper to quote a text field for COPY CSV; an unquoted empty field would mean NULL
+    private static String quote(String value) {
+        return "\"" + value.replace("\"", "\"\"") + "\"";
+    }
+
+    private static String trimToNull(String value) {
+        if (value == null || value.isBlank()) {
+            return null;
+        }
+        return value.trim();
+    }
+
+    // Helper to load every priority level, status label and user email with its id, keyed case-insensitively
+    private Lookups loadLookups() {
+        return new Lookups(
+                namesToIds("select level, id from priorities"),
+                namesToIds("select status_label, id from statuses"),
+                namesToIds("select email, id from users"));
+    }
+
+    private Map<String, Long> namesToIds(String sql) {
+        Map<String, Long> ids = new HashMap<>();
+        jdbcTemplate.query(sql, resultSet -> {
+            ids.put(resultSet.getString(1).trim().toLowerCase(), resultSet.getLong(2));
+        });
+        return ids;
+    }
+
+    // Helper to keep the job registry bounded by forgetting the oldest finished imports
+    private void pruneFinishedJobs() {
+        if (jobs.size() < retainedJobs) {
+            return;
+        }
+        jobs.values().stream()
+                .filter(BugImportJob::isFinished)
+                .sorted(Comparator.comparing(BugImportJob::getCreatedAt))
+                .limit(jobs.size() - retainedJobs + 1L)
+                .forEach(job -> jobs.remove(job.getId()));
+    }
+
+    private RowReader openReader(Path file, BugFileFormat format) throws IOException {
+        BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8);
+        return format == BugFileFormat.CSV ? new CsvRowReader(reader) : new NdjsonRowReader(reader, objectMapper);
+    }
+
+    private static class Lookups {
+        private final Map<String, Long> priorities;
+        private final Map<String, Long> statuses;
+        private final Map<String, Long> users;
+
+        private Lookups(Map<String, Long> priorities, Map<String, Long> statuses, Map<String, Long> users) {
+            this.priorities = priorities;
+            this.statuses = statuses;
+            this.users = users;
+        }
+
+        private Long resolve(Map<String, Long> ids, String name, String kind) {
+            Long id = name == null ? null : ids.get(name.trim().toLowerCase());
+            if (id == null) {
+                throw new IllegalArgumentException("Unknown " + kind + ": " + name);
+            }
+            return id;
+        }
+    }
+
+    // Hands out bug ids the way Hibernate's pooled optimizer does for Bug.id: each sequence value v reserves the
+    // ids v - ID_BLOCK_SIZE + 1 through v, so imported rows use one sequence value per block rather than one per row
+    // and never collide with ids Hibernate allocates. The sequence's first value (1) is left to Hibernate, which
+    // treats it as the start of its own first block. Ids reserved but not used by one chunk carry over to the next.
+    private static class IdBlocks {
+        private final Deque<Long> blocks = new ArrayDeque<>();
+        private long nextId;
+        private long lastId = -1;
+
+        // Makes sure at least count ids are available without going back to the database
+        private void reserve(Connection connection, int count) throws SQLException {
+            long available = lastId - nextId + 1 + (long) blocks.size() * ID_BLOCK_SIZE;
+            while (available < count) {
+                long needed = (count - available + ID_BLOCK_SIZE - 1) / ID_BLOCK_SIZE;
+                try (PreparedStatement fetch = connection.prepareStatement(
+                        "SELECT nextval('bugs_id_seq') FROM generate_series(1, ?)")) {
+                    fetch.setLong(1, needed);
+                    try (ResultSet resultSet = fetch.executeQuery()) {
+                        while (resultSet.next()) {
+                            long hi = resultSet.getLong(1);
+                            if (hi >= ID_BLOCK_SIZE) {
+                                blocks.add(hi);
+                                available += ID_BLOCK_SIZE;
+                            }
+                        }
+                    }
+                }
+            }
+        }
+
+        private long next() {
+            if (nextId > lastId) {
+                long hi = blocks.remove();
+                nextId = hi - ID_BLOCK_SIZE + 1;
+                lastId = hi;
+            }
+            return nextId++;
+        }
+    }
+
+    // Reads one row at a time; next returns null at the end of the file
+    private interface RowReader extends AutoCloseable {
+        BugImportRow next(BugImportJob job) throws IOException;
+
+        long rowNumber();
+
+        @Override
+        void close() throws IOException;
+    }
+
+    // CSV with a header row naming the columns. A malformed row fails the import, since the parser
+    // cannot reliably find where the next row starts.
+    private static class CsvRowReader implements RowReader {
+        private final BufferedReader reader;
+        private final MappingIterator<BugImportRow> rows;
+        private long rowNumber;
+
+        private CsvRowReader(BufferedReader reader) throws IOException {
+            this.reader = reader;
+            CsvMapper csvMapper = new CsvMapper();
+            this.rows = csvMapper.readerFor(BugImportRow.class)
+                    .with(CsvSchema.emptySchema().withHeader())
+                    .readValues(reader);
+        }
+
+        @Override
+        public BugImportRow next(BugImportJob job) throws IOException {
+            if (!rows.hasNextValue()) {
+                return null;
+            }
+            rowNumber++;
+            return rows.nextValue();
+        }
+
+        @Override
+        public long rowNumber() {
+            return rowNumber;
+        }
+
+        @Override
+        public void close() throws IOException {
+            rows.close();
+            reader.close();
+        }
+    }
+
+    // One JSON object per line; blank lines are skipped and a line that does not parse is rejected on its own
+    private static class NdjsonRowReader implements RowReader {
+        private final BufferedReader reader;
+        private final ObjectReader rowReader;
+        private long rowNumber;
+
+        private NdjsonRowReader(BufferedReader reader, ObjectMapper objectMapper) {
+            this.reader = reader;
+            this.rowReader = objectMapper.readerFor(BugImportRow.class);
+        }
+
+        @Override
+        public BugImportRow next(BugImportJob job) throws IOException {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.isBlank()) {
+                    continue;
+                }
+                rowNumber++;
+                try {
+                    return rowReader.readValue(line);
+                } catch (JsonProcessingException e) {
+                    job.rowRead();
+                    job.reject(rowNumber, "Malformed JSON: " + e.getOriginalMessage());
+                }
+            }
+            return null;
+        }
+
+        @Override
+        public long rowNumber() {
+            return rowNumber;
+        }
+
+        @Override
+        public void close() throws IOException {
+            reader.close();
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package nathan_mead.bug_tracker.service;
+
+import nathan_mead.bug_tracker.model.Bug;
+import nathan_mead.bug_tracker.model.Priority;
+import nathan_mead.bug_tracker.model.Status;
+import nathan_mead.bug_tracker.model.User;
+import nathan_mead.bug_tracker.repository.UserRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+// Resolves the ids of a bug write into associations with at most one select: priority and status come from
+// the reference-data cache, and every user not already attached to the bug is fetched (with its role, which the
+// response serializes) in a single query.
+@Component
+public class BugReferenceResolver {
+
+    @Autowired
+    private ReferenceDataCache referenceDataCache;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    // Sets each non-null reference on the bug; returns false, leaving the bug untouched, if any id is unknown
+    public boolean applyTo(Bug bug, Long priorityId, Long statusId, Long assigneeId, Long createdByUserId) {
+        Priority priority = null;
+        if (priorityId != null) {
+            Optional<Priority> priorityOpt = referenceDataCache.findPriority(priorityId);
+            if (priorityOpt.isEmpty()) {
+                return false;
+            }
+            priority = priorityOpt.get();
+        }
+
+        Status status = null;
+        if (statusId != null) {
+            Optional<Status> statusOpt = referenceDataCache.findStatus(statusId);
+            if (statusOpt.isEmpty()) {
+                return false;
+            }
+            status = statusOpt.get();
+        }
+
+        // Users the bug already points at are reused rather than selected again
+        Set<Long> missingUserIds = new HashSet<>();
+        if (assigneeId != null && !isSameUser(bug.getAssignee(), assigneeId)) {
+            missingUserIds.add(assigneeId);
+        }
+        if (createdByUserId != null && !isSameUser(bug.getCreatedBy(), createdByUserId)) {
+            missingUserIds.add(createdByUserId);
+        }
+        Map<Long, User> users = Map.of();
+        if (!missingUserIds.isEmpty()) {
+            List<User> found = userRepository.findAllByIdIn(missingUserIds);
+            if (found.size() != missingUserIds.size()) {
+                return false;
+            }
+            users = found.stream().collect(Collectors.toMap(User::getId, Function.identity()));
+        }
+
+        if (priority != null) {
+            bug.setPriority(priority);
+        }
+        if (status != null) {
+            bug.setStatus(status);
+        }
+        if (assigneeId != null && users.containsKey(assigneeId)) {
+            bug.setAssignee(users.get(assigneeId));
+        }
+        if (createdByUserId != null && users.containsKey(createdByUserId)) {
+            bug.setCreatedBy(users.get(createdByUserId));
+        }
+        return true;
+    }
+
+    // Helper to check whether a bug's current user is the one requested
+    private boolean isSameUser(User current, Long userId) {
+        return current != null && userId.equals(current.getId());
+    }
+}
@@ -0,0 +1,89 @@
+package nathan_mead.bug_tracker.service;
+
+import nathan_mead.bug_tracker.dto.CurrentUser;
+import nathan_mead.bug_tracker.model.User;
+import nathan_mead.bug_tracker.repository.UserRepository;
+import jakarta.servlet.http.HttpSession;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.session.FindByIndexNameSessionRepository;
+import org.springframework.session.Session;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Optional;
+
+// Keeps a CurrentUser snapshot in each signed-in session so /api/me is answered without touching the database.
+// The snapshot is loaded on first use and replaced in every session of a user when that user's details, role or
+// status are changed, and dropped when the session signs in again; nothing else expires it. Deleting a user deletes
+// their sessions.
+@Service
+public class CurrentUserCache {
+
+    public static final String SESSION_ATTRIBUTE = "CURRENT_USER";
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private FindByIndexNameSessionRepository<? extends Session> sessionRepository;
+
+    // The session's snapshot, loading it the first time or when it belongs to someone other than email (the session
+    // was signed in as another user); empty if the user no longer exists
+    public Optional<CurrentUser> get(HttpSession session, String email) {
+        CurrentUser snapshot = (CurrentUser) session.getAttribute(SESSION_ATTRIBUTE);
+        if (snapshot == null || !snapshot.getEmail().equalsIgnoreCase(email)) {
+            Optional<User> userOpt = userRepository.findByEmail(email);
+            if (!userOpt.isPresent()) {
+                return Optional.empty();
+            }
+            snapshot = CurrentUser.of(userOpt.get());
+            session.setAttribute(SESSION_ATTRIBUTE, snapshot);
+        }
+        return Optional.of(snapshot);
+    }
+
+    // Replaces the snapshot in every session signed in as principalName, after commit when called in a transaction.
+    // current is the request's own session when the user changed themselves; it is saved by the session filter at
+    // the end of the request, so it is updated directly rather than through the repository.
+    public void refresh(String principalName, User user, HttpSession current) {
+        CurrentUser snapshot = CurrentUser.of(user);
+        if (current != null) {
+            current.setAttribute(SESSION_ATTRIBUTE, snapshot);
+        }
+        afterCommit(() -> refreshStoredSessions(sessionRepository, principalName, snapshot, current));
+    }
+
+    // Deletes every session signed in as principalName, after commit when called in a transaction, so a deleted
+    // user is signed out instead of being served their old snapshot
+    public void remove(String principalName) {
+        afterCommit(() -> sessionRepository.findByPrincipalName(principalName).keySet()
+                .forEach(sessionRepository::deleteById));
+    }
+
+    // Helper to run work once the current transaction commits, or now when there is none
+    private static void afterCommit(Runnable work) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    work.run();
+                }
+            });
+        } else {
+            work.run();
+        }
+    }
+
+    private static <S extends Session> void refreshStoredSessions(FindByIndexNameSessionRepository<S> repository,
+                                                                  String principalName, CurrentUser snapshot,
+                                                                  HttpSession current) {
+        for (S session : repository.findByPrincipalName(principalName).values()) {
+            if (current != null && current.getId().equals(session.getId())) {
+                continue;
+            }
+            session.setAttribute(SESSION_ATTRIBUTE, snapshot);
+            repository.save(session);
+        }
+    }
+}
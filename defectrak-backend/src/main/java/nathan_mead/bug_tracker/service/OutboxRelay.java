@@ -0,0 +1,194 @@
+package nathan_mead.bug_tracker.service;
+
+import nathan_mead.bug_tracker.model.OutboxEvent;
+import nathan_mead.bug_tracker.repository.OutboxEventRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageBuilder;
+import org.springframework.amqp.core.MessageBuilderSupport;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.rabbit.connection.CorrelationData;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+// Drains the outbox table to RabbitMQ. Each batch is locked with SKIP LOCKED and published with publisher confirms;
+// anything nacked or unconfirmed is retried on the next poll. Delivery is therefore at-least-once, and consumers
+// should de-duplicate on the message id (the outbox id). Bug events are also appended to the bug event log stream.
+// Each sink's confirm is recorded on the row (published_at, streamed_at) and each sink only takes the rows it has
+// not confirmed, so an outage on one never makes the other resend; a row is deleted once every sink has it.
+// One relay appends to the log in outbox id order; relays on several instances lock separate batches and may
+// append them interleaved (see BugEventLog).
+@Service
+public class OutboxRelay {
+
+    private static final Logger logger = LoggerFactory.getLogger(OutboxRelay.class);
+
+    private static final String BUG_AGGREGATE = "bug";
+
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
+
+    @Autowired
+    private RabbitTemplate rabbitTemplate;
+
+    @Autowired
+    private BugEventLog bugEventLog;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Value("${defectrak.outbox.exchange:defectrak.events}")
+    private String exchange;
+
+    @Value("${defectrak.outbox.relay.enabled:true}")
+    private boolean enabled;
+
+    @Value("${defectrak.outbox.relay.batch-size:100}")
+    private int batchSize;
+
+    @Value("${defectrak.outbox.relay.confirm-timeout-ms:5000}")
+    private long confirmTimeoutMs;
+
+    // Keeps relaying while either sink confirms a full batch, so a backlog drains without waiting for the next poll
+    @Scheduled(fixedDelayString = "${defectrak.outbox.relay.interval-ms:1000}")
+    public void poll() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            while (relayBatch() == batchSize) {
+                // Next batch
+            }
+        } catch (RuntimeException e) {
+            // Broker or database unavailable; logged briefly since this repeats every poll until it recovers
+            logger.warn("Outbox relay failed, pending events will be retried: {}", e.getMessage());
+        }
+    }
+
+    // Publishes the next batch the exchange has not confirmed and appends the next batch of bug events the log has
+    // not stored, records what each sink confirmed, and deletes the rows both are done with. Returns the larger of
+    // the two confirmed counts.
+    public int relayBatch() {
+        Integer confirmed = transactionTemplate.execute(status -> {
+            List<OutboxEvent> unpublished = outboxEventRepository.lockUnpublished(Limit.of(batchSize));
+            List<OutboxEvent> unstreamed = outboxEventRepository.lockUnstreamed(Limit.of(batchSize));
+            if (unpublished.isEmpty() && unstreamed.isEmpty()) {
+                return 0;
+            }
+
+            List<CorrelationData> confirmations = new ArrayList<>(unpublished.size());
+            for (OutboxEvent event : unpublished) {
+                CorrelationData correlation = new CorrelationData(String.valueOf(event.getId()));
+                rabbitTemplate.send(exchange, event.getEventType(), toMessage(event), correlation);
+                confirmations.add(correlation);
+            }
+            List<CompletableFuture<Boolean>> logAppends = new ArrayList<>(unstreamed.size());
+            for (OutboxEvent event : unstreamed) {
+                logAppends.add(bugEventLog.append(toMessage(event)));
+            }
+
+            long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(confirmTimeoutMs);
+            Set<OutboxEvent> published = new HashSet<>();
+            for (int i = 0; i < unpublished.size(); i++) {
+                if (isAcknowledged(confirmations.get(i), deadline)) {
+                    published.add(unpublished.get(i));
+                }
+            }
+            // Only the run of stored appends from the start of the batch counts, so a failed event is appended again
+            // ahead of the ones after it. Any of those the stream did store get a second copy, which is harmless to
+            // replay since every bug event carries the bug's full state.
+            Set<OutboxEvent> streamed = new HashSet<>();
+            for (int i = 0; i < unstreamed.size(); i++) {
+                if (!isLogged(logAppends.get(i), String.valueOf(unstreamed.get(i).getId()), deadline)) {
+                    break;
+                }
+                streamed.add(unstreamed.get(i));
+            }
+
+            // The same row may be in both batches; the persistence context hands back one instance for it
+            Set<OutboxEvent> touched = new LinkedHashSet<>(published);
+            touched.addAll(streamed);
+            LocalDateTime now = LocalDateTime.now();
+            List<OutboxEvent> delivered = new ArrayList<>();
+            for (OutboxEvent event : touched) {
+                boolean isPublished = event.getPublishedAt() != null || published.contains(event);
+                boolean isStreamed = !BUG_AGGREGATE.equals(event.getAggregateType())
+                        || event.getStreamedAt() != null || streamed.contains(event);
+                if (isPublished && isStreamed) {
+                    delivered.add(event);
+                } else if (published.contains(event)) {
+                    event.setPublishedAt(now);
+                } else {
+                    event.setStreamedAt(now);
+                }
+            }
+            outboxEventRepository.deleteAllInBatch(delivered);
+            return Math.max(published.size(), streamed.size());
+        });
+        return confirmed == null ? 0 : confirmed;
+    }
+
+    // Helper to build a persistent JSON message whose id lets consumers drop redeliveries
+    private Message toMessage(OutboxEvent event) {
+        MessageBuilderSupport<Message> builder = MessageBuilder.withBody(event.getPayload().getBytes(StandardCharsets.UTF_8))
+                .setContentType(MessageProperties.CONTENT_TYPE_JSON)
+                .setContentEncoding(StandardCharsets.UTF_8.name())
+                .setMessageId(String.valueOf(event.getId()))
+                .setType(event.getEventType())
+                .setHeader("aggregateType", event.getAggregateType());
+        if (event.getAggregateId() != null) {
+            builder.setHeader("aggregateId", event.getAggregateId());
+        }
+        return builder.build();
+    }
+
+    // Helper to wait, until the batch deadline, for the broker to confirm one message
+    private boolean isAcknowledged(CorrelationData correlation, long deadline) {
+        try {
+            long remaining = Math.max(0, deadline - System.nanoTime());
+            CorrelationData.Confirm confirm = correlation.getFuture().get(remaining, TimeUnit.NANOSECONDS);
+            if (!confirm.isAck()) {
+                logger.warn("Broker rejected outbox event {}: {}", correlation.getId(), confirm.getReason());
+            }
+            return confirm.isAck();
+        } catch (TimeoutException | ExecutionException e) {
+            logger.warn("No confirm for outbox event {}", correlation.getId());
+            return false;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    // Helper to wait, until the batch deadline, for the stream to store one message
+    private boolean isLogged(CompletableFuture<Boolean> append, String eventId, long deadline) {
+        try {
+            long remaining = Math.max(0, deadline - System.nanoTime());
+            return Boolean.TRUE.equals(append.get(remaining, TimeUnit.NANOSECONDS));
+        } catch (TimeoutException | ExecutionException e) {
+            logger.warn("Outbox event {} was not appended to the bug event log", eventId);
+            return false;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
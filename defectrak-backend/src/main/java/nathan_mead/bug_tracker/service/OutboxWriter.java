@@ -0,0 +1,124 @@
+package nathan_mead.bug_tracker.service;
+
+import nathan_mead.bug_tracker.dto.BugRow;
+import nathan_mead.bug_tracker.event.BugChangedEvent;
+import nathan_mead.bug_tracker.event.UserChangedEvent;
+import nathan_mead.bug_tracker.model.OutboxEvent;
+import nathan_mead.bug_tracker.model.User;
+import nathan_mead.bug_tracker.repository.OutboxEventRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.sql.Timestamp;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+// Records every bug and user change in the outbox table. The listeners run synchronously inside the publisher's
+// transaction, so an event row exists exactly when its change commits; OutboxRelay takes it from there.
+// Bulk writes get one row per bug, inserted in JDBC batches: the IDENTITY key stops Hibernate from batching them.
+@Service
+public class OutboxWriter {
+
+    private static final String INSERT_SQL = "INSERT INTO outbox_events "
+            + "(aggregate_type, aggregate_id, event_type, payload, created_at) VALUES (?, ?, ?, ?, ?)";
+
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${spring.jpa.properties.hibernate.jdbc.batch_size:50}")
+    private int batchSize;
+
+    @EventListener
+    public void onBugChanged(BugChangedEvent event) {
+        if (event.getType() == BugChangedEvent.Type.BULK_CHANGED) {
+            List<OutboxEvent> rows = event.getItems().stream()
+                    .map(item -> toOutboxEvent("bug", item.getBugId(), item.getType().name(), bugEventPayload(item)))
+                    .toList();
+            jdbcTemplate.batchUpdate(INSERT_SQL, rows, batchSize, (statement, row) -> {
+                statement.setString(1, row.getAggregateType());
+                statement.setLong(2, row.getAggregateId());
+                statement.setString(3, row.getEventType());
+                statement.setString(4, row.getPayload());
+                statement.setTimestamp(5, Timestamp.valueOf(row.getCreatedAt()));
+            });
+            return;
+        }
+        outboxEventRepository.save(
+                toOutboxEvent("bug", event.getBugId(), event.getType().name(), bugEventPayload(event)));
+    }
+
+    @EventListener
+    public void onUserChanged(UserChangedEvent event) {
+        Map<String, Object> payload = switch (event.getType()) {
+            case CREATED, UPDATED -> userPayload(event.getUser());
+            case DELETED -> Map.of("id", event.getUserId());
+        };
+        outboxEventRepository.save(toOutboxEvent("user", event.getUserId(), event.getType().name(), payload));
+    }
+
+    // Helper to describe one bug event: the bug's columns, plus the changed fields for an update
+    private Map<String, Object> bugEventPayload(BugChangedEvent event) {
+        return switch (event.getType()) {
+            case CREATED -> bugPayload(event.getRow());
+            case UPDATED -> {
+                Map<String, Object> updated = bugPayload(event.getRow());
+                updated.put("changes", event.getChanges());
+                yield updated;
+            }
+            case DELETED -> Map.of("id", event.getBugId());
+            case BULK_CHANGED -> throw new IllegalArgumentException("Bulk events are written one row per item");
+        };
+    }
+
+    // Helper to build one event row; the routing key is "<aggregate>.<type>", e.g. "bug.created"
+    private OutboxEvent toOutboxEvent(String aggregateType, Long aggregateId, String type,
+                                      Map<String, Object> payload) {
+        String json;
+        try {
+            json = objectMapper.writeValueAsString(payload);
+        } catch (JsonProcessingException e) {
+            // Fail the surrounding transaction rather than commit a change whose event is lost
+            throw new IllegalStateException("Could not serialize " + aggregateType + " event", e);
+        }
+        String eventType = aggregateType + "." + type.toLowerCase();
+        return new OutboxEvent(aggregateType, aggregateId, eventType, json);
+    }
+
+    // Helper to describe a bug by its columns; associations are sent as ids so consumers never see user details
+    private Map<String, Object> bugPayload(BugRow row) {
+        Map<String, Object> payload = new LinkedHashMap<>();
+        payload.put("id", row.getId());
+        payload.put("title", row.getTitle());
+        payload.put("description", row.getDescription());
+        payload.put("priorityId", row.getPriorityId());
+        payload.put("statusId", row.getStatusId());
+        payload.put("assigneeId", row.getAssigneeId());
+        payload.put("createdByUserId", row.getCreatedByUserId());
+        payload.put("createdAt", row.getCreatedAt());
+        return payload;
+    }
+
+    // Helper to describe a user without the password hash
+    private Map<String, Object> userPayload(User user) {
+        Map<String, Object> payload = new LinkedHashMap<>();
+        payload.put("id", user.getId());
+        payload.put("email", user.getEmail());
+        payload.put("firstName", user.getFirstName());
+        payload.put("lastName", user.getLastName());
+        payload.put("status", user.getStatus());
+        payload.put("roleId", user.getRole() == null ? null : user.getRole().getId());
+        return payload;
+    }
+}
@@ -0,0 +1,60 @@
+package nathan_mead.bug_tracker.service;
+
+import nathan_mead.bug_tracker.config.CacheConfig;
+import nathan_mead.bug_tracker.model.Priority;
+import nathan_mead.bug_tracker.model.Status;
+import nathan_mead.bug_tracker.model.UserRole;
+import nathan_mead.bug_tracker.repository.PriorityRepository;
+import nathan_mead.bug_tracker.repository.StatusRepository;
+import nathan_mead.bug_tracker.repository.UserRoleRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.Optional;
+
+// Read-through cache for the small lookup tables. Entries are shared, detached entities and must not be
+// modified; admin writes go through the repositories and evict the matching caches in the controllers.
+@Service
+public class ReferenceDataCache {
+
+    @Autowired
+    private PriorityRepository priorityRepository;
+
+    @Autowired
+    private StatusRepository statusRepository;
+
+    @Autowired
+    private UserRoleRepository userRoleRepository;
+
+    @Cacheable(CacheConfig.PRIORITIES)
+    public Optional<Priority> findPriority(Long id) {
+        return priorityRepository.findById(id);
+    }
+
+    @Cacheable(CacheConfig.ACTIVE_PRIORITIES)
+    public List<Priority> activePriorities() {
+        return priorityRepository.findAllActive();
+    }
+
+    @Cacheable(CacheConfig.STATUSES)
+    public Optional<Status> findStatus(Long id) {
+        return statusRepository.findById(id);
+    }
+
+    @Cacheable(CacheConfig.ACTIVE_STATUSES)
+    public List<Status> activeStatuses() {
+        return statusRepository.findAllActive();
+    }
+
+    @Cacheable(CacheConfig.USER_ROLES)
+    public Optional<UserRole> findUserRole(Long id) {
+        return userRoleRepository.findById(id);
+    }
+
+    @Cacheable(CacheConfig.ACTIVE_USER_ROLES)
+    public List<UserRole> activeUserRoles() {
+        return userRoleRepository.findAllActive();
+    }
+}
@@ -0,0 +1,224 @@
+package nathan_mead.bug_tracker;
+
+import nathan_mead.bug_tracker.model.Bug;
+import nathan_mead.bug_tracker.model.Priority;
+import nathan_mead.bug_tracker.model.Status;
+import nathan_mead.bug_tracker.model.User;
+import nathan_mead.bug_tracker.model.UserRole;
+import nathan_mead.bug_tracker.repository.BugRepository;
+import nathan_mead.bug_tracker.repository.PriorityRepository;
+import nathan_mead.bug_tracker.repository.StatusRepository;
+import nathan_mead.bug_tracker.repository.UserRepository;
+import nathan_mead.bug_tracker.repository.UserRoleRepository;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Compares GET /api/bugs throughput on Tomcat's default platform worker pool against virtual-thread mode.
+// Each mode boots the full application on a random port, seeds bugs, then runs closed-loop clients for a warmup
+// and a measured period. Run with: mvn test -Pbenchmark
+//
+// Against the default in-memory database every request is CPU-bound, so the modes should come out close and the
+// run mostly shows the gate and pool holding up under many more clients than workers. Point benchmark.datasource.url
+// (plus .username and .password) at a PostgreSQL instance across a network to measure the blocking case virtual
+// threads are meant for. Tune with -Dbenchmark.clients, .bugs, .warmup-seconds and .measure-seconds.
+@Tag("benchmark")
+public class RequestThroughputBenchmark {
+
+    private static final int CLIENTS = Integer.getInteger("benchmark.clients", 400);
+    private static final int BUGS = Integer.getInteger("benchmark.bugs", 2000);
+    private static final Duration WARMUP = Duration.ofSeconds(Long.getLong("benchmark.warmup-seconds", 5));
+    private static final Duration MEASURE = Duration.ofSeconds(Long.getLong("benchmark.measure-seconds", 15));
+
+    private static final String EMAIL = "benchmark@example.com";
+    private static final String PASSWORD = "benchmark-password";
+
+    @Test
+    public void compareVirtualAndPlatformThreads() throws Exception {
+        Result platform = run(false);
+        Result virtual = run(true);
+
+        System.out.printf("%n%-10s %10s %10s %10s %10s %8s%n", "mode", "req/s", "p50 ms", "p99 ms", "max ms", "errors");
+        System.out.println(platform);
+        System.out.println(virtual);
+        System.out.printf("virtual/platform throughput: %.2fx (%d clients)%n%n",
+                virtual.throughput() / platform.throughput(), CLIENTS);
+
+        assertTrue(platform.requests > 0 && virtual.requests > 0);
+    }
+
+    private Result run(boolean virtualThreads) throws Exception {
+        String mode = virtualThreads ? "virtual" : "platform";
+        boolean postgres = System.getProperty("benchmark.datasource.url") != null;
+        // Passed as arguments so they override application.properties
+        String[] arguments = {
+                "server.port=0",
+                "management.server.port=0",
+                "spring.threads.virtual.enabled=" + virtualThreads,
+                "spring.datasource.url=" + System.getProperty("benchmark.datasource.url",
+                        "jdbc:h2:mem:benchmark-" + mode + ";DB_CLOSE_DELAY=-1"),
+                "spring.datasource.username=" + System.getProperty("benchmark.datasource.username", "sa"),
+                "spring.datasource.password=" + System.getProperty("benchmark.datasource.password", ""),
+                "spring.datasource.driver-class-name=",
+                "spring.jpa.database-platform=" + (postgres
+                        ? "org.hibernate.dialect.PostgreSQLDialect" : "org.hibernate.dialect.H2Dialect"),
+                "spring.jpa.hibernate.ddl-auto=" + (postgres ? "validate" : "create-drop"),
+                "spring.jpa.show-sql=false",
+                // PostgreSQL gets the session tables from scripts/db/init.sql
+                "spring.session.jdbc.initialize-schema=" + (postgres ? "never" : "embedded"),
+                "spring.docker.compose.enabled=false",
+                "defectrak.outbox.relay.enabled=false",
+                // Every client signs in as the same user, which the default limit would throttle
+                "defectrak.rate-limit.enabled=false",
+                "logging.level.root=WARN"};
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(BugTrackerApplication.class)
+                .run(Arrays.stream(arguments).map(argument -> "--" + argument).toArray(String[]::new))) {
+            seed(context);
+            int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+            HttpClient client = HttpClient.newBuilder()
+                    .executor(Executors.newVirtualThreadPerTaskExecutor())
+                    .build();
+            String cookie = login(client, port);
+            URI uri = URI.create("http://localhost:" + port + "/api/bugs?size=50");
+
+            load(mode, client, uri, cookie, WARMUP);
+            return load(mode, client, uri, cookie, MEASURE);
+        }
+    }
+
+    // Helper to create the login user and BUGS bugs; skipped when the database already has bugs
+    private void seed(ConfigurableApplicationContext context) {
+        BugRepository bugRepository = context.getBean(BugRepository.class);
+        UserRepository userRepository = context.getBean(UserRepository.class);
+        if (userRepository.findByEmail(EMAIL).isEmpty()) {
+            UserRole role = context.getBean(UserRoleRepository.class).save(new UserRole("benchmark", "active"));
+            userRepository.save(new User(EMAIL, "Bench", "Mark",
+                    context.getBean(PasswordEncoder.class).encode(PASSWORD), role));
+        }
+        if (bugRepository.count() > 0) {
+            return;
+        }
+        Priority priority = context.getBean(PriorityRepository.class).save(new Priority("benchmark", "active"));
+        Status status = context.getBean(StatusRepository.class).save(new Status("benchmark", "active"));
+        User creator = userRepository.findByEmail(EMAIL).orElseThrow();
+        List<Bug> bugs = new ArrayList<>();
+        for (int i = 0; i < BUGS; i++) {
+            Bug bug = new Bug();
+            bug.setTitle("Benchmark bug " + i);
+            bug.setDescription("Seeded for the throughput benchmark");
+            bug.setPriority(priority);
+            bug.setStatus(status);
+            bug.setCreatedBy(creator);
+            bug.setCreatedAt(LocalDateTime.now().minusMinutes(i));
+            bugs.add(bug);
+        }
+        bugRepository.insertAll(bugs);
+    }
+
+    private String login(HttpClient client, int port) throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/login"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(
+                        "{\"email\": \"" + EMAIL + "\", \"password\": \"" + PASSWORD + "\"}"))
+                .build();
+        HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+        return response.headers().allValues("Set-Cookie").stream()
+                .map(header -> header.split(";", 2)[0])
+                .filter(cookie -> cookie.startsWith("SESSION="))
+                .findFirst()
+                .orElseThrow(() -> new IllegalStateException("Login failed: " + response.statusCode()));
+    }
+
+    // Runs CLIENTS closed-loop clients for the duration and collects every request latency
+    private Result load(String mode, HttpClient client, URI uri, String cookie, Duration duration) throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(uri).header("Cookie", cookie).GET().build();
+        long deadline = System.nanoTime() + duration.toNanos();
+        AtomicLong errors = new AtomicLong();
+
+        List<Future<long[]>> clients = new ArrayList<>();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < CLIENTS; i++) {
+                clients.add(executor.submit(() -> {
+                    long[] samples = new long[1024];
+                    int count = 0;
+                    while (System.nanoTime() < deadline) {
+                        long start = System.nanoTime();
+                        HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+                        if (response.statusCode() != 200) {
+                            errors.incrementAndGet();
+                            continue;
+                        }
+                        if (count == samples.length) {
+                            samples = Arrays.copyOf(samples, count * 2);
+                        }
+                        samples[count++] = System.nanoTime() - start;
+                    }
+                    return Arrays.copyOf(samples, count);
+                }));
+            }
+        }
+
+        long[] all = new long[0];
+        for (Future<long[]> future : clients) {
+            long[] samples = future.get();
+            int offset = all.length;
+            all = Arrays.copyOf(all, offset + samples.length);
+            System.arraycopy(samples, 0, all, offset, samples.length);
+        }
+        Arrays.sort(all);
+        return new Result(mode, all, errors.get(), duration);
+    }
+
+    private static class Result {
+        private final String mode;
+        private final long requests;
+        private final long errors;
+        private final Duration duration;
+        private final long[] sortedNanos;
+
+        private Result(String mode, long[] sortedNanos, long errors, Duration duration) {
+            this.mode = mode;
+            this.requests = sortedNanos.length;
+            this.errors = errors;
+            this.duration = duration;
+            this.sortedNanos = sortedNanos;
+        }
+
+        private double throughput() {
+            return requests / (duration.toMillis() / 1000.0);
+        }
+
+        private double percentileMillis(double percentile) {
+            if (sortedNanos.length == 0) {
+                return 0;
+            }
+            int index = (int) Math.min(sortedNanos.length - 1, Math.ceil(percentile * sortedNanos.length) - 1);
+            return sortedNanos[Math.max(0, index)] / 1_000_000.0;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%-10s %10.0f %10.1f %10.1f %10.1f %8d", mode, throughput(),
+                    percentileMillis(0.50), percentileMillis(0.99), percentileMillis(1.0), errors);
+        }
+    }
+}
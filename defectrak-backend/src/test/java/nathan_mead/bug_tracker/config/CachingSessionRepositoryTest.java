@@ -0,0 +1,180 @@
+package nathan_mead.bug_tracker.config;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.session.FindByIndexNameSessionRepository;
+import org.springframework.session.MapSession;
+import org.springframework.session.MapSessionRepository;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+// The delegate is an in-memory store wrapped in a spy, so every read and write that reaches it can be counted
+public class CachingSessionRepositoryTest {
+
+    private static final Duration CACHE_TTL = Duration.ofMinutes(5);
+    private static final Duration TOUCH_INTERVAL = Duration.ofMinutes(1);
+
+    private MapSessionRepository store;
+    private CachingSessionRepository<MapSession> repository;
+
+    @BeforeEach
+    public void setUp() {
+        store = Mockito.spy(new MapSessionRepository(new ConcurrentHashMap<>()));
+        repository = newInstance();
+    }
+
+    @Test
+    public void testNewSessionIsStoredWithItsAttributes() {
+        CachingSessionRepository<MapSession>.CachedSession session = repository.createSession();
+        session.setAttribute("user", "alice");
+        repository.save(session);
+
+        MapSession stored = store.findById(session.getId());
+        assertNotNull(stored);
+        assertEquals("alice", stored.getAttribute("user"));
+    }
+
+    @Test
+    public void testRepeatedReadsAreServedFromCache() {
+        String id = saveNewSession("user", "alice");
+        clearInvocations(store);
+
+        for (int i = 0; i < 3; i++) {
+            CachingSessionRepository<MapSession>.CachedSession session = repository.findById(id);
+            assertEquals("alice", session.getAttribute("user"));
+            session.setLastAccessedTime(session.getLastAccessedTime().plusSeconds(1));
+            repository.save(session);
+        }
+
+        verify(store, never()).findById(anyString());
+        verify(store, never()).save(any());
+    }
+
+    @Test
+    public void testLastAccessIsWrittenOncePerTouchInterval() {
+        String id = saveNewSession("user", "alice");
+        Instant storedAccess = store.findById(id).getLastAccessedTime();
+        clearInvocations(store);
+
+        CachingSessionRepository<MapSession>.CachedSession session = repository.findById(id);
+        session.setLastAccessedTime(storedAccess.plus(TOUCH_INTERVAL).minusSeconds(1));
+        repository.save(session);
+        verify(store, never()).save(any());
+
+        session = repository.findById(id);
+        session.setLastAccessedTime(storedAccess.plus(TOUCH_INTERVAL));
+        repository.save(session);
+        verify(store).save(any());
+        assertEquals(storedAccess.plus(TOUCH_INTERVAL), store.findById(id).getLastAccessedTime());
+    }
+
+    @Test
+    public void testOnlyChangedAttributesAreWritten() {
+        String id = saveNewSession("user", "alice");
+
+        // Two instances read the session, then each changes a different attribute
+        CachingSessionRepository<MapSession> other = newInstance();
+        CachingSessionRepository<MapSession>.CachedSession here = repository.findById(id);
+        CachingSessionRepository<MapSession>.CachedSession there = other.findById(id);
+
+        here.setAttribute("theme", "dark");
+        repository.save(here);
+        there.setAttribute("primaryUntil", 42L);
+        there.removeAttribute("user");
+        other.save(there);
+
+        MapSession stored = store.findById(id);
+        assertEquals("dark", stored.getAttribute("theme"));
+        assertEquals(42L, (Long) stored.getAttribute("primaryUntil"));
+        assertNull(stored.getAttribute("user"));
+    }
+
+    @Test
+    public void testOtherInstancesSeeStoredSessions() {
+        String id = saveNewSession("user", "alice");
+
+        CachingSessionRepository<MapSession>.CachedSession session = newInstance().findById(id);
+
+        assertNotNull(session);
+        assertEquals("alice", session.getAttribute("user"));
+    }
+
+    @Test
+    public void testChangedIdReplacesCachedEntry() {
+        String oldId = saveNewSession("user", "alice");
+
+        CachingSessionRepository<MapSession>.CachedSession session = repository.findById(oldId);
+        String newId = session.changeSessionId();
+        repository.save(session);
+
+        assertNotEquals(oldId, newId);
+        assertNull(repository.findById(oldId));
+        assertEquals("alice", repository.findById(newId).getAttribute("user"));
+    }
+
+    @Test
+    public void testDeleteRemovesCachedCopy() {
+        String id = saveNewSession("user", "alice");
+        assertNotNull(repository.findById(id));
+
+        repository.deleteById(id);
+
+        assertNull(repository.findById(id));
+        assertNull(store.findById(id));
+    }
+
+    @Test
+    public void testExpiredSessionIsNotReturned() {
+        CachingSessionRepository<MapSession>.CachedSession session = repository.createSession();
+        session.setMaxInactiveInterval(Duration.ofSeconds(1));
+        session.setLastAccessedTime(Instant.now().minusSeconds(10));
+        repository.save(session);
+
+        assertNull(repository.findById(session.getId()));
+    }
+
+    @Test
+    public void testPrincipalLookupWritesThroughToStore() {
+        CachingSessionRepository<MapSession> indexed = new CachingSessionRepository<>(
+                new SessionStoreConfig.IndexedMapSessionRepository(new ConcurrentHashMap<>()),
+                CACHE_TTL, 100, TOUCH_INTERVAL);
+        CachingSessionRepository<MapSession>.CachedSession session = indexed.createSession();
+        session.setAttribute(FindByIndexNameSessionRepository.PRINCIPAL_NAME_INDEX_NAME, "alice");
+        indexed.save(session);
+        assertEquals(1, indexed.findById(session.getId()).getAttributeNames().size());
+
+        Map<String, CachingSessionRepository<MapSession>.CachedSession> found = indexed.findByPrincipalName("alice");
+        assertEquals(1, found.size());
+        CachingSessionRepository<MapSession>.CachedSession match = found.get(session.getId());
+        match.setAttribute("theme", "dark");
+        indexed.save(match);
+
+        assertEquals("dark", indexed.findById(session.getId()).getAttribute("theme"));
+        assertTrue(indexed.findByPrincipalName("bob").isEmpty());
+    }
+
+    @Test
+    public void testPrincipalLookupNeedsIndexedStore() {
+        assertThrows(UnsupportedOperationException.class, () -> repository.findByPrincipalName("alice"));
+    }
+
+    private CachingSessionRepository<MapSession> newInstance() {
+        return new CachingSessionRepository<>(store, CACHE_TTL, 100, TOUCH_INTERVAL);
+    }
+
+    private String saveNewSession(String name, Object value) {
+        CachingSessionRepository<MapSession>.CachedSession session = repository.createSession();
+        session.setAttribute(name, value);
+        repository.save(session);
+        return session.getId();
+    }
+}
@@ -0,0 +1,86 @@
+package nathan_mead.bug_tracker.config;
+
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Permit accounting of the connection gate placed in front of each pool in virtual-thread mode
+public class ConnectionGateDataSourceTest {
+
+    private final DataSource pool = Mockito.mock(DataSource.class);
+    private ConnectionGateDataSource gate;
+
+    @BeforeEach
+    public void setUp() throws SQLException {
+        Mockito.when(pool.getConnection()).thenAnswer(invocation -> Mockito.mock(Connection.class));
+        gate = new ConnectionGateDataSource(pool, 2, Duration.ofMillis(50), "dataSource");
+    }
+
+    @Test
+    public void testClosingReturnsExactlyOnePermit() throws SQLException {
+        Connection first = gate.getConnection();
+        Connection second = gate.getConnection();
+        assertEquals(0, gate.getAvailablePermits());
+
+        first.close();
+        first.close();
+        assertEquals(1, gate.getAvailablePermits());
+
+        second.close();
+        assertEquals(2, gate.getAvailablePermits());
+    }
+
+    @Test
+    public void testWaitingPastTheTimeoutFails() throws SQLException {
+        gate.getConnection();
+        gate.getConnection();
+
+        assertThrows(SQLTransientConnectionException.class, gate::getConnection);
+        Mockito.verify(pool, Mockito.times(2)).getConnection();
+    }
+
+    @Test
+    public void testPoolFailureReturnsThePermit() throws SQLException {
+        Mockito.when(pool.getConnection()).thenThrow(new SQLException("Connection refused"));
+
+        assertThrows(SQLException.class, gate::getConnection);
+        assertEquals(2, gate.getAvailablePermits());
+    }
+
+    @Test
+    public void testCallsReachTheUnderlyingConnection() throws SQLException {
+        Connection connection = Mockito.mock(Connection.class);
+        Mockito.when(pool.getConnection()).thenReturn(connection);
+        Mockito.when(connection.isReadOnly()).thenReturn(true);
+
+        Connection gated = gate.getConnection();
+        assertTrue(gated.isReadOnly());
+        gated.close();
+        Mockito.verify(connection).close();
+    }
+
+    @Test
+    public void testWaitsAreTimedOnceBound() throws SQLException {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        gate.bindTo(registry);
+        gate.getConnection();
+        gate.getConnection();
+        assertThrows(SQLTransientConnectionException.class, gate::getConnection);
+
+        Timer wait = registry.get("defectrak.datasource.gate.wait").tag("name", "dataSource").timer();
+        assertEquals(3, wait.count());
+        assertTrue(wait.max(TimeUnit.MILLISECONDS) >= 45);
+        assertEquals(0.0, registry.get("defectrak.datasource.gate.available").gauge().value());
+    }
+}
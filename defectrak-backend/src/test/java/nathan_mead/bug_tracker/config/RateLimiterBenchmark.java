@@ -0,0 +1,152 @@
+package nathan_mead.bug_tracker.config;
+
+import jakarta.servlet.FilterChain;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.AuthorityUtils;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Cost of admission on the request path: RateLimiter.acquire alone, from one thread on one bucket and from many
+// threads spread over many clients, and the whole RateLimitFilter against calling the next filter directly.
+// Limits are set so every request is admitted, which is the path every normal request takes.
+// Run with: mvn test -Pbenchmark (tune with -Dbenchmark.threads, .clients, .warmup-seconds and .measure-seconds)
+@Tag("benchmark")
+public class RateLimiterBenchmark {
+
+    private static final int THREADS = Integer.getInteger("benchmark.threads",
+            Math.max(2, Runtime.getRuntime().availableProcessors()));
+    private static final int CLIENTS = Integer.getInteger("benchmark.clients", 10_000);
+    private static final Duration WARMUP = Duration.ofSeconds(Long.getLong("benchmark.warmup-seconds", 3));
+    private static final Duration MEASURE = Duration.ofSeconds(Long.getLong("benchmark.measure-seconds", 5));
+
+    // A request through the application takes hundreds of microseconds at best; admission must stay far below it
+    private static final double MAX_NANOS_PER_REQUEST = 5_000;
+
+    private static volatile long sink;
+
+    @Test
+    public void measureAdmissionOverhead() throws Exception {
+        RateLimiter limiter = new RateLimiter(properties());
+        MockHttpServletRequest post = new MockHttpServletRequest("POST", "/api/bugs");
+        MockHttpServletRequest get = new MockHttpServletRequest("GET", "/api/bugs");
+
+        double oneBucket = measure(1, thread -> () -> limiter.acquire("user:alice", post));
+        double manyClients = measure(THREADS, thread -> {
+            int[] next = {thread};
+            return () -> {
+                next[0] = (next[0] + THREADS) % CLIENTS;
+                return limiter.acquire("user:client-" + next[0], get);
+            };
+        });
+
+        RateLimitFilter filter = new RateLimitFilter(limiter);
+        FilterChain chain = (request, response) -> sink++;
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        double withoutFilter = measure(1, thread -> () -> {
+            chain.doFilter(post, response);
+            return 0;
+        });
+        double withFilter = measure(1, thread -> {
+            SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken(
+                    "alice", null, AuthorityUtils.createAuthorityList("ROLE_USER")));
+            return () -> {
+                filter.doFilter(post, response, chain);
+                return response.getStatus();
+            };
+        });
+
+        System.out.printf("%n%-40s %12s%n", "case", "ns/request");
+        System.out.printf("%-40s %12.0f%n", "acquire, 1 thread, 1 bucket", oneBucket);
+        System.out.printf("%-40s %12.0f%n", "acquire, " + THREADS + " threads, " + CLIENTS + " clients", manyClients);
+        System.out.printf("%-40s %12.0f%n", "next filter only", withoutFilter);
+        System.out.printf("%-40s %12.0f%n", "rate-limit filter + next filter", withFilter);
+        System.out.printf("filter overhead: %.0f ns/request, %d buckets held%n%n",
+                withFilter - withoutFilter, limiter.getBucketCount());
+
+        assertTrue(oneBucket < MAX_NANOS_PER_REQUEST);
+        assertTrue(manyClients < MAX_NANOS_PER_REQUEST);
+        assertTrue(withFilter - withoutFilter < MAX_NANOS_PER_REQUEST);
+    }
+
+    // Mean nanoseconds per call across all threads, i.e. wall time per call on each thread
+    private static double measure(int threads, Workload workload) throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<long[]>> results = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                int thread = t;
+                results.add(pool.submit(() -> {
+                    Operation operation = workload.forThread(thread);
+                    run(operation, WARMUP);
+                    return run(operation, MEASURE);
+                }));
+            }
+            long calls = 0;
+            long nanos = 0;
+            for (Future<long[]> result : results) {
+                long[] measured = result.get();
+                calls += measured[0];
+                nanos += measured[1];
+            }
+            return (double) nanos / calls;
+        } finally {
+            pool.shutdownNow();
+            pool.awaitTermination(5, TimeUnit.SECONDS);
+        }
+    }
+
+    // Calls in batches so reading the clock does not dominate; returns {calls, elapsed nanos}
+    private static long[] run(Operation operation, Duration duration) throws Exception {
+        long start = System.nanoTime();
+        long deadline = start + duration.toNanos();
+        long calls = 0;
+        long accumulated = 0;
+        long now;
+        do {
+            for (int i = 0; i < 1_000; i++) {
+                accumulated += operation.call();
+            }
+            calls += 1_000;
+            now = System.nanoTime();
+        } while (now < deadline);
+        sink += accumulated;
+        return new long[] {calls, now - start};
+    }
+
+    private static RateLimitProperties properties() {
+        RateLimitProperties.Route route = new RateLimitProperties.Route();
+        route.setMethod("POST");
+        route.setPath("/api/bugs/**");
+        route.setRequests(Integer.MAX_VALUE);
+        route.setPeriod(Duration.ofSeconds(1));
+        route.setBurst(Integer.MAX_VALUE);
+
+        RateLimitProperties properties = new RateLimitProperties();
+        properties.setDefaultLimit(new RateLimitProperties.Limit(Integer.MAX_VALUE, Duration.ofSeconds(1),
+                Integer.MAX_VALUE));
+        properties.setRoutes(List.of(route));
+        properties.setMaxBuckets(CLIENTS * 2L);
+        return properties;
+    }
+
+    private interface Workload {
+        Operation forThread(int thread);
+    }
+
+    private interface Operation {
+        long call() throws Exception;
+    }
+}
@@ -0,0 +1,103 @@
+package nathan_mead.bug_tracker.config;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Bucket arithmetic on an explicit clock: one request per second with a burst of three, and a default of ten
+public class RateLimiterTest {
+
+    private static final long SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    private RateLimiter limiter;
+
+    @BeforeEach
+    public void setUp() {
+        RateLimitProperties.Route route = new RateLimitProperties.Route();
+        route.setMethod("POST");
+        route.setPath("/api/bugs/**");
+        route.setRequests(60);
+        route.setPeriod(Duration.ofMinutes(1));
+        route.setBurst(3);
+
+        RateLimitProperties properties = new RateLimitProperties();
+        properties.setDefaultLimit(new RateLimitProperties.Limit(10, Duration.ofSeconds(1), 10));
+        properties.setRoutes(List.of(route));
+        limiter = new RateLimiter(properties);
+    }
+
+    @Test
+    public void testBurstThenWaitForRefill() {
+        long now = 0;
+        for (int i = 0; i < 3; i++) {
+            assertEquals(0, limiter.acquire("alice", post("/api/bugs"), now));
+        }
+
+        assertEquals(SECOND, limiter.acquire("alice", post("/api/bugs"), now));
+        assertEquals(SECOND / 2, limiter.acquire("alice", post("/api/bugs"), now + SECOND / 2));
+        assertEquals(0, limiter.acquire("alice", post("/api/bugs"), now + SECOND));
+        assertEquals(2, limiter.getRejectedCount());
+    }
+
+    @Test
+    public void testRejectedRequestsDoNotDrainTheBucket() {
+        for (int i = 0; i < 3; i++) {
+            limiter.acquire("alice", post("/api/bugs"), 0);
+        }
+        for (int i = 0; i < 100; i++) {
+            assertTrue(limiter.acquire("alice", post("/api/bugs"), 0) > 0);
+        }
+
+        assertEquals(0, limiter.acquire("alice", post("/api/bugs"), SECOND));
+        assertEquals(100, limiter.getRejectedCount());
+    }
+
+    @Test
+    public void testClientsAndRoutesHaveSeparateBuckets() {
+        for (int i = 0; i < 3; i++) {
+            limiter.acquire("alice", post("/api/bugs/batch"), 0);
+        }
+        assertTrue(limiter.acquire("alice", post("/api/bugs"), 0) > 0);
+
+        assertEquals(0, limiter.acquire("bob", post("/api/bugs"), 0));
+        // GET does not match the POST route, so it draws on the default limit
+        assertEquals(0, limiter.acquire("alice", get("/api/bugs"), 0));
+    }
+
+    @Test
+    public void testFullRefillAfterIdle() {
+        for (int i = 0; i < 10; i++) {
+            assertEquals(0, limiter.acquire("alice", get("/api/bugs"), 0));
+        }
+        assertTrue(limiter.acquire("alice", get("/api/bugs"), 0) > 0);
+
+        // Idle far longer than a refill: the bucket allows one burst again, not the accumulated time
+        long later = 60 * SECOND;
+        for (int i = 0; i < 10; i++) {
+            assertEquals(0, limiter.acquire("alice", get("/api/bugs"), later));
+        }
+        assertTrue(limiter.acquire("alice", get("/api/bugs"), later) > 0);
+    }
+
+    @Test
+    public void testIncompleteLimitIsRejected() {
+        RateLimitProperties properties = new RateLimitProperties();
+        properties.setDefaultLimit(new RateLimitProperties.Limit(0, Duration.ofMinutes(1), 10));
+
+        assertThrows(IllegalArgumentException.class, () -> new RateLimiter(properties));
+    }
+
+    private static MockHttpServletRequest post(String path) {
+        return new MockHttpServletRequest("POST", path);
+    }
+
+    private static MockHttpServletRequest get(String path) {
+        return new MockHttpServletRequest("GET", path);
+    }
+}
@@ -0,0 +1,182 @@
+package nathan_mead.bug_tracker.config;
+
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletResponse;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Routing decisions of the replica DataSource and the read-your-writes window, against mocked pools
+public class ReplicaRoutingDataSourceTest {
+
+    private final DataSource primary = Mockito.mock(DataSource.class);
+    private final DataSource replicaOne = Mockito.mock(DataSource.class);
+    private final DataSource replicaTwo = Mockito.mock(DataSource.class);
+    private final Connection primaryConnection = Mockito.mock(Connection.class);
+    private final Connection replicaOneConnection = Mockito.mock(Connection.class);
+    private final Connection replicaTwoConnection = Mockito.mock(Connection.class);
+
+    private ReplicaRoutingDataSource routing;
+
+    @BeforeEach
+    public void setUp() throws SQLException {
+        Mockito.when(primary.getConnection()).thenReturn(primaryConnection);
+        Mockito.when(replicaOne.getConnection()).thenReturn(replicaOneConnection);
+        Mockito.when(replicaTwo.getConnection()).thenReturn(replicaTwoConnection);
+
+        Map<String, DataSource> replicas = new LinkedHashMap<>();
+        replicas.put("replica-1", replicaOne);
+        replicas.put("replica-2", replicaTwo);
+        routing = new ReplicaRoutingDataSource(primary, replicas, Duration.ofSeconds(10));
+    }
+
+    @AfterEach
+    public void tearDown() {
+        ReplicaRoutingDataSource.pinToPrimary(false);
+    }
+
+    // Helper to make a replica's health check report the given lag, in seconds
+    private void reportLag(Connection connection, double lagSeconds) throws SQLException {
+        Statement statement = Mockito.mock(Statement.class);
+        ResultSet resultSet = Mockito.mock(ResultSet.class);
+        Mockito.when(connection.createStatement()).thenReturn(statement);
+        Mockito.when(statement.executeQuery(Mockito.anyString())).thenReturn(resultSet);
+        Mockito.when(resultSet.next()).thenReturn(true);
+        Mockito.when(resultSet.getDouble(1)).thenReturn(lagSeconds);
+    }
+
+    @Test
+    public void testReadsAlternateBetweenReplicas() throws SQLException {
+        assertSame(replicaOneConnection, routing.getConnection());
+        assertSame(replicaTwoConnection, routing.getConnection());
+        assertSame(replicaOneConnection, routing.getConnection());
+        Mockito.verifyNoInteractions(primary);
+    }
+
+    @Test
+    public void testPinnedRequestReadsFromPrimary() throws SQLException {
+        ReplicaRoutingDataSource.pinToPrimary(true);
+
+        assertSame(primaryConnection, routing.getConnection());
+        Mockito.verifyNoInteractions(replicaOne, replicaTwo);
+    }
+
+    @Test
+    public void testRefusedReplicaFallsBackAndLeavesRotation() throws SQLException {
+        Mockito.when(replicaOne.getConnection()).thenThrow(new SQLException("Connection refused"));
+
+        // The failed replica is skipped for the next one, then kept out of rotation
+        assertSame(replicaTwoConnection, routing.getConnection());
+        assertSame(replicaTwoConnection, routing.getConnection());
+        assertEquals(1, routing.getHealthyReplicaCount());
+        Mockito.verify(replicaOne, Mockito.times(1)).getConnection();
+    }
+
+    @Test
+    public void testExhaustedReplicaPoolStaysInRotation() throws SQLException {
+        Mockito.when(replicaOne.getConnection())
+                .thenThrow(new SQLTransientConnectionException("replica-1 - Connection is not available"))
+                .thenReturn(replicaOneConnection);
+
+        // Busy, not down: this read goes to the other replica, and the next turn comes back to it
+        assertSame(replicaTwoConnection, routing.getConnection());
+        assertEquals(2, routing.getHealthyReplicaCount());
+        assertSame(replicaOneConnection, routing.getConnection());
+    }
+
+    @Test
+    public void testUnreachableReplicaTimingOutLeavesRotation() throws SQLException {
+        Mockito.when(replicaOne.getConnection()).thenThrow(new SQLTransientConnectionException(
+                "replica-1 - Connection is not available", new SQLException("Connection refused")));
+
+        assertSame(replicaTwoConnection, routing.getConnection());
+        assertEquals(1, routing.getHealthyReplicaCount());
+    }
+
+    @Test
+    public void testGatedReplicaAtCapacityFallsBackWithoutLeavingRotation() throws SQLException {
+        ConnectionGateDataSource gate = new ConnectionGateDataSource(replicaOne, 1, Duration.ofMillis(10), "replica-1");
+        Map<String, DataSource> replicas = new LinkedHashMap<>();
+        replicas.put("replica-1", gate);
+        routing = new ReplicaRoutingDataSource(primary, replicas, Duration.ofSeconds(10));
+
+        Connection held = routing.getConnection();
+        assertSame(primaryConnection, routing.getConnection());
+        assertEquals(1, routing.getHealthyReplicaCount());
+
+        held.close();
+        assertNotSame(primaryConnection, routing.getConnection());
+    }
+
+    @Test
+    public void testAllReplicasDownFallsBackToPrimary() throws SQLException {
+        Mockito.when(replicaOne.getConnection()).thenThrow(new SQLException("Connection refused"));
+        Mockito.when(replicaTwo.getConnection()).thenThrow(new SQLException("Connection refused"));
+
+        assertSame(primaryConnection, routing.getConnection());
+        assertSame(primaryConnection, routing.getConnection());
+        assertEquals(0, routing.getHealthyReplicaCount());
+    }
+
+    @Test
+    public void testHealthCheckRemovesLaggingReplicaAndRestoresRecoveredOne() throws SQLException {
+        reportLag(replicaOneConnection, 30);
+        reportLag(replicaTwoConnection, 0.5);
+        routing.checkHealth();
+
+        assertEquals(1, routing.getHealthyReplicaCount());
+        assertSame(replicaTwoConnection, routing.getConnection());
+        assertSame(replicaTwoConnection, routing.getConnection());
+
+        reportLag(replicaOneConnection, 0);
+        routing.checkHealth();
+        assertEquals(2, routing.getHealthyReplicaCount());
+    }
+
+    @Test
+    public void testSuccessfulWritePinsClientToPrimary() throws Exception {
+        ReadYourWritesFilter filter = new ReadYourWritesFilter(Duration.ofMinutes(1));
+
+        MockHttpServletResponse written = new MockHttpServletResponse();
+        filter.doFilter(new MockHttpServletRequest("PUT", "/api/bugs/1"), written, new MockFilterChain());
+        Cookie pin = written.getCookie(ReadYourWritesFilter.PRIMARY_UNTIL_COOKIE);
+        assertNotNull(pin);
+
+        // The next read from the same client runs pinned, and the pin does not outlive the request
+        AtomicBoolean pinnedDuringRead = new AtomicBoolean();
+        MockHttpServletRequest read = new MockHttpServletRequest("GET", "/api/bugs/1");
+        read.setCookies(pin);
+        filter.doFilter(read, new MockHttpServletResponse(), (request, response) ->
+                pinnedDuringRead.set(ReplicaRoutingDataSource.isPinnedToPrimary()));
+        assertTrue(pinnedDuringRead.get());
+        assertFalse(ReplicaRoutingDataSource.isPinnedToPrimary());
+    }
+
+    @Test
+    public void testRejectedWriteDoesNotPinClient() throws Exception {
+        ReadYourWritesFilter filter = new ReadYourWritesFilter(Duration.ofMinutes(1));
+
+        MockHttpServletResponse written = new MockHttpServletResponse();
+        filter.doFilter(new MockHttpServletRequest("PUT", "/api/bugs/1"), written, (request, response) ->
+                ((HttpServletResponse) response).setStatus(400));
+
+        assertNull(written.getCookie(ReadYourWritesFilter.PRIMARY_UNTIL_COOKIE));
+    }
+}
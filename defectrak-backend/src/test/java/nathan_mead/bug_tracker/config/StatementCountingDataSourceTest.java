@@ -0,0 +1,62 @@
+package nathan_mead.bug_tracker.config;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Plain JDBC through the counting DataSource, against an in-memory database, with fail-fast on
+public class StatementCountingDataSourceTest {
+
+    private final StatementCounter counter = new StatementCounter(true);
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    public void setUp() {
+        DriverManagerDataSource database = new DriverManagerDataSource("jdbc:h2:mem:counting;DB_CLOSE_DELAY=-1");
+        jdbcTemplate = new JdbcTemplate(new StatementCountingDataSource(database, counter));
+        jdbcTemplate.execute("CREATE TABLE items (id BIGINT PRIMARY KEY)");
+    }
+
+    @AfterEach
+    public void tearDown() {
+        counter.end();
+        jdbcTemplate.execute("DROP TABLE items");
+    }
+
+    @Test
+    public void testJdbcTemplateOverBudgetFails() {
+        counter.begin("ItemController.addItems", 2);
+        jdbcTemplate.update("INSERT INTO items (id) VALUES (?)", 1L);
+        jdbcTemplate.update("INSERT INTO items (id) VALUES (?)", 2L);
+
+        StatementBudgetExceededException exception = assertThrows(StatementBudgetExceededException.class,
+                () -> jdbcTemplate.queryForObject("SELECT COUNT(*) FROM items", Long.class));
+        assertTrue(exception.getMessage().contains("ItemController.addItems"));
+        assertTrue(exception.getMessage().contains("SELECT COUNT(*) FROM items"));
+    }
+
+    @Test
+    public void testBatchCountsOnce() {
+        counter.begin("ItemController.addItems", -1);
+        jdbcTemplate.batchUpdate("INSERT INTO items (id) VALUES (?)", List.of(1L, 2L, 3L), 50,
+                (statement, id) -> statement.setLong(1, id));
+
+        assertEquals(1, counter.end().getCount());
+    }
+
+    @Test
+    public void testPlainStatementsCountEachExecution() {
+        counter.begin("ItemController.addItems", -1);
+        jdbcTemplate.execute("INSERT INTO items (id) VALUES (1)");
+        jdbcTemplate.batchUpdate("INSERT INTO items (id) VALUES (2)", "INSERT INTO items (id) VALUES (3)");
+
+        // The two-statement batch goes through one Statement.executeBatch
+        assertEquals(2, counter.end().getCount());
+    }
+}
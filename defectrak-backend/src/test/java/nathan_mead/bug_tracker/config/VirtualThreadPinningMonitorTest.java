@@ -0,0 +1,41 @@
+package nathan_mead.bug_tracker.config;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Pins a virtual thread on purpose and waits for the JFR event to reach the monitor
+public class VirtualThreadPinningMonitorTest {
+
+    private final Object lock = new Object();
+
+    @Test
+    public void testBlockingInsideSynchronizedIsReported() throws Exception {
+        VirtualThreadPinningMonitor monitor = new VirtualThreadPinningMonitor(Duration.ofMillis(10));
+        monitor.start();
+        try {
+            Thread.ofVirtual().start(() -> {
+                synchronized (lock) {
+                    try {
+                        Thread.sleep(50);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                }
+            }).join();
+
+            // JFR delivers events in chunks, roughly once a second
+            long deadline = System.currentTimeMillis() + 10_000;
+            while (monitor.getPinnedCount() == 0 && System.currentTimeMillis() < deadline) {
+                Thread.sleep(100);
+            }
+            assertEquals(1, monitor.getPinnedCount());
+            assertTrue(monitor.getPinnedStacks().keySet().stream()
+                    .anyMatch(stack -> stack.contains(VirtualThreadPinningMonitorTest.class.getName())));
+        } finally {
+            monitor.stop();
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package nathan_mead.bug_tracker.controller;
+
+import nathan_mead.bug_tracker.dto.CurrentUser;
+import nathan_mead.bug_tracker.model.User;
+import nathan_mead.bug_tracker.model.UserRole;
+import nathan_mead.bug_tracker.repository.UserRepository;
+import nathan_mead.bug_tracker.config.SecurityConfig;
+import nathan_mead.bug_tracker.service.CurrentUserCache;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.context.annotation.Import;
+
+import java.util.Optional;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@AutoConfigureMockMvc(addFilters = true)
+@WebMvcTest(AccountController.class)
+@Import(SecurityConfig.class)
+public class AccountControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private UserRepository userRepository;
+
+    @MockBean
+    private PasswordEncoder passwordEncoder;
+
+    @MockBean
+    private CurrentUserCache currentUserCache;
+
+    @Test
+    @WithMockUser(username = "user@example.com", roles = {"USER"})
+    public void testGetCurrentUser() throws Exception {
+        User user = new User("user@example.com", "Some", "User", "hash", new UserRole("general", "active"));
+        Mockito.when(currentUserCache.get(any(), eq("user@example.com")))
+                .thenReturn(Optional.of(CurrentUser.of(user)));
+
+        mockMvc.perform(get("/api/me"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.email").value("user@example.com"))
+                .andExpect(jsonPath("$.role.role").value("general"))
+                .andExpect(jsonPath("$.password").doesNotExist());
+        Mockito.verifyNoInteractions(userRepository);
+    }
+
+    @Test
+    public void testGetCurrentUserAnonymous() throws Exception {
+        mockMvc.perform(get("/api/me"))
+                .andExpect(status().isNoContent());
+        Mockito.verifyNoInteractions(currentUserCache);
+    }
+
+    @Test
+    @WithMockUser(username = "user@example.com", roles = {"USER"})
+    public void testAuthCheckSignedIn() throws Exception {
+        mockMvc.perform(get("/api/auth/check"))
+                .andExpect(status().isNoContent());
+    }
+
+    @Test
+    public void testAuthCheckAnonymous() throws Exception {
+        mockMvc.perform(get("/api/auth/check"))
+                .andExpect(status().isForbidden());
+    }
+}
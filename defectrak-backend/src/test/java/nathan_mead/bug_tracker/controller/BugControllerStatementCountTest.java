@@ -0,0 +1,330 @@
+package nathan_mead.bug_tracker.controller;
+
+import nathan_mead.bug_tracker.config.CacheConfig;
+import nathan_mead.bug_tracker.model.*;
+import nathan_mead.bug_tracker.repository.*;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.jayway.jsonpath.JsonPath;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.CacheManager;
+import org.springframework.http.MediaType;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
+
+// Runs BugController against an in-memory database and counts the SQL statements each endpoint issues
+@SpringBootTest(properties = {
+        "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.show-sql=false",
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "defectrak.outbox.relay.enabled=false",
+        "defectrak.history.flush-interval-ms=3600000",
+        "defectrak.session.store=memory"
+})
+@AutoConfigureMockMvc
+@AutoConfigureTestDatabase
+public class BugControllerStatementCountTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private BugRepository bugRepository;
+
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private UserRoleRepository userRoleRepository;
+
+    @Autowired
+    private StatusRepository statusRepository;
+
+    @Autowired
+    private PriorityRepository priorityRepository;
+
+    private final List<Bug> bugs = new ArrayList<>();
+    private List<Status> statuses;
+    private Priority priority;
+    private Status status;
+    private User assignee;
+    private User creator;
+
+    @BeforeEach
+    public void setUp() {
+        // Distinct priorities, statuses, users and roles so that any per-reference select would multiply the count
+        UserRole admin = userRoleRepository.save(new UserRole("admin", "active"));
+        UserRole general = userRoleRepository.save(new UserRole("general", "active"));
+        List<Priority> priorities = List.of(
+                priorityRepository.save(new Priority("low", "active", 1)),
+                priorityRepository.save(new Priority("medium", "active", 2)),
+                priorityRepository.save(new Priority("high", "active", 3)));
+        statuses = List.of(
+                statusRepository.save(new Status("open", "active", 1)),
+                statusRepository.save(new Status("closed", "active", 2)));
+        List<User> users = List.of(
+                userRepository.save(new User("first@example.com", "First", "User", "password", admin)),
+                userRepository.save(new User("second@example.com", "Second", "User", "password", general)),
+                userRepository.save(new User("third@example.com", "Third", "User", "password", general)));
+
+        for (int i = 0; i < 6; i++) {
+            Bug bug = new Bug();
+            bug.setTitle("Bug " + i);
+            bug.setDescription("This is bug " + i + ".");
+            bug.setPriority(priorities.get(i % priorities.size()));
+            bug.setStatus(statuses.get(i % statuses.size()));
+            bug.setAssignee(users.get(i % users.size()));
+            bug.setCreatedBy(users.get((i + 1) % users.size()));
+            bugs.add(bugRepository.save(bug));
+        }
+
+        priority = priorities.get(0);
+        status = statuses.get(0);
+        // bugs[0] holds users[0] and users[1], so an update to users[2] needs exactly one lookup
+        assignee = users.get(2);
+        creator = users.get(1);
+
+        cacheManager.getCacheNames().forEach(name -> cacheManager.getCache(name).clear());
+        statistics().clear();
+    }
+
+    @AfterEach
+    public void tearDown() {
+        bugRepository.deleteAll();
+        userRepository.deleteAll();
+        userRoleRepository.deleteAll();
+        statusRepository.deleteAll();
+        priorityRepository.deleteAll();
+        bugs.clear();
+    }
+
+    @SuppressWarnings("unchecked")
+    private Cache<Object, Object> priorityCache() {
+        return (Cache<Object, Object>) cacheManager.getCache(CacheConfig.PRIORITIES).getNativeCache();
+    }
+
+    private Statistics statistics() {
+        return entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    private String bugJson() {
+        return """
+        {
+            "title": "Counted Bug",
+            "description": "This bug counts statements.",
+            "priorityId": %d,
+            "statusId": %d,
+            "assigneeId": %d,
+            "createdByUserId": %d
+        }
+        """.formatted(priority.getId(), status.getId(), assignee.getId(), creator.getId());
+    }
+
+    @WithMockUser(username = "user@example.com", roles = {"GENERAL"})
+    @Test
+    public void testListLoadsGraphInOneStatement() throws Exception {
+        mockMvc.perform(get("/api/bugs"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items.length()").value(bugs.size()));
+
+        assertEquals(1, statistics().getPrepareStatementCount());
+    }
+
+    @WithMockUser(username = "user@example.com", roles = {"GENERAL"})
+    @Test
+    public void testFilteredAndSortedPagesReadInOneStatementEach() throws Exception {
+        // Open bugs are 0, 2 and 4 with priorities low, high and medium respectively
+        String firstPage = mockMvc.perform(get("/api/bugs")
+                        .param("statusId", statuses.get(0).getId().toString())
+                        .param("sort", "-priority")
+                        .param("size", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items.length()").value(2))
+                .andExpect(jsonPath("$.items[0].title").value("Bug 2"))
+                .andExpect(jsonPath("$.items[1].title").value("Bug 4"))
+                .andExpect(jsonPath("$.nextCursor").exists())
+                .andReturn().getResponse().getContentAsString();
+
+        assertEquals(1, statistics().getPrepareStatementCount());
+        statistics().clear();
+
+        String cursor = JsonPath.read(firstPage, "$.nextCursor");
+        mockMvc.perform(get("/api/bugs")
+                        .param("statusId", statuses.get(0).getId().toString())
+                        .param("sort", "-priority")
+                        .param("size", "2")
+                        .param("cursor", cursor))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items.length()").value(1))
+                .andExpect(jsonPath("$.items[0].title").value("Bug 0"))
+                .andExpect(jsonPath("$.nextCursor").doesNotExist());
+
+        assertEquals(1, statistics().getPrepareStatementCount());
+    }
+
+    @WithMockUser(username = "user@example.com", roles = {"GENERAL"})
+    @Test
+    public void testFilterByAssigneeAndCreator() throws Exception {
+        // Bugs 1 and 4 are both assigned to users[1] and created by users[2]
+        Bug target = bugs.get(1);
+        mockMvc.perform(get("/api/bugs")
+                        .param("assigneeId", target.getAssignee().getId().toString())
+                        .param("createdByUserId", target.getCreatedBy().getId().toString()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items.length()").value(2))
+                .andExpect(jsonPath("$.items[0].title").value("Bug 4"))
+                .andExpect(jsonPath("$.items[1].title").value("Bug 1"));
+    }
+
+    @WithMockUser(username = "user@example.com", roles = {"GENERAL"})
+    @Test
+    public void testSummaryReadsInOneStatement() throws Exception {
+        mockMvc.perform(get("/api/bugs/summary"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items.length()").value(bugs.size()))
+                .andExpect(jsonPath("$.items[0].title").value("Bug 5"))
+                .andExpect(jsonPath("$.items[0].priorityLevel").value("high"))
+                .andExpect(jsonPath("$.items[0].statusLabel").value("closed"))
+                .andExpect(jsonPath("$.items[0].assigneeName").value("Third User"));
+
+        assertEquals(1, statistics().getPrepareStatementCount());
+        assertEquals(0, statistics().getEntityLoadCount());
+    }
+
+    @WithMockUser(username = "user@example.com", roles = {"GENERAL"})
+    @Test
+    public void testDetailLoadsGraphInOneStatement() throws Exception {
+        mockMvc.perform(get("/api/bugs/" + bugs.get(0).getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.assignee.role.role").exists())
+                .andExpect(jsonPath("$.createdBy.role.role").exists());
+
+        assertEquals(1, statistics().getPrepareStatementCount());
+    }
+
+    @WithMockUser(username = "user@example.com", roles = {"GENERAL"})
+    @Test
+    public void testCreateUsesFixedStatementCount() throws Exception {
+        mockMvc.perform(post("/api/bugs")
+                        .with(csrf())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(bugJson()))
+                .andExpect(status().isCreated());
+
+        // Cold cache: one lookup each for priority and status, one for both users (with roles), the insert
+        // and its outbox row
+        assertEquals(5, statistics().getPrepareStatementCount());
+    }
+
+    @WithMockUser(username = "user@example.com", roles = {"GENERAL"})
+    @Test
+    public void testCreateReusesCachedReferenceData() throws Exception {
+        CacheStats before = priorityCache().stats();
+        for (int i = 0; i < 2; i++) {
+            mockMvc.perform(post("/api/bugs")
+                            .with(csrf())
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(bugJson()))
+                    .andExpect(status().isCreated());
+        }
+
+        // The second create takes priority and status from the cache: 5 statements, then 3
+        assertEquals(8, statistics().getPrepareStatementCount());
+        CacheStats delta = priorityCache().stats().minus(before);
+        assertEquals(1, delta.hitCount());
+        assertEquals(1, delta.missCount());
+    }
+
+    @WithMockUser(username = "user@example.com", roles = {"GENERAL"})
+    @Test
+    public void testUpdateUsesFixedStatementCount() throws Exception {
+        mockMvc.perform(put("/api/bugs/" + bugs.get(0).getId())
+                        .with(csrf())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(bugJson()))
+                .andExpect(status().isOk());
+
+        // Graph load of the bug, a lookup for the newly assigned user, the update and its outbox row
+        assertEquals(4, statistics().getPrepareStatementCount());
+    }
+
+    @WithMockUser(username = "user@example.com", roles = {"GENERAL"})
+    @Test
+    public void testBatchCreateInsertsInJdbcBatches() throws Exception {
+        int count = 120;
+        StringBuilder batchJson = new StringBuilder("[");
+        for (int i = 0; i < count; i++) {
+            batchJson.append(i == 0 ? "" : ",").append(bugJson());
+        }
+        batchJson.append("]");
+        long outboxRows = outboxEventRepository.count();
+        statistics().clear();
+
+        mockMvc.perform(post("/api/bugs/batch")
+                        .with(csrf())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(batchJson.toString()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(count))
+                .andExpect(jsonPath("$[119].created").value(true));
+
+        // One lookup per reference type, one prepared insert per JDBC batch of 50 and at most one
+        // sequence call per block of 50 ids (plus the block already in use), however many bugs are sent.
+        // The outbox gets a row per bug, sent as plain JDBC batches outside these counts.
+        assertEquals(count, statistics().getEntityInsertCount());
+        assertTrue(statistics().getPrepareStatementCount() <= 3 + 3 + 4);
+        assertEquals(bugs.size() + count, bugRepository.count());
+        assertEquals(outboxRows + count, outboxEventRepository.count());
+    }
+
+    @WithMockUser(username = "user@example.com", roles = {"GENERAL"})
+    @Test
+    public void testBulkUpdateRunsOneUpdate() throws Exception {
+        // Close every open bug (0, 2 and 4) in one request
+        Status closed = statuses.get(1);
+        mockMvc.perform(patch("/api/bugs")
+                        .with(csrf())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("""
+                        {"filter": {"statusId": [%d]}, "statusId": %d}
+                        """.formatted(status.getId(), closed.getId())))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.updated").value(3));
+
+        // The status existence check, one select locking the rows, one INSERT ... SELECT for the status history
+        // and a single UPDATE; no bug is loaded. The three outbox rows go out as one plain JDBC batch.
+        assertEquals(4, statistics().getPrepareStatementCount());
+        assertEquals(0, statistics().getEntityStatistics(Bug.class.getName()).getLoadCount());
+        assertEquals(bugs.size(), bugRepository.findAll().stream()
+                .filter(bug -> bug.getStatus().getId().equals(closed.getId()))
+                .count());
+    }
+}
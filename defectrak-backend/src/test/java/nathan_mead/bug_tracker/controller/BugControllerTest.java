@@ -1,31 +1,57 @@
 package nathan_mead.bug_tracker.controller;
 
+import nathan_mead.bug_tracker.dto.BugBatchResult;
+import nathan_mead.bug_tracker.dto.BugCursor;
+import nathan_mead.bug_tracker.dto.BugFileFormat;
+import nathan_mead.bug_tracker.dto.BugImportJob;
+import nathan_mead.bug_tracker.dto.BugLogEntry;
+import nathan_mead.bug_tracker.dto.BugRow;
+import nathan_mead.bug_tracker.dto.BugSearchResult;
+import nathan_mead.bug_tracker.dto.BugSummary;
 import nathan_mead.bug_tracker.model.*;
 import nathan_mead.bug_tracker.repository.*;
+import org.mockito.ArgumentCaptor;
 import nathan_mead.bug_tracker.config.SecurityConfig;
+import nathan_mead.bug_tracker.service.BugBatchService;
+import nathan_mead.bug_tracker.service.BugEventBroadcaster;
+import nathan_mead.bug_tracker.service.BugEventLog;
+import nathan_mead.bug_tracker.service.BugExportService;
+import nathan_mead.bug_tracker.service.BugHistoryWriter;
+import nathan_mead.bug_tracker.service.BugImportService;
+import nathan_mead.bug_tracker.service.BugReferenceResolver;
+import nathan_mead.bug_tracker.service.ReferenceDataCache;
+import com.jayway.jsonpath.JsonPath;
+import com.rabbitmq.stream.OffsetSpecification;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mockito;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.data.domain.Limit;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.util.ReflectionTestUtils;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.context.annotation.Import;
 
+import java.time.LocalDateTime;
 import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
 import java.util.Optional;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
 
 @AutoConfigureMockMvc(addFilters = true)
 @WebMvcTest(BugController.class)
-@Import(SecurityConfig.class)
+@Import({SecurityConfig.class, ReferenceDataCache.class, BugReferenceResolver.class})
 public class BugControllerTest {
 
     @Autowired
@@ -34,6 +60,27 @@ public class BugControllerTest {
     @MockBean
     private BugRepository bugRepository;
 
+    @MockBean
+    private BugBatchService bugBatchService;
+
+    @MockBean
+    private BugEventBroadcaster bugEventBroadcaster;
+
+    @MockBean
+    private BugEventLog bugEventLog;
+
+    @MockBean
+    private BugHistoryRepository bugHistoryRepository;
+
+    @MockBean
+    private BugHistoryWriter bugHistoryWriter;
+
+    @MockBean
+    private BugImportService bugImportService;
+
+    @MockBean
+    private BugExportService bugExportService;
+
     @MockBean
     private UserRepository userRepository;
 
@@ -85,6 +132,23 @@ public class BugControllerTest {
         return bug;
     }
 
+    private BugRow createDummyRow(Long id, Long statusId) {
+        return new BugRow(id, "Bug " + id, "Description of bug " + id, 1L, statusId, null, 1L, LocalDateTime.now());
+    }
+
+    private BugSummary createDummySummary(Long id, String title, String description, String priorityLevel,
+                                          String statusLabel, String assigneeName) {
+        return new BugSummary() {
+            public Long getId() { return id; }
+            public String getTitle() { return title; }
+            public String getDescription() { return description; }
+            public String getPriorityLevel() { return priorityLevel; }
+            public String getStatusLabel() { return statusLabel; }
+            public String getAssigneeName() { return assigneeName; }
+            public LocalDateTime getCreatedAt() { return LocalDateTime.of(2025, 3, 1, 12, 0); }
+        };
+    }
+
     @WithMockUser(username = "user@example.com", roles = {"GENERAL"})
     @Test
     public void testGetAllBugs() throws Exception {
@@ -106,26 +170,492 @@ public class BugControllerTest {
 
         Bug bug2 = createDummyBug(2L, "Second Bug", "This is the second bug.", status, priority, assignee, creator);
 
-        Mockito.when(bugRepository.findAll()).thenReturn(Arrays.asList(bug1, bug2));
+        Mockito.when(bugRepository.findPage(Mockito.any(), Mockito.eq(BugSort.DEFAULT), Mockito.isNull(), Mockito.anyInt()))
+                .thenReturn(Arrays.asList(bug1, bug2));
 
         // Act & Assert: perform GET /api/bugs and verify JSON response.
         mockMvc.perform(get("/api/bugs")
                         .contentType(MediaType.APPLICATION_JSON))
                 .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items[0].id").value(1))
+                .andExpect(jsonPath("$.items[0].title").value("First Bug"))
+                .andExpect(jsonPath("$.items[0].description").value("This is the first bug."))
+                .andExpect(jsonPath("$.items[0].status.statusLabel").value("open"))
+                .andExpect(jsonPath("$.items[0].priority.level").value("low"))
+                .andExpect(jsonPath("$.items[0].assignee.email").value("first@example.com"))
+                .andExpect(jsonPath("$.items[0].createdBy.email").value("second@example.com"))
+                .andExpect(jsonPath("$.items[1].id").value(2))
+                .andExpect(jsonPath("$.items[1].title").value("Second Bug"))
+                .andExpect(jsonPath("$.items[1].description").value("This is the second bug."))
+                .andExpect(jsonPath("$.items[1].status.statusLabel").value("open"))
+                .andExpect(jsonPath("$.items[1].priority.level").value("low"))
+                .andExpect(jsonPath("$.items[1].assignee.email").value("first@example.com"))
+                .andExpect(jsonPath("$.items[1].createdBy.email").value("second@example.com"))
+                .andExpect(jsonPath("$.nextCursor").doesNotExist());
+    }
+
+    @WithMockUser(username = "user@example.com", roles = {"GENERAL"})
+    @Test
+    public void testGetAllBugs_ReturnsNextCursorWhenMoreRowsExist() throws Exception {
+        // Arrange: the repository returns one row more than the requested page size.
+        UserRole userRole = createDummyRole(1L,"ADMIN");
+        Status status = createDummyStatus(1L,"open");
+        Priority priority = createDummyPriority(1L, "low", "Active");
+        User creator = createDummyUser(2L, "second@example.com", "Second", "User", "password", userRole);
+
+        Bug bug1 = createDummyBug(3L, "Third Bug", "This is the third bug.", status, priority, null, creator);
+        bug1.setCreatedAt(LocalDateTime.of(2025, 3, 1, 12, 0));
+        Bug bug2 = createDummyBug(2L, "Second Bug", "This is the second bug.", status, priority, null, creator);
+        bug2.setCreatedAt(LocalDateTime.of(2025, 2, 1, 12, 0));
+
+        Mockito.when(bugRepository.findPage(Mockito.any(), Mockito.any(), Mockito.isNull(), Mockito.eq(2)))
+                .thenReturn(Arrays.asList(bug1, bug2));
+
+        String expectedCursor = new BugCursor(BugSort.DEFAULT.signature(), BugSort.DEFAULT.keysetOf(bug1)).encode();
+
+        // Act & Assert: only the requested page is returned, with a cursor pointing at its last row.
+        mockMvc.perform(get("/api/bugs").param("size", "1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items.length()").value(1))
+                .andExpect(jsonPath("$.items[0].id").value(3))
+                .andExpect(jsonPath("$.nextCursor").value(expectedCursor));
+    }
+
+    @WithMockUser(username = "user@example.com", roles = {"GENERAL"})
+    @Test
+    public void testGetAllBugs_WithCursorSeeksPastIt() throws Exception {
+        // Arrange: decode side of the cursor must reach the seek query unchanged.
+        LocalDateTime createdAt = LocalDateTime.of(2025, 3, 1, 12, 0, 0, 123456000);
+        String cursor = new BugCursor(BugSort.DEFAULT.signature(), List.of(createdAt.toString(), "3")).encode();
+        Mockito.when(bugRepository.findPage(Mockito.any(), Mockito.any(), Mockito.eq(List.of(createdAt, 3L)), Mockito.eq(51)))
+                .thenReturn(List.of());
+
+        // Act & Assert: an exhausted listing returns an empty page without a cursor.
+        mockMvc.perform(get("/api/bugs").param("cursor", cursor))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items.length()").value(0))
+                .andExpect(jsonPath("$.nextCursor").doesNotExist());
+    }
+
+    @WithMockUser(username = "user@example.com", roles = {"GENERAL"})
+    @Test
+    public void testGetAllBugs_PageSizeIsCapped() throws Exception {
+        Mockito.when(bugRepository.findPage(Mockito.any(), Mockito.any(), Mockito.any(), Mockito.anyInt()))
+                .thenReturn(List.of());
+
+        // Act: ask for far more rows than the hard cap allows.
+        mockMvc.perform(get("/api/bugs").param("size", "100000"))
+                .andExpect(status().isOk());
+
+        // Assert: the repository was asked for the capped page plus the look-ahead row.
+        Mockito.verify(bugRepository).findPage(Mockito.any(), Mockito.any(), Mockito.isNull(), Mockito.eq(201));
+    }
+
+    @WithMockUser(username = "user@example.com", roles = {"GENERAL"})
+    @Test
+    public void testGetAllBugs_InvalidCursor() throws Exception {
+        // Act & Assert: a tampered cursor is rejected with 400 Bad Request.
+        mockMvc.perform(get("/api/bugs").param("cursor", "not-a-cursor"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @WithMockUser(username = "user@example.com", roles = {"GENERAL"})
+    @Test
+    public void testGetAllBugs_CursorFromAnotherSort() throws Exception {
+        // Arrange: a cursor issued for the default ordering.
+        String cursor = new BugCursor(BugSort.DEFAULT.signature(), List.of("2025-03-01T12:00", "3")).encode();
+
+        // Act & Assert: replaying it under a different sort is rejected.
+        mockMvc.perform(get("/api/bugs").param("sort", "-priority").param("cursor", cursor))
+                .andExpect(status().isBadRequest());
+    }
+
+    @WithMockUser(username = "user@example.com", roles = {"GENERAL"})
+    @Test
+    public void testGetAllBugs_UnsupportedSortField() throws Exception {
+        // Act & Assert: only whitelisted, non-nullable columns can be sorted on.
+        mockMvc.perform(get("/api/bugs").param("sort", "assignee"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @WithMockUser(username = "user@example.com", roles = {"GENERAL"})
+    @Test
+    public void testGetAllBugs_ParsesSortTerms() throws Exception {
+        Mockito.when(bugRepository.findPage(Mockito.any(), Mockito.any(), Mockito.any(), Mockito.anyInt()))
+                .thenReturn(List.of());
+
+        // Act: descending priority, then oldest first.
+        mockMvc.perform(get("/api/bugs").param("sort", "-priority,createdAt"))
+                .andExpect(status().isOk());
+
+        // Assert: id is appended as the final tie-breaker in the direction of the last term.
+        ArgumentCaptor<BugSort> sortCaptor = ArgumentCaptor.forClass(BugSort.class);
+        Mockito.verify(bugRepository).findPage(Mockito.any(), sortCaptor.capture(), Mockito.isNull(), Mockito.anyInt());
+        assertEquals("-priority,createdAt,id", sortCaptor.getValue().signature());
+    }
+
+    @WithMockUser(username = "user@example.com", roles = {"GENERAL"})
+    @Test
+    public void testGetBugSummaries() throws Exception {
+        // Arrange: summaries are flat projection rows, not entities.
+        BugSummary summary = createDummySummary(1L, "First Bug", "This is the first bug.", "low", "open", "First User");
+        Mockito.when(bugRepository.findFirstSummaryPage(Mockito.any(Limit.class))).thenReturn(List.of(summary));
+
+        // Act & Assert: perform GET /api/bugs/summary and verify the flat JSON row.
+        mockMvc.perform(get("/api/bugs/summary"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items[0].id").value(1))
+                .andExpect(jsonPath("$.items[0].title").value("First Bug"))
+                .andExpect(jsonPath("$.items[0].description").value("This is the first bug."))
+                .andExpect(jsonPath("$.items[0].priorityLevel").value("low"))
+                .andExpect(jsonPath("$.items[0].statusLabel").value("open"))
+                .andExpect(jsonPath("$.items[0].assigneeName").value("First User"))
+                .andExpect(jsonPath("$.items[0].assignee").doesNotExist())
+                .andExpect(jsonPath("$.nextCursor").doesNotExist());
+    }
+
+    @WithMockUser(username = "user@example.com", roles = {"GENERAL"})
+    @Test
+    public void testGetBugSummaries_InvalidCursor() throws Exception {
+        // Act & Assert: a tampered cursor is rejected with 400 Bad Request.
+        mockMvc.perform(get("/api/bugs/summary").param("cursor", "not-a-cursor"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @WithMockUser(username = "user@example.com", roles = {"GENERAL"})
+    @Test
+    public void testSearchBugs() throws Exception {
+        // Arrange: the repository returns ranked hits with highlighted snippets.
+        BugSearchResult hit = new BugSearchResult() {
+            public Long getId() { return 1L; }
+            public String getTitle() { return "Login fails"; }
+            public String getSnippet() { return "The <mark>login</mark> form rejects valid passwords."; }
+            public Float getRank() { return 0.5f; }
+        };
+        Mockito.when(bugRepository.search("login", 50)).thenReturn(List.of(hit));
+
+        // Act & Assert: perform GET /api/bugs/search and verify the ranked hit.
+        mockMvc.perform(get("/api/bugs/search").param("q", " login "))
+                .andExpect(status().isOk())
                 .andExpect(jsonPath("$[0].id").value(1))
-                .andExpect(jsonPath("$[0].title").value("First Bug"))
-                .andExpect(jsonPath("$[0].description").value("This is the first bug."))
-                .andExpect(jsonPath("$[0].status.statusLabel").value("open"))
-                .andExpect(jsonPath("$[0].priority.level").value("low"))
-                .andExpect(jsonPath("$[0].assignee.email").value("first@example.com"))
-                .andExpect(jsonPath("$[0].createdBy.email").value("second@example.com"))
-                .andExpect(jsonPath("$[1].id").value(2))
-                .andExpect(jsonPath("$[1].title").value("Second Bug"))
-                .andExpect(jsonPath("$[1].description").value("This is the second bug."))
-                .andExpect(jsonPath("$[1].status.statusLabel").value("open"))
-                .andExpect(jsonPath("$[1].priority.level").value("low"))
-                .andExpect(jsonPath("$[1].assignee.email").value("first@example.com"))
-                .andExpect(jsonPath("$[1].createdBy.email").value("second@example.com"));
+                .andExpect(jsonPath("$[0].title").value("Login fails"))
+                .andExpect(jsonPath("$[0].snippet").value("The <mark>login</mark> form rejects valid passwords."))
+                .andExpect(jsonPath("$[0].rank").value(0.5));
+    }
+
+    @WithMockUser(username = "user@example.com", roles = {"GENERAL"})
+    @Test
+    public void testSearchBugs_MissingQuery() throws Exception {
+        // Act & Assert: a blank query is rejected with 400 Bad Request.
+        mockMvc.perform(get("/api/bugs/search").param("q", " "))
+                .andExpect(status().isBadRequest());
+    }
+
+    @WithMockUser(username = "user@example.com", roles = {"GENERAL"})
+    @Test
+    public void testCreateBugs() throws Exception {
+        // Arrange: the service accepts the first item and rejects the second.
+        Mockito.when(bugBatchService.createAll(Mockito.anyList())).thenReturn(List.of(
+                BugBatchResult.created(0, 101L),
+                BugBatchResult.rejected(1, "Unknown priority: 9")));
+
+        String batchJson = """
+        [
+            {"title": "First Bug", "description": "First.", "priorityId": 1, "statusId": 1, "createdByUserId": 2},
+            {"title": "Second Bug", "description": "Second.", "priorityId": 9, "statusId": 1, "createdByUserId": 2}
+        ]
+        """;
+
+        // Act & Assert: perform POST /api/bugs/batch and verify one result per item.
+        mockMvc.perform(post("/api/bugs/batch")
+                        .with(csrf())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(batchJson))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(2))
+                .andExpect(jsonPath("$[0].index").value(0))
+                .andExpect(jsonPath("$[0].id").value(101))
+                .andExpect(jsonPath("$[0].created").value(true))
+                .andExpect(jsonPath("$[1].index").value(1))
+                .andExpect(jsonPath("$[1].created").value(false))
+                .andExpect(jsonPath("$[1].error").value("Unknown priority: 9"));
+    }
+
+    @WithMockUser(username = "user@example.com", roles = {"GENERAL"})
+    @Test
+    public void testCreateBugs_EmptyBatch() throws Exception {
+        // Act & Assert: an empty array is rejected with 400 Bad Request.
+        mockMvc.perform(post("/api/bugs/batch")
+                        .with(csrf())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[]"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @WithMockUser(username = "user@example.com", roles = {"GENERAL"})
+    @Test
+    public void testBulkUpdateBugs() throws Exception {
+        // Arrange: the new status exists, three open bugs are selected and the repository reports them changed.
+        Mockito.when(statusRepository.findById(2L)).thenReturn(Optional.of(createDummyStatus(2L, "closed")));
+        Mockito.when(bugRepository.findRowsForUpdate(Mockito.any(), Mockito.anyInt())).thenReturn(List.of(
+                createDummyRow(1L, 1L), createDummyRow(2L, 1L), createDummyRow(3L, 1L)));
+        Mockito.when(bugRepository.bulkUpdate(Mockito.any(), Mockito.any())).thenReturn(3);
+
+        // Act & Assert: perform PATCH /api/bugs and verify the affected count.
+        mockMvc.perform(patch("/api/bugs")
+                        .with(csrf())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"ids\": [1, 2, 3], \"statusId\": 2}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.updated").value(3));
+    }
+
+    @WithMockUser(username = "user@example.com", roles = {"GENERAL"})
+    @Test
+    public void testBulkUpdateBugs_TooManyMatches() throws Exception {
+        // Arrange: the filter matches one bug more than the largest allowed batch (10000).
+        Mockito.when(statusRepository.findById(2L)).thenReturn(Optional.of(createDummyStatus(2L, "closed")));
+        Mockito.when(bugRepository.findRowsForUpdate(Mockito.any(), Mockito.eq(10001)))
+                .thenReturn(Collections.nCopies(10001, createDummyRow(1L, 1L)));
+
+        // Act & Assert: perform PATCH /api/bugs and expect 400 Bad Request with nothing updated.
+        mockMvc.perform(patch("/api/bugs")
+                        .with(csrf())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"filter\": {\"statusId\": [1]}, \"statusId\": 2}"))
+                .andExpect(status().isBadRequest());
+
+        Mockito.verify(bugRepository, Mockito.never()).bulkUpdate(Mockito.any(), Mockito.any());
+    }
+
+    @WithMockUser(username = "user@example.com", roles = {"GENERAL"})
+    @Test
+    public void testBulkUpdateBugs_NoSelection() throws Exception {
+        // Act & Assert: without ids or a filter the update would touch every bug, so it is rejected.
+        mockMvc.perform(patch("/api/bugs")
+                        .with(csrf())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"statusId\": 2}"))
+                .andExpect(status().isBadRequest());
+
+        Mockito.verify(bugRepository, Mockito.never()).bulkUpdate(Mockito.any(), Mockito.any());
+    }
+
+    @WithMockUser(username = "user@example.com", roles = {"GENERAL"})
+    @Test
+    public void testBulkUpdateBugs_UnknownStatus() throws Exception {
+        // Arrange: the requested status does not exist.
+        Mockito.when(statusRepository.findById(99L)).thenReturn(Optional.empty());
+
+        // Act & Assert: perform PATCH /api/bugs and expect 400 Bad Request.
+        mockMvc.perform(patch("/api/bugs")
+                        .with(csrf())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"filter\": {\"statusId\": [1]}, \"statusId\": 99}"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @WithMockUser(username = "user@example.com", roles = {"GENERAL"})
+    @Test
+    public void testStreamBugEvents_ResumesFromLastEventId() throws Exception {
+        // Arrange: the broadcaster hands out an open emitter.
+        Mockito.when(bugEventBroadcaster.subscribe(41L)).thenReturn(new SseEmitter());
+
+        // Act & Assert: perform GET /api/bugs/stream and verify an unbuffered async stream resuming after event 41.
+        mockMvc.perform(get("/api/bugs/stream").header("Last-Event-ID", "41"))
+                .andExpect(request().asyncStarted())
+                .andExpect(header().string("X-Accel-Buffering", "no"));
+
+        Mockito.verify(bugEventBroadcaster).subscribe(41L);
+    }
+
+    @WithMockUser(username = "admin@example.com", roles = {"ADMIN"})
+    @Test
+    public void testGetBugEventLog_FromOffset() throws Exception {
+        // Arrange: the log holds a created event at offset 7.
+        Mockito.when(bugEventLog.read(OffsetSpecification.offset(7), 1000)).thenReturn(List.of(
+                new BugLogEntry(7, "15", "bug.created", 3L, "{\"id\":3,\"title\":\"Logged Bug\"}")));
+
+        // Act & Assert: perform GET /api/bugs/events and verify the entry, with the limit capped.
+        mockMvc.perform(get("/api/bugs/events").param("offset", "7").param("limit", "5000"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].offset").value(7))
+                .andExpect(jsonPath("$[0].eventType").value("bug.created"))
+                .andExpect(jsonPath("$[0].bugId").value(3))
+                .andExpect(jsonPath("$[0].payload.title").value("Logged Bug"));
+    }
+
+    @WithMockUser(username = "admin@example.com", roles = {"ADMIN"})
+    @Test
+    public void testGetBugEventLog_DefaultsToFirstOffset() throws Exception {
+        Mockito.when(bugEventLog.read(OffsetSpecification.first(), 100)).thenReturn(List.of());
+
+        // Act & Assert: without a position the log is read from the start.
+        mockMvc.perform(get("/api/bugs/events"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(0));
+
+        Mockito.verify(bugEventLog).read(OffsetSpecification.first(), 100);
+    }
+
+    @WithMockUser(username = "admin@example.com", roles = {"ADMIN"})
+    @Test
+    public void testGetBugEventLog_OffsetAndSince() throws Exception {
+        // Act & Assert: two starting positions are rejected with 400 Bad Request.
+        mockMvc.perform(get("/api/bugs/events").param("offset", "7").param("since", "2025-01-01T00:00:00Z"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @WithMockUser(username = "user@example.com", roles = {"GENERAL"})
+    @Test
+    public void testGetBugEventLog_Forbidden() throws Exception {
+        // Act & Assert: only admins may read the log.
+        mockMvc.perform(get("/api/bugs/events"))
+                .andExpect(status().isForbidden());
+    }
+
+    @WithMockUser(username = "user@example.com", roles = {"GENERAL"})
+    @Test
+    public void testGetBugHistory() throws Exception {
+        // Arrange: two history rows exist, one more than the requested page size.
+        LocalDateTime changedAt = LocalDateTime.of(2025, 3, 1, 9, 30);
+        BugHistory first = new BugHistory(1L, "status", "1", "2", "user@example.com", changedAt);
+        ReflectionTestUtils.setField(first, "id", 10L);
+        BugHistory second = new BugHistory(1L, "assignee", null, "4", "user@example.com", changedAt);
+        ReflectionTestUtils.setField(second, "id", 11L);
+        Mockito.when(bugHistoryRepository.findFirstTimelinePage(1L, Limit.of(2))).thenReturn(List.of(first, second));
+
+        // Act & Assert: perform GET /api/bugs/1/history and verify the page and its cursor.
+        String response = mockMvc.perform(get("/api/bugs/1/history").param("size", "1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items.length()").value(1))
+                .andExpect(jsonPath("$.items[0].field").value("status"))
+                .andExpect(jsonPath("$.items[0].newValue").value("2"))
+                .andExpect(jsonPath("$.nextCursor").exists())
+                .andReturn().getResponse().getContentAsString();
+
+        // The cursor resumes after the last row returned.
+        String cursor = JsonPath.read(response, "$.nextCursor");
+        Mockito.when(bugHistoryRepository.findTimelinePageAfter(1L, changedAt, 10L, Limit.of(2)))
+                .thenReturn(List.of(second));
+        mockMvc.perform(get("/api/bugs/1/history").param("size", "1").param("cursor", cursor))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items[0].field").value("assignee"))
+                .andExpect(jsonPath("$.nextCursor").doesNotExist());
+    }
+
+    @WithMockUser(username = "user@example.com", roles = {"GENERAL"})
+    @Test
+    public void testGetBugHistory_CursorFromBugList() throws Exception {
+        String listCursor = new BugCursor("-createdAt,-id", List.of("2025-01-01T00:00", "5")).encode();
+
+        // Act & Assert: a cursor issued by the bug list is rejected with 400 Bad Request.
+        mockMvc.perform(get("/api/bugs/1/history").param("cursor", listCursor))
+                .andExpect(status().isBadRequest());
+    }
+
+    @WithMockUser(username = "admin@example.com", roles = {"ADMIN"})
+    @Test
+    public void testImportBugs_Csv() throws Exception {
+        // Arrange: the service queues the upload as a new job.
+        BugImportJob job = new BugImportJob("job-1", "CSV", 100);
+        Mockito.when(bugImportService.submit(Mockito.any(), Mockito.eq(BugFileFormat.CSV))).thenReturn(job);
+
+        // Act & Assert: perform POST /api/bugs/import and verify the accepted job and where to poll it.
+        mockMvc.perform(post("/api/bugs/import")
+                        .with(csrf())
+                        .contentType("text/csv")
+                        .content("title,description,priority,status,createdBy\nBug,Broken,high,open,a@example.com\n"))
+                .andExpect(status().isAccepted())
+                .andExpect(header().string("Location", "/api/bugs/import/job-1"))
+                .andExpect(jsonPath("$.id").value("job-1"))
+                .andExpect(jsonPath("$.state").value("QUEUED"));
+    }
+
+    @WithMockUser(username = "admin@example.com", roles = {"ADMIN"})
+    @Test
+    public void testImportBugs_Ndjson() throws Exception {
+        BugImportJob job = new BugImportJob("job-2", "NDJSON", 100);
+        Mockito.when(bugImportService.submit(Mockito.any(), Mockito.eq(BugFileFormat.NDJSON)))
+                .thenReturn(job);
+
+        // Act & Assert: an NDJSON upload is imported as NDJSON.
+        mockMvc.perform(post("/api/bugs/import")
+                        .with(csrf())
+                        .contentType("application/x-ndjson")
+                        .content("{\"title\": \"Bug\"}\n"))
+                .andExpect(status().isAccepted())
+                .andExpect(jsonPath("$.format").value("NDJSON"));
+    }
+
+    @WithMockUser(username = "admin@example.com", roles = {"ADMIN"})
+    @Test
+    public void testImportBugs_UnsupportedType() throws Exception {
+        // Act & Assert: other upload types are rejected with 415 Unsupported Media Type.
+        mockMvc.perform(post("/api/bugs/import")
+                        .with(csrf())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[]"))
+                .andExpect(status().isUnsupportedMediaType());
+    }
+
+    @WithMockUser(username = "user@example.com", roles = {"GENERAL"})
+    @Test
+    public void testImportBugs_Forbidden() throws Exception {
+        // Act & Assert: only admins may import.
+        mockMvc.perform(post("/api/bugs/import")
+                        .with(csrf())
+                        .contentType("text/csv")
+                        .content("title\n"))
+                .andExpect(status().isForbidden());
+    }
+
+    @WithMockUser(username = "admin@example.com", roles = {"ADMIN"})
+    @Test
+    public void testGetImportJob() throws Exception {
+        // Arrange: a running job with one imported and one rejected row.
+        BugImportJob job = new BugImportJob("job-3", "CSV", 100);
+        job.start();
+        job.rowRead();
+        job.imported(1);
+        job.rowRead();
+        job.reject(2, "Unknown status: triage");
+        Mockito.when(bugImportService.find("job-3")).thenReturn(Optional.of(job));
+        Mockito.when(bugImportService.find("missing")).thenReturn(Optional.empty());
+
+        // Act & Assert: perform GET /api/bugs/import/job-3 and verify the progress report.
+        mockMvc.perform(get("/api/bugs/import/job-3"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.state").value("RUNNING"))
+                .andExpect(jsonPath("$.rowsRead").value(2))
+                .andExpect(jsonPath("$.rowsImported").value(1))
+                .andExpect(jsonPath("$.rowsRejected").value(1))
+                .andExpect(jsonPath("$.rejections[0].row").value(2))
+                .andExpect(jsonPath("$.rejections[0].reason").value("Unknown status: triage"));
+
+        mockMvc.perform(get("/api/bugs/import/missing"))
+                .andExpect(status().isNotFound());
+    }
+
+    @WithMockUser(username = "admin@example.com", roles = {"ADMIN"})
+    @Test
+    public void testExportBugs_UnsupportedFormat() throws Exception {
+        // Act & Assert: an unknown format is rejected before anything is streamed.
+        MvcResult started = mockMvc.perform(get("/api/bugs/export").param("format", "xml"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        mockMvc.perform(asyncDispatch(started))
+                .andExpect(status().isBadRequest())
+                .andExpect(content().string("Unsupported export format: xml"));
+
+        Mockito.verifyNoInteractions(bugExportService);
+    }
+
+    @WithMockUser(username = "user@example.com", roles = {"GENERAL"})
+    @Test
+    public void testExportBugs_RequiresAdmin() throws Exception {
+        mockMvc.perform(get("/api/bugs/export"))
+                .andExpect(status().isForbidden());
     }
 
     @WithMockUser(username = "user@example.com", roles = {"GENERAL"})
@@ -190,6 +720,7 @@ public class BugControllerTest {
         Mockito.when(userRepository.findById(1L)).thenReturn(Optional.of(assignee));
         Mockito.when(userRepository.findById(2L)).thenReturn(Optional.of(creator));
         Mockito.when(userRoleRepository.findById(1L)).thenReturn(Optional.of(userRole));
+        Mockito.when(userRepository.findAllByIdIn(Mockito.anyCollection())).thenReturn(List.of(assignee, creator));
         // Arrange:
         // Prepare a JSON payload matching your BugDto.
         String bugJson = """
@@ -225,6 +756,37 @@ public class BugControllerTest {
                 .andExpect(jsonPath("$.createdBy.email").value("second@example.com"));
     }
 
+    @WithMockUser(username = "user@example.com", roles = {"GENERAL"})
+    @Test
+    public void testCreateBugUsingBugDto_UnknownAssignee() throws Exception {
+        // Arrange: priority and status exist, but only the creator is found among the users.
+        UserRole userRole = createDummyRole(1L, "ADMIN");
+        User creator = createDummyUser(2L, "second@example.com", "Second", "User", "password", userRole);
+        Mockito.when(statusRepository.findById(1L)).thenReturn(Optional.of(createDummyStatus(1L, "open")));
+        Mockito.when(priorityRepository.findById(1L)).thenReturn(Optional.of(createDummyPriority(1L, "low", "Active")));
+        Mockito.when(userRepository.findAllByIdIn(Mockito.anyCollection())).thenReturn(List.of(creator));
+
+        String bugJson = """
+        {
+            "title": "Test Bug",
+            "description": "This is a test bug.",
+            "priorityId": 1,
+            "statusId": 1,
+            "assigneeId": 9,
+            "createdByUserId": 2
+        }
+        """;
+
+        // Act & Assert: perform POST /api/bugs and expect 400 Bad Request without a save.
+        mockMvc.perform(post("/api/bugs")
+                        .with(csrf())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(bugJson))
+                .andExpect(status().isBadRequest());
+
+        Mockito.verify(bugRepository, Mockito.never()).save(Mockito.any(Bug.class));
+    }
+
     @WithMockUser(username = "user@example.com", roles = {"GENERAL"})
     @Test
     public void testUpdateBugUsingBugDto_Found() throws Exception {
@@ -0,0 +1,145 @@
+package nathan_mead.bug_tracker.controller;
+
+import nathan_mead.bug_tracker.model.*;
+import nathan_mead.bug_tracker.repository.*;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.fail;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
+
+// Runs the SSE stream end to end against an in-memory database: writes reach open streams and
+// a reconnecting client is replayed what it missed
+@SpringBootTest(properties = {
+        "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.show-sql=false",
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "defectrak.outbox.relay.enabled=false",
+        "defectrak.history.flush-interval-ms=3600000",
+        "defectrak.session.store=memory"
+})
+@AutoConfigureMockMvc
+@AutoConfigureTestDatabase
+public class BugEventStreamTest {
+
+    private static final Pattern EVENT_ID = Pattern.compile("id:(\\d+)");
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private BugRepository bugRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private UserRoleRepository userRoleRepository;
+
+    @Autowired
+    private StatusRepository statusRepository;
+
+    @Autowired
+    private PriorityRepository priorityRepository;
+
+    private String bugJson;
+
+    @BeforeEach
+    public void setUp() {
+        UserRole role = userRoleRepository.save(new UserRole("general", "active"));
+        Priority priority = priorityRepository.save(new Priority("low", "active"));
+        Status status = statusRepository.save(new Status("open", "active"));
+        User user = userRepository.save(new User("stream@example.com", "Stream", "User", "password", role));
+        bugJson = """
+        {
+            "title": "Streamed Bug",
+            "description": "This bug is streamed.",
+            "priorityId": %d,
+            "statusId": %d,
+            "assigneeId": %d,
+            "createdByUserId": %d
+        }
+        """.formatted(priority.getId(), status.getId(), user.getId(), user.getId());
+    }
+
+    @AfterEach
+    public void tearDown() {
+        bugRepository.deleteAll();
+        userRepository.deleteAll();
+        userRoleRepository.deleteAll();
+        statusRepository.deleteAll();
+        priorityRepository.deleteAll();
+    }
+
+    // Helper to wait for the asynchronous sender to write the expected text to an open stream
+    private String awaitContent(MockHttpServletResponse response, String expected) throws Exception {
+        for (int i = 0; i < 100; i++) {
+            String content = response.getContentAsString();
+            if (content.contains(expected)) {
+                return content;
+            }
+            Thread.sleep(20);
+        }
+        fail("Stream never contained " + expected + ": " + response.getContentAsString());
+        return null;
+    }
+
+    @WithMockUser(username = "user@example.com", roles = {"GENERAL"})
+    @Test
+    public void testWritesArePushedAndReplayedAfterReconnect() throws Exception {
+        MockHttpServletResponse stream = mockMvc.perform(get("/api/bugs/stream"))
+                .andExpect(request().asyncStarted())
+                .andReturn().getResponse();
+
+        mockMvc.perform(post("/api/bugs")
+                        .with(csrf())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(bugJson))
+                .andExpect(status().isCreated());
+
+        String content = awaitContent(stream, "event:created");
+        assertTrue(content.contains("\"title\":\"Streamed Bug\""));
+        assertTrue(content.contains("\"firstName\":\"Stream\""));
+        // Every subscriber gets the event, so the users in it carry no email or password hash
+        assertFalse(content.contains("password"));
+        assertFalse(content.contains("stream@example.com"));
+        Matcher matcher = EVENT_ID.matcher(content);
+        assertTrue(matcher.find());
+        long createdEventId = Long.parseLong(matcher.group(1));
+
+        // A client that saw nothing after the event before it gets the create replayed
+        MockHttpServletResponse resumed = mockMvc.perform(get("/api/bugs/stream")
+                        .header("Last-Event-ID", String.valueOf(createdEventId - 1)))
+                .andExpect(request().asyncStarted())
+                .andReturn().getResponse();
+        awaitContent(resumed, "id:" + createdEventId);
+    }
+
+    @WithMockUser(username = "user@example.com", roles = {"GENERAL"})
+    @Test
+    public void testUnknownLastEventIdAsksClientToReload() throws Exception {
+        MockHttpServletResponse stream = mockMvc.perform(get("/api/bugs/stream")
+                        .header("Last-Event-ID", String.valueOf(Long.MAX_VALUE - 1)))
+                .andExpect(request().asyncStarted())
+                .andReturn().getResponse();
+
+        awaitContent(stream, "event:reset");
+    }
+}
@@ -0,0 +1,157 @@
+package nathan_mead.bug_tracker.controller;
+
+import nathan_mead.bug_tracker.model.*;
+import nathan_mead.bug_tracker.repository.*;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+// Streams exports from an in-memory database through the full controller, including the async dispatch.
+// A fetch size smaller than the row count makes the cursor go back to the database more than once.
+@SpringBootTest(properties = {
+        "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.show-sql=false",
+        "defectrak.outbox.relay.enabled=false",
+        "defectrak.export.fetch-size=2",
+        "defectrak.export.flush-rows=2",
+        "defectrak.session.store=memory"
+})
+@AutoConfigureMockMvc
+@AutoConfigureTestDatabase
+@WithMockUser(username = "admin@example.com", roles = {"ADMIN"})
+public class BugExportTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private BugRepository bugRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private UserRoleRepository userRoleRepository;
+
+    @Autowired
+    private StatusRepository statusRepository;
+
+    @Autowired
+    private PriorityRepository priorityRepository;
+
+    private Bug first;
+    private Bug second;
+    private Bug third;
+
+    @BeforeEach
+    public void setUp() {
+        UserRole role = userRoleRepository.save(new UserRole("general", "active"));
+        Priority high = priorityRepository.save(new Priority("high", "active"));
+        Status open = statusRepository.save(new Status("open", "active"));
+        User creator = userRepository.save(new User("creator@example.com", "Creator", "User", "password", role));
+        User assignee = userRepository.save(new User("assignee@example.com", "Assignee", "User", "password", role));
+
+        first = bugRepository.save(bug("Crash on save", "Stack trace, attached", high, open, creator, assignee));
+        second = bugRepository.save(bug("Login \"remember me\" ignored", "Cookie is dropped", high, open, creator, null));
+        third = bugRepository.save(bug("Slow search", "Takes seconds", high, open, creator, assignee));
+    }
+
+    @AfterEach
+    public void tearDown() {
+        bugRepository.deleteAll();
+        userRepository.deleteAll();
+        userRoleRepository.deleteAll();
+        statusRepository.deleteAll();
+        priorityRepository.deleteAll();
+    }
+
+    private Bug bug(String title, String description, Priority priority, Status status, User creator, User assignee) {
+        Bug bug = new Bug();
+        bug.setTitle(title);
+        bug.setDescription(description);
+        bug.setPriority(priority);
+        bug.setStatus(status);
+        bug.setCreatedBy(creator);
+        bug.setAssignee(assignee);
+        bug.setCreatedAt(LocalDateTime.of(2024, 5, 1, 9, 30));
+        return bug;
+    }
+
+    private MvcResult export(String format, boolean gzip) throws Exception {
+        MvcResult started = mockMvc.perform(get("/api/bugs/export").param("format", format)
+                        .header("Accept-Encoding", gzip ? "gzip, deflate" : "identity"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        return mockMvc.perform(asyncDispatch(started))
+                .andExpect(status().isOk())
+                .andReturn();
+    }
+
+    @Test
+    public void testCsvExportWritesHeaderAndOneLinePerBug() throws Exception {
+        MvcResult result = export("csv", false);
+
+        assertEquals("attachment; filename=\"bugs.csv\"", result.getResponse().getHeader("Content-Disposition"));
+        String[] lines = result.getResponse().getContentAsString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(4, lines.length);
+        assertEquals("id,title,description,priority,status,assignee,createdBy,createdAt", lines[0]);
+        assertEquals(first.getId() + ",\"Crash on save\",\"Stack trace, attached\",high,open,"
+                + "assignee@example.com,creator@example.com,2024-05-01T09:30", lines[1]);
+        // Quotes are escaped and a missing assignee is an empty column
+        assertEquals(second.getId() + ",\"Login \"\"remember me\"\" ignored\",\"Cookie is dropped\",high,open,,"
+                + "creator@example.com,2024-05-01T09:30", lines[2]);
+    }
+
+    @Test
+    public void testNdjsonExportWritesOneObjectPerLine() throws Exception {
+        MvcResult result = export("ndjson", false);
+
+        String body = result.getResponse().getContentAsString(StandardCharsets.UTF_8);
+        String[] lines = body.split("\n");
+        assertEquals(3, lines.length);
+        assertEquals('\n', body.charAt(body.length() - 1));
+
+        JsonNode last = objectMapper.readTree(lines[2]);
+        assertEquals(third.getId(), last.get("id").asLong());
+        assertEquals("Slow search", last.get("title").asText());
+        assertEquals("assignee@example.com", last.get("assignee").asText());
+        assertEquals("2024-05-01T09:30", last.get("createdAt").asText());
+        assertEquals(true, objectMapper.readTree(lines[1]).get("assignee").isNull());
+    }
+
+    @Test
+    public void testExportIsGzippedWhenAccepted() throws Exception {
+        MvcResult result = export("ndjson", true);
+
+        assertEquals("gzip", result.getResponse().getHeader("Content-Encoding"));
+        byte[] compressed = result.getResponse().getContentAsByteArray();
+        String body;
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(compressed))) {
+            body = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+        assertEquals(3, body.split("\n").length);
+        assertEquals(first.getId(), objectMapper.readTree(body.split("\n")[0]).get("id").asLong());
+    }
+}
@@ -0,0 +1,122 @@
+package nathan_mead.bug_tracker.controller;
+
+import nathan_mead.bug_tracker.model.*;
+import nathan_mead.bug_tracker.repository.*;
+import nathan_mead.bug_tracker.service.BugHistoryWriter;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
+
+// The history queue holds a single row, so an update that changes several fields overflows it and the request
+// thread writes the rest itself
+@SpringBootTest(properties = {
+        "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.show-sql=false",
+        "defectrak.outbox.relay.enabled=false",
+        "defectrak.history.flush-interval-ms=3600000",
+        "defectrak.history.queue-capacity=1",
+        "defectrak.session.store=memory"
+})
+@AutoConfigureMockMvc
+@AutoConfigureTestDatabase
+public class BugHistoryOverflowTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private BugHistoryWriter bugHistoryWriter;
+
+    @Autowired
+    private BugHistoryRepository bugHistoryRepository;
+
+    @Autowired
+    private BugRepository bugRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private UserRoleRepository userRoleRepository;
+
+    @Autowired
+    private StatusRepository statusRepository;
+
+    @Autowired
+    private PriorityRepository priorityRepository;
+
+    private Bug bug;
+    private Priority priority;
+    private Status closed;
+    private User assignee;
+
+    @BeforeEach
+    public void setUp() {
+        UserRole role = userRoleRepository.save(new UserRole("general", "active"));
+        priority = priorityRepository.save(new Priority("low", "active"));
+        Status open = statusRepository.save(new Status("open", "active"));
+        closed = statusRepository.save(new Status("closed", "active"));
+        User creator = userRepository.save(new User("creator@example.com", "Creator", "User", "password", role));
+        assignee = userRepository.save(new User("assignee@example.com", "Assignee", "User", "password", role));
+
+        Bug newBug = new Bug();
+        newBug.setTitle("Tracked Bug");
+        newBug.setDescription("This bug has a history.");
+        newBug.setPriority(priority);
+        newBug.setStatus(open);
+        newBug.setCreatedBy(creator);
+        bug = bugRepository.save(newBug);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        bugHistoryWriter.flush();
+        bugHistoryRepository.deleteAll();
+        bugRepository.deleteAll();
+        userRepository.deleteAll();
+        userRoleRepository.deleteAll();
+        statusRepository.deleteAll();
+        priorityRepository.deleteAll();
+    }
+
+    @WithMockUser(username = "triager@example.com", roles = {"GENERAL"})
+    @Test
+    public void testRowsThatDoNotFitTheQueueAreSaved() throws Exception {
+        mockMvc.perform(put("/api/bugs/" + bug.getId())
+                        .with(csrf())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("""
+                        {
+                            "title": "Renamed Bug",
+                            "description": "This bug has a history.",
+                            "priorityId": %d,
+                            "statusId": %d,
+                            "assigneeId": %d
+                        }
+                        """.formatted(priority.getId(), closed.getId(), assignee.getId())))
+                .andExpect(status().isOk());
+
+        // Title, status and assignee changed: one row waits in the queue, the other two are already written
+        assertEquals(1, bugHistoryWriter.getPendingCount());
+        assertEquals(2, bugHistoryRepository.count());
+
+        bugHistoryWriter.flush();
+        assertEquals(3, bugHistoryRepository.count());
+        mockMvc.perform(get("/api/bugs/" + bug.getId() + "/history"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items.length()").value(3));
+    }
+}
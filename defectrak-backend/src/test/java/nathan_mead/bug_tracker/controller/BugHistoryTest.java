@@ -0,0 +1,215 @@
+package nathan_mead.bug_tracker.controller;
+
+import nathan_mead.bug_tracker.model.*;
+import nathan_mead.bug_tracker.repository.*;
+import nathan_mead.bug_tracker.service.BugHistoryWriter;
+import com.jayway.jsonpath.JsonPath;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
+
+// Runs bug updates against an in-memory database and reads the recorded timeline back. The scheduled history
+// flush is pushed out of the way so each test flushes explicitly.
+@SpringBootTest(properties = {
+        "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.show-sql=false",
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "defectrak.outbox.relay.enabled=false",
+        "defectrak.history.flush-interval-ms=3600000",
+        "defectrak.session.store=memory"
+})
+@AutoConfigureMockMvc
+@AutoConfigureTestDatabase
+public class BugHistoryTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private BugHistoryWriter bugHistoryWriter;
+
+    @Autowired
+    private BugHistoryRepository bugHistoryRepository;
+
+    @Autowired
+    private BugRepository bugRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private UserRoleRepository userRoleRepository;
+
+    @Autowired
+    private StatusRepository statusRepository;
+
+    @Autowired
+    private PriorityRepository priorityRepository;
+
+    private Bug bug;
+    private Priority priority;
+    private Status open;
+    private Status closed;
+    private User assignee;
+
+    @BeforeEach
+    public void setUp() {
+        UserRole role = userRoleRepository.save(new UserRole("general", "active"));
+        priority = priorityRepository.save(new Priority("low", "active"));
+        open = statusRepository.save(new Status("open", "active"));
+        closed = statusRepository.save(new Status("closed", "active"));
+        User creator = userRepository.save(new User("creator@example.com", "Creator", "User", "password", role));
+        assignee = userRepository.save(new User("assignee@example.com", "Assignee", "User", "password", role));
+
+        Bug newBug = new Bug();
+        newBug.setTitle("Tracked Bug");
+        newBug.setDescription("This bug has a history.");
+        newBug.setPriority(priority);
+        newBug.setStatus(open);
+        newBug.setCreatedBy(creator);
+        bug = bugRepository.save(newBug);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        bugHistoryWriter.flush();
+        bugHistoryRepository.deleteAll();
+        bugRepository.deleteAll();
+        userRepository.deleteAll();
+        userRoleRepository.deleteAll();
+        statusRepository.deleteAll();
+        priorityRepository.deleteAll();
+    }
+
+    private String updateJson(String title, Long statusId, Long assigneeId) {
+        return """
+        {
+            "title": "%s",
+            "description": "This bug has a history.",
+            "priorityId": %d,
+            "statusId": %d,
+            "assigneeId": %d
+        }
+        """.formatted(title, priority.getId(), statusId, assigneeId);
+    }
+
+    @WithMockUser(username = "triager@example.com", roles = {"GENERAL"})
+    @Test
+    public void testUpdateRecordsOneRowPerChangedField() throws Exception {
+        mockMvc.perform(put("/api/bugs/" + bug.getId())
+                        .with(csrf())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(updateJson("Tracked Bug", closed.getId(), assignee.getId())))
+                .andExpect(status().isOk());
+        bugHistoryWriter.flush();
+
+        // Title and description were resent unchanged, so only status and assignee are recorded
+        mockMvc.perform(get("/api/bugs/" + bug.getId() + "/history"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items.length()").value(2))
+                .andExpect(jsonPath("$.items[0].field").value("status"))
+                .andExpect(jsonPath("$.items[0].oldValue").value(open.getId().toString()))
+                .andExpect(jsonPath("$.items[0].newValue").value(closed.getId().toString()))
+                .andExpect(jsonPath("$.items[0].changedBy").value("triager@example.com"))
+                .andExpect(jsonPath("$.items[1].field").value("assignee"))
+                .andExpect(jsonPath("$.items[1].oldValue").doesNotExist())
+                .andExpect(jsonPath("$.items[1].newValue").value(assignee.getId().toString()))
+                .andExpect(jsonPath("$.nextCursor").doesNotExist());
+    }
+
+    @WithMockUser(username = "triager@example.com", roles = {"GENERAL"})
+    @Test
+    public void testTimelinePagesInOrder() throws Exception {
+        for (String title : new String[]{"Renamed Once", "Renamed Twice", "Renamed Thrice"}) {
+            mockMvc.perform(put("/api/bugs/" + bug.getId())
+                            .with(csrf())
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(updateJson(title, open.getId(), assignee.getId())))
+                    .andExpect(status().isOk());
+        }
+        bugHistoryWriter.flush();
+
+        // The first update also assigned the bug, so the timeline is: title, assignee, title, title
+        String firstPage = mockMvc.perform(get("/api/bugs/" + bug.getId() + "/history").param("size", "3"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items.length()").value(3))
+                .andExpect(jsonPath("$.items[0].newValue").value("Renamed Once"))
+                .andExpect(jsonPath("$.items[2].newValue").value("Renamed Twice"))
+                .andReturn().getResponse().getContentAsString();
+
+        String cursor = JsonPath.read(firstPage, "$.nextCursor");
+        mockMvc.perform(get("/api/bugs/" + bug.getId() + "/history").param("size", "3").param("cursor", cursor))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items.length()").value(1))
+                .andExpect(jsonPath("$.items[0].oldValue").value("Renamed Twice"))
+                .andExpect(jsonPath("$.items[0].newValue").value("Renamed Thrice"))
+                .andExpect(jsonPath("$.nextCursor").doesNotExist());
+    }
+
+    @WithMockUser(username = "triager@example.com", roles = {"GENERAL"})
+    @Test
+    public void testBulkUpdateRecordsHistoryWithTheUpdate() throws Exception {
+        Bug closedBug = new Bug();
+        closedBug.setTitle("Closed Bug");
+        closedBug.setDescription("This bug is already closed.");
+        closedBug.setPriority(priority);
+        closedBug.setStatus(closed);
+        closedBug.setCreatedBy(bug.getCreatedBy());
+        closedBug = bugRepository.save(closedBug);
+
+        mockMvc.perform(patch("/api/bugs")
+                        .with(csrf())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("""
+                        {"ids": [%d, %d], "statusId": %d, "assigneeId": %d}
+                        """.formatted(bug.getId(), closedBug.getId(), closed.getId(), assignee.getId())))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.updated").value(2));
+
+        // Written in the UPDATE's transaction, so nothing waits in the queue
+        assertEquals(0, bugHistoryWriter.getPendingCount());
+        mockMvc.perform(get("/api/bugs/" + bug.getId() + "/history"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items.length()").value(2))
+                .andExpect(jsonPath("$.items[0].field").value("status"))
+                .andExpect(jsonPath("$.items[0].oldValue").value(open.getId().toString()))
+                .andExpect(jsonPath("$.items[0].newValue").value(closed.getId().toString()))
+                .andExpect(jsonPath("$.items[0].changedBy").value("triager@example.com"))
+                .andExpect(jsonPath("$.items[1].field").value("assignee"))
+                .andExpect(jsonPath("$.items[1].oldValue").doesNotExist())
+                .andExpect(jsonPath("$.items[1].newValue").value(assignee.getId().toString()));
+
+        // The second bug was already closed, so only its assignee changed
+        mockMvc.perform(get("/api/bugs/" + closedBug.getId() + "/history"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items.length()").value(1))
+                .andExpect(jsonPath("$.items[0].field").value("assignee"));
+    }
+
+    @WithMockUser(username = "triager@example.com", roles = {"GENERAL"})
+    @Test
+    public void testRejectedUpdateChangesNothing() throws Exception {
+        mockMvc.perform(put("/api/bugs/" + bug.getId())
+                        .with(csrf())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(updateJson("Should Not Stick", -1L, assignee.getId())))
+                .andExpect(status().isBadRequest());
+        bugHistoryWriter.flush();
+
+        assertEquals("Tracked Bug", bugRepository.findById(bug.getId()).orElseThrow().getTitle());
+        assertEquals(0, bugHistoryRepository.count());
+    }
+}
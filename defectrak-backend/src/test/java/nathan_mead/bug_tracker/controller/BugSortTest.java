@@ -0,0 +1,119 @@
+package nathan_mead.bug_tracker.controller;
+
+import nathan_mead.bug_tracker.model.*;
+import nathan_mead.bug_tracker.repository.*;
+import com.jayway.jsonpath.JsonPath;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+// Sorting by priority and status follows each reference row's rank. The reference rows are inserted out of rank
+// order, so their ids would give a different order.
+@SpringBootTest(properties = {
+        "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.show-sql=false",
+        "defectrak.outbox.relay.enabled=false",
+        "defectrak.session.store=memory"
+})
+@AutoConfigureMockMvc
+@AutoConfigureTestDatabase
+@WithMockUser(username = "user@example.com", roles = {"GENERAL"})
+public class BugSortTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private BugRepository bugRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private UserRoleRepository userRoleRepository;
+
+    @Autowired
+    private StatusRepository statusRepository;
+
+    @Autowired
+    private PriorityRepository priorityRepository;
+
+    @BeforeEach
+    public void setUp() {
+        UserRole role = userRoleRepository.save(new UserRole("general", "active"));
+        User creator = userRepository.save(new User("creator@example.com", "Creator", "User", "password", role));
+
+        // Highest rank first, so id order is the reverse of rank order
+        Priority high = priorityRepository.save(new Priority("high", "active", 3));
+        Priority low = priorityRepository.save(new Priority("low", "active", 1));
+        Priority medium = priorityRepository.save(new Priority("medium", "active", 2));
+        Status closed = statusRepository.save(new Status("closed", "active", 2));
+        Status open = statusRepository.save(new Status("open", "active", 1));
+
+        saveBug("Low Closed Bug", low, closed, creator);
+        saveBug("High Open Bug", high, open, creator);
+        saveBug("Medium Open Bug", medium, open, creator);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        bugRepository.deleteAll();
+        userRepository.deleteAll();
+        userRoleRepository.deleteAll();
+        statusRepository.deleteAll();
+        priorityRepository.deleteAll();
+    }
+
+    private void saveBug(String title, Priority priority, Status status, User creator) {
+        Bug bug = new Bug();
+        bug.setTitle(title);
+        bug.setDescription("This bug is sorted.");
+        bug.setPriority(priority);
+        bug.setStatus(status);
+        bug.setCreatedBy(creator);
+        bugRepository.save(bug);
+    }
+
+    @Test
+    public void testSortByPriorityFollowsRank() throws Exception {
+        String firstPage = mockMvc.perform(get("/api/bugs").param("sort", "priority").param("size", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items.length()").value(2))
+                .andExpect(jsonPath("$.items[0].title").value("Low Closed Bug"))
+                .andExpect(jsonPath("$.items[1].title").value("Medium Open Bug"))
+                .andReturn().getResponse().getContentAsString();
+        String cursor = JsonPath.read(firstPage, "$.nextCursor");
+
+        // The cursor resumes after the last rank returned
+        mockMvc.perform(get("/api/bugs").param("sort", "priority").param("size", "2").param("cursor", cursor))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items.length()").value(1))
+                .andExpect(jsonPath("$.items[0].title").value("High Open Bug"))
+                .andExpect(jsonPath("$.nextCursor").doesNotExist());
+    }
+
+    @Test
+    public void testSortByStatusThenPriorityDescendingFollowsRank() throws Exception {
+        String firstPage = mockMvc.perform(get("/api/bugs").param("sort", "status,-priority").param("size", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items[0].title").value("High Open Bug"))
+                .andExpect(jsonPath("$.items[1].title").value("Medium Open Bug"))
+                .andReturn().getResponse().getContentAsString();
+        String cursor = JsonPath.read(firstPage, "$.nextCursor");
+
+        mockMvc.perform(get("/api/bugs").param("sort", "status,-priority").param("size", "2").param("cursor", cursor))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items.length()").value(1))
+                .andExpect(jsonPath("$.items[0].title").value("Low Closed Bug"));
+    }
+}
@@ -0,0 +1,187 @@
+package nathan_mead.bug_tracker.controller;
+
+import nathan_mead.bug_tracker.model.User;
+import nathan_mead.bug_tracker.model.UserRole;
+import nathan_mead.bug_tracker.repository.UserRepository;
+import nathan_mead.bug_tracker.repository.UserRoleRepository;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.servlet.http.Cookie;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+// /api/me against the JDBC session store: served from the session snapshot, which follows changes to the user
+@SpringBootTest(properties = {
+        "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.show-sql=false",
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "defectrak.outbox.relay.enabled=false",
+        "defectrak.session.store=jdbc",
+        "spring.session.jdbc.initialize-schema=embedded",
+        "defectrak.security.hashing.calibration-samples=0"
+})
+@AutoConfigureMockMvc
+@AutoConfigureTestDatabase
+public class CurrentUserTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private UserRoleRepository userRoleRepository;
+
+    private User user;
+    private UserRole admin;
+
+    @BeforeEach
+    public void setUp() {
+        UserRole general = userRoleRepository.save(new UserRole("general", "active"));
+        admin = userRoleRepository.save(new UserRole("admin", "active"));
+        user = userRepository.save(new User("user@example.com", "Some", "User", passwordEncoder.encode("secret"), general));
+    }
+
+    @AfterEach
+    public void tearDown() {
+        jdbcTemplate.update("DELETE FROM SPRING_SESSION");
+        userRepository.deleteAll();
+        userRoleRepository.deleteAll();
+    }
+
+    @Test
+    public void testRepeatedCallsSkipTheDatabase() throws Exception {
+        Cookie session = login();
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+        mockMvc.perform(get("/api/me").cookie(session))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.email").value("user@example.com"))
+                .andExpect(jsonPath("$.role.role").value("general"))
+                .andExpect(jsonPath("$.password").doesNotExist());
+
+        statistics.clear();
+        for (int i = 0; i < 3; i++) {
+            mockMvc.perform(get("/api/me").cookie(session))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.firstName").value("Some"));
+        }
+        assertEquals(0, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    public void testRoleChangeReachesSignedInSessions() throws Exception {
+        Cookie first = login();
+        Cookie second = login();
+        mockMvc.perform(get("/api/me").cookie(first))
+                .andExpect(jsonPath("$.role.role").value("general"));
+
+        mockMvc.perform(put("/api/users/" + user.getId() + "/role")
+                        .with(user("admin@example.com").roles("ADMIN"))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"userRoleId\": " + admin.getId() + "}"))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(get("/api/me").cookie(first))
+                .andExpect(jsonPath("$.role.role").value("admin"));
+        mockMvc.perform(get("/api/me").cookie(second))
+                .andExpect(jsonPath("$.role.role").value("admin"));
+    }
+
+    @Test
+    public void testOwnChangesReplaceTheSnapshot() throws Exception {
+        Cookie session = login();
+        mockMvc.perform(get("/api/me").cookie(session))
+                .andExpect(jsonPath("$.firstName").value("Some"));
+
+        mockMvc.perform(put("/api/me")
+                        .cookie(session)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"email\": \"user@example.com\", \"firstName\": \"Renamed\", "
+                                + "\"lastName\": \"User\", \"password\": \"secret\", \"status\": \"active\"}"))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(get("/api/me").cookie(session))
+                .andExpect(jsonPath("$.firstName").value("Renamed"));
+    }
+
+    @Test
+    public void testDeletingTheUserSignsOutTheirSessions() throws Exception {
+        Cookie session = login();
+        mockMvc.perform(get("/api/me").cookie(session))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(delete("/api/users/" + user.getId())
+                        .with(user("admin@example.com").roles("ADMIN")))
+                .andExpect(status().isNoContent());
+
+        assertEquals(0, jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM SPRING_SESSION WHERE PRINCIPAL_NAME = 'user@example.com'", Integer.class));
+        // The session is gone, so the old snapshot is not served and the cookie no longer signs anyone in
+        mockMvc.perform(get("/api/me").cookie(session))
+                .andExpect(status().isNoContent());
+        mockMvc.perform(get("/api/auth/check").cookie(session))
+                .andExpect(status().isForbidden());
+    }
+
+    @Test
+    public void testSigningInAsAnotherUserOnTheSameSessionReplacesTheSnapshot() throws Exception {
+        userRepository.save(new User("other@example.com", "Other", "Person", passwordEncoder.encode("secret"),
+                user.getRole()));
+        Cookie first = login();
+        mockMvc.perform(get("/api/me").cookie(first))
+                .andExpect(jsonPath("$.email").value("user@example.com"));
+
+        Cookie second = mockMvc.perform(post("/api/login")
+                        .cookie(first)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"email\": \"other@example.com\", \"password\": \"secret\"}"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getCookie("SESSION");
+
+        // The session gets a new id on sign-in, so the old cookie no longer names it
+        assertNotNull(second);
+        assertNotEquals(first.getValue(), second.getValue());
+        mockMvc.perform(get("/api/me").cookie(second))
+                .andExpect(jsonPath("$.email").value("other@example.com"))
+                .andExpect(jsonPath("$.firstName").value("Other"));
+        mockMvc.perform(get("/api/me").cookie(first))
+                .andExpect(status().isNoContent());
+    }
+
+    private Cookie login() throws Exception {
+        Cookie session = mockMvc.perform(post("/api/login")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"email\": \"user@example.com\", \"password\": \"secret\"}"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getCookie("SESSION");
+        assertNotNull(session);
+        return session;
+    }
+}
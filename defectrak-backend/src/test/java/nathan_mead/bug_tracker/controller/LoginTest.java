@@ -0,0 +1,124 @@
+package nathan_mead.bug_tracker.controller;
+
+import nathan_mead.bug_tracker.model.User;
+import nathan_mead.bug_tracker.model.UserRole;
+import nathan_mead.bug_tracker.repository.UserRepository;
+import nathan_mead.bug_tracker.repository.UserRoleRepository;
+import nathan_mead.bug_tracker.security.PasswordHashingBusyException;
+import nathan_mead.bug_tracker.security.PasswordHashingExecutor;
+import nathan_mead.bug_tracker.security.UserDetailsCache;
+import jakarta.servlet.http.Cookie;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.http.MediaType;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+// Signs in through the real security filter chain: password checks on the hashing pool, the user cache and 429s
+@SpringBootTest(properties = {
+        "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.show-sql=false",
+        "defectrak.outbox.relay.enabled=false",
+        "defectrak.session.store=memory",
+        "defectrak.security.hashing.calibration-samples=0"
+})
+@AutoConfigureMockMvc
+@AutoConfigureTestDatabase
+public class LoginTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private UserRoleRepository userRoleRepository;
+
+    @Autowired
+    private UserDetailsCache userDetailsCache;
+
+    @SpyBean
+    private PasswordHashingExecutor passwordHashingExecutor;
+
+    @BeforeEach
+    public void setUp() {
+        UserRole role = userRoleRepository.save(new UserRole("general", "active"));
+        userRepository.save(new User("user@example.com", "Some", "User", passwordEncoder.encode("secret"), role));
+    }
+
+    @AfterEach
+    public void tearDown() {
+        userDetailsCache.removeAllUsersFromCache();
+        userRepository.deleteAll();
+        userRoleRepository.deleteAll();
+    }
+
+    @Test
+    public void testRepeatedLoginsUseCachedUser() throws Exception {
+        login("user@example.com", "secret").andExpect(status().isOk());
+
+        // The cached copy keeps its password after sign-in erased the authenticated one
+        assertNotNull(userDetailsCache.getUserFromCache("user@example.com").getPassword());
+
+        login("User@Example.com", "secret").andExpect(status().isOk());
+        verify(passwordHashingExecutor, times(2)).matches(any(), any());
+    }
+
+    @Test
+    public void testWrongPasswordIsRejected() throws Exception {
+        login("user@example.com", "secret").andExpect(status().isOk());
+
+        login("user@example.com", "wrong").andExpect(status().isUnauthorized());
+    }
+
+    @Test
+    public void testPasswordChangeEvictsCachedUser() throws Exception {
+        Cookie session = login("user@example.com", "secret")
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getCookie("SESSION");
+
+        mockMvc.perform(put("/api/me/password")
+                        .cookie(session)
+                        .contentType(MediaType.TEXT_PLAIN)
+                        .content("new-secret"))
+                .andExpect(status().isOk());
+
+        assertNull(userDetailsCache.getUserFromCache("user@example.com"));
+        login("user@example.com", "secret").andExpect(status().isUnauthorized());
+        login("user@example.com", "new-secret").andExpect(status().isOk());
+    }
+
+    @Test
+    public void testBusyHashingPoolAnswersTooManyRequests() throws Exception {
+        doThrow(new PasswordHashingBusyException("Too many sign-ins in progress"))
+                .when(passwordHashingExecutor).matches(any(), any());
+
+        login("user@example.com", "secret")
+                .andExpect(status().isTooManyRequests())
+                .andExpect(header().string("Retry-After", "1"));
+    }
+
+    private ResultActions login(String email, String password) throws Exception {
+        return mockMvc.perform(post("/api/login")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"email\": \"" + email + "\", \"password\": \"" + password + "\"}"));
+    }
+}
@@ -0,0 +1,157 @@
+package nathan_mead.bug_tracker.controller;
+
+import nathan_mead.bug_tracker.model.Priority;
+import nathan_mead.bug_tracker.model.User;
+import nathan_mead.bug_tracker.model.UserRole;
+import nathan_mead.bug_tracker.repository.PriorityRepository;
+import nathan_mead.bug_tracker.repository.UserRepository;
+import nathan_mead.bug_tracker.repository.UserRoleRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalManagementPort;
+import org.springframework.http.MediaType;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+// Scrapes /actuator/prometheus on the management port after real requests, with a replica configured so both kinds
+// of pool are seen. The replica URL names the same in-memory database as the primary.
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "spring.datasource.url=jdbc:h2:mem:metrics;DB_CLOSE_DELAY=-1",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.show-sql=false",
+        "defectrak.outbox.relay.enabled=false",
+        "defectrak.datasource.replica.urls=jdbc:h2:mem:metrics;DB_CLOSE_DELAY=-1",
+        "defectrak.datasource.replica.health-check-interval=PT1H",
+        "defectrak.session.store=memory",
+        "defectrak.security.hashing.calibration-samples=0"
+})
+@AutoConfigureMockMvc
+@AutoConfigureObservability(tracing = false)
+public class MetricsTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @LocalManagementPort
+    private int managementPort;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private UserRoleRepository userRoleRepository;
+
+    @Autowired
+    private PriorityRepository priorityRepository;
+
+    private Priority priority;
+
+    @BeforeEach
+    public void setUp() {
+        UserRole general = userRoleRepository.save(new UserRole("general", "active"));
+        userRepository.save(new User("user@example.com", "Some", "User", passwordEncoder.encode("secret"), general));
+        priority = priorityRepository.save(new Priority("high", "active"));
+    }
+
+    @AfterEach
+    public void tearDown() {
+        userRepository.deleteAll();
+        userRoleRepository.deleteAll();
+        priorityRepository.deleteAll();
+    }
+
+    @Test
+    public void testRequestsAreTaggedWithTheRouteTemplate() throws Exception {
+        mockMvc.perform(get("/api/priorities/" + priority.getId()).with(user("user@example.com")))
+                .andExpect(status().isOk());
+
+        List<String> scrape = scrape();
+        assertScraped(scrape, "http_server_requests_seconds_bucket",
+                "method=\"GET\"", "status=\"200\"", "uri=\"/api/priorities/{id}\"", "le=\"0.1\"");
+        assertTrue(scrape.stream().noneMatch(line -> line.contains("uri=\"/api/priorities/" + priority.getId())));
+    }
+
+    @Test
+    public void testRepositoryCallsAndPoolWaitsAreTimed() throws Exception {
+        mockMvc.perform(get("/api/priorities").with(user("admin@example.com").roles("ADMIN")))
+                .andExpect(status().isOk());
+
+        List<String> scrape = scrape();
+        assertScraped(scrape, "spring_data_repository_invocations_seconds_bucket",
+                "repository=\"PriorityRepository\"", "method=\"save\"", "state=\"SUCCESS\"");
+        assertScraped(scrape, "hikaricp_connections_acquire_seconds_bucket", "pool=\"primary\"");
+        assertScraped(scrape, "hikaricp_connections_acquire_seconds_bucket", "pool=\"replica-1\"");
+    }
+
+    @Test
+    public void testSignInIsTimedByOutcome() throws Exception {
+        login("secret").andExpect(status().isOk());
+        login("wrong").andExpect(status().isUnauthorized());
+
+        List<String> scrape = scrape();
+        assertScraped(scrape, "defectrak_login_seconds_count", "outcome=\"success\"");
+        assertScraped(scrape, "defectrak_login_seconds_count", "outcome=\"bad-credentials\"");
+        assertScraped(scrape, "executor_queued_tasks", "name=\"password-hashing\"");
+    }
+
+    @Test
+    public void testApplicationPortDoesNotServeTheScrape() throws Exception {
+        mockMvc.perform(get("/actuator/prometheus"))
+                .andExpect(status().isForbidden());
+    }
+
+    @Test
+    public void testOtherManagementEndpointsNeedASession() throws Exception {
+        HttpResponse<String> response = HttpClient.newHttpClient().send(
+                HttpRequest.newBuilder(URI.create("http://localhost:" + managementPort + "/actuator/caches")).build(),
+                HttpResponse.BodyHandlers.ofString());
+        assertEquals(403, response.statusCode());
+    }
+
+    // Open to the scraper without a session, on the management port
+    private List<String> scrape() throws Exception {
+        HttpResponse<String> response = HttpClient.newHttpClient().send(
+                HttpRequest.newBuilder(URI.create("http://localhost:" + managementPort + "/actuator/prometheus")).build(),
+                HttpResponse.BodyHandlers.ofString());
+        assertEquals(200, response.statusCode());
+        return Arrays.asList(response.body().split("\n"));
+    }
+
+    private ResultActions login(String password) throws Exception {
+        return mockMvc.perform(post("/api/login")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"email\": \"user@example.com\", \"password\": \"" + password + "\"}"));
+    }
+
+    private static void assertScraped(List<String> scrape, String metric, String... labels) {
+        boolean found = scrape.stream()
+                .filter(line -> line.startsWith(metric + "{"))
+                .anyMatch(line -> Arrays.stream(labels).allMatch(line::contains));
+        assertTrue(found, metric + " with " + String.join(", ", labels) + " not scraped");
+    }
+}
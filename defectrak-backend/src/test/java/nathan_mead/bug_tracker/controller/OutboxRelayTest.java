@@ -0,0 +1,400 @@
+package nathan_mead.bug_tracker.controller;
+
+import nathan_mead.bug_tracker.model.*;
+import nathan_mead.bug_tracker.repository.*;
+import nathan_mead.bug_tracker.service.OutboxRelay;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.rabbit.connection.CorrelationData;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.rabbit.stream.producer.RabbitStreamTemplate;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.data.domain.Sort;
+import org.springframework.http.MediaType;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
+
+// Writes go through the controllers into an in-memory database; the broker is a mock RabbitTemplate that
+// confirms or rejects each message, standing in for publisher confirms
+@SpringBootTest(properties = {
+        "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.show-sql=false",
+        "defectrak.outbox.relay.enabled=false",
+        "defectrak.session.store=memory"
+})
+@AutoConfigureMockMvc
+@AutoConfigureTestDatabase
+public class OutboxRelayTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private OutboxRelay outboxRelay;
+
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
+
+    @Autowired
+    private BugRepository bugRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private UserRoleRepository userRoleRepository;
+
+    @Autowired
+    private StatusRepository statusRepository;
+
+    @Autowired
+    private PriorityRepository priorityRepository;
+
+    @MockBean
+    private RabbitTemplate rabbitTemplate;
+
+    @MockBean
+    private RabbitStreamTemplate bugEventStreamTemplate;
+
+    private UserRole role;
+    private Priority priority;
+    private Status status;
+    private User user;
+
+    @BeforeEach
+    public void setUp() {
+        streamStores(true);
+        role = userRoleRepository.save(new UserRole("general", "active"));
+        priority = priorityRepository.save(new Priority("low", "active"));
+        status = statusRepository.save(new Status("open", "active"));
+        user = userRepository.save(new User("outbox@example.com", "Outbox", "User", "password", role));
+    }
+
+    @AfterEach
+    public void tearDown() {
+        outboxEventRepository.deleteAll();
+        bugRepository.deleteAll();
+        userRepository.deleteAll();
+        userRoleRepository.deleteAll();
+        statusRepository.deleteAll();
+        priorityRepository.deleteAll();
+    }
+
+    // Helper to make the mock broker answer every publish with the given confirm
+    private void brokerConfirms(boolean ack) {
+        doAnswer(invocation -> {
+            CorrelationData correlation = invocation.getArgument(3);
+            correlation.getFuture().complete(new CorrelationData.Confirm(ack, ack ? null : "rejected"));
+            return null;
+        }).when(rabbitTemplate).send(anyString(), anyString(), any(Message.class), any(CorrelationData.class));
+    }
+
+    // Helper to make the mock stream answer every append with the given outcome
+    private void streamStores(boolean stored) {
+        when(bugEventStreamTemplate.send(any(Message.class))).thenAnswer(invocation -> stored
+                ? CompletableFuture.completedFuture(true)
+                : CompletableFuture.failedFuture(new IllegalStateException("stream unavailable")));
+    }
+
+    private void createBug(String title, Long statusId) throws Exception {
+        mockMvc.perform(post("/api/bugs")
+                .with(csrf())
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("""
+                {
+                    "title": "%s",
+                    "description": "This bug goes through the outbox.",
+                    "priorityId": %d,
+                    "statusId": %d,
+                    "createdByUserId": %d
+                }
+                """.formatted(title, priority.getId(), statusId, user.getId())));
+    }
+
+    @WithMockUser(username = "user@example.com", roles = {"GENERAL"})
+    @Test
+    public void testCreateWritesOutboxRowOnlyWhenItSucceeds() throws Exception {
+        createBug("Outbox Bug", status.getId());
+        createBug("Rejected Bug", -1L);
+
+        List<OutboxEvent> events = outboxEventRepository.findAll();
+        assertEquals(1, events.size());
+        assertEquals("bug.created", events.get(0).getEventType());
+        assertEquals(bugRepository.findAll().get(0).getId(), events.get(0).getAggregateId());
+        assertTrue(events.get(0).getPayload().contains("\"title\":\"Outbox Bug\""));
+    }
+
+    @WithMockUser(username = "user@example.com", roles = {"GENERAL"})
+    @Test
+    public void testBatchCreateWritesOneOutboxRowPerBug() throws Exception {
+        mockMvc.perform(post("/api/bugs/batch")
+                        .with(csrf())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("""
+                        [
+                            {"title": "First", "description": "First.", "priorityId": %1$d, "statusId": %2$d,
+                             "createdByUserId": %3$d},
+                            {"title": "Second", "description": "Second.", "priorityId": %1$d, "statusId": %2$d,
+                             "createdByUserId": %3$d}
+                        ]
+                        """.formatted(priority.getId(), status.getId(), user.getId())))
+                .andExpect(status().isOk());
+
+        List<OutboxEvent> events = outboxEventRepository.findAll(Sort.by("id"));
+        List<Bug> bugs = bugRepository.findAll(Sort.by("id"));
+        assertEquals(2, events.size());
+        for (int i = 0; i < 2; i++) {
+            assertEquals("bug.created", events.get(i).getEventType());
+            assertEquals(bugs.get(i).getId(), events.get(i).getAggregateId());
+            assertTrue(events.get(i).getPayload().contains("\"id\":" + bugs.get(i).getId()));
+        }
+        assertTrue(events.get(1).getPayload().contains("\"title\":\"Second\""));
+    }
+
+    @WithMockUser(username = "user@example.com", roles = {"GENERAL"})
+    @Test
+    public void testBulkUpdateWritesOneOutboxRowPerChangedBug() throws Exception {
+        Status closed = statusRepository.save(new Status("closed", "active"));
+        createBug("Open", status.getId());
+        createBug("Already Closed", closed.getId());
+        Long openId = bugRepository.findAll().stream()
+                .filter(bug -> bug.getTitle().equals("Open")).findFirst().orElseThrow().getId();
+        outboxEventRepository.deleteAll();
+
+        mockMvc.perform(patch("/api/bugs")
+                        .with(csrf())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("""
+                        {"filter": {"statusId": [%d, %d]}, "statusId": %d}
+                        """.formatted(status.getId(), closed.getId(), closed.getId())))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.updated").value(2));
+
+        // The bug that was already closed did not change, so only the other one has an event
+        List<OutboxEvent> events = outboxEventRepository.findAll();
+        assertEquals(1, events.size());
+        assertEquals("bug.updated", events.get(0).getEventType());
+        assertEquals(openId, events.get(0).getAggregateId());
+        assertTrue(events.get(0).getPayload().contains("\"statusId\":" + closed.getId()));
+        assertTrue(events.get(0).getPayload().contains("\"field\":\"status\",\"oldValue\":\""
+                + status.getId() + "\",\"newValue\":\"" + closed.getId() + "\""));
+    }
+
+    @WithMockUser(username = "user@example.com", roles = {"GENERAL"})
+    @Test
+    public void testUserEventsLeaveOutThePassword() throws Exception {
+        mockMvc.perform(post("/api/users/register")
+                        .with(csrf())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("""
+                        {"email": "new@example.com", "firstName": "New", "lastName": "User",
+                         "password": "secret", "status": "active", "userRoleId": %d}
+                        """.formatted(role.getId())))
+                .andExpect(status().isCreated());
+
+        List<OutboxEvent> events = outboxEventRepository.findAll();
+        assertEquals(1, events.size());
+        assertEquals("user.created", events.get(0).getEventType());
+        assertTrue(events.get(0).getPayload().contains("\"email\":\"new@example.com\""));
+        assertFalse(events.get(0).getPayload().contains("password"));
+    }
+
+    @WithMockUser(username = "user@example.com", roles = {"GENERAL"})
+    @Test
+    public void testRelayDeletesConfirmedEvents() throws Exception {
+        createBug("First", status.getId());
+        createBug("Second", status.getId());
+        brokerConfirms(true);
+
+        assertEquals(2, outboxRelay.relayBatch());
+
+        ArgumentCaptor<Message> messages = ArgumentCaptor.forClass(Message.class);
+        verify(rabbitTemplate, times(2)).send(eq("defectrak.events"), eq("bug.created"), messages.capture(),
+                any(CorrelationData.class));
+        assertTrue(new String(messages.getAllValues().get(0).getBody()).contains("\"title\":\"First\""));
+        assertEquals(0, outboxEventRepository.count());
+    }
+
+    @WithMockUser(username = "user@example.com", roles = {"GENERAL"})
+    @Test
+    public void testRelayKeepsRejectedEventsForRetry() throws Exception {
+        createBug("Rejected", status.getId());
+        Long eventId = outboxEventRepository.findAll().get(0).getId();
+        brokerConfirms(false);
+
+        // Only the log confirmed, so the row stays for the exchange
+        assertEquals(1, outboxRelay.relayBatch());
+        assertEquals(1, outboxEventRepository.count());
+
+        // The retry carries the same message id, so consumers can drop a duplicate
+        brokerConfirms(true);
+        assertEquals(1, outboxRelay.relayBatch());
+        assertEquals(0, outboxEventRepository.count());
+
+        ArgumentCaptor<Message> messages = ArgumentCaptor.forClass(Message.class);
+        verify(rabbitTemplate, times(2)).send(anyString(), anyString(), messages.capture(), any(CorrelationData.class));
+        messages.getAllValues().forEach(message ->
+                assertEquals(String.valueOf(eventId), message.getMessageProperties().getMessageId()));
+    }
+
+    @WithMockUser(username = "user@example.com", roles = {"GENERAL"})
+    @Test
+    public void testRelayAppendsBugEventsToTheLog() throws Exception {
+        createBug("Logged", status.getId());
+        brokerConfirms(true);
+
+        assertEquals(1, outboxRelay.relayBatch());
+
+        ArgumentCaptor<Message> logged = ArgumentCaptor.forClass(Message.class);
+        verify(bugEventStreamTemplate).send(logged.capture());
+        assertEquals("bug.created", logged.getValue().getMessageProperties().getType());
+        assertTrue(new String(logged.getValue().getBody()).contains("\"title\":\"Logged\""));
+    }
+
+    @WithMockUser(username = "user@example.com", roles = {"GENERAL"})
+    @Test
+    public void testBulkWritesAppendOneReplayableEventPerBugToTheLog() throws Exception {
+        Status closed = statusRepository.save(new Status("closed", "active"));
+        mockMvc.perform(post("/api/bugs/batch")
+                        .with(csrf())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("""
+                        [
+                            {"title": "First", "description": "First.", "priorityId": %1$d, "statusId": %2$d,
+                             "createdByUserId": %3$d},
+                            {"title": "Second", "description": "Second.", "priorityId": %1$d, "statusId": %2$d,
+                             "createdByUserId": %3$d}
+                        ]
+                        """.formatted(priority.getId(), status.getId(), user.getId())))
+                .andExpect(status().isOk());
+        mockMvc.perform(patch("/api/bugs")
+                        .with(csrf())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("""
+                        {"filter": {"statusId": [%d]}, "statusId": %d}
+                        """.formatted(status.getId(), closed.getId())))
+                .andExpect(status().isOk());
+        brokerConfirms(true);
+
+        assertEquals(4, outboxRelay.relayBatch());
+
+        // Every appended event names its bug and carries the bug's whole state, so the log alone rebuilds it
+        ArgumentCaptor<Message> logged = ArgumentCaptor.forClass(Message.class);
+        verify(bugEventStreamTemplate, times(4)).send(logged.capture());
+        List<Bug> bugs = bugRepository.findAll(Sort.by("id"));
+        List<String> types = logged.getAllValues().stream().map(message -> message.getMessageProperties().getType()).toList();
+        assertEquals(List.of("bug.created", "bug.created", "bug.updated", "bug.updated"), types);
+        for (int i = 0; i < 4; i++) {
+            Message message = logged.getAllValues().get(i);
+            Bug bug = bugs.get(i % 2);
+            String payload = new String(message.getBody());
+            assertEquals(bug.getId(), message.getMessageProperties().getHeader("aggregateId"));
+            assertTrue(payload.contains("\"title\":\"" + bug.getTitle() + "\""));
+            assertTrue(payload.contains("\"statusId\":" + (i < 2 ? status.getId() : closed.getId())));
+        }
+    }
+
+    @WithMockUser(username = "user@example.com", roles = {"GENERAL"})
+    @Test
+    public void testRelayKeepsBugEventsTheLogDidNotStore() throws Exception {
+        createBug("Unlogged", status.getId());
+        brokerConfirms(true);
+        streamStores(false);
+
+        // The exchange confirmed, so the row is marked published but stays until the log has it too
+        assertEquals(1, outboxRelay.relayBatch());
+        OutboxEvent pending = outboxEventRepository.findAll().get(0);
+        assertNotNull(pending.getPublishedAt());
+        assertNull(pending.getStreamedAt());
+
+        // While the stream is down only the append is retried; the exchange does not get a duplicate
+        assertEquals(0, outboxRelay.relayBatch());
+        verify(rabbitTemplate, times(1)).send(anyString(), anyString(), any(Message.class), any(CorrelationData.class));
+
+        streamStores(true);
+        assertEquals(1, outboxRelay.relayBatch());
+        assertEquals(0, outboxEventRepository.count());
+        verify(rabbitTemplate, times(1)).send(anyString(), anyString(), any(Message.class), any(CorrelationData.class));
+        verify(bugEventStreamTemplate, times(3)).send(any(Message.class));
+    }
+
+    @WithMockUser(username = "user@example.com", roles = {"GENERAL"})
+    @Test
+    public void testRelayDoesNotAppendAgainWhenOnlyTheExchangeFailed() throws Exception {
+        createBug("Unpublished", status.getId());
+        brokerConfirms(false);
+
+        // The log stored the event, so only the exchange is retried and the log keeps a single copy
+        assertEquals(1, outboxRelay.relayBatch());
+        assertNotNull(outboxEventRepository.findAll().get(0).getStreamedAt());
+
+        brokerConfirms(true);
+        assertEquals(1, outboxRelay.relayBatch());
+        assertEquals(0, outboxEventRepository.count());
+        verify(bugEventStreamTemplate, times(1)).send(any(Message.class));
+        verify(rabbitTemplate, times(2)).send(anyString(), anyString(), any(Message.class), any(CorrelationData.class));
+    }
+
+    @WithMockUser(username = "user@example.com", roles = {"GENERAL"})
+    @Test
+    public void testRelayRetriesTheLogFromTheFirstFailedAppend() throws Exception {
+        createBug("First", status.getId());
+        createBug("Second", status.getId());
+        brokerConfirms(true);
+        when(bugEventStreamTemplate.send(any(Message.class)))
+                .thenReturn(CompletableFuture.failedFuture(new IllegalStateException("stream unavailable")))
+                .thenReturn(CompletableFuture.completedFuture(true));
+
+        // The second append was stored, but it comes after one that failed, so both stay unstreamed
+        assertEquals(2, outboxRelay.relayBatch());
+        assertTrue(outboxEventRepository.findAll().stream().allMatch(event -> event.getStreamedAt() == null));
+
+        streamStores(true);
+        assertEquals(2, outboxRelay.relayBatch());
+        assertEquals(0, outboxEventRepository.count());
+    }
+
+    @WithMockUser(username = "admin@example.com", roles = {"ADMIN"})
+    @Test
+    public void testUserEventsAreNotLogged() throws Exception {
+        mockMvc.perform(put("/api/users/" + user.getId())
+                        .with(csrf())
+                        .contentType(MediaType.TEXT_PLAIN)
+                        .content("inactive"))
+                .andExpect(status().isOk());
+        brokerConfirms(true);
+
+        assertEquals(1, outboxRelay.relayBatch());
+        verify(rabbitTemplate).send(eq("defectrak.events"), eq("user.updated"), any(Message.class),
+                any(CorrelationData.class));
+        verify(bugEventStreamTemplate, never()).send(any(Message.class));
+    }
+}
@@ -3,10 +3,12 @@ package nathan_mead.bug_tracker.controller;
 import nathan_mead.bug_tracker.model.Priority;
 import nathan_mead.bug_tracker.model.UserRole;
 import nathan_mead.bug_tracker.model.User;
+import nathan_mead.bug_tracker.repository.StatusRepository;
 import nathan_mead.bug_tracker.repository.PriorityRepository;
 import nathan_mead.bug_tracker.repository.UserRoleRepository;
 import nathan_mead.bug_tracker.repository.UserRepository;
 import nathan_mead.bug_tracker.config.SecurityConfig;
+import nathan_mead.bug_tracker.service.ReferenceDataCache;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mockito;
@@ -31,7 +33,7 @@ import static org.springframework.security.test.web.servlet.request.SecurityMock
 
 @AutoConfigureMockMvc(addFilters = true)
 @WebMvcTest(PriorityController.class)
-@Import(SecurityConfig.class)
+@Import({SecurityConfig.class, ReferenceDataCache.class})
 public class PriorityControllerTest {
 
     @Autowired
@@ -49,6 +51,9 @@ public class PriorityControllerTest {
     @MockBean
     private PasswordEncoder passwordEncoder;
 
+    @MockBean
+    private StatusRepository statusRepository;
+
     private Priority createDummyPriority(Long id, String level) {
         return createDummyPriority(id, level, "active");
     }
@@ -188,6 +193,53 @@ public class PriorityControllerTest {
                 .andExpect(status().isForbidden());
     }
 
+    @WithMockUser(username = "user@example.com", roles = {"ADMIN"})
+    @Test
+    public void testCreatePriority_WithoutSortOrderRanksLast() throws Exception {
+        // Arrange: three priorities are already ranked, so the next free rank is 4.
+        Mockito.when(priorityRepository.findNextSortOrder()).thenReturn(4);
+        Mockito.when(priorityRepository.save(Mockito.any(Priority.class)))
+                .thenAnswer(invocation -> invocation.getArgument(0));
+
+        // Act & Assert: a body without sortOrder is saved after every existing priority.
+        mockMvc.perform(post("/api/priorities")
+                        .with(csrf())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("""
+                        {
+                        "level":"critical",
+                        "status":"active"
+                        }
+                        """))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.sortOrder").value(4));
+    }
+
+    @WithMockUser(username = "user@example.com", roles = {"ADMIN"})
+    @Test
+    public void testUpdatePriority_WithoutSortOrderKeepsRank() throws Exception {
+        // Arrange: an existing priority ranked 2.
+        Priority existingPriority = new Priority("medium", "active", 2);
+        ReflectionTestUtils.setField(existingPriority, "id", 1L);
+        Mockito.when(priorityRepository.findById(1L)).thenReturn(Optional.of(existingPriority));
+        Mockito.when(priorityRepository.save(Mockito.any(Priority.class)))
+                .thenAnswer(invocation -> invocation.getArgument(0));
+
+        // Act & Assert: an update that leaves out sortOrder keeps the rank it had.
+        mockMvc.perform(put("/api/priorities/1")
+                        .with(csrf())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("""
+                        {
+                        "level":"medium","status":"disabled"
+                        }
+                        """))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.status").value("disabled"))
+                .andExpect(jsonPath("$.sortOrder").value(2));
+        Mockito.verify(priorityRepository, Mockito.never()).findNextSortOrder();
+    }
+
     @WithMockUser(username = "user@example.com", roles = {"ADMIN"})
     @Test
     public void testUpdatePriority_Found() throws Exception {
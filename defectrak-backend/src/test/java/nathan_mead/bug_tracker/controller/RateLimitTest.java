@@ -0,0 +1,82 @@
+package nathan_mead.bug_tracker.controller;
+
+import nathan_mead.bug_tracker.config.SecurityConfig;
+import nathan_mead.bug_tracker.repository.UserRepository;
+import nathan_mead.bug_tracker.service.CurrentUserCache;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+// The rate-limit filter in the real security chain, with a tight limit on the session check endpoint
+@AutoConfigureMockMvc(addFilters = true)
+@WebMvcTest(controllers = AccountController.class, properties = {
+        "defectrak.rate-limit.routes[0].method=GET",
+        "defectrak.rate-limit.routes[0].path=/api/auth/check",
+        "defectrak.rate-limit.routes[0].requests=2",
+        "defectrak.rate-limit.routes[0].period=PT1M",
+        "defectrak.rate-limit.routes[0].burst=2"
+})
+@Import(SecurityConfig.class)
+public class RateLimitTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private UserRepository userRepository;
+
+    @MockBean
+    private PasswordEncoder passwordEncoder;
+
+    @MockBean
+    private CurrentUserCache currentUserCache;
+
+    @Test
+    public void testRequestsOverTheLimitGetRetryAfter() throws Exception {
+        for (int i = 0; i < 2; i++) {
+            mockMvc.perform(get("/api/auth/check").with(user("first@example.com")))
+                    .andExpect(status().isNoContent());
+        }
+
+        mockMvc.perform(get("/api/auth/check").with(user("first@example.com")))
+                .andExpect(status().isTooManyRequests())
+                .andExpect(header().string("Retry-After", "30"));
+
+        // Other users and other routes keep their own buckets
+        mockMvc.perform(get("/api/auth/check").with(user("second@example.com")))
+                .andExpect(status().isNoContent());
+        mockMvc.perform(get("/api/me").with(user("first@example.com")))
+                .andExpect(status().isNoContent());
+    }
+
+    @Test
+    public void testAnonymousClientsAreLimitedByAddress() throws Exception {
+        for (int i = 0; i < 2; i++) {
+            mockMvc.perform(get("/api/auth/check").with(request -> {
+                        request.setRemoteAddr("10.0.0.1");
+                        return request;
+                    }))
+                    .andExpect(status().isForbidden());
+        }
+
+        mockMvc.perform(get("/api/auth/check").with(request -> {
+                    request.setRemoteAddr("10.0.0.1");
+                    return request;
+                }))
+                .andExpect(status().isTooManyRequests());
+        mockMvc.perform(get("/api/auth/check").with(request -> {
+                    request.setRemoteAddr("10.0.0.2");
+                    return request;
+                }))
+                .andExpect(status().isForbidden());
+    }
+}
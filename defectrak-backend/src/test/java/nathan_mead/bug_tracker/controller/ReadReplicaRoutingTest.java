@@ -0,0 +1,121 @@
+package nathan_mead.bug_tracker.controller;
+
+import nathan_mead.bug_tracker.config.ReplicaRoutingDataSource;
+import jakarta.servlet.http.Cookie;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+// Boots the application with a replica configured. The replica URL names the same in-memory database as the
+// primary, so both see the same rows while the router records which requests were offered to a replica.
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:replica-routing;DB_CLOSE_DELAY=-1",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.show-sql=false",
+        "defectrak.outbox.relay.enabled=false",
+        "defectrak.datasource.replica.urls=jdbc:h2:mem:replica-routing;DB_CLOSE_DELAY=-1",
+        "defectrak.datasource.replica.health-check-interval=PT1H",
+        "defectrak.session.store=memory"
+})
+@AutoConfigureMockMvc
+@WithMockUser(username = "admin@example.com", roles = {"ADMIN"})
+public class ReadReplicaRoutingTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @SpyBean
+    private ReplicaRoutingDataSource replicaRoutingDataSource;
+
+    // Whether the request was pinned to the primary, once per connection the router handed out
+    private final List<Boolean> routedReads = new CopyOnWriteArrayList<>();
+
+    @BeforeEach
+    public void setUp() throws Exception {
+        Mockito.doAnswer(invocation -> {
+            routedReads.add(ReplicaRoutingDataSource.isPinnedToPrimary());
+            return invocation.callRealMethod();
+        }).when(replicaRoutingDataSource).getConnection();
+    }
+
+    @Test
+    public void testReadOnlyRequestsUseTheRouterAndWritesDoNot() throws Exception {
+        assertTrue(dataSource.isWrapperFor(LazyConnectionDataSourceProxy.class));
+
+        mockMvc.perform(get("/api/priorities"))
+                .andExpect(status().isOk());
+        assertEquals(List.of(false), routedReads);
+
+        routedReads.clear();
+        mockMvc.perform(post("/api/priorities")
+                        .with(csrf())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"level\": \"urgent\", \"status\": \"active\"}"))
+                .andExpect(status().isCreated());
+        assertEquals(List.of(), routedReads);
+    }
+
+    @Test
+    public void testClientReadsFromPrimaryRightAfterWriting() throws Exception {
+        Cookie pin = mockMvc.perform(post("/api/statuses")
+                        .with(csrf())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"statusLabel\": \"triage\", \"status\": \"active\"}"))
+                .andExpect(status().isCreated())
+                .andExpect(cookie().httpOnly("PRIMARY_UNTIL", true))
+                .andReturn().getResponse().getCookie("PRIMARY_UNTIL");
+        assertNotNull(pin);
+
+        mockMvc.perform(get("/api/statuses").cookie(pin))
+                .andExpect(status().isOk());
+        // Another client is not affected
+        mockMvc.perform(get("/api/statuses"))
+                .andExpect(status().isOk());
+
+        assertEquals(List.of(true, false), routedReads);
+    }
+
+    @Test
+    public void testFailedWriteDoesNotPin() throws Exception {
+        mockMvc.perform(post("/api/statuses")
+                        .with(csrf())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"statusLabel\": \"\", \"status\": \"active\"}"))
+                .andExpect(status().isBadRequest())
+                .andExpect(cookie().doesNotExist("PRIMARY_UNTIL"));
+    }
+
+    @Test
+    public void testDeadlineBeyondOneWindowIsIgnored() throws Exception {
+        long tomorrow = System.currentTimeMillis() + Duration.ofDays(1).toMillis();
+        mockMvc.perform(get("/api/statuses").cookie(new Cookie("PRIMARY_UNTIL", String.valueOf(tomorrow))))
+                .andExpect(status().isOk());
+
+        assertEquals(List.of(false), routedReads);
+    }
+}
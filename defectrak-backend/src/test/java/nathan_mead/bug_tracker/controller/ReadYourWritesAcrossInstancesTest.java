@@ -0,0 +1,188 @@
+package nathan_mead.bug_tracker.controller;
+
+import nathan_mead.bug_tracker.BugTrackerApplication;
+import nathan_mead.bug_tracker.config.ReplicaRoutingDataSource;
+import nathan_mead.bug_tracker.model.User;
+import nathan_mead.bug_tracker.model.UserRole;
+import nathan_mead.bug_tracker.repository.StatusRepository;
+import nathan_mead.bug_tracker.repository.UserRepository;
+import nathan_mead.bug_tracker.repository.UserRoleRepository;
+import jakarta.servlet.http.Cookie;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.beans.BeansException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+// Two backend instances share one in-memory database, which also stands in for the replica, and keep sessions in
+// its spring_session tables behind their own session caches. A user writes through the first instance and reads
+// through the second, which already holds a cached copy of the session from before the write.
+@SpringBootTest(properties = {
+        ReadYourWritesAcrossInstancesTest.DATABASE_URL,
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.show-sql=false",
+        "spring.session.jdbc.initialize-schema=embedded",
+        "defectrak.session.store=jdbc",
+        "defectrak.session.cache-ttl=PT1M",
+        "defectrak.outbox.relay.enabled=false",
+        ReadYourWritesAcrossInstancesTest.REPLICA_URLS,
+        "defectrak.datasource.replica.health-check-interval=PT1H"
+})
+@AutoConfigureMockMvc
+public class ReadYourWritesAcrossInstancesTest {
+
+    static final String DATABASE_URL = "spring.datasource.url=jdbc:h2:mem:read-your-writes;DB_CLOSE_DELAY=-1";
+    static final String REPLICA_URLS = "defectrak.datasource.replica.urls=jdbc:h2:mem:read-your-writes;DB_CLOSE_DELAY=-1";
+
+    @Autowired
+    private MockMvc firstInstance;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private UserRoleRepository userRoleRepository;
+
+    @Autowired
+    private StatusRepository statusRepository;
+
+    // The second instance is a real server, so requests to it go through its whole filter chain
+    private ConfigurableApplicationContext secondContext;
+    private URI secondInstance;
+
+    // Whether the second instance's request was pinned to the primary, once per connection its router handed out
+    private final List<Boolean> secondInstanceReads = new CopyOnWriteArrayList<>();
+
+    @BeforeEach
+    public void setUp() {
+        UserRole role = userRoleRepository.save(new UserRole("admin", "active"));
+        userRepository.save(new User("admin@example.com", "Some", "Admin", passwordEncoder.encode("secret"), role));
+
+        // The schema belongs to the first instance; the second one only connects to it. Arguments, since they
+        // override application.properties where builder properties would not.
+        secondContext = new SpringApplicationBuilder(BugTrackerApplication.class)
+                .web(WebApplicationType.SERVLET)
+                .initializers(context -> context.getBeanFactory().addBeanPostProcessor(new BeanPostProcessor() {
+                    @Override
+                    public Object postProcessAfterInitialization(Object bean, String beanName) throws BeansException {
+                        if (!(bean instanceof ReplicaRoutingDataSource)) {
+                            return bean;
+                        }
+                        ReplicaRoutingDataSource spy = Mockito.spy((ReplicaRoutingDataSource) bean);
+                        try {
+                            Mockito.doAnswer(invocation -> {
+                                secondInstanceReads.add(ReplicaRoutingDataSource.isPinnedToPrimary());
+                                return invocation.callRealMethod();
+                            }).when(spy).getConnection();
+                        } catch (Exception e) {
+                            throw new IllegalStateException(e);
+                        }
+                        return spy;
+                    }
+                }))
+                .run(
+                        "--" + DATABASE_URL,
+                        "--spring.datasource.username=sa",
+                        "--spring.datasource.password=",
+                        "--spring.datasource.driver-class-name=org.h2.Driver",
+                        "--spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+                        "--spring.jpa.hibernate.ddl-auto=none",
+                        "--spring.jpa.show-sql=false",
+                        "--spring.session.jdbc.initialize-schema=never",
+                        "--defectrak.session.store=jdbc",
+                        "--defectrak.session.cache-ttl=PT1M",
+                        "--defectrak.outbox.relay.enabled=false",
+                        "--" + REPLICA_URLS,
+                        "--defectrak.datasource.replica.health-check-interval=PT1H",
+                        "--server.port=0",
+                        "--management.server.port=0");
+        secondInstance = URI.create("http://localhost:" + secondContext.getEnvironment().getProperty("local.server.port"));
+    }
+
+    @AfterEach
+    public void tearDown() {
+        secondContext.close();
+        jdbcTemplate.update("DELETE FROM SPRING_SESSION");
+        statusRepository.deleteAll();
+        userRepository.deleteAll();
+        userRoleRepository.deleteAll();
+    }
+
+    @Test
+    public void testReadOnAnotherInstanceRightAfterWritingUsesPrimary() throws Exception {
+        Cookie session = firstInstance.perform(post("/api/login")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"email\": \"admin@example.com\", \"password\": \"secret\"}"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getCookie("SESSION");
+        assertNotNull(session);
+
+        // The second instance caches the session as it is before the write
+        assertEquals(200, getStatuses(session).statusCode());
+        assertEquals(List.of(false), secondInstanceReads);
+
+        Cookie pin = firstInstance.perform(post("/api/statuses")
+                        .cookie(session)
+                        .with(csrf())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"statusLabel\": \"triage\", \"status\": \"active\"}"))
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getCookie("PRIMARY_UNTIL");
+        assertNotNull(pin);
+
+        secondInstanceReads.clear();
+        HttpResponse<String> statuses = getStatuses(session, pin);
+        assertEquals(200, statuses.statusCode());
+        assertTrue(statuses.body().contains("\"statusLabel\":\"triage\""));
+        assertEquals(List.of(true), secondInstanceReads);
+    }
+
+    // Helper to list statuses on the second instance with the given cookies
+    private HttpResponse<String> getStatuses(Cookie... cookies) throws Exception {
+        String cookieHeader = Arrays.stream(cookies)
+                .map(cookie -> cookie.getName() + "=" + cookie.getValue())
+                .collect(Collectors.joining("; "));
+        HttpRequest request = HttpRequest.newBuilder(secondInstance.resolve("/api/statuses"))
+                .header("Cookie", cookieHeader)
+                .GET()
+                .build();
+        try (HttpClient client = HttpClient.newHttpClient()) {
+            return client.send(request, HttpResponse.BodyHandlers.ofString());
+        }
+    }
+}
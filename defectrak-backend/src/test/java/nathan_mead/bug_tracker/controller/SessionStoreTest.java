@@ -0,0 +1,118 @@
+package nathan_mead.bug_tracker.controller;
+
+import nathan_mead.bug_tracker.model.User;
+import nathan_mead.bug_tracker.model.UserRole;
+import nathan_mead.bug_tracker.repository.UserRepository;
+import nathan_mead.bug_tracker.repository.UserRoleRepository;
+import jakarta.servlet.http.Cookie;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+// Signs in through the real security filter chain and checks what reaches the spring_session tables
+@SpringBootTest(properties = {
+        "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.show-sql=false",
+        "defectrak.outbox.relay.enabled=false",
+        "defectrak.session.store=jdbc",
+        "spring.session.jdbc.initialize-schema=embedded"
+})
+@AutoConfigureMockMvc
+@AutoConfigureTestDatabase
+public class SessionStoreTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private UserRoleRepository userRoleRepository;
+
+    @BeforeEach
+    public void setUp() {
+        UserRole role = userRoleRepository.save(new UserRole("general", "active"));
+        userRepository.save(new User("user@example.com", "Some", "User", passwordEncoder.encode("secret"), role));
+    }
+
+    @AfterEach
+    public void tearDown() {
+        jdbcTemplate.update("DELETE FROM SPRING_SESSION");
+        userRepository.deleteAll();
+        userRoleRepository.deleteAll();
+    }
+
+    @Test
+    public void testSignedInSessionIsStoredAndReused() throws Exception {
+        Cookie session = login();
+
+        assertEquals(1, countSessions());
+        assertEquals(1, jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM SPRING_SESSION WHERE PRINCIPAL_NAME = 'user@example.com'", Integer.class));
+        long lastAccess = lastAccessTime();
+
+        for (int i = 0; i < 3; i++) {
+            mockMvc.perform(get("/api/auth/check").cookie(session))
+                    .andExpect(status().isNoContent());
+        }
+
+        // Requests within the touch interval leave the stored row alone
+        assertEquals(lastAccess, lastAccessTime());
+    }
+
+    @Test
+    public void testLogoutDeletesStoredSession() throws Exception {
+        Cookie session = login();
+
+        mockMvc.perform(post("/api/logout").cookie(session))
+                .andExpect(status().isOk());
+
+        assertEquals(0, countSessions());
+        mockMvc.perform(get("/api/auth/check").cookie(session))
+                .andExpect(status().isForbidden());
+    }
+
+    @Test
+    public void testUnknownSessionIsRejected() throws Exception {
+        mockMvc.perform(get("/api/auth/check").cookie(new Cookie("SESSION", "bm8tc3VjaC1zZXNzaW9u")))
+                .andExpect(status().isForbidden());
+    }
+
+    private Cookie login() throws Exception {
+        Cookie session = mockMvc.perform(post("/api/login")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"email\": \"user@example.com\", \"password\": \"secret\"}"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getCookie("SESSION");
+        assertNotNull(session);
+        return session;
+    }
+
+    private int countSessions() {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM SPRING_SESSION", Integer.class);
+    }
+
+    private long lastAccessTime() {
+        return jdbcTemplate.queryForObject("SELECT LAST_ACCESS_TIME FROM SPRING_SESSION", Long.class);
+    }
+}
@@ -0,0 +1,307 @@
+package nathan_mead.bug_tracker.controller;
+
+import nathan_mead.bug_tracker.config.StatementBudget;
+import nathan_mead.bug_tracker.config.StatementBudgetInterceptor;
+import nathan_mead.bug_tracker.dto.BugImportJob;
+import nathan_mead.bug_tracker.model.*;
+import nathan_mead.bug_tracker.repository.*;
+import nathan_mead.bug_tracker.service.BugEventLog;
+import nathan_mead.bug_tracker.service.BugImportService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentMatchers;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.cache.CacheManager;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.ResultMatcher;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerMapping;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.lang.reflect.Method;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+// Calls every endpoint of the bug, user and lookup controllers with several related rows in place and caches cold,
+// with fail-fast on, so any endpoint running more statements than its @StatementBudget fails here. Each test also
+// checks that every handler of its controller declares a budget and was called, apart from the listed
+// PostgreSQL-only ones. Event log and import are mocked: they run no SQL on the request thread.
+@SpringBootTest(properties = {
+        "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.show-sql=false",
+        "defectrak.outbox.relay.enabled=false",
+        "defectrak.history.flush-interval-ms=3600000",
+        "defectrak.session.store=memory",
+        "defectrak.statement-budget.fail-fast=true"
+})
+@AutoConfigureMockMvc
+@AutoConfigureTestDatabase
+@WithMockUser(username = "admin@example.com", roles = {"ADMIN"})
+public class StatementBudgetTest {
+
+    // Native queries that H2 cannot run; their budgets are declared but not exercised here
+    private static final Set<String> POSTGRESQL_ONLY = Set.of("BugController.searchBugs", "UserController.lookupUsers");
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    @Qualifier("requestMappingHandlerMapping")
+    private RequestMappingHandlerMapping handlerMapping;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private BugRepository bugRepository;
+
+    @Autowired
+    private BugHistoryRepository bugHistoryRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private UserRoleRepository userRoleRepository;
+
+    @Autowired
+    private StatusRepository statusRepository;
+
+    @Autowired
+    private PriorityRepository priorityRepository;
+
+    @MockBean
+    private BugEventLog bugEventLog;
+
+    @MockBean
+    private BugImportService bugImportService;
+
+    private final Set<String> exercised = new HashSet<>();
+    private final List<Bug> bugs = new ArrayList<>();
+    private List<Priority> priorities;
+    private List<Status> statuses;
+    private List<UserRole> roles;
+    private List<User> users;
+
+    @BeforeEach
+    public void setUp() {
+        // Distinct reference rows per bug so that a select per association would multiply the count
+        roles = List.of(
+                userRoleRepository.save(new UserRole("admin", "active")),
+                userRoleRepository.save(new UserRole("general", "active")),
+                userRoleRepository.save(new UserRole("unused", "active")));
+        priorities = List.of(
+                priorityRepository.save(new Priority("low", "active")),
+                priorityRepository.save(new Priority("medium", "active")),
+                priorityRepository.save(new Priority("high", "active")),
+                priorityRepository.save(new Priority("unused", "active")));
+        statuses = List.of(
+                statusRepository.save(new Status("open", "active")),
+                statusRepository.save(new Status("closed", "active")),
+                statusRepository.save(new Status("unused", "active")));
+        users = List.of(
+                userRepository.save(new User("first@example.com", "First", "User", "password", roles.get(0))),
+                userRepository.save(new User("second@example.com", "Second", "User", "password", roles.get(1))),
+                userRepository.save(new User("third@example.com", "Third", "User", "password", roles.get(1))),
+                userRepository.save(new User("unused@example.com", "Unused", "User", "password", roles.get(1))));
+
+        for (int i = 0; i < 6; i++) {
+            Bug bug = new Bug();
+            bug.setTitle("Bug " + i);
+            bug.setDescription("This is bug " + i + ".");
+            bug.setPriority(priorities.get(i % 3));
+            bug.setStatus(statuses.get(i % 2));
+            bug.setAssignee(users.get(i % 3));
+            bug.setCreatedBy(users.get((i + 1) % 3));
+            bugs.add(bugRepository.save(bug));
+        }
+        for (int i = 0; i < 3; i++) {
+            bugHistoryRepository.save(new BugHistory(bugs.get(0).getId(), "title", "Bug " + i, "Bug " + (i + 1),
+                    "first@example.com", LocalDateTime.now().plusSeconds(i)));
+        }
+
+        cacheManager.getCacheNames().forEach(name -> cacheManager.getCache(name).clear());
+    }
+
+    @AfterEach
+    public void tearDown() {
+        jdbcTemplate.update("DELETE FROM outbox_events");
+        bugHistoryRepository.deleteAll();
+        bugRepository.deleteAll();
+        userRepository.deleteAll();
+        userRoleRepository.deleteAll();
+        statusRepository.deleteAll();
+        priorityRepository.deleteAll();
+        bugs.clear();
+    }
+
+    @Test
+    public void testBugControllerStaysWithinBudgets() throws Exception {
+        Bug bug = bugs.get(0);
+        BugImportJob job = new BugImportJob("job-1", "CSV", 10);
+        Mockito.when(bugEventLog.read(ArgumentMatchers.any(), ArgumentMatchers.anyInt())).thenReturn(List.of());
+        Mockito.when(bugImportService.submit(ArgumentMatchers.any(), ArgumentMatchers.any())).thenReturn(job);
+        Mockito.when(bugImportService.find("job-1")).thenReturn(Optional.of(job));
+
+        call(get("/api/bugs"), status().isOk());
+        call(get("/api/bugs").param("statusId", statuses.get(0).getId().toString()).param("sort", "-priority"),
+                status().isOk());
+        call(get("/api/bugs/summary"), status().isOk());
+        call(get("/api/bugs/" + bug.getId()), status().isOk());
+        call(get("/api/bugs/" + bug.getId() + "/history"), status().isOk());
+        call(get("/api/bugs/stream"), status().isOk());
+        call(get("/api/bugs/events"), status().isOk());
+        call(get("/api/bugs/export"), status().isOk());
+        call(post("/api/bugs/import").contentType("text/csv").content("title\nImported\n"), status().isAccepted());
+        call(get("/api/bugs/import/job-1"), status().isOk());
+
+        call(post("/api/bugs").contentType(MediaType.APPLICATION_JSON).content(bugJson()), status().isCreated());
+        call(post("/api/bugs/batch").contentType(MediaType.APPLICATION_JSON).content(batchJson(120)),
+                status().isOk());
+        call(put("/api/bugs/" + bug.getId()).contentType(MediaType.APPLICATION_JSON).content(bugJson()),
+                status().isOk());
+        call(patch("/api/bugs").contentType(MediaType.APPLICATION_JSON).content("""
+                {"filter": {"statusId": [%d]}, "statusId": %d, "priorityId": %d, "assigneeId": %d}
+                """.formatted(statuses.get(0).getId(), statuses.get(1).getId(), priorities.get(3).getId(),
+                        users.get(3).getId())), status().isOk());
+        call(delete("/api/bugs/" + bugs.get(1).getId()), status().isNoContent());
+
+        assertEveryHandlerCalled(BugController.class);
+    }
+
+    @Test
+    public void testUserControllerStaysWithinBudgets() throws Exception {
+        User user = users.get(3);
+
+        call(get("/api/users"), status().isOk());
+        call(get("/api/users/active"), status().isOk());
+        call(get("/api/users/" + user.getId()), status().isOk());
+        call(post("/api/users/register").contentType(MediaType.APPLICATION_JSON).content("""
+                {"email": "new@example.com", "firstName": "New", "lastName": "User", "password": "secret",
+                 "status": "active", "userRoleId": %d}
+                """.formatted(roles.get(1).getId())), status().isCreated());
+        call(put("/api/users/" + user.getId() + "/password").with(user(user.getEmail()))
+                .contentType(MediaType.TEXT_PLAIN).content("changed"), status().isOk());
+        call(put("/api/users/" + user.getId()).contentType(MediaType.TEXT_PLAIN).content("inactive"),
+                status().isOk());
+        call(put("/api/users/" + user.getId() + "/role").contentType(MediaType.APPLICATION_JSON)
+                .content("{\"userRoleId\": " + roles.get(0).getId() + "}"), status().isOk());
+        call(delete("/api/users/" + user.getId()), status().isNoContent());
+
+        assertEveryHandlerCalled(UserController.class);
+    }
+
+    @Test
+    public void testPriorityControllerStaysWithinBudgets() throws Exception {
+        callLookupEndpoints("/api/priorities", priorities.get(3).getId(),
+                "{\"level\": \"urgent\", \"status\": \"active\"}",
+                "{\"level\": \"trivial\", \"status\": \"inactive\"}");
+
+        assertEveryHandlerCalled(PriorityController.class);
+    }
+
+    @Test
+    public void testStatusControllerStaysWithinBudgets() throws Exception {
+        callLookupEndpoints("/api/statuses", statuses.get(2).getId(),
+                "{\"statusLabel\": \"review\", \"status\": \"active\"}",
+                "{\"statusLabel\": \"blocked\", \"status\": \"inactive\"}");
+
+        assertEveryHandlerCalled(StatusController.class);
+    }
+
+    @Test
+    public void testUserRoleControllerStaysWithinBudgets() throws Exception {
+        callLookupEndpoints("/api/user-roles", roles.get(2).getId(),
+                "{\"role\": \"auditor\", \"status\": \"active\"}",
+                "{\"role\": \"guest\", \"status\": \"inactive\"}");
+
+        assertEveryHandlerCalled(UserRoleController.class);
+    }
+
+    // The same six endpoints on each lookup controller; unusedId is referenced by no other row
+    private void callLookupEndpoints(String path, Long unusedId, String created, String updated) throws Exception {
+        call(get(path), status().isOk());
+        call(get(path + "/active"), status().isOk());
+        call(get(path + "/" + unusedId), status().isOk());
+        call(post(path).contentType(MediaType.APPLICATION_JSON).content(created), status().isCreated());
+        call(put(path + "/" + unusedId).contentType(MediaType.APPLICATION_JSON).content(updated), status().isOk());
+        call(delete(path + "/" + unusedId), status().isNoContent());
+    }
+
+    // Performs the request (and its async dispatch, if any) and checks the count the interceptor recorded.
+    // An event stream stays open, so only its request thread is checked.
+    private void call(MockHttpServletRequestBuilder request, ResultMatcher expectedStatus) throws Exception {
+        MvcResult result = mockMvc.perform(request).andReturn();
+        boolean eventStream = ((HandlerMethod) result.getHandler()).getMethod().getReturnType() == SseEmitter.class;
+        if (result.getRequest().isAsyncStarted() && !eventStream) {
+            result.getAsyncResult();
+            result = mockMvc.perform(asyncDispatch(result)).andReturn();
+        }
+        expectedStatus.match(result);
+
+        HandlerMethod handler = (HandlerMethod) result.getHandler();
+        String name = nameOf(handler);
+        StatementBudget budget = handler.getMethodAnnotation(StatementBudget.class);
+        assertNotNull(budget, name + " has no @StatementBudget");
+        Integer count = (Integer) result.getRequest().getAttribute(StatementBudgetInterceptor.STATEMENT_COUNT);
+        assertNotNull(count, name + " was not counted");
+        assertTrue(count <= budget.value(), name + " ran " + count + " statements, budget " + budget.value());
+        exercised.add(name);
+    }
+
+    private void assertEveryHandlerCalled(Class<?> controller) {
+        Set<String> handlers = handlerMapping.getHandlerMethods().values().stream()
+                .filter(handler -> handler.getBeanType().equals(controller))
+                .peek(handler -> assertNotNull(handler.getMethodAnnotation(StatementBudget.class),
+                        nameOf(handler) + " has no @StatementBudget"))
+                .map(StatementBudgetTest::nameOf)
+                .filter(name -> !POSTGRESQL_ONLY.contains(name))
+                .collect(Collectors.toCollection(TreeSet::new));
+        assertEquals(handlers, new TreeSet<>(exercised));
+    }
+
+    private static String nameOf(HandlerMethod handler) {
+        Method method = handler.getMethod();
+        return handler.getBeanType().getSimpleName() + "." + method.getName();
+    }
+
+    private String bugJson() {
+        return """
+        {
+            "title": "Budgeted Bug",
+            "description": "This bug stays within budget.",
+            "priorityId": %d,
+            "statusId": %d,
+            "assigneeId": %d,
+            "createdByUserId": %d
+        }
+        """.formatted(priorities.get(3).getId(), statuses.get(2).getId(), users.get(3).getId(),
+                users.get(2).getId());
+    }
+
+    private String batchJson(int count) {
+        return "[" + String.join(",", Collections.nCopies(count, bugJson())) + "]";
+    }
+}
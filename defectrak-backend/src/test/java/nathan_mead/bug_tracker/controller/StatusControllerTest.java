@@ -3,10 +3,12 @@ package nathan_mead.bug_tracker.controller;
 import nathan_mead.bug_tracker.model.Status;
 import nathan_mead.bug_tracker.model.User;
 import nathan_mead.bug_tracker.model.UserRole;
+import nathan_mead.bug_tracker.repository.PriorityRepository;
 import nathan_mead.bug_tracker.repository.StatusRepository;
 import nathan_mead.bug_tracker.repository.UserRepository;
 import nathan_mead.bug_tracker.repository.UserRoleRepository;
 import nathan_mead.bug_tracker.config.SecurityConfig;
+import nathan_mead.bug_tracker.service.ReferenceDataCache;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mockito;
@@ -30,7 +32,7 @@ import static org.springframework.security.test.web.servlet.request.SecurityMock
 
 @AutoConfigureMockMvc(addFilters = true)
 @WebMvcTest(StatusController.class)
-@Import(SecurityConfig.class)
+@Import({SecurityConfig.class, ReferenceDataCache.class})
 public class StatusControllerTest {
 
     @Autowired
@@ -48,6 +50,9 @@ public class StatusControllerTest {
     @MockBean
     private PasswordEncoder passwordEncoder;
 
+    @MockBean
+    private PriorityRepository priorityRepository;
+
     private Status createDummyStatus(Long id, String statusLabel) {
         return createDummyStatus(id, statusLabel, "active");
     }
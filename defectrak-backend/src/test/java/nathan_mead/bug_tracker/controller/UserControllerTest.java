@@ -1,10 +1,15 @@
 package nathan_mead.bug_tracker.controller;
 
+import nathan_mead.bug_tracker.dto.UserLookup;
 import nathan_mead.bug_tracker.model.User;
 import nathan_mead.bug_tracker.model.UserRole;
+import nathan_mead.bug_tracker.repository.PriorityRepository;
+import nathan_mead.bug_tracker.repository.StatusRepository;
 import nathan_mead.bug_tracker.repository.UserRepository;
 import nathan_mead.bug_tracker.repository.UserRoleRepository;
 import nathan_mead.bug_tracker.config.SecurityConfig;
+import nathan_mead.bug_tracker.service.CurrentUserCache;
+import nathan_mead.bug_tracker.service.ReferenceDataCache;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mockito;
@@ -20,6 +25,7 @@ import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMock
 import org.springframework.context.annotation.Import;
 
 import java.util.Arrays;
+import java.util.List;
 import java.util.Optional;
 
 import static org.mockito.ArgumentMatchers.anyString;
@@ -30,7 +36,7 @@ import static org.springframework.security.test.web.servlet.request.SecurityMock
 
 @AutoConfigureMockMvc(addFilters = true)
 @WebMvcTest(UserController.class)
-@Import(SecurityConfig.class)
+@Import({SecurityConfig.class, ReferenceDataCache.class})
 public class UserControllerTest {
 
     @Autowired
@@ -45,6 +51,15 @@ public class UserControllerTest {
     @MockBean
     private PasswordEncoder passwordEncoder;
 
+    @MockBean
+    private PriorityRepository priorityRepository;
+
+    @MockBean
+    private StatusRepository statusRepository;
+
+    @MockBean
+    private CurrentUserCache currentUserCache;
+
 
     private UserRole createDummyRole(Long id, String roleName) {
         UserRole role = new UserRole(roleName);
@@ -95,6 +110,32 @@ public class UserControllerTest {
             .andExpect(jsonPath("$[1].status").value("active"));
     }
 
+    @WithMockUser(username = "user@example.com", roles = {"GENERAL"})
+    @Test
+    public void testLookupUsers() throws Exception {
+        // Arrange: the repository returns ranked id/name pairs.
+        UserLookup match = new UserLookup() {
+            public Long getId() { return 2L; }
+            public String getName() { return "Second User"; }
+        };
+        Mockito.when(userRepository.lookupActive("seco", 10)).thenReturn(List.of(match));
+
+        // Act & Assert: perform GET /api/users/lookup and verify only id and name are returned.
+        mockMvc.perform(get("/api/users/lookup").param("q", "seco"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].id").value(2))
+                .andExpect(jsonPath("$[0].name").value("Second User"))
+                .andExpect(jsonPath("$[0].email").doesNotExist());
+    }
+
+    @WithMockUser(username = "user@example.com", roles = {"GENERAL"})
+    @Test
+    public void testLookupUsers_QueryTooShort() throws Exception {
+        // Act & Assert: fewer than three characters is rejected with 400 Bad Request.
+        mockMvc.perform(get("/api/users/lookup").param("q", "se"))
+                .andExpect(status().isBadRequest());
+    }
+
     @WithMockUser(username = "user@example.com", roles = {"GENERAL"})
     @Test
     public void testGetAllUsers_Unauthorized() throws Exception {
@@ -197,6 +238,7 @@ public class UserControllerTest {
         mockMvc.perform(delete("/api/users/1")
                         .with(csrf()))
                 .andExpect(status().isNoContent());
+        Mockito.verify(currentUserCache).remove("first@example.com");
     }
 
     @WithMockUser(username = "user@example.com", roles = {"ADMIN"})
@@ -2,9 +2,12 @@ package nathan_mead.bug_tracker.controller;
 
 import nathan_mead.bug_tracker.model.UserRole;
 import nathan_mead.bug_tracker.model.User;
+import nathan_mead.bug_tracker.repository.PriorityRepository;
+import nathan_mead.bug_tracker.repository.StatusRepository;
 import nathan_mead.bug_tracker.repository.UserRoleRepository;
 import nathan_mead.bug_tracker.repository.UserRepository;
 import nathan_mead.bug_tracker.config.SecurityConfig;
+import nathan_mead.bug_tracker.service.ReferenceDataCache;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mockito;
@@ -29,7 +32,7 @@ import static org.springframework.security.test.web.servlet.request.SecurityMock
 
 @AutoConfigureMockMvc(addFilters = true)
 @WebMvcTest(UserRoleController.class)
-@Import(SecurityConfig.class)
+@Import({SecurityConfig.class, ReferenceDataCache.class})
 public class UserRoleControllerTest {
 
     @Autowired
@@ -44,6 +47,12 @@ public class UserRoleControllerTest {
     @MockBean
     private PasswordEncoder passwordEncoder;
 
+    @MockBean
+    private PriorityRepository priorityRepository;
+
+    @MockBean
+    private StatusRepository statusRepository;
+
     @WithMockUser(username = "user@example.com", roles = {"ADMIN"})
     @Test
     public void testGetAllUserRoles() throws Exception {
@@ -0,0 +1,90 @@
+package nathan_mead.bug_tracker.security;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+
+// Checks run on the pool, the pool refuses work once its threads and queue are taken, and calibration measures a check
+public class PasswordHashingExecutorTest {
+
+    // The lowest BCrypt cost keeps the real hashes fast
+    private final PasswordEncoder bcrypt = new BCryptPasswordEncoder(4);
+    private PasswordHashingExecutor executor;
+
+    @AfterEach
+    public void tearDown() {
+        if (executor != null) {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void testChecksPasswordOnPool() {
+        executor = new PasswordHashingExecutor(bcrypt, 2, 4, 0);
+        String hash = bcrypt.encode("secret");
+
+        assertTrue(executor.matches("secret", hash));
+        assertFalse(executor.matches("wrong", hash));
+    }
+
+    @Test
+    public void testFullQueueIsRefused() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        PasswordEncoder blocking = Mockito.mock(PasswordEncoder.class);
+        Mockito.when(blocking.matches(any(), anyString())).thenAnswer(invocation -> release.await(5, TimeUnit.SECONDS));
+        executor = new PasswordHashingExecutor(blocking, 1, 1, 0);
+
+        // One check holds the only thread and a second waits in the queue
+        CompletableFuture<Boolean> running = CompletableFuture.supplyAsync(() -> executor.matches("a", "hash"));
+        CompletableFuture<Boolean> queued = CompletableFuture.supplyAsync(() -> executor.matches("b", "hash"));
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while ((executor.getActiveCount() < 1 || executor.getQueueDepth() < 1) && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+        assertEquals(1, executor.getQueueDepth());
+
+        assertThrows(PasswordHashingBusyException.class, () -> executor.matches("c", "hash"));
+
+        release.countDown();
+        assertTrue(running.get(5, TimeUnit.SECONDS));
+        assertTrue(queued.get(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void testEncoderFailureReachesCaller() {
+        PasswordEncoder failing = Mockito.mock(PasswordEncoder.class);
+        Mockito.when(failing.matches(any(), anyString())).thenThrow(new IllegalArgumentException("Invalid salt"));
+        executor = new PasswordHashingExecutor(failing, 1, 1, 0);
+
+        assertThrows(IllegalArgumentException.class, () -> executor.matches("secret", "not-a-hash"));
+    }
+
+    @Test
+    public void testCalibrationRecordsHashTime() {
+        executor = new PasswordHashingExecutor(bcrypt, 1, 1, 0);
+        assertNull(executor.getHashTime());
+
+        Duration hashTime = executor.calibrate(2);
+
+        assertTrue(hashTime.toNanos() > 0);
+        assertEquals(hashTime, executor.getHashTime());
+    }
+
+    @Test
+    public void testUnsetThreadCountUsesHalfTheCores() {
+        executor = new PasswordHashingExecutor(bcrypt, 0, 1, 0);
+
+        assertEquals(Math.max(1, Runtime.getRuntime().availableProcessors() / 2), executor.getThreads());
+    }
+}
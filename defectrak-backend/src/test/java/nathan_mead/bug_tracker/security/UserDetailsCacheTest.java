@@ -0,0 +1,83 @@
+package nathan_mead.bug_tracker.security;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.core.CredentialsContainer;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionSynchronizationUtils;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class UserDetailsCacheTest {
+
+    private final UserDetailsCache cache = new UserDetailsCache(Duration.ofMinutes(1), 100);
+
+    @AfterEach
+    public void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    public void testErasedCredentialsDoNotReachCache() {
+        UserDetails user = user("user@example.com");
+        cache.putUserInCache(user);
+        ((CredentialsContainer) user).eraseCredentials();
+
+        UserDetails cached = cache.getUserFromCache("user@example.com");
+        ((CredentialsContainer) cached).eraseCredentials();
+
+        assertEquals("{noop}secret", cache.getUserFromCache("user@example.com").getPassword());
+    }
+
+    @Test
+    public void testLookupIgnoresEmailCase() {
+        cache.putUserInCache(user("user@example.com"));
+
+        assertNotNull(cache.getUserFromCache("User@Example.com"));
+    }
+
+    @Test
+    public void testRemoveUser() {
+        cache.putUserInCache(user("user@example.com"));
+        cache.putUserInCache(user("other@example.com"));
+
+        cache.removeUserFromCache("USER@example.com");
+
+        assertNull(cache.getUserFromCache("user@example.com"));
+        assertNotNull(cache.getUserFromCache("other@example.com"));
+    }
+
+    @Test
+    public void testRemoveAllUsers() {
+        cache.putUserInCache(user("user@example.com"));
+        cache.putUserInCache(user("other@example.com"));
+
+        cache.removeAllUsersFromCache();
+
+        assertNull(cache.getUserFromCache("user@example.com"));
+        assertNull(cache.getUserFromCache("other@example.com"));
+    }
+
+    @Test
+    public void testRemovalInsideTransactionRepeatsAfterCommit() {
+        TransactionSynchronizationManager.initSynchronization();
+        cache.putUserInCache(user("user@example.com"));
+
+        cache.removeUserFromCache("user@example.com");
+        // A concurrent sign-in caches the row as it was before the change committed
+        cache.putUserInCache(user("user@example.com"));
+        TransactionSynchronizationUtils.triggerAfterCommit();
+
+        assertNull(cache.getUserFromCache("user@example.com"));
+    }
+
+    private static UserDetails user(String email) {
+        return User.withUsername(email).password("{noop}secret").roles("USER").build();
+    }
+}
@@ -0,0 +1,89 @@
+package nathan_mead.bug_tracker.service;
+
+import nathan_mead.bug_tracker.dto.BugLogEntry;
+import com.rabbitmq.stream.Consumer;
+import com.rabbitmq.stream.ConsumerBuilder;
+import com.rabbitmq.stream.Environment;
+import com.rabbitmq.stream.MessageHandler;
+import com.rabbitmq.stream.OffsetSpecification;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.rabbit.stream.producer.RabbitStreamTemplate;
+import org.springframework.rabbit.stream.support.converter.StreamMessageConverter;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Reads against a stubbed stream consumer that delivers five messages as soon as it is built
+public class BugEventLogTest {
+
+    private final RabbitStreamTemplate streamTemplate = Mockito.mock(RabbitStreamTemplate.class);
+    private final StreamMessageConverter converter = Mockito.mock(StreamMessageConverter.class);
+    private final Environment environment = Mockito.mock(Environment.class);
+    private final ConsumerBuilder consumerBuilder = Mockito.mock(ConsumerBuilder.class, Mockito.RETURNS_SELF);
+    private final ConsumerBuilder.FlowConfiguration flow = Mockito.mock(ConsumerBuilder.FlowConfiguration.class,
+            Mockito.RETURNS_SELF);
+    private final List<MessageHandler.Context> delivered = new ArrayList<>();
+    private BugEventLog eventLog;
+
+    @BeforeEach
+    public void setUp() {
+        eventLog = new BugEventLog();
+        ReflectionTestUtils.setField(eventLog, "bugEventStreamTemplate", streamTemplate);
+        ReflectionTestUtils.setField(eventLog, "streamEnvironment", environment);
+        ReflectionTestUtils.setField(eventLog, "stream", "defectrak.bug-events");
+        ReflectionTestUtils.setField(eventLog, "readIdleMs", 50L);
+
+        Mockito.when(streamTemplate.streamMessageConverter()).thenReturn(converter);
+        Mockito.when(converter.toMessage(Mockito.any(), Mockito.any())).thenAnswer(invocation -> {
+            MessageProperties properties = new MessageProperties();
+            properties.setMessageId("1");
+            properties.setType("UPDATED");
+            return new Message("{}".getBytes(), properties);
+        });
+        Mockito.when(environment.consumerBuilder()).thenReturn(consumerBuilder);
+        Mockito.when(consumerBuilder.flow()).thenReturn(flow);
+        Mockito.when(flow.builder()).thenReturn(consumerBuilder);
+        Mockito.when(consumerBuilder.messageHandler(Mockito.any())).thenAnswer(invocation -> {
+            MessageHandler handler = invocation.getArgument(0);
+            Mockito.when(consumerBuilder.build()).thenAnswer(build -> {
+                for (long offset = 0; offset < 5; offset++) {
+                    MessageHandler.Context context = Mockito.mock(MessageHandler.Context.class);
+                    Mockito.when(context.offset()).thenReturn(offset);
+                    delivered.add(context);
+                    handler.handle(context, Mockito.mock(com.rabbitmq.stream.Message.class));
+                }
+                return Mockito.mock(Consumer.class);
+            });
+            return consumerBuilder;
+        });
+    }
+
+    @Test
+    public void testReadStopsAtTheLimit() {
+        List<BugLogEntry> entries = eventLog.read(OffsetSpecification.first(), 2);
+
+        assertEquals(2, entries.size());
+        assertEquals(0, entries.get(0).getOffset());
+        assertEquals(1, entries.get(1).getOffset());
+        // Messages past the limit are dropped without being converted or credited
+        Mockito.verify(converter, Mockito.times(2)).toMessage(Mockito.any(), Mockito.any());
+        Mockito.verify(delivered.get(0)).processed();
+        Mockito.verify(delivered.get(1)).processed();
+        Mockito.verify(delivered.get(2), Mockito.never()).processed();
+    }
+
+    @Test
+    public void testCreditFollowsTheReader() {
+        eventLog.read(OffsetSpecification.first(), 10);
+
+        Mockito.verify(flow).strategy(Mockito.any());
+        delivered.forEach(context -> Mockito.verify(context).processed());
+    }
+}
@@ -0,0 +1,65 @@
+package nathan_mead.bug_tracker.service;
+
+import nathan_mead.bug_tracker.dto.BugRow;
+import nathan_mead.bug_tracker.event.BugChangedEvent;
+import nathan_mead.bug_tracker.event.BugFieldChange;
+import nathan_mead.bug_tracker.repository.BugHistoryRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Queue accounting of the history writer when a flush fails; the queue holds two rows
+public class BugHistoryWriterTest {
+
+    private final BugHistoryRepository bugHistoryRepository = Mockito.mock(BugHistoryRepository.class);
+    private BugHistoryWriter writer;
+
+    @BeforeEach
+    public void setUp() {
+        writer = new BugHistoryWriter(2);
+        ReflectionTestUtils.setField(writer, "bugHistoryRepository", bugHistoryRepository);
+        ReflectionTestUtils.setField(writer, "batchSize", 500);
+    }
+
+    // Helper to queue one history row per given field
+    private void update(Long bugId, String... fields) {
+        BugRow row = new BugRow(bugId, "Bug", "Description", 1L, 1L, null, 1L, LocalDateTime.now());
+        List<BugFieldChange> changes = Arrays.stream(fields)
+                .map(field -> new BugFieldChange(field, "old", "new"))
+                .toList();
+        writer.onBugChanged(BugChangedEvent.updated(row, changes));
+    }
+
+    @Test
+    public void testFailedFlushKeepsRowsForRetry() {
+        update(1L, "title", "status");
+        Mockito.when(bugHistoryRepository.saveAll(Mockito.anyList())).thenThrow(new IllegalStateException("down"));
+
+        writer.flush();
+
+        assertEquals(2, writer.getPendingCount());
+        assertEquals(0, writer.getDroppedCount());
+    }
+
+    @Test
+    public void testFailedFlushCountsRowsThatNoLongerFit() {
+        update(1L, "title", "status");
+        // An update queues a row while the failing batch is out, so only one of the two fits back
+        Mockito.when(bugHistoryRepository.saveAll(Mockito.anyList())).thenAnswer(invocation -> {
+            update(2L, "title");
+            throw new IllegalStateException("down");
+        });
+
+        writer.flush();
+
+        assertEquals(2, writer.getPendingCount());
+        assertEquals(1, writer.getDroppedCount());
+    }
+}
@@ -1,13 +1,13 @@
-import React, { useState, useEffect, useContext } from 'react';
+import React, { useState, useEffect, useContext, useRef } from 'react';
 import { Modal, Button, Container, Row, Col } from 'react-bootstrap';
 import { AutoCompleteComponent, DropDownListComponent } from '@syncfusion/ej2-react-dropdowns';
 import { TextBoxComponent } from '@syncfusion/ej2-react-inputs';
 import { UserContext } from '../userContext';
 import { ToastContext } from './ToastContext';
-import Fuse from 'fuse.js';
 
 const BugList = () => {
   const [bugs, setBugs] = useState([]);
+  const [nextCursor, setNextCursor] = useState(null); // null when every page has been loaded
   const [selectedBug, setSelectedBug] = useState(null); // null indicates create mode
   const [showModal, setShowModal] = useState(false);
   const [isEditing, setIsEditing] = useState(false);
@@ -31,7 +31,8 @@ const BugList = () => {
   // Data for priorities, statuses, and users
   const [activePriorities, setActivePriorities] = useState([]);
   const [activeStatuses, setActiveStatuses] = useState([]);
-  const [allUsers, setAllUsers] = useState([]); // all active users for assignee autocomplete
+  const [userOptions, setUserOptions] = useState([]); // latest assignee lookup results
+  const lookupController = useRef(null); // aborts a lookup superseded by newer typing
 
 
   const isFormValid =
@@ -41,12 +42,45 @@ const BugList = () => {
     editStatus &&
     editAssignee;
 
-  // Fetch bugs from the API
-  useEffect(() => {
-    fetch('/api/bugs')
+  // Fetch one page of bugs from the API; a null cursor starts from the newest bug
+  const fetchBugPage = (cursor) => {
+    const url = cursor ? `/api/bugs?cursor=${encodeURIComponent(cursor)}` : '/api/bugs';
+    fetch(url)
       .then(response => response.json())
-      .then(data => setBugs(data))
+      .then(data => {
+        setBugs(prevBugs => (cursor ? [...prevBugs, ...data.items] : data.items));
+        setNextCursor(data.nextCursor);
+      })
       .catch(error => console.error('Error fetching bugs:', error));
+  };
+
+  useEffect(() => {
+    fetchBugPage(null);
+  }, []);
+
+  // Apply changes pushed by the server instead of refetching the list; EventSource reconnects on its own
+  // and sends Last-Event-ID so missed events are replayed
+  useEffect(() => {
+    const source = new EventSource('/api/bugs/stream', { withCredentials: true });
+    const upsertBug = (event) => {
+      const bug = JSON.parse(event.data);
+      setBugs(prevBugs => (prevBugs.some(b => b.id === bug.id)
+        ? prevBugs.map(b => (b.id === bug.id ? bug : b))
+        : [bug, ...prevBugs]));
+    };
+    const removeBug = (event) => {
+      const { id } = JSON.parse(event.data);
+      setBugs(prevBugs => prevBugs.filter(b => b.id !== id));
+    };
+    // Bulk changes and lost history carry no rows, so reload the first page
+    const reload = () => fetchBugPage(null);
+
+    source.addEventListener('created', upsertBug);
+    source.addEventListener('updated', upsertBug);
+    source.addEventListener('deleted', removeBug);
+    source.addEventListener('bulk_changed', reload);
+    source.addEventListener('reset', reload);
+    return () => source.close();
   }, []);
 
   // Fetch active priorities and statuses when in editing/creating mode
@@ -63,36 +97,29 @@ const BugList = () => {
     }
   }, [isEditing]);
 
-  // Fetch all active users once for the assignee autocomplete
-  useEffect(() => {
-    fetch('/api/users/active')
-      .then(response => response.json())
-      .then(data => {
-        const mapped = data.map(u => ({
-          ...u,
-          fullName: `${u.firstName} ${u.lastName}`
-        }));
-        setAllUsers(mapped);
-      })
-      .catch(error => console.error('Error fetching active users:', error));
-  }, []);
-
-  // Custom filtering event using Fuse.js
+  // Server-side ranked user lookup for the assignee autocomplete
   const onFiltering = (e) => {
+    e.preventDefaultAction = true;
+    if (lookupController.current) {
+      lookupController.current.abort();
+    }
     if (e.text.length < 3) {
       e.updateData([], null);
       return;
     }
-    const options = {
-      keys: ['fullName'],
-      includeMatches: true,
-      findAllMatches: true,
-      threshold: 0.4
-    };
-    const fuse = new Fuse(allUsers, options);
-    const result = fuse.search(e.text);
-    const filteredData = result.map(item => item.item);
-    e.updateData(filteredData, null);
+    const controller = new AbortController();
+    lookupController.current = controller;
+    fetch(`/api/users/lookup?q=${encodeURIComponent(e.text)}`, { signal: controller.signal })
+      .then(response => response.json())
+      .then(data => {
+        setUserOptions(data);
+        e.updateData(data, null);
+      })
+      .catch(error => {
+        if (error.name !== 'AbortError') {
+          console.error('Error looking up users:', error);
+        }
+      });
   };
 
   // Helper to reset edit fields to the currently selected bug or blank for new bug
@@ -214,7 +241,8 @@ const BugList = () => {
       });
       if (response.ok) {
         const createdBug = await response.json();
-        setBugs([...bugs, createdBug]);
+        // The stream may already have delivered this bug
+        setBugs(prevBugs => (prevBugs.some(b => b.id === createdBug.id) ? prevBugs : [createdBug, ...prevBugs]));
         setShowModal(false);
         showToast("Bug successfully created!", 'success');
       } else {
@@ -274,6 +302,15 @@ const BugList = () => {
             </Col>
           ))}
         </Row>
+        {nextCursor && (
+          <Row>
+            <Col className="mb-3" style={{ textAlign: 'center' }}>
+              <Button variant="outline-primary" onClick={() => fetchBugPage(nextCursor)}>
+                Load More
+              </Button>
+            </Col>
+          </Row>
+        )}
       </Container>
 
       {/* Modal for Create / View / Edit */}
@@ -359,17 +396,17 @@ const BugList = () => {
               <>
                 <AutoCompleteComponent
                   id="assignee-autocomplete"
-                  dataSource={allUsers}
+                  dataSource={userOptions}
                   filtering={onFiltering}
                   placeholder="Enter assignee name..."
                   filterType="Contains"
                   allowFiltering={true}
-                  fields={{ value: 'fullName' }}
+                  fields={{ value: 'name' }}
                   value={editAssignee.name}
                   allowCustomValue={true}
                   change={(e) => {
                     if (e.itemData) {
-                      setEditAssignee({ id: e.itemData.id, name: e.itemData.fullName });
+                      setEditAssignee({ id: e.itemData.id, name: e.itemData.name });
                     } else {
                       setEditAssignee({ id: null, name: e.value });
                     }
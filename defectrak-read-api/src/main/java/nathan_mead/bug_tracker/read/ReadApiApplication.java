@@ -0,0 +1,15 @@
+package nathan_mead.bug_tracker.read;
+
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.SpringBootApplication;
+
+// Read-only companion to the servlet backend: serves bugs and lookups from the same schema over WebFlux and R2DBC,
+// so dashboards that poll or stream can be served by a few event-loop threads. All writes stay on the backend.
+@SpringBootApplication
+public class ReadApiApplication {
+
+	public static void main(String[] args) {
+		SpringApplication.run(ReadApiApplication.class, args);
+	}
+
+}
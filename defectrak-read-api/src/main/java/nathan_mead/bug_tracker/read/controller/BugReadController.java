@@ -0,0 +1,109 @@
+package nathan_mead.bug_tracker.read.controller;
+
+import nathan_mead.bug_tracker.read.dto.BugCursor;
+import nathan_mead.bug_tracker.read.dto.BugDetail;
+import nathan_mead.bug_tracker.read.dto.BugSummary;
+import nathan_mead.bug_tracker.read.dto.CursorPage;
+import nathan_mead.bug_tracker.read.repository.BugReadRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/read/bugs")
+public class BugReadController {
+
+    // Signature of the backend's default bug sort; cursors are interchangeable with /api/bugs/summary
+    static final String NEWEST_FIRST_SORT = "-createdAt,-id";
+
+    @Autowired
+    private BugReadRepository bugReadRepository;
+
+    @Value("${defectrak.bugs.page-size.default:50}")
+    private int defaultPageSize;
+
+    @Value("${defectrak.bugs.page-size.max:200}")
+    private int maxPageSize;
+
+    // Upper bound on rows requested from the database ahead of the client while streaming
+    @Value("${defectrak.read.bugs.stream.prefetch:256}")
+    private int streamPrefetch;
+
+    // GET endpoint to list flat bug summaries one page at a time, newest first
+    @GetMapping
+    public Mono<ResponseEntity<?>> getBugSummaries(@RequestParam(required = false) String cursor,
+                                                  @RequestParam(required = false) Integer size) {
+        int pageSize = resolvePageSize(size);
+
+        Flux<BugSummary> summaries;
+        if (cursor == null || cursor.isBlank()) {
+            summaries = bugReadRepository.findFirstSummaryPage(pageSize + 1);
+        } else {
+            BugCursor position;
+            LocalDateTime createdAt;
+            Long id;
+            try {
+                position = BugCursor.decode(cursor);
+                if (!NEWEST_FIRST_SORT.equals(position.getSort()) || position.getValues().size() != 2) {
+                    throw new IllegalArgumentException("Cursor does not match sort");
+                }
+                createdAt = LocalDateTime.parse(position.getValues().get(0));
+                id = Long.valueOf(position.getValues().get(1));
+            } catch (RuntimeException e) {
+                return Mono.just(ResponseEntity.badRequest().body("Invalid cursor."));
+            }
+            summaries = bugReadRepository.findSummaryPageAfter(createdAt, id, pageSize + 1);
+        }
+
+        // Fetch one extra row to learn whether another page exists
+        return summaries.collectList()
+                .map(rows -> ResponseEntity.ok(toCursorPage(rows, pageSize)));
+    }
+
+    // GET endpoint to stream every matching bug summary, newest first, as newline-delimited JSON or Server-Sent
+    // Events. Rows are read from the database only as fast as the client consumes them.
+    @GetMapping(value = "/stream", produces = {MediaType.APPLICATION_NDJSON_VALUE, MediaType.TEXT_EVENT_STREAM_VALUE})
+    public Flux<BugSummary> streamBugSummaries(@RequestParam(required = false) Long statusId,
+                                               @RequestParam(required = false) Long priorityId) {
+        return bugReadRepository.streamSummaries(statusId, priorityId)
+                .limitRate(streamPrefetch);
+    }
+
+    // GET endpoint to return a specific bug by ID
+    @GetMapping("/{id}")
+    public Mono<ResponseEntity<BugDetail>> getBugById(@PathVariable Long id) {
+        return bugReadRepository.findDetailById(id)
+                .map(ResponseEntity::ok)
+                .defaultIfEmpty(ResponseEntity.notFound().build());
+    }
+
+    // Helper to trim the look-ahead row and point the next cursor at the last row returned
+    private CursorPage<BugSummary> toCursorPage(List<BugSummary> rows, int pageSize) {
+        if (rows.size() <= pageSize) {
+            return new CursorPage<>(rows, null);
+        }
+        List<BugSummary> page = rows.subList(0, pageSize);
+        BugSummary last = page.get(pageSize - 1);
+        return new CursorPage<>(page, new BugCursor(NEWEST_FIRST_SORT,
+                List.of(last.getCreatedAt().toString(), last.getId().toString())).encode());
+    }
+
+    // Helper to clamp the requested page size to the configured bounds
+    private int resolvePageSize(Integer size) {
+        if (size == null || size < 1) {
+            return defaultPageSize;
+        }
+        return Math.min(size, maxPageSize);
+    }
+}
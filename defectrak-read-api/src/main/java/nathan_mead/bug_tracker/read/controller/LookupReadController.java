@@ -0,0 +1,71 @@
+package nathan_mead.bug_tracker.read.controller;
+
+import nathan_mead.bug_tracker.read.model.Priority;
+import nathan_mead.bug_tracker.read.model.Status;
+import nathan_mead.bug_tracker.read.repository.PriorityRepository;
+import nathan_mead.bug_tracker.read.repository.StatusRepository;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.List;
+
+// Read-only priorities and statuses. The active lists change rarely and are polled by every dashboard, so each is
+// held for a short TTL and shared by all concurrent requests; the backend's writes show up once it expires.
+@RestController
+@RequestMapping("/api/read")
+public class LookupReadController {
+
+    @Autowired
+    private PriorityRepository priorityRepository;
+
+    @Autowired
+    private StatusRepository statusRepository;
+
+    @Value("${defectrak.read.lookups.cache-ttl:PT30S}")
+    private Duration cacheTtl;
+
+    private Mono<List<Priority>> activePriorities;
+    private Mono<List<Status>> activeStatuses;
+
+    @PostConstruct
+    public void initCaches() {
+        activePriorities = priorityRepository.findAllActive().collectList().cache(cacheTtl);
+        activeStatuses = statusRepository.findAllActive().collectList().cache(cacheTtl);
+    }
+
+    // GET endpoint to list active priorities
+    @GetMapping("/priorities/active")
+    public Mono<List<Priority>> getActivePriorities() {
+        return activePriorities;
+    }
+
+    // GET endpoint to return a specific priority by ID
+    @GetMapping("/priorities/{id}")
+    public Mono<ResponseEntity<Priority>> getPriorityById(@PathVariable("id") Long id) {
+        return priorityRepository.findById(id)
+                .map(ResponseEntity::ok)
+                .defaultIfEmpty(ResponseEntity.notFound().build());
+    }
+
+    // GET endpoint to list active statuses
+    @GetMapping("/statuses/active")
+    public Mono<List<Status>> getActiveStatuses() {
+        return activeStatuses;
+    }
+
+    // GET endpoint to return a specific status by ID
+    @GetMapping("/statuses/{id}")
+    public Mono<ResponseEntity<Status>> getStatusById(@PathVariable("id") Long id) {
+        return statusRepository.findById(id)
+                .map(ResponseEntity::ok)
+                .defaultIfEmpty(ResponseEntity.notFound().build());
+    }
+}
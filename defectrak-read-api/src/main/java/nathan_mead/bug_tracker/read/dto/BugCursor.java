@@ -0,0 +1,58 @@
+package nathan_mead.bug_tracker.read.dto;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+
+// Opaque keyset position handed to clients as a URL-safe token, in the same format as the backend's cursors.
+// It records the sort it was produced under plus the sort-key values of the last row returned.
+public class BugCursor {
+    private static final String SEPARATOR = ".";
+
+    private final String sort;
+    private final List<String> values;
+
+    public BugCursor(String sort, List<String> values) {
+        this.sort = sort;
+        this.values = List.copyOf(values);
+    }
+
+    public String getSort() {
+        return sort;
+    }
+
+    public List<String> getValues() {
+        return values;
+    }
+
+    public String encode() {
+        List<String> parts = new ArrayList<>();
+        parts.add(encodePart(sort));
+        for (String value : values) {
+            parts.add(encodePart(value));
+        }
+        return String.join(SEPARATOR, parts);
+    }
+
+    // Throws IllegalArgumentException when the token was not produced by encode()
+    public static BugCursor decode(String token) {
+        String[] parts = token.split("\\" + SEPARATOR, -1);
+        if (parts.length < 2) {
+            throw new IllegalArgumentException("Malformed cursor");
+        }
+        List<String> values = new ArrayList<>();
+        for (int i = 1; i < parts.length; i++) {
+            values.add(decodePart(parts[i]));
+        }
+        return new BugCursor(decodePart(parts[0]), values);
+    }
+
+    private static String encodePart(String part) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(part.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String decodePart(String part) {
+        return new String(Base64.getUrlDecoder().decode(part), StandardCharsets.UTF_8);
+    }
+}
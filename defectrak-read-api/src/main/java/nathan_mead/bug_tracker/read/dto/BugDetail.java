@@ -0,0 +1,86 @@
+package nathan_mead.bug_tracker.read.dto;
+
+import java.time.LocalDateTime;
+
+// One bug with its full description, and references as both id and display name
+public class BugDetail {
+    private final Long id;
+    private final String title;
+    private final String description;
+    private final Long priorityId;
+    private final String priorityLevel;
+    private final Long statusId;
+    private final String statusLabel;
+    private final Long assigneeId;     // Null when the bug is unassigned
+    private final String assigneeName;
+    private final Long createdByUserId;
+    private final String createdByName;
+    private final LocalDateTime createdAt;
+
+    public BugDetail(Long id, String title, String description, Long priorityId, String priorityLevel, Long statusId,
+                     String statusLabel, Long assigneeId, String assigneeName, Long createdByUserId,
+                     String createdByName, LocalDateTime createdAt) {
+        this.id = id;
+        this.title = title;
+        this.description = description;
+        this.priorityId = priorityId;
+        this.priorityLevel = priorityLevel;
+        this.statusId = statusId;
+        this.statusLabel = statusLabel;
+        this.assigneeId = assigneeId;
+        this.assigneeName = assigneeName;
+        this.createdByUserId = createdByUserId;
+        this.createdByName = createdByName;
+        this.createdAt = createdAt;
+    }
+
+    // Getters
+
+    public Long getId() {
+        return id;
+    }
+
+    public String getTitle() {
+        return title;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+
+    public Long getPriorityId() {
+        return priorityId;
+    }
+
+    public String getPriorityLevel() {
+        return priorityLevel;
+    }
+
+    public Long getStatusId() {
+        return statusId;
+    }
+
+    public String getStatusLabel() {
+        return statusLabel;
+    }
+
+    public Long getAssigneeId() {
+        return assigneeId;
+    }
+
+    public String getAssigneeName() {
+        return assigneeName;
+    }
+
+    public Long getCreatedByUserId() {
+        return createdByUserId;
+    }
+
+    public String getCreatedByName() {
+        return createdByName;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+}
@@ -0,0 +1,57 @@
+package nathan_mead.bug_tracker.read.dto;
+
+import java.time.LocalDateTime;
+
+// Flat bug row for dashboards; the same JSON as the backend's /api/bugs/summary rows
+public class BugSummary {
+    public static final int DESCRIPTION_PREVIEW_LENGTH = 200;
+
+    private final Long id;
+    private final String title;
+    private final String description; // Truncated to DESCRIPTION_PREVIEW_LENGTH characters
+    private final String priorityLevel;
+    private final String statusLabel;
+    private final String assigneeName; // Null when the bug is unassigned
+    private final LocalDateTime createdAt;
+
+    public BugSummary(Long id, String title, String description, String priorityLevel, String statusLabel,
+                      String assigneeName, LocalDateTime createdAt) {
+        this.id = id;
+        this.title = title;
+        this.description = description;
+        this.priorityLevel = priorityLevel;
+        this.statusLabel = statusLabel;
+        this.assigneeName = assigneeName;
+        this.createdAt = createdAt;
+    }
+
+    // Getters
+
+    public Long getId() {
+        return id;
+    }
+
+    public String getTitle() {
+        return title;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+
+    public String getPriorityLevel() {
+        return priorityLevel;
+    }
+
+    public String getStatusLabel() {
+        return statusLabel;
+    }
+
+    public String getAssigneeName() {
+        return assigneeName;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+}
@@ -0,0 +1,31 @@
+package nathan_mead.bug_tracker.read.model;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.relational.core.mapping.Table;
+
+@Table("priorities")
+public class Priority {
+
+    @Id
+    private Long id;
+
+    private String level;
+
+    private String status;
+
+    public Priority() {}
+
+    // Getters
+
+    public Long getId() {
+        return id;
+    }
+
+    public String getLevel() {
+        return level;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+}
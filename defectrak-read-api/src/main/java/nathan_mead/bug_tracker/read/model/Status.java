@@ -0,0 +1,31 @@
+package nathan_mead.bug_tracker.read.model;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.relational.core.mapping.Table;
+
+@Table("statuses")
+public class Status {
+
+    @Id
+    private Long id;
+
+    private String statusLabel;
+
+    private String status;
+
+    public Status() {}
+
+    // Getters
+
+    public Long getId() {
+        return id;
+    }
+
+    public String getStatusLabel() {
+        return statusLabel;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+}
@@ -0,0 +1,128 @@
+package nathan_mead.bug_tracker.read.repository;
+
+import nathan_mead.bug_tracker.read.dto.BugDetail;
+import nathan_mead.bug_tracker.read.dto.BugSummary;
+import io.r2dbc.spi.Readable;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDateTime;
+
+// Bug reads as plain SQL joins, mapped straight into DTOs; the schema is owned by the backend.
+@Repository
+public class BugReadRepository {
+
+    private static final String SUMMARY_SELECT = "select b.id, b.title, "
+            + "substring(b.description, 1, " + BugSummary.DESCRIPTION_PREVIEW_LENGTH + ") as description, "
+            + "p.level as priority_level, s.status_label, "
+            + "case when a.id is null then null else a.first_name || ' ' || a.last_name end as assignee_name, "
+            + "b.created_at "
+            + "from bugs b "
+            + "join priorities p on p.id = b.priority_id "
+            + "join statuses s on s.id = b.status_id "
+            + "left join users a on a.id = b.assignee_user_id ";
+
+    // Same order as the backend's board view, so idx_bugs_created_at_id serves pages and streams alike
+    private static final String NEWEST_FIRST = "order by b.created_at desc, b.id desc";
+
+    private static final String DETAIL_SQL = "select b.id, b.title, b.description, "
+            + "b.priority_id, p.level as priority_level, b.status_id, s.status_label, "
+            + "b.assignee_user_id, "
+            + "case when a.id is null then null else a.first_name || ' ' || a.last_name end as assignee_name, "
+            + "b.created_by_user_id, c.first_name || ' ' || c.last_name as created_by_name, b.created_at "
+            + "from bugs b "
+            + "join priorities p on p.id = b.priority_id "
+            + "join statuses s on s.id = b.status_id "
+            + "join users c on c.id = b.created_by_user_id "
+            + "left join users a on a.id = b.assignee_user_id "
+            + "where b.id = :id";
+
+    @Autowired
+    private DatabaseClient databaseClient;
+
+    // Rows the driver pulls per round trip while streaming; demand beyond that waits for the subscriber
+    @Value("${defectrak.read.bugs.stream.fetch-size:500}")
+    private int streamFetchSize;
+
+    // First keyset page, newest first
+    public Flux<BugSummary> findFirstSummaryPage(int limit) {
+        return databaseClient.sql(SUMMARY_SELECT + NEWEST_FIRST + " limit :limit")
+                .bind("limit", limit)
+                .map(BugReadRepository::toSummary)
+                .all();
+    }
+
+    // Keyset page after (createdAt, id), entering the index at the cursor instead of using OFFSET
+    public Flux<BugSummary> findSummaryPageAfter(LocalDateTime createdAt, Long id, int limit) {
+        return databaseClient.sql(SUMMARY_SELECT + "where (b.created_at, b.id) < (:createdAt, :id) "
+                        + NEWEST_FIRST + " limit :limit")
+                .bind("createdAt", createdAt)
+                .bind("id", id)
+                .bind("limit", limit)
+                .map(BugReadRepository::toSummary)
+                .all();
+    }
+
+    // Every matching bug, newest first, as one cursor-backed result. Rows are fetched in batches of the fetch size
+    // as the subscriber requests them, so a slow consumer holds the query open instead of buffering the table.
+    public Flux<BugSummary> streamSummaries(Long statusId, Long priorityId) {
+        StringBuilder sql = new StringBuilder(SUMMARY_SELECT).append("where 1 = 1 ");
+        if (statusId != null) {
+            sql.append("and b.status_id = :statusId ");
+        }
+        if (priorityId != null) {
+            sql.append("and b.priority_id = :priorityId ");
+        }
+        sql.append(NEWEST_FIRST);
+
+        DatabaseClient.GenericExecuteSpec spec = databaseClient.sql(sql.toString())
+                .filter(statement -> statement.fetchSize(streamFetchSize));
+        if (statusId != null) {
+            spec = spec.bind("statusId", statusId);
+        }
+        if (priorityId != null) {
+            spec = spec.bind("priorityId", priorityId);
+        }
+        return spec.map(BugReadRepository::toSummary).all();
+    }
+
+    public Mono<BugDetail> findDetailById(Long id) {
+        return databaseClient.sql(DETAIL_SQL)
+                .bind("id", id)
+                .map(row -> new BugDetail(
+                        toLong(row, "id"),
+                        row.get("title", String.class),
+                        row.get("description", String.class),
+                        toLong(row, "priority_id"),
+                        row.get("priority_level", String.class),
+                        toLong(row, "status_id"),
+                        row.get("status_label", String.class),
+                        toLong(row, "assignee_user_id"),
+                        row.get("assignee_name", String.class),
+                        toLong(row, "created_by_user_id"),
+                        row.get("created_by_name", String.class),
+                        row.get("created_at", LocalDateTime.class)))
+                .one();
+    }
+
+    private static BugSummary toSummary(Readable row) {
+        return new BugSummary(
+                toLong(row, "id"),
+                row.get("title", String.class),
+                row.get("description", String.class),
+                row.get("priority_level", String.class),
+                row.get("status_label", String.class),
+                row.get("assignee_name", String.class),
+                row.get("created_at", LocalDateTime.class));
+    }
+
+    // Id columns are INTEGER in the schema; widen whatever integral type the driver decodes them as
+    private static Long toLong(Readable row, String name) {
+        Number value = row.get(name, Number.class);
+        return value == null ? null : value.longValue();
+    }
+}
@@ -0,0 +1,16 @@
+package nathan_mead.bug_tracker.read.repository;
+
+import nathan_mead.bug_tracker.read.model.Priority;
+
+import org.springframework.data.repository.reactive.ReactiveCrudRepository;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+
+@Repository
+public interface PriorityRepository extends ReactiveCrudRepository<Priority, Long> {
+    Flux<Priority> findAllByStatus(String status);
+
+    default Flux<Priority> findAllActive() {
+        return findAllByStatus("active");
+    }
+}
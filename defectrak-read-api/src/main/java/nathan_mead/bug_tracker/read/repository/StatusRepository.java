@@ -0,0 +1,16 @@
+package nathan_mead.bug_tracker.read.repository;
+
+import nathan_mead.bug_tracker.read.model.Status;
+
+import org.springframework.data.repository.reactive.ReactiveCrudRepository;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+
+@Repository
+public interface StatusRepository extends ReactiveCrudRepository<Status, Long> {
+    Flux<Status> findAllByStatus(String status);
+
+    default Flux<Status> findAllActive() {
+        return findAllByStatus("active");
+    }
+}
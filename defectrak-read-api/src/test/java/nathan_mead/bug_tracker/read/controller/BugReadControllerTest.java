@@ -0,0 +1,135 @@
+package nathan_mead.bug_tracker.read.controller;
+
+import nathan_mead.bug_tracker.read.dto.BugCursor;
+import nathan_mead.bug_tracker.read.dto.BugSummary;
+import nathan_mead.bug_tracker.read.repository.BugReadRepository;
+import com.fasterxml.jackson.databind.JsonNode;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.reactive.AutoConfigureWebTestClient;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import reactor.core.publisher.Flux;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+// Runs against the in-memory database seeded by schema.sql and data.sql: five bugs, the two newest sharing a timestamp
+@SpringBootTest
+@AutoConfigureWebTestClient
+public class BugReadControllerTest {
+
+    @Autowired
+    private WebTestClient webTestClient;
+
+    @Autowired
+    private BugReadRepository bugReadRepository;
+
+    @Test
+    public void testPagesWalkAllBugsNewestFirst() {
+        JsonNode first = getPage("/api/read/bugs?size=2");
+        assertEquals(List.of("Bug 5", "Bug 4"), titles(first));
+        assertEquals("Assignee User", first.get("items").get(0).get("assigneeName").asText());
+        assertEquals("high", first.get("items").get(0).get("priorityLevel").asText());
+        assertEquals("open", first.get("items").get(0).get("statusLabel").asText());
+        assertEquals(true, first.get("items").get(1).get("assigneeName").isNull());
+
+        JsonNode second = getPage("/api/read/bugs?size=2&cursor=" + first.get("nextCursor").asText());
+        assertEquals(List.of("Bug 3", "Bug 2"), titles(second));
+
+        JsonNode third = getPage("/api/read/bugs?size=2&cursor=" + second.get("nextCursor").asText());
+        assertEquals(List.of("Bug 1"), titles(third));
+        assertEquals(true, third.get("nextCursor").isNull());
+    }
+
+    @Test
+    public void testCursorIsInterchangeableWithBackend() {
+        // Position after "Bug 4", written the way the backend's /api/bugs/summary writes it
+        String cursor = new BugCursor("-createdAt,-id", List.of("2025-01-01T10:03", "4")).encode();
+
+        JsonNode page = getPage("/api/read/bugs?size=10&cursor=" + cursor);
+        assertEquals(List.of("Bug 3", "Bug 2", "Bug 1"), titles(page));
+    }
+
+    @Test
+    public void testCursorForAnotherSortIsRejected() {
+        String cursor = new BugCursor("title,id", List.of("Bug 3", "3")).encode();
+
+        webTestClient.get().uri("/api/read/bugs?cursor=" + cursor)
+                .exchange()
+                .expectStatus().isBadRequest()
+                .expectBody(String.class).isEqualTo("Invalid cursor.");
+
+        webTestClient.get().uri("/api/read/bugs?cursor=not-a-cursor")
+                .exchange()
+                .expectStatus().isBadRequest();
+    }
+
+    @Test
+    public void testStreamAsNdjson() {
+        List<BugSummary> rows = webTestClient.get().uri("/api/read/bugs/stream?priorityId=2")
+                .accept(MediaType.APPLICATION_NDJSON)
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON)
+                .returnResult(BugSummary.class)
+                .getResponseBody()
+                .collectList()
+                .block();
+
+        assertEquals(List.of("Bug 5", "Bug 3", "Bug 2"), rows.stream().map(BugSummary::getTitle).toList());
+    }
+
+    @Test
+    public void testStreamDeliversOnlyRequestedRows() {
+        Flux<BugSummary> stream = bugReadRepository.streamSummaries(null, null);
+
+        StepVerifier.create(stream, 2)
+                .expectNextMatches(bug -> bug.getTitle().equals("Bug 5"))
+                .expectNextMatches(bug -> bug.getTitle().equals("Bug 4"))
+                .expectNoEvent(Duration.ofMillis(100))
+                .thenRequest(1)
+                .expectNextMatches(bug -> bug.getTitle().equals("Bug 3"))
+                .thenCancel()
+                .verify();
+    }
+
+    @Test
+    public void testGetBugById() {
+        webTestClient.get().uri("/api/read/bugs/3")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.title").isEqualTo("Bug 3")
+                .jsonPath("$.description").isEqualTo("Third")
+                .jsonPath("$.statusId").isEqualTo(2)
+                .jsonPath("$.statusLabel").isEqualTo("closed")
+                .jsonPath("$.assigneeName").isEqualTo("Assignee User")
+                .jsonPath("$.createdByName").isEqualTo("Creator User");
+    }
+
+    @Test
+    public void testGetBugByIdNotFound() {
+        webTestClient.get().uri("/api/read/bugs/999")
+                .exchange()
+                .expectStatus().isNotFound();
+    }
+
+    private JsonNode getPage(String uri) {
+        JsonNode page = webTestClient.get().uri(uri)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(JsonNode.class)
+                .returnResult()
+                .getResponseBody();
+        return page;
+    }
+
+    private List<String> titles(JsonNode page) {
+        return page.get("items").findValuesAsText("title");
+    }
+}
@@ -0,0 +1,54 @@
+package nathan_mead.bug_tracker.read.controller;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.reactive.AutoConfigureWebTestClient;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+@SpringBootTest
+@AutoConfigureWebTestClient
+public class LookupReadControllerTest {
+
+    @Autowired
+    private WebTestClient webTestClient;
+
+    @Test
+    public void testGetActivePriorities() {
+        webTestClient.get().uri("/api/read/priorities/active")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.length()").isEqualTo(2)
+                .jsonPath("$[0].level").isEqualTo("low")
+                .jsonPath("$[1].level").isEqualTo("high");
+    }
+
+    @Test
+    public void testGetActiveStatuses() {
+        webTestClient.get().uri("/api/read/statuses/active")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.length()").isEqualTo(2)
+                .jsonPath("$[0].statusLabel").isEqualTo("open")
+                .jsonPath("$[1].statusLabel").isEqualTo("closed");
+    }
+
+    @Test
+    public void testGetPriorityById() {
+        webTestClient.get().uri("/api/read/priorities/3")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.level").isEqualTo("legacy")
+                .jsonPath("$.status").isEqualTo("inactive");
+    }
+
+    @Test
+    public void testGetStatusByIdNotFound() {
+        webTestClient.get().uri("/api/read/statuses/99")
+                .exchange()
+                .expectStatus().isNotFound();
+    }
+}
@@ -0,0 +1,13 @@
+INSERT INTO priorities (level, status) VALUES ('low', 'active'), ('high', 'active'), ('legacy', 'inactive');
+INSERT INTO statuses (status_label, status) VALUES ('open', 'active'), ('closed', 'active'), ('wontfix', 'inactive');
+INSERT INTO users (email, first_name, last_name) VALUES
+    ('creator@example.com', 'Creator', 'User'),
+    ('assignee@example.com', 'Assignee', 'User');
+
+-- Five bugs, one minute apart; the two newest share a timestamp so id breaks the tie
+INSERT INTO bugs (title, description, priority_id, status_id, assignee_user_id, created_at, created_by_user_id) VALUES
+    ('Bug 1', 'First', 1, 1, 2, TIMESTAMP '2025-01-01 10:00:00', 1),
+    ('Bug 2', 'Second', 2, 1, NULL, TIMESTAMP '2025-01-01 10:01:00', 1),
+    ('Bug 3', 'Third', 2, 2, 2, TIMESTAMP '2025-01-01 10:02:00', 1),
+    ('Bug 4', 'Fourth', 1, 1, NULL, TIMESTAMP '2025-01-01 10:03:00', 1),
+    ('Bug 5', 'Fifth', 2, 1, 2, TIMESTAMP '2025-01-01 10:03:00', 1);
@@ -0,0 +1,35 @@
+-- Subset of scripts/db/init.sql in the backend that the read API queries
+DROP TABLE IF EXISTS bugs;
+DROP TABLE IF EXISTS statuses;
+DROP TABLE IF EXISTS users;
+DROP TABLE IF EXISTS priorities;
+
+CREATE TABLE priorities (
+    id SERIAL PRIMARY KEY,
+    level VARCHAR(25) NOT NULL UNIQUE,
+    status VARCHAR(25) NOT NULL DEFAULT 'active'
+);
+
+CREATE TABLE users (
+    id SERIAL PRIMARY KEY,
+    email VARCHAR(255) UNIQUE NOT NULL,
+    first_name VARCHAR(255) NOT NULL,
+    last_name VARCHAR(255) NOT NULL
+);
+
+CREATE TABLE statuses (
+    id SERIAL PRIMARY KEY,
+    status_label VARCHAR(25) NOT NULL UNIQUE,
+    status VARCHAR(25) NOT NULL DEFAULT 'active'
+);
+
+CREATE TABLE bugs (
+    id SERIAL PRIMARY KEY,
+    title VARCHAR(255) NOT NULL,
+    description VARCHAR(4000) NOT NULL,
+    priority_id INTEGER NOT NULL REFERENCES priorities(id),
+    status_id INTEGER NOT NULL REFERENCES statuses(id),
+    assignee_user_id INTEGER REFERENCES users(id),
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    created_by_user_id INTEGER NOT NULL REFERENCES users(id)
+);